@@ -0,0 +1,46 @@
+package io.opentelemetry.auto.bootstrap;
+
+/**
+ * Utility to track nested instrumentation using fixed per-thread slots.
+ *
+ * <p>Each instrumentation that needs call depth tracking gets a slot constant below. Entering and
+ * exiting advice is a thread local lookup followed by an array access, with no hashing or boxing.
+ * Use {@link CallDepthThreadLocalMap} when keys are only known at runtime.
+ */
+public final class CallDepth {
+  public static final int AKKA_HTTP_CLIENT = 0;
+  public static final int APACHE_HTTP_CLIENT = 1;
+  public static final int COUCHBASE_CLUSTER = 2;
+  public static final int HIBERNATE_SESSION = 3;
+  public static final int HTTP_URL_CONNECTION = 4;
+  public static final int JDBC_PREPARED_STATEMENT = 5;
+  public static final int JDBC_STATEMENT = 6;
+  public static final int JMS_MESSAGE_PRODUCER = 7;
+  public static final int MEMCACHED_CLIENT = 8;
+  public static final int NETTY_CHANNEL_PIPELINE = 9;
+  public static final int RABBITMQ_CHANNEL = 10;
+  public static final int SERVLET_ASYNC_CONTEXT = 11;
+  public static final int TWILIO = 12;
+
+  static final int SLOT_COUNT = 13;
+
+  private static final ThreadLocal<int[]> TLS =
+      new ThreadLocal<int[]>() {
+        @Override
+        public int[] initialValue() {
+          return new int[SLOT_COUNT];
+        }
+      };
+
+  /** @return the call depth before incrementing, i.e. 0 for the outermost call */
+  public static int increment(final int slot) {
+    return TLS.get()[slot]++;
+  }
+
+  public static void reset(final int slot) {
+    TLS.get()[slot] = 0;
+  }
+
+  // Not intended to be constructed.
+  private CallDepth() {}
+}
@@ -8,6 +8,8 @@ import java.util.Map;
  *
  * <p>For example, this can be used to track nested calls to super() in constructors by calling
  * #incrementCallDepth at the beginning of each constructor.
+ *
+ * <p>Prefer {@link CallDepth} when the key is known at build time.
  */
 public class CallDepthThreadLocalMap {
   private static final ThreadLocal<Map<Object, Integer>> TLS =
@@ -0,0 +1,157 @@
+package io.opentelemetry.auto.bootstrap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runtime switch for all instrumentation advice.
+ *
+ * <p>While dormant, advice stays woven into application classes but returns right away, skipping
+ * span creation, context extraction and decoration. The agent prepends the check to advice classes
+ * when installing them. Checking a switch is a single volatile read; skipped enter advice and its
+ * exit advice additionally look up a thread local, see below. Spans started outside advice, e.g. by
+ * wrappers and handlers the advice installs, check the switches where they start the span.
+ *
+ * <p>Besides the global switch, each installed integration has its own switch, so that
+ * integrations can be turned off and on again at runtime. Helpers look up the switch of their
+ * integration by name with {@link #integration(String)}.
+ *
+ * <p>Enter advice skipped while dormant is recorded per thread with {@link #skipEnter(int)}, and
+ * its exit advice consumes the record with {@link #skipExit(int)}. Exit advice of enter advice that
+ * ran before a switch therefore still runs, whatever the enter advice returned. Switching anything
+ * back on forgets the records, so exit advice that was not called because the instrumented method
+ * threw cannot cause later exit advice to be skipped after resuming.
+ */
+public final class DormantMode {
+  /** The global switch. */
+  public static final int ALL = 0;
+
+  // Index 0 is the global switch, the others are integrations. The array is replaced on every
+  // change, so a check is a single volatile read.
+  private static volatile boolean[] dormant = new boolean[1];
+
+  // Incremented whenever a switch is turned back on, which invalidates the skipped enter advice
+  // recorded before.
+  private static volatile int epoch;
+
+  // Saves the thread local lookup in exit advice until enter advice was skipped for the first time.
+  private static volatile boolean skipping;
+
+  // Guarded by the class lock.
+  private static final Map<String, Integer> INTEGRATIONS = new HashMap<>();
+
+  private static final ThreadLocal<SkippedEnters> SKIPPED_ENTERS =
+      new ThreadLocal<SkippedEnters>() {
+        @Override
+        protected SkippedEnters initialValue() {
+          return new SkippedEnters();
+        }
+      };
+
+  public static boolean isDormant() {
+    return dormant[ALL];
+  }
+
+  /** @return whether advice of the integration registered under {@code integration} is skipped */
+  public static boolean isDormant(final int integration) {
+    final boolean[] dormant = DormantMode.dormant;
+    return dormant[ALL] || dormant[integration];
+  }
+
+  /** Switch tracing off ({@code true}) or back on ({@code false}) without restarting. */
+  public static void setDormant(final boolean dormant) {
+    setDormant(ALL, dormant);
+  }
+
+  /** Switch a single integration off ({@code true}) or back on ({@code false}). */
+  public static synchronized void setDormant(final int integration, final boolean dormant) {
+    if (DormantMode.dormant[integration] != dormant) {
+      final boolean[] updated = DormantMode.dormant.clone();
+      updated[integration] = dormant;
+      DormantMode.dormant = updated;
+      if (!dormant) {
+        epoch++;
+      }
+    }
+  }
+
+  /** Records that enter advice of {@code integration} was skipped on the current thread. */
+  public static void skipEnter(final int integration) {
+    if (!skipping) {
+      // Written once, since every write invalidates the field in the caches of all cores.
+      skipping = true;
+    }
+    final SkippedEnters skipped = SKIPPED_ENTERS.get();
+    skipped.reset(epoch);
+    if (skipped.counts.length <= integration) {
+      final int[] counts = new int[Math.max(integration + 1, skipped.counts.length * 2)];
+      System.arraycopy(skipped.counts, 0, counts, 0, skipped.counts.length);
+      skipped.counts = counts;
+    }
+    skipped.counts[integration]++;
+  }
+
+  /**
+   * @return whether exit advice of {@code integration} belongs to skipped enter advice, in which
+   *     case the record of that enter advice is consumed
+   */
+  public static boolean skipExit(final int integration) {
+    if (!skipping) {
+      return false;
+    }
+    final SkippedEnters skipped = SKIPPED_ENTERS.get();
+    skipped.reset(epoch);
+    if (skipped.counts.length <= integration || skipped.counts[integration] == 0) {
+      return false;
+    }
+    skipped.counts[integration]--;
+    return true;
+  }
+
+  /**
+   * @param names the names under which helpers can look up the switch, a name registered before
+   *     keeps its switch
+   * @return the id of a new integration switch, which is initially on
+   */
+  public static synchronized int registerIntegration(final String... names) {
+    final boolean[] current = dormant;
+    final boolean[] updated = new boolean[current.length + 1];
+    System.arraycopy(current, 0, updated, 0, current.length);
+    dormant = updated;
+    final int id = current.length;
+    for (final String name : names) {
+      if (!INTEGRATIONS.containsKey(name)) {
+        INTEGRATIONS.put(name, id);
+      }
+    }
+    return id;
+  }
+
+  /**
+   * @return the switch of the integration first registered under {@code name}, or {@link #ALL} if
+   *     there is none
+   */
+  public static synchronized int integration(final String name) {
+    final Integer id = INTEGRATIONS.get(name);
+    return id == null ? ALL : id;
+  }
+
+  private DormantMode() {}
+
+  /**
+   * Enter advice skipped on a thread, by integration. Advice calls on a thread are nested, so the
+   * innermost exit advice always belongs to the innermost enter advice.
+   */
+  private static final class SkippedEnters {
+    private int epoch;
+    private int[] counts = new int[1];
+
+    void reset(final int epoch) {
+      if (this.epoch != epoch) {
+        this.epoch = epoch;
+        Arrays.fill(counts, 0);
+      }
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package io.opentelemetry.auto.bootstrap;
+
+/**
+ * Fixed set of monitors selected by the identity hash code of a key.
+ *
+ * <p>Used where a single global monitor would serialize unrelated keys, e.g. the map fallback of
+ * field backed context stores. Keys are compared by identity, so the same key always maps to the
+ * same monitor.
+ */
+public final class StripedLocks {
+  private final Object[] locks;
+  private final int mask;
+
+  /** @param stripes number of monitors, rounded up to a power of two */
+  public StripedLocks(final int stripes) {
+    int size = 1;
+    while (size < stripes) {
+      size <<= 1;
+    }
+    locks = new Object[size];
+    for (int i = 0; i < size; i++) {
+      locks[i] = new Object();
+    }
+    mask = size - 1;
+  }
+
+  public Object lockFor(final Object key) {
+    final int hash = System.identityHashCode(key);
+    return locks[(hash ^ (hash >>> 16)) & mask];
+  }
+}
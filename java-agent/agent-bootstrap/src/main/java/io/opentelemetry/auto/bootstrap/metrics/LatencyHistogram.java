@@ -0,0 +1,140 @@
+package io.opentelemetry.auto.bootstrap.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in buckets of logarithmically growing width, in the manner of an HDR histogram
+ * with one significant digit: every power of two of microseconds is split into {@value
+ * #SUB_BUCKETS} buckets, which bounds the error of a percentile to 12.5%.
+ *
+ * <p>Recording only increments two counters and never allocates. Threads are spread over a few
+ * stripes by their id, so that threads recording into the same histogram rarely contend.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // 2^36 microseconds are about 19 hours, longer latencies are counted in the last bucket.
+  private static final int MAX_EXPONENT = 35;
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+  private static final int MAX_STRIPES = 4;
+
+  // The sum of the latencies follows the buckets of each stripe.
+  private static final int SUM = BUCKETS;
+  private static final int STRIDE = BUCKETS + 1;
+  private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+  private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIDE);
+
+  public void record(final long micros) {
+    final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+    final int offset = stripe * STRIDE;
+    counts.incrementAndGet(offset + bucket(micros));
+    counts.addAndGet(offset + SUM, Math.max(0, micros));
+  }
+
+  /**
+   * Takes the latencies recorded since the last call. Latencies recorded meanwhile may be split
+   * between this and the next snapshot.
+   */
+  public Snapshot drain() {
+    final long[] buckets = new long[BUCKETS];
+    long count = 0;
+    long sum = 0;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      final int offset = stripe * STRIDE;
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        if (counts.get(offset + bucket) != 0) {
+          final long drained = counts.getAndSet(offset + bucket, 0);
+          buckets[bucket] += drained;
+          count += drained;
+        }
+      }
+      sum += counts.getAndSet(offset + SUM, 0);
+    }
+    return new Snapshot(buckets, count, sum);
+  }
+
+  static int bucket(final long micros) {
+    if (micros < SUB_BUCKETS) {
+      return micros <= 0 ? 0 : (int) micros;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    final int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /** @return the smallest latency counted in {@code bucket} */
+  static long lowerBound(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+  }
+
+  static int stripes(final int processors) {
+    int stripes = 1;
+    while (stripes < processors && stripes < MAX_STRIPES) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+
+  /** The latencies recorded in one interval. */
+  public static final class Snapshot {
+    private final long[] buckets;
+    private final long count;
+    private final long sumMicros;
+
+    Snapshot(final long[] buckets, final long count, final long sumMicros) {
+      this.buckets = buckets;
+      this.count = count;
+      this.sumMicros = sumMicros;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getSumMicros() {
+      return sumMicros;
+    }
+
+    /**
+     * @param quantile between {@code 0} and {@code 1}
+     * @return the upper bound of the bucket holding the latency at {@code quantile}, or {@code 0}
+     *     if nothing was recorded
+     */
+    public long getPercentileMicros(final double quantile) {
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long seen = 0;
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+        seen += buckets[bucket];
+        if (seen >= rank) {
+          return upperBound(bucket);
+        }
+      }
+      return upperBound(BUCKETS - 1);
+    }
+
+    /** @return the upper bound of the bucket holding the longest latency */
+    public long getMaxMicros() {
+      for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+        if (buckets[bucket] != 0) {
+          return upperBound(bucket);
+        }
+      }
+      return 0;
+    }
+
+    private static long upperBound(final int bucket) {
+      return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+    }
+  }
+}
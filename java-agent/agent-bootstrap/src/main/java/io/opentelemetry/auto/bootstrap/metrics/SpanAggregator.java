@@ -0,0 +1,278 @@
+package io.opentelemetry.auto.bootstrap.metrics;
+
+import io.opentelemetry.trace.Span;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counts the spans and their latencies per span name, component and status.
+ *
+ * <p>The tracer reports the name of each span it starts on the starting thread. When a decorator
+ * then starts timing the span, the span takes a slot of a fixed table of spans in flight, which it
+ * gives back when it ends, however the instrumentation ends it. A span that finds no free slot, or
+ * that did not end within an hour and lost its slot, is not counted.
+ *
+ * <p>There is a {@link LatencyHistogram} for each name, component and status, created when first
+ * needed. Beyond {@link #MAX_SERIES} of them, spans are counted under the name {@link #OTHER}.
+ */
+public final class SpanAggregator {
+  static final int MAX_SERIES = 1024;
+  static final String OTHER = "other";
+
+  private static final long MAX_SPAN_AGE_NANOS = TimeUnit.HOURS.toNanos(1);
+  private static final int MAX_PROBES = 8;
+
+  private final ThreadLocal<Started> started =
+      new ThreadLocal<Started>() {
+        @Override
+        protected Started initialValue() {
+          return new Started();
+        }
+      };
+
+  // The spans in flight, with their name, component, start and whether they failed in the same
+  // slot.
+  private final AtomicReferenceArray<Span> spans;
+  private final AtomicReferenceArray<String> names;
+  private final AtomicReferenceArray<String> components;
+  private final AtomicLongArray starts;
+  private final AtomicIntegerArray failed;
+  private final int mask;
+
+  private final ConcurrentMap<String, Series[]> series = new ConcurrentHashMap<>();
+  private int seriesCount;
+
+  private final AtomicLong untimedSpans = new AtomicLong();
+
+  /** @param maxSpansInFlight the number of spans timed at once, rounded up to a power of two */
+  public SpanAggregator(final int maxSpansInFlight) {
+    int size = 1;
+    while (size < maxSpansInFlight) {
+      size <<= 1;
+    }
+    spans = new AtomicReferenceArray<>(size);
+    names = new AtomicReferenceArray<>(size);
+    components = new AtomicReferenceArray<>(size);
+    starts = new AtomicLongArray(size);
+    failed = new AtomicIntegerArray(size);
+    mask = size - 1;
+  }
+
+  /** Remembers the name of a span just started on this thread. */
+  public void started(final Span span, final String name) {
+    final Started started = this.started.get();
+    started.span = span;
+    started.name = name;
+    started.nanoTime = System.nanoTime();
+  }
+
+  /** Starts timing a span started on this thread, counting it under {@code component}. */
+  public void time(final Span span, final String component) {
+    final Started started = this.started.get();
+    if (started.span != span) {
+      return;
+    }
+    final String name = started.name;
+    final long nanoTime = started.nanoTime;
+    started.span = null;
+    started.name = null;
+
+    final int first = hash(span);
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      final int slot = (first + probe) & mask;
+      final Span occupant = spans.get(slot);
+      if (occupant == null
+          ? spans.compareAndSet(slot, null, span)
+          : takeOver(slot, occupant, span)) {
+        names.set(slot, name);
+        components.set(slot, component);
+        failed.set(slot, 0);
+        starts.set(slot, nanoTime);
+        return;
+      }
+    }
+    untimedSpans.incrementAndGet();
+  }
+
+  // Takes the slot of a span that was never finished.
+  private boolean takeOver(final int slot, final Span occupant, final Span span) {
+    final long start = starts.get(slot);
+    return start != 0
+        && System.nanoTime() - start > MAX_SPAN_AGE_NANOS
+        && starts.compareAndSet(slot, start, 0)
+        && spans.compareAndSet(slot, occupant, span);
+  }
+
+  /** Marks a span being timed as failed. */
+  public void failed(final Span span) {
+    final int slot = find(span);
+    if (slot >= 0) {
+      failed.set(slot, 1);
+    }
+  }
+
+  /** Stops timing a span that ended and counts it. Does nothing for spans not being timed. */
+  public void finished(final Span span) {
+    final Started started = this.started.get();
+    if (started.span == span) {
+      // Not timed, e.g. an internal span. Spans ending on other threads are only released by the
+      // next span started on this one.
+      started.span = null;
+      started.name = null;
+    }
+    final int slot = find(span);
+    if (slot < 0) {
+      return;
+    }
+    final long start = starts.get(slot);
+    final String name = names.get(slot);
+    final String component = components.get(slot);
+    final boolean error = failed.get(slot) != 0;
+    starts.set(slot, 0);
+    names.set(slot, null);
+    components.set(slot, null);
+    spans.set(slot, null);
+    if (start != 0) {
+      series(name, component, error)
+          .histogram
+          .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+  }
+
+  private int find(final Span span) {
+    final int first = hash(span);
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      final int slot = (first + probe) & mask;
+      if (spans.get(slot) == span) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private int hash(final Span span) {
+    final int hash = System.identityHashCode(span);
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private Series series(final String name, final String component, final boolean error) {
+    final String key = name == null ? OTHER : name;
+    final Series[] named = series.get(key);
+    if (named != null) {
+      for (final Series candidate : named) {
+        if (candidate.error == error && equal(candidate.component, component)) {
+          return candidate;
+        }
+      }
+    }
+    return addSeries(key, component, error);
+  }
+
+  private synchronized Series addSeries(
+      final String name, final String component, final boolean error) {
+    if (seriesCount >= MAX_SERIES && !OTHER.equals(name) && !series.containsKey(name)) {
+      return addSeries(OTHER, component, error);
+    }
+    final Series[] named = series.get(name);
+    final int length = named == null ? 0 : named.length;
+    for (int i = 0; i < length; i++) {
+      if (named[i].error == error && equal(named[i].component, component)) {
+        return named[i];
+      }
+    }
+    final Series[] updated = new Series[length + 1];
+    if (named != null) {
+      System.arraycopy(named, 0, updated, 0, length);
+    }
+    final Series created = new Series(name, component, error);
+    updated[length] = created;
+    series.put(name, updated);
+    seriesCount++;
+    return created;
+  }
+
+  private static boolean equal(final String a, final String b) {
+    return a == null ? b == null : a.equals(b);
+  }
+
+  /** @return the spans counted since the last call, for each name, component and status */
+  public List<Aggregate> drain() {
+    final List<Aggregate> aggregates = new ArrayList<>();
+    for (final Series[] named : series.values()) {
+      for (final Series series : named) {
+        final LatencyHistogram.Snapshot latencies = series.histogram.drain();
+        if (latencies.getCount() > 0) {
+          aggregates.add(
+              new Aggregate(series.name, series.component, series.error, latencies));
+        }
+      }
+    }
+    return aggregates;
+  }
+
+  /** @return the number of spans not counted because there were too many in flight */
+  public long getUntimedSpans() {
+    return untimedSpans.get();
+  }
+
+  /** The spans of one name, component and status counted in one interval. */
+  public static final class Aggregate {
+    private final String name;
+    private final String component;
+    private final boolean error;
+    private final LatencyHistogram.Snapshot latencies;
+
+    Aggregate(
+        final String name,
+        final String component,
+        final boolean error,
+        final LatencyHistogram.Snapshot latencies) {
+      this.name = name;
+      this.component = component;
+      this.error = error;
+      this.latencies = latencies;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getComponent() {
+      return component;
+    }
+
+    public boolean isError() {
+      return error;
+    }
+
+    public LatencyHistogram.Snapshot getLatencies() {
+      return latencies;
+    }
+  }
+
+  private static final class Series {
+    private final String name;
+    private final String component;
+    private final boolean error;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private Series(final String name, final String component, final boolean error) {
+      this.name = name;
+      this.component = component;
+      this.error = error;
+    }
+  }
+
+  private static final class Started {
+    private Span span;
+    private String name;
+    private long nanoTime;
+  }
+}
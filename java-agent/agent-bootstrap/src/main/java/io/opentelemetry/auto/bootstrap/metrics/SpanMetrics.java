@@ -0,0 +1,67 @@
+package io.opentelemetry.auto.bootstrap.metrics;
+
+import io.opentelemetry.trace.Span;
+
+/**
+ * Request rate, error rate and latency of the client and server spans, counted in the agent for
+ * every span whether or not its trace is sampled.
+ *
+ * <p>The tracer calls {@link #started(Span, String)} and {@link #finished(Span)}, and the client
+ * and server decorators call the other methods. Decorators are injected into the application's
+ * class loaders, so they reach the single {@link SpanAggregator} through this class. Until the
+ * agent installs one, each call is a single volatile read.
+ */
+public final class SpanMetrics {
+  private static volatile SpanAggregator aggregator;
+
+  /**
+   * Starts counting spans with {@code aggregator}.
+   *
+   * @return whether it was installed, i.e. spans were not counted already
+   */
+  public static synchronized boolean install(final SpanAggregator aggregator) {
+    if (SpanMetrics.aggregator != null) {
+      return false;
+    }
+    SpanMetrics.aggregator = aggregator;
+    return true;
+  }
+
+  public static boolean isEnabled() {
+    return aggregator != null;
+  }
+
+  /** @see SpanAggregator#started(Span, String) */
+  public static void started(final Span span, final String name) {
+    final SpanAggregator aggregator = SpanMetrics.aggregator;
+    if (aggregator != null) {
+      aggregator.started(span, name);
+    }
+  }
+
+  /** @see SpanAggregator#time(Span, String) */
+  public static void time(final Span span, final String component) {
+    final SpanAggregator aggregator = SpanMetrics.aggregator;
+    if (aggregator != null) {
+      aggregator.time(span, component);
+    }
+  }
+
+  /** @see SpanAggregator#failed(Span) */
+  public static void failed(final Span span) {
+    final SpanAggregator aggregator = SpanMetrics.aggregator;
+    if (aggregator != null) {
+      aggregator.failed(span);
+    }
+  }
+
+  /** @see SpanAggregator#finished(Span) */
+  public static void finished(final Span span) {
+    final SpanAggregator aggregator = SpanMetrics.aggregator;
+    if (aggregator != null) {
+      aggregator.finished(span);
+    }
+  }
+
+  private SpanMetrics() {}
+}
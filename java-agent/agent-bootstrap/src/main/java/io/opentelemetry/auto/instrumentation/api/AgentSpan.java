@@ -30,5 +30,11 @@ public interface AgentSpan {
 
   Span getSpan();
 
+  /**
+   * @return whether the attributes of this span are recorded. Instrumentation may skip computing
+   *     attributes of spans that are not, e.g. because their trace was not sampled.
+   */
+  boolean isRecording();
+
   interface Context {}
 }
@@ -187,6 +187,11 @@ public class AgentTracer {
     public Span getSpan() {
       return DefaultSpan.getInvalid();
     }
+
+    @Override
+    public boolean isRecording() {
+      return false;
+    }
   }
 
   public static class NoopAgentScope implements AgentScope {
@@ -0,0 +1,127 @@
+package io.opentelemetry.auto.instrumentation.api;
+
+import io.opentelemetry.context.propagation.HttpTextFormat;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import io.opentelemetry.trace.Tracestate;
+import io.opentelemetry.trace.propagation.HttpTraceContext;
+
+/**
+ * Extracts W3C trace context from a carrier without relying on exceptions.
+ *
+ * <p>{@link HttpTraceContext#extract} throws when the {@code traceparent} header is absent or
+ * malformed, which is the common case for inbound requests at the edge. This probes the carrier
+ * first and parses {@code traceparent} by hand, only delegating to the format when a {@code
+ * tracestate} header has to be parsed as well.
+ */
+public final class TraceContextExtractor {
+  public static final String TRACE_PARENT = "traceparent";
+  public static final String TRACE_STATE = "tracestate";
+
+  private static final int TRACE_ID_OFFSET = 3;
+  private static final int TRACE_ID_HEX_SIZE = 2 * TraceId.getSize();
+  private static final int SPAN_ID_OFFSET = TRACE_ID_OFFSET + TRACE_ID_HEX_SIZE + 1;
+  private static final int SPAN_ID_HEX_SIZE = 2 * SpanId.getSize();
+  private static final int TRACE_FLAGS_OFFSET = SPAN_ID_OFFSET + SPAN_ID_HEX_SIZE + 1;
+  private static final int TRACE_FLAGS_HEX_SIZE = 2;
+  private static final int TRACE_PARENT_SIZE = TRACE_FLAGS_OFFSET + TRACE_FLAGS_HEX_SIZE;
+
+  /**
+   * @return the remote parent found in the carrier, or null if there is none or it is malformed
+   */
+  public static <C> SpanContext extract(
+      final HttpTextFormat<SpanContext> format,
+      final C carrier,
+      final HttpTextFormat.Getter<C> getter) {
+    if (!(format instanceof HttpTraceContext)) {
+      return extractOrNull(format, carrier, getter);
+    }
+    final String traceparent = getter.get(carrier, TRACE_PARENT);
+    if (traceparent == null || !isValid(traceparent)) {
+      return null;
+    }
+    final String tracestate = getter.get(carrier, TRACE_STATE);
+    if (tracestate == null || tracestate.isEmpty()) {
+      return fromValid(traceparent);
+    }
+    return extractOrNull(format, carrier, getter);
+  }
+
+  /** @return the remote parent described by a valid {@code traceparent}, or null */
+  static SpanContext parse(final String traceparent) {
+    return isValid(traceparent) ? fromValid(traceparent) : null;
+  }
+
+  private static SpanContext fromValid(final String traceparent) {
+    return SpanContext.createFromRemoteParent(
+        TraceId.fromLowerBase16(traceparent, TRACE_ID_OFFSET),
+        SpanId.fromLowerBase16(traceparent, SPAN_ID_OFFSET),
+        TraceFlags.fromLowerBase16(traceparent, TRACE_FLAGS_OFFSET),
+        Tracestate.getDefault());
+  }
+
+  /** Validates the header layout, hex digits and ids without allocating. */
+  static boolean isValid(final String traceparent) {
+    final int length = traceparent.length();
+    if (length < TRACE_PARENT_SIZE
+        || traceparent.charAt(TRACE_ID_OFFSET - 1) != '-'
+        || traceparent.charAt(SPAN_ID_OFFSET - 1) != '-'
+        || traceparent.charAt(TRACE_FLAGS_OFFSET - 1) != '-'
+        || !isLowerHex(traceparent, 0, 2)) {
+      return false;
+    }
+    final char major = traceparent.charAt(0);
+    final char minor = traceparent.charAt(1);
+    if (major == 'f' && minor == 'f') {
+      // Version 255 is invalid.
+      return false;
+    }
+    if (major == '0' && minor == '0') {
+      if (length != TRACE_PARENT_SIZE) {
+        return false;
+      }
+    } else if (length > TRACE_PARENT_SIZE && traceparent.charAt(TRACE_PARENT_SIZE) != '-') {
+      // Later versions may only append fields.
+      return false;
+    }
+    return isLowerHex(traceparent, TRACE_ID_OFFSET, TRACE_ID_HEX_SIZE)
+        && isLowerHex(traceparent, SPAN_ID_OFFSET, SPAN_ID_HEX_SIZE)
+        && isLowerHex(traceparent, TRACE_FLAGS_OFFSET, TRACE_FLAGS_HEX_SIZE)
+        && !isZero(traceparent, TRACE_ID_OFFSET, TRACE_ID_HEX_SIZE)
+        && !isZero(traceparent, SPAN_ID_OFFSET, SPAN_ID_HEX_SIZE);
+  }
+
+  private static boolean isLowerHex(final String value, final int offset, final int length) {
+    for (int i = offset; i < offset + length; i++) {
+      final char c = value.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isZero(final String value, final int offset, final int length) {
+    for (int i = offset; i < offset + length; i++) {
+      if (value.charAt(i) != '0') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <C> SpanContext extractOrNull(
+      final HttpTextFormat<SpanContext> format,
+      final C carrier,
+      final HttpTextFormat.Getter<C> getter) {
+    try {
+      return format.extract(carrier, getter);
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private TraceContextExtractor() {}
+}
@@ -0,0 +1,61 @@
+package io.opentelemetry.auto.bootstrap
+
+import spock.lang.Specification
+
+class CallDepthTest extends Specification {
+
+  def "test CallDepth"() {
+    expect:
+    CallDepth.increment(CallDepth.JDBC_STATEMENT) == 0
+    CallDepth.increment(CallDepth.JDBC_PREPARED_STATEMENT) == 0
+
+    CallDepth.increment(CallDepth.JDBC_STATEMENT) == 1
+    CallDepth.increment(CallDepth.JDBC_PREPARED_STATEMENT) == 1
+
+    when:
+    CallDepth.reset(CallDepth.JDBC_STATEMENT)
+
+    then:
+    CallDepth.increment(CallDepth.JDBC_PREPARED_STATEMENT) == 2
+
+    when:
+    CallDepth.reset(CallDepth.JDBC_PREPARED_STATEMENT)
+
+    then:
+    CallDepth.increment(CallDepth.JDBC_STATEMENT) == 0
+    CallDepth.increment(CallDepth.JDBC_PREPARED_STATEMENT) == 0
+
+    cleanup:
+    CallDepth.reset(CallDepth.JDBC_STATEMENT)
+    CallDepth.reset(CallDepth.JDBC_PREPARED_STATEMENT)
+  }
+
+  def "call depth is tracked per thread"() {
+    setup:
+    CallDepth.increment(CallDepth.TWILIO)
+    def otherThreadDepth = null
+    def thread = new Thread({ otherThreadDepth = CallDepth.increment(CallDepth.TWILIO) })
+
+    when:
+    thread.start()
+    thread.join()
+
+    then:
+    otherThreadDepth == 0
+    CallDepth.increment(CallDepth.TWILIO) == 1
+
+    cleanup:
+    CallDepth.reset(CallDepth.TWILIO)
+  }
+
+  def "all slots are distinct and in range"() {
+    setup:
+    def slots = CallDepth.declaredFields
+      .findAll { java.lang.reflect.Modifier.isPublic(it.modifiers) && it.type == int }
+      .collect { it.getInt(null) }
+
+    expect:
+    slots.toSet().size() == slots.size()
+    slots.every { it >= 0 && it < CallDepth.SLOT_COUNT }
+  }
+}
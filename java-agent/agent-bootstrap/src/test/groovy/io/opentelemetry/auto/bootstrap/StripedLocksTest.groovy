@@ -0,0 +1,31 @@
+package io.opentelemetry.auto.bootstrap
+
+import spock.lang.Specification
+
+class StripedLocksTest extends Specification {
+
+  def "same key always maps to the same lock"() {
+    setup:
+    def locks = new StripedLocks(stripes)
+    def key = new Object()
+
+    expect:
+    locks.lockFor(key).is(locks.lockFor(key))
+    locks.locks.length == size
+
+    where:
+    stripes | size
+    1       | 1
+    3       | 4
+    64      | 64
+  }
+
+  def "keys are spread over stripes"() {
+    setup:
+    def locks = new StripedLocks(64)
+    def distinct = (1..1000).collect { locks.lockFor(new Object()) }.toSet().size()
+
+    expect:
+    distinct > 1
+  }
+}
@@ -0,0 +1,66 @@
+package io.opentelemetry.auto.bootstrap.metrics
+
+import spock.lang.Specification
+
+class LatencyHistogramTest extends Specification {
+
+  def "latencies fall into buckets bounding them within 12.5%"() {
+    setup:
+    def bucket = LatencyHistogram.bucket(micros)
+    def lower = LatencyHistogram.lowerBound(bucket)
+
+    expect:
+    lower <= micros
+    micros - lower <= Math.max(0, micros) / LatencyHistogram.SUB_BUCKETS
+    bucket < LatencyHistogram.BUCKETS
+
+    where:
+    micros << [0, 1, 7, 8, 9, 17, 31, 32, 1000, 123456, 1L << 30]
+  }
+
+  def "latencies beyond the range are counted in the last bucket"() {
+    expect:
+    LatencyHistogram.bucket(-1) == 0
+    LatencyHistogram.bucket(1L << 40) == LatencyHistogram.BUCKETS - 1
+    LatencyHistogram.bucket(Long.MAX_VALUE) == LatencyHistogram.BUCKETS - 1
+  }
+
+  def "snapshot reports count, sum and percentiles and resets the histogram"() {
+    setup:
+    def histogram = new LatencyHistogram()
+    (1..100).each { histogram.record(it * 100) }
+
+    when:
+    def snapshot = histogram.drain()
+
+    then:
+    snapshot.count == 100
+    snapshot.sumMicros == 505000
+    snapshot.getPercentileMicros(0.5) >= 5000
+    snapshot.getPercentileMicros(0.5) < 5000 * 1.125
+    snapshot.getPercentileMicros(0.99) >= 9900
+    snapshot.maxMicros >= 10000
+    snapshot.maxMicros < 10000 * 1.125
+
+    when:
+    snapshot = histogram.drain()
+
+    then:
+    snapshot.count == 0
+    snapshot.sumMicros == 0
+    snapshot.getPercentileMicros(0.5) == 0
+    snapshot.maxMicros == 0
+  }
+
+  def "stripes are a power of two up to four"() {
+    expect:
+    LatencyHistogram.stripes(processors) == stripes
+
+    where:
+    processors | stripes
+    1          | 1
+    2          | 2
+    3          | 4
+    64         | 4
+  }
+}
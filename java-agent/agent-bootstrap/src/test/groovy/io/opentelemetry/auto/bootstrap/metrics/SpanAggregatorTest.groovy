@@ -0,0 +1,107 @@
+package io.opentelemetry.auto.bootstrap.metrics
+
+import io.opentelemetry.trace.DefaultSpan
+import io.opentelemetry.trace.Span
+import spock.lang.Specification
+
+class SpanAggregatorTest extends Specification {
+
+  def aggregator = new SpanAggregator(16)
+
+  def "spans are counted per name, component and status"() {
+    when:
+    3.times { count(newSpan(), "GET /users", "servlet", false) }
+    count(newSpan(), "GET /users", "servlet", true)
+    count(newSpan(), "SELECT", "jdbc", false)
+    def aggregates = aggregator.drain().collectEntries {
+      [("$it.name|$it.component|$it.error".toString()): it.latencies.count]
+    }
+
+    then:
+    aggregates == [
+      "GET /users|servlet|false": 3,
+      "GET /users|servlet|true" : 1,
+      "SELECT|jdbc|false"       : 1
+    ]
+    aggregator.drain().isEmpty()
+  }
+
+  def "spans are only timed right after they were started on the same thread"() {
+    setup:
+    def started = newSpan()
+    def other = newSpan()
+
+    when:
+    aggregator.started(started, "span")
+    aggregator.time(other, "component")
+    aggregator.finished(other)
+    aggregator.time(started, "component")
+    aggregator.time(started, "component")
+    aggregator.finished(started)
+    aggregator.finished(started)
+
+    then:
+    aggregator.drain()*.latencies*.count == [1]
+  }
+
+  def "spans that end without being timed are not retained"() {
+    setup:
+    def span = newSpan()
+
+    when:
+    aggregator.started(span, "span")
+    aggregator.finished(span)
+    aggregator.time(span, "component")
+
+    then:
+    aggregator.started.get().span == null
+    aggregator.drain().isEmpty()
+  }
+
+  def "spans are not timed when there is no free slot"() {
+    setup:
+    def spans = (1..64).collect { newSpan() }
+
+    when:
+    spans.each {
+      aggregator.started(it, "span")
+      aggregator.time(it, "component")
+    }
+    spans.each { aggregator.finished(it) }
+
+    then:
+    aggregator.untimedSpans > 0
+    aggregator.drain()*.latencies*.count.sum() == 64 - aggregator.untimedSpans
+  }
+
+  def "slots are given back when spans end"() {
+    when:
+    1000.times { count(newSpan(), "span", "component", false) }
+
+    then:
+    aggregator.untimedSpans == 0
+    aggregator.drain()*.latencies*.count == [1000]
+  }
+
+  def "names beyond the maximum number of series are counted as other"() {
+    when:
+    (SpanAggregator.MAX_SERIES + 10).times { count(newSpan(), "span-$it", "component", false) }
+    def other = aggregator.drain().find { it.name == SpanAggregator.OTHER }
+
+    then:
+    other.latencies.count == 10
+  }
+
+  void count(Span span, String name, String component, boolean error) {
+    aggregator.started(span, name)
+    aggregator.time(span, component)
+    if (error) {
+      aggregator.failed(span)
+    }
+    aggregator.finished(span)
+  }
+
+  static Span newSpan() {
+    return DefaultSpan.create(DefaultSpan.getInvalid().context)
+  }
+}
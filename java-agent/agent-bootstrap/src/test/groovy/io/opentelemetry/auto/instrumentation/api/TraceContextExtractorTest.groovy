@@ -0,0 +1,65 @@
+package io.opentelemetry.auto.instrumentation.api
+
+import io.opentelemetry.context.propagation.HttpTextFormat
+import io.opentelemetry.trace.SpanContext
+import io.opentelemetry.trace.propagation.HttpTraceContext
+import spock.lang.Specification
+
+class TraceContextExtractorTest extends Specification {
+  static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736"
+  static final String SPAN_ID = "00f067aa0ba902b7"
+
+  def getter = new HttpTextFormat.Getter<Map<String, String>>() {
+    @Override
+    String get(Map<String, String> carrier, String key) {
+      return carrier.get(key)
+    }
+  }
+
+  def "valid traceparent #traceparent is parsed"() {
+    when:
+    SpanContext context = TraceContextExtractor.extract(new HttpTraceContext(), ["traceparent": traceparent], getter)
+
+    then:
+    context.traceId.toLowerBase16() == TRACE_ID
+    context.spanId.toLowerBase16() == SPAN_ID
+    context.traceFlags.isSampled() == sampled
+    context.isRemote()
+
+    where:
+    traceparent                                 | sampled
+    "00-$TRACE_ID-$SPAN_ID-01".toString()       | true
+    "00-$TRACE_ID-$SPAN_ID-00".toString()       | false
+    "01-$TRACE_ID-$SPAN_ID-01-future".toString() | true
+  }
+
+  def "missing or malformed traceparent #traceparent returns null"() {
+    expect:
+    TraceContextExtractor.extract(new HttpTraceContext(), carrier, getter) == null
+
+    where:
+    carrier << [
+      [:],
+      ["traceparent": ""],
+      ["traceparent": "00-$TRACE_ID-$SPAN_ID-01-extra".toString()],
+      ["traceparent": "ff-$TRACE_ID-$SPAN_ID-01".toString()],
+      ["traceparent": "00-${TRACE_ID.toUpperCase()}-$SPAN_ID-01".toString()],
+      ["traceparent": "00-00000000000000000000000000000000-$SPAN_ID-01".toString()],
+      ["traceparent": "00-$TRACE_ID-0000000000000000-01".toString()],
+      ["traceparent": "00_${TRACE_ID}_${SPAN_ID}_01".toString()],
+      ["traceparent": "00-$TRACE_ID-$SPAN_ID-0g".toString()],
+    ]
+    traceparent = carrier.traceparent
+  }
+
+  def "tracestate is parsed by the format"() {
+    when:
+    SpanContext context = TraceContextExtractor.extract(new HttpTraceContext(), [
+      "traceparent": "00-$TRACE_ID-$SPAN_ID-01".toString(),
+      "tracestate" : "foo=bar"], getter)
+
+    then:
+    context.traceId.toLowerBase16() == TRACE_ID
+    context.tracestate.get("foo") == "bar"
+  }
+}
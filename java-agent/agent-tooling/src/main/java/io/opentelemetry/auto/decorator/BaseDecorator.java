@@ -1,13 +1,13 @@
 package io.opentelemetry.auto.decorator;
 
 import io.opentelemetry.auto.api.MoreTags;
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.Tags;
+import io.opentelemetry.trace.DefaultSpan;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.Status;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.lang.reflect.Method;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
@@ -33,6 +33,9 @@ public abstract class BaseDecorator {
 
   public Span afterStart(final Span span) {
     assert span != null;
+    if (!isRecording(span)) {
+      return span;
+    }
     final String spanType = spanType();
     if (spanType != null) {
       span.setAttribute(MoreTags.SPAN_TYPE, spanType);
@@ -77,7 +80,11 @@ public abstract class BaseDecorator {
 
   public Span onError(final Span span, final Throwable throwable) {
     assert span != null;
-    if (throwable != null) {
+    if (throwable == null) {
+      return span;
+    }
+    SpanMetrics.failed(span);
+    if (isRecording(span)) {
       span.setStatus(Status.UNKNOWN);
       addThrowable(
           span, throwable instanceof ExecutionException ? throwable.getCause() : throwable);
@@ -94,7 +101,7 @@ public abstract class BaseDecorator {
 
   public Span onPeerConnection(final Span span, final InetSocketAddress remoteConnection) {
     assert span != null;
-    if (remoteConnection != null) {
+    if (remoteConnection != null && isRecording(span)) {
       onPeerConnection(span, remoteConnection.getAddress());
 
       span.setAttribute(Tags.PEER_HOSTNAME, remoteConnection.getHostName());
@@ -111,7 +118,7 @@ public abstract class BaseDecorator {
 
   public Span onPeerConnection(final Span span, final InetAddress remoteAddress) {
     assert span != null;
-    if (remoteAddress != null) {
+    if (remoteAddress != null && isRecording(span)) {
       span.setAttribute(Tags.PEER_HOSTNAME, remoteAddress.getHostName());
       if (remoteAddress instanceof Inet4Address) {
         span.setAttribute(Tags.PEER_HOST_IPV4, remoteAddress.getHostAddress());
@@ -122,16 +129,26 @@ public abstract class BaseDecorator {
     return span;
   }
 
+  /**
+   * Spans of traces that were not sampled, and all spans if no SDK is installed, are {@link
+   * DefaultSpan}s which drop their attributes, so decorators skip computing them.
+   *
+   * @return whether the attributes of {@code span} are recorded
+   */
+  public static boolean isRecording(final Span span) {
+    return !(span instanceof DefaultSpan);
+  }
+
   public static void addThrowable(final Span span, final Throwable throwable) {
+    if (!isRecording(span)) {
+      return;
+    }
     final String message = throwable.getMessage();
     if (message != null) {
       span.setAttribute(MoreTags.ERROR_MSG, message);
     }
     span.setAttribute(MoreTags.ERROR_TYPE, throwable.getClass().getName());
-
-    final StringWriter errorString = new StringWriter();
-    throwable.printStackTrace(new PrintWriter(errorString));
-    span.setAttribute(MoreTags.ERROR_STACK, errorString.toString());
+    span.setAttribute(MoreTags.ERROR_STACK, StackTraceRenderer.INSTANCE.render(throwable));
   }
 
   /**
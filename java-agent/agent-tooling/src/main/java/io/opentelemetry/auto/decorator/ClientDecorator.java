@@ -1,6 +1,7 @@
 package io.opentelemetry.auto.decorator;
 
 import io.opentelemetry.auto.api.MoreTags;
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.Tags;
 import io.opentelemetry.trace.Span;
@@ -23,6 +24,10 @@ public abstract class ClientDecorator extends BaseDecorator {
   @Override
   public Span afterStart(final Span span) {
     assert span != null;
+    SpanMetrics.time(span, component());
+    if (!isRecording(span)) {
+      return span;
+    }
     if (service() != null) {
       span.setAttribute(MoreTags.SERVICE_NAME, service());
     }
@@ -24,9 +24,11 @@ public abstract class DatabaseClientDecorator<CONNECTION> extends ClientDecorato
   @Override
   public Span afterStart(final Span span) {
     assert span != null;
-    final String type = dbType();
-    if (type != null) {
-      span.setAttribute(Tags.DB_TYPE, type);
+    if (isRecording(span)) {
+      final String type = dbType();
+      if (type != null) {
+        span.setAttribute(Tags.DB_TYPE, type);
+      }
     }
     return super.afterStart(span);
   }
@@ -46,7 +48,7 @@ public abstract class DatabaseClientDecorator<CONNECTION> extends ClientDecorato
 
   public Span onConnection(final Span span, final CONNECTION connection) {
     assert span != null;
-    if (connection != null) {
+    if (connection != null && isRecording(span)) {
       final String user = dbUser(connection);
       if (user != null) {
         span.setAttribute(Tags.DB_USER, user);
@@ -71,7 +73,9 @@ public abstract class DatabaseClientDecorator<CONNECTION> extends ClientDecorato
 
   public Span onStatement(final Span span, final String statement) {
     assert span != null;
-    span.setAttribute(Tags.DB_STATEMENT, statement);
+    if (isRecording(span)) {
+      span.setAttribute(Tags.DB_STATEMENT, statement);
+    }
     return span;
   }
 }
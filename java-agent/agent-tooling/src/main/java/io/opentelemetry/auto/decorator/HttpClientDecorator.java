@@ -3,6 +3,7 @@ package io.opentelemetry.auto.decorator;
 import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.api.MoreTags;
 import io.opentelemetry.auto.api.SpanTypes;
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.Tags;
 import io.opentelemetry.trace.Span;
@@ -14,10 +15,44 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public abstract class HttpClientDecorator<REQUEST, RESPONSE> extends ClientDecorator {
 
+  private final UrlPrefixCache urlPrefixes = new UrlPrefixCache();
+
   protected abstract String method(REQUEST request);
 
   protected abstract URI url(REQUEST request) throws URISyntaxException;
 
+  /**
+   * Decorators that can read the parts of the url from the request implement this and the other
+   * {@code url*} methods, so that no {@link URI} is parsed for every request.
+   *
+   * @return the path of the request as sent, without the query string, or {@code null} to tag the
+   *     url returned by {@link #url} instead. It is decoded like {@link URI#getPath()}, and {@link
+   *     #url} is tagged instead if it or the host are malformed.
+   */
+  protected String urlPath(final REQUEST request) {
+    return null;
+  }
+
+  /** @return the scheme of the request, or {@code null} if unknown */
+  protected String urlScheme(final REQUEST request) {
+    return null;
+  }
+
+  /** @return the host of the request, optionally followed by {@code :port}, or {@code null} */
+  protected String urlHost(final REQUEST request) {
+    return null;
+  }
+
+  /** @return the port of the request, or {@code -1} to take it from {@link #urlHost} */
+  protected int urlPort(final REQUEST request) {
+    return -1;
+  }
+
+  /** @return the query string as sent, or {@code null} if there is none */
+  protected String urlQuery(final REQUEST request) {
+    return null;
+  }
+
   protected abstract String hostname(REQUEST request);
 
   protected abstract Integer port(REQUEST request);
@@ -42,47 +77,16 @@ public abstract class HttpClientDecorator<REQUEST, RESPONSE> extends ClientDecor
 
   public Span onRequest(final Span span, final REQUEST request) {
     assert span != null;
-    if (request != null) {
+    if (request != null && isRecording(span)) {
       final String method = method(request);
       if (method != null) {
         span.setAttribute(Tags.HTTP_METHOD, method);
       }
 
-      // Copy of HttpServerDecorator url handling
       try {
-        final URI url = url(request);
-        if (url != null) {
-          final StringBuilder urlNoParams = new StringBuilder();
-          if (url.getScheme() != null) {
-            urlNoParams.append(url.getScheme());
-            urlNoParams.append("://");
-          }
-          if (url.getHost() != null) {
-            urlNoParams.append(url.getHost());
-            if (url.getPort() > 0 && url.getPort() != 80 && url.getPort() != 443) {
-              urlNoParams.append(":");
-              urlNoParams.append(url.getPort());
-            }
-          }
-          final String path = url.getPath();
-          if (path.isEmpty()) {
-            urlNoParams.append("/");
-          } else {
-            urlNoParams.append(path);
-          }
-
-          span.setAttribute(Tags.HTTP_URL, urlNoParams.toString());
-
-          if (Config.get().isHttpClientTagQueryString()) {
-            final String query = url.getQuery();
-            if (query != null) {
-              span.setAttribute(MoreTags.HTTP_QUERY, query);
-            }
-            final String fragment = url.getFragment();
-            if (fragment != null) {
-              span.setAttribute(MoreTags.HTTP_FRAGMENT, fragment);
-            }
-          }
+        final String path = urlPath(request);
+        if (path == null || !onUrl(span, request, path)) {
+          onUrl(span, url(request));
         }
       } catch (final Exception e) {
         log.debug("Error tagging url", e);
@@ -105,6 +109,66 @@ public abstract class HttpClientDecorator<REQUEST, RESPONSE> extends ClientDecor
     return span;
   }
 
+  /** @return false if the parts of the url are malformed, in which case nothing is tagged */
+  private boolean onUrl(final Span span, final REQUEST request, final String rawPath) {
+    final String path = UrlPrefixCache.decode(rawPath);
+    final String host = urlHost(request);
+    final String prefix =
+        host == null || host.isEmpty()
+            ? ""
+            : urlPrefixes.prefix(urlScheme(request), host, urlPort(request));
+    if (path == null || prefix == null) {
+      return false;
+    }
+    span.setAttribute(Tags.HTTP_URL, path.isEmpty() ? prefix + "/" : prefix + path);
+
+    if (Config.get().isHttpClientTagQueryString()) {
+      final String query = urlQuery(request);
+      if (query != null) {
+        final String decoded = UrlPrefixCache.decode(query);
+        span.setAttribute(MoreTags.HTTP_QUERY, decoded == null ? query : decoded);
+      }
+    }
+    return true;
+  }
+
+  // Copy of HttpServerDecorator url handling
+  private void onUrl(final Span span, final URI url) {
+    if (url != null) {
+      final StringBuilder urlNoParams = new StringBuilder();
+      if (url.getScheme() != null) {
+        urlNoParams.append(url.getScheme());
+        urlNoParams.append("://");
+      }
+      if (url.getHost() != null) {
+        urlNoParams.append(url.getHost());
+        if (url.getPort() > 0 && url.getPort() != 80 && url.getPort() != 443) {
+          urlNoParams.append(":");
+          urlNoParams.append(url.getPort());
+        }
+      }
+      final String path = url.getPath();
+      if (path.isEmpty()) {
+        urlNoParams.append("/");
+      } else {
+        urlNoParams.append(path);
+      }
+
+      span.setAttribute(Tags.HTTP_URL, urlNoParams.toString());
+
+      if (Config.get().isHttpClientTagQueryString()) {
+        final String query = url.getQuery();
+        if (query != null) {
+          span.setAttribute(MoreTags.HTTP_QUERY, query);
+        }
+        final String fragment = url.getFragment();
+        if (fragment != null) {
+          span.setAttribute(MoreTags.HTTP_FRAGMENT, fragment);
+        }
+      }
+    }
+  }
+
   @Deprecated
   public AgentSpan onResponse(final AgentSpan span, final RESPONSE response) {
     onResponse(span.getSpan(), response);
@@ -113,13 +177,19 @@ public abstract class HttpClientDecorator<REQUEST, RESPONSE> extends ClientDecor
 
   public Span onResponse(final Span span, final RESPONSE response) {
     assert span != null;
-    if (response != null) {
+    final boolean recording = isRecording(span);
+    // Unrecorded spans still count as failed in the span metrics.
+    if (response != null && (recording || SpanMetrics.isEnabled())) {
       final Integer status = status(response);
       if (status != null) {
-        span.setAttribute(Tags.HTTP_STATUS, status);
-
-        if (Config.get().getHttpClientErrorStatuses().contains(status)) {
-          span.setStatus(Status.UNKNOWN);
+        if (recording) {
+          span.setAttribute(Tags.HTTP_STATUS, status);
+        }
+        if (Config.get().isHttpClientErrorStatus(status)) {
+          SpanMetrics.failed(span);
+          if (recording) {
+            span.setStatus(Status.UNKNOWN);
+          }
         }
       }
     }
@@ -3,28 +3,57 @@ package io.opentelemetry.auto.decorator;
 import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.api.MoreTags;
 import io.opentelemetry.auto.api.SpanTypes;
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.Tags;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.Status;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE> extends ServerDecorator {
   public static final String SPAN_ATTRIBUTE = "io.opentelemetry.auto.span";
 
-  // Source: https://www.regextester.com/22
-  private static final Pattern VALID_IPV4_ADDRESS =
-      Pattern.compile(
-          "^(([0-9]|[1-9][0-9]|1[0-9]{2}|2[0-4][0-9]|25[0-5])\\.){3}([0-9]|[1-9][0-9]|1[0-9]{2}|2[0-4][0-9]|25[0-5])$");
+  private final UrlPrefixCache urlPrefixes = new UrlPrefixCache();
 
   protected abstract String method(REQUEST request);
 
   protected abstract URI url(REQUEST request) throws URISyntaxException;
 
+  /**
+   * Decorators that can read the parts of the url from the request implement this and the other
+   * {@code url*} methods, so that no {@link URI} is parsed for every request.
+   *
+   * @return the path of the request as sent, without the query string, or {@code null} to tag the
+   *     url returned by {@link #url} instead. It is decoded like {@link URI#getPath()}, and {@link
+   *     #url} is tagged instead if it or the host are malformed.
+   */
+  protected String urlPath(final REQUEST request) {
+    return null;
+  }
+
+  /** @return the scheme of the request, or {@code null} if unknown */
+  protected String urlScheme(final REQUEST request) {
+    return null;
+  }
+
+  /** @return the host of the request, optionally followed by {@code :port}, or {@code null} */
+  protected String urlHost(final REQUEST request) {
+    return null;
+  }
+
+  /** @return the port of the request, or {@code -1} to take it from {@link #urlHost} */
+  protected int urlPort(final REQUEST request) {
+    return -1;
+  }
+
+  /** @return the query string as sent, or {@code null} if there is none */
+  protected String urlQuery(final REQUEST request) {
+    return null;
+  }
+
   protected abstract String peerHostname(CONNECTION connection);
 
   protected abstract String peerHostIP(CONNECTION connection);
@@ -46,38 +75,13 @@ public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE> extends
 
   public Span onRequest(final Span span, final REQUEST request) {
     assert span != null;
-    if (request != null) {
+    if (request != null && isRecording(span)) {
       span.setAttribute(Tags.HTTP_METHOD, method(request));
 
-      // Copy of HttpClientDecorator url handling
       try {
-        final URI url = url(request);
-        if (url != null) {
-          final StringBuilder urlNoParams = new StringBuilder();
-          if (url.getScheme() != null) {
-            urlNoParams.append(url.getScheme());
-            urlNoParams.append("://");
-          }
-          if (url.getHost() != null) {
-            urlNoParams.append(url.getHost());
-            if (url.getPort() > 0 && url.getPort() != 80 && url.getPort() != 443) {
-              urlNoParams.append(":");
-              urlNoParams.append(url.getPort());
-            }
-          }
-          final String path = url.getPath();
-          if (path.isEmpty()) {
-            urlNoParams.append("/");
-          } else {
-            urlNoParams.append(path);
-          }
-
-          span.setAttribute(Tags.HTTP_URL, urlNoParams.toString());
-
-          if (Config.get().isHttpServerTagQueryString()) {
-            span.setAttribute(MoreTags.HTTP_QUERY, url.getQuery());
-            span.setAttribute(MoreTags.HTTP_FRAGMENT, url.getFragment());
-          }
+        final String path = urlPath(request);
+        if (path == null || !onUrl(span, request, path)) {
+          onUrl(span, url(request));
         }
       } catch (final Exception e) {
         log.debug("Error tagging url", e);
@@ -87,6 +91,60 @@ public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE> extends
     return span;
   }
 
+  /** @return false if the parts of the url are malformed, in which case nothing is tagged */
+  private boolean onUrl(final Span span, final REQUEST request, final String rawPath) {
+    final String path = UrlPrefixCache.decode(rawPath);
+    final String host = urlHost(request);
+    final String prefix =
+        host == null || host.isEmpty()
+            ? ""
+            : urlPrefixes.prefix(urlScheme(request), host, urlPort(request));
+    if (path == null || prefix == null) {
+      return false;
+    }
+    span.setAttribute(Tags.HTTP_URL, path.isEmpty() ? prefix + "/" : prefix + path);
+
+    if (Config.get().isHttpServerTagQueryString()) {
+      final String query = urlQuery(request);
+      if (query != null) {
+        final String decoded = UrlPrefixCache.decode(query);
+        span.setAttribute(MoreTags.HTTP_QUERY, decoded == null ? query : decoded);
+      }
+    }
+    return true;
+  }
+
+  // Copy of HttpClientDecorator url handling
+  private void onUrl(final Span span, final URI url) {
+    if (url != null) {
+      final StringBuilder urlNoParams = new StringBuilder();
+      if (url.getScheme() != null) {
+        urlNoParams.append(url.getScheme());
+        urlNoParams.append("://");
+      }
+      if (url.getHost() != null) {
+        urlNoParams.append(url.getHost());
+        if (url.getPort() > 0 && url.getPort() != 80 && url.getPort() != 443) {
+          urlNoParams.append(":");
+          urlNoParams.append(url.getPort());
+        }
+      }
+      final String path = url.getPath();
+      if (path.isEmpty()) {
+        urlNoParams.append("/");
+      } else {
+        urlNoParams.append(path);
+      }
+
+      span.setAttribute(Tags.HTTP_URL, urlNoParams.toString());
+
+      if (Config.get().isHttpServerTagQueryString()) {
+        span.setAttribute(MoreTags.HTTP_QUERY, url.getQuery());
+        span.setAttribute(MoreTags.HTTP_FRAGMENT, url.getFragment());
+      }
+    }
+  }
+
   @Deprecated
   public AgentSpan onConnection(final AgentSpan span, final CONNECTION connection) {
     onConnection(span.getSpan(), connection);
@@ -95,14 +153,14 @@ public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE> extends
 
   public Span onConnection(final Span span, final CONNECTION connection) {
     assert span != null;
-    if (connection != null) {
+    if (connection != null && isRecording(span)) {
       final String peerHostname = peerHostname(connection);
       if (peerHostname != null) {
         span.setAttribute(Tags.PEER_HOSTNAME, peerHostname);
       }
       final String ip = peerHostIP(connection);
       if (ip != null) {
-        if (VALID_IPV4_ADDRESS.matcher(ip).matches()) {
+        if (isIpv4(ip)) {
           span.setAttribute(Tags.PEER_HOST_IPV4, ip);
         } else if (ip.contains(":")) {
           span.setAttribute(Tags.PEER_HOST_IPV6, ip);
@@ -125,19 +183,59 @@ public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE> extends
 
   public Span onResponse(final Span span, final RESPONSE response) {
     assert span != null;
-    if (response != null) {
+    final boolean recording = isRecording(span);
+    // Unrecorded spans still count as failed in the span metrics.
+    if (response != null && (recording || SpanMetrics.isEnabled())) {
       final Integer status = status(response);
       if (status != null) {
-        span.setAttribute(Tags.HTTP_STATUS, status);
-
-        if (Config.get().getHttpServerErrorStatuses().contains(status)) {
-          span.setStatus(Status.UNKNOWN);
+        if (recording) {
+          span.setAttribute(Tags.HTTP_STATUS, status);
+        }
+        if (Config.get().isHttpServerErrorStatus(status)) {
+          SpanMetrics.failed(span);
+          if (recording) {
+            span.setStatus(Status.UNKNOWN);
+          }
         }
       }
     }
     return span;
   }
 
+  /** @return whether {@code ip} is an IPv4 address in dotted decimal form */
+  static boolean isIpv4(final String ip) {
+    final int length = ip.length();
+    if (length < 7 || length > 15) {
+      return false;
+    }
+    int dots = 0;
+    int digits = 0;
+    int octet = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = ip.charAt(i);
+      if (c == '.') {
+        if (digits == 0 || ++dots > 3) {
+          return false;
+        }
+        digits = 0;
+        octet = 0;
+      } else if (c >= '0' && c <= '9') {
+        // Leading zeros are not allowed.
+        if (digits > 0 && octet == 0) {
+          return false;
+        }
+        octet = octet * 10 + (c - '0');
+        if (octet > 255) {
+          return false;
+        }
+        digits++;
+      } else {
+        return false;
+      }
+    }
+    return dots == 3 && digits > 0;
+  }
+
   //  @Override
   //  public Span onError(final Span span, final Throwable throwable) {
   //    assert span != null;
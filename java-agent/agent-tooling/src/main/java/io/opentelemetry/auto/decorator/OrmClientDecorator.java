@@ -17,7 +17,7 @@ public abstract class OrmClientDecorator extends DatabaseClientDecorator {
   public Span onOperation(final Span span, final Object entity) {
 
     assert span != null;
-    if (entity != null) {
+    if (entity != null && isRecording(span)) {
       final String name = entityName(entity);
       if (name != null) {
         span.setAttribute(MoreTags.RESOURCE_NAME, name);
@@ -1,5 +1,6 @@
 package io.opentelemetry.auto.decorator;
 
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.Tags;
 import io.opentelemetry.trace.Span;
@@ -16,6 +17,10 @@ public abstract class ServerDecorator extends BaseDecorator {
   @Override
   public Span afterStart(final Span span) {
     assert span != null;
+    SpanMetrics.time(span, component());
+    if (!isRecording(span)) {
+      return span;
+    }
     span.setAttribute(Tags.SPAN_KIND, Tags.SPAN_KIND_SERVER);
     return super.afterStart(span);
   }
@@ -0,0 +1,167 @@
+package io.opentelemetry.auto.decorator;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.api.MoreTags;
+import java.util.Arrays;
+
+/**
+ * Renders throwables for the {@link MoreTags#ERROR_STACK} attribute in the format of {@link
+ * Throwable#printStackTrace()}, including causes and suppressed exceptions.
+ *
+ * <p>Rendering the frames is what makes this expensive, and an error that is thrown for every
+ * request has the same frames every time. The rendered frames of each throwable are therefore kept
+ * in a direct-mapped cache and reused when the frames are equal, while the exception messages,
+ * which often contain request specific data, are rendered every time. Cache entries are immutable,
+ * so threads racing on a slot at worst render the frames again.
+ *
+ * <p>Frames per throwable and the UTF-8 encoded size of the rendering are capped by {@link
+ * Config#getErrorStackMaxFrames()} and {@link Config#getErrorStackMaxBytes()}.
+ */
+public final class StackTraceRenderer {
+  public static final StackTraceRenderer INSTANCE =
+      new StackTraceRenderer(
+          Config.get().getErrorStackMaxFrames(),
+          Config.get().getErrorStackMaxBytes(),
+          Config.get().getErrorStackCacheSize());
+
+  // guards against very deep or cyclic cause chains
+  private static final int MAX_THROWABLES = 16;
+
+  private static final StackTraceElement[] NO_FRAMES = new StackTraceElement[0];
+
+  private final int maxFrames;
+  private final int maxBytes;
+  private final Frames[] cache;
+
+  StackTraceRenderer(final int maxFrames, final int maxBytes, final int cacheSize) {
+    this.maxFrames = maxFrames;
+    this.maxBytes = maxBytes;
+    int size = 1;
+    while (size < cacheSize && size < (1 << 16)) {
+      size <<= 1;
+    }
+    cache = new Frames[size];
+  }
+
+  public String render(final Throwable throwable) {
+    final StringBuilder sb = new StringBuilder(256);
+    render(throwable, NO_FRAMES, "", 0, sb, new int[] {0});
+    // A char takes at most three bytes, so only long renderings need to be measured.
+    if (sb.length() > maxBytes / 3) {
+      sb.setLength(utf8Prefix(sb, maxBytes));
+    }
+    return sb.toString();
+  }
+
+  /** @return the length of the longest prefix of {@code s} whose UTF-8 encoding fits maxBytes */
+  static int utf8Prefix(final CharSequence s, final int maxBytes) {
+    int bytes = 0;
+    int i = 0;
+    while (i < s.length()) {
+      final char c = s.charAt(i);
+      final int charBytes;
+      final int chars;
+      if (c < 0x80) {
+        charBytes = 1;
+        chars = 1;
+      } else if (c < 0x800) {
+        charBytes = 2;
+        chars = 1;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < s.length()
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        charBytes = 4;
+        chars = 2;
+      } else {
+        charBytes = 3;
+        chars = 1;
+      }
+      if (bytes + charBytes > maxBytes) {
+        break;
+      }
+      bytes += charBytes;
+      i += chars;
+    }
+    return i;
+  }
+
+  private void render(
+      final Throwable throwable,
+      final StackTraceElement[] enclosing,
+      final String caption,
+      final int depth,
+      final StringBuilder sb,
+      final int[] rendered) {
+    // The length in chars is a lower bound of the encoded size.
+    if (rendered[0]++ >= MAX_THROWABLES || sb.length() >= maxBytes) {
+      return;
+    }
+    final StackTraceElement[] frames = throwable.getStackTrace();
+    // Like printStackTrace, frames in common with the enclosing trace are only counted.
+    int last = frames.length - 1;
+    int i = enclosing.length - 1;
+    while (last >= 0 && i >= 0 && frames[last].equals(enclosing[i])) {
+      last--;
+      i--;
+    }
+    final int shown = Math.min(last + 1, maxFrames);
+
+    indent(sb, depth).append(caption).append(throwable).append('\n');
+    sb.append(frames(frames, shown, depth));
+    for (final Throwable suppressed : throwable.getSuppressed()) {
+      render(suppressed, frames, "Suppressed: ", depth + 1, sb, rendered);
+    }
+    final Throwable cause = throwable.getCause();
+    if (cause != null && cause != throwable) {
+      render(cause, frames, "Caused by: ", depth, sb, rendered);
+    }
+  }
+
+  /** @return the first {@code shown} of {@code frames}, indented by {@code depth} tabs */
+  String frames(final StackTraceElement[] frames, final int shown, final int depth) {
+    final int hash = 31 * (31 * Arrays.hashCode(frames) + shown) + depth;
+    final int slot = (hash ^ (hash >>> 16)) & (cache.length - 1);
+    final Frames cached = cache[slot];
+    if (cached != null
+        && cached.shown == shown
+        && cached.depth == depth
+        && Arrays.equals(cached.frames, frames)) {
+      return cached.rendered;
+    }
+    final StringBuilder sb = new StringBuilder(64 * shown + 32);
+    int i = 0;
+    while (i < shown && sb.length() < maxBytes) {
+      indent(sb, depth).append("\tat ").append(frames[i]).append('\n');
+      i++;
+    }
+    if (i < frames.length) {
+      indent(sb, depth).append("\t... ").append(frames.length - i).append(" more\n");
+    }
+    // getStackTrace returns a copy, so the frames can not change while cached.
+    final Frames entry = new Frames(frames, shown, depth, sb.toString());
+    cache[slot] = entry;
+    return entry.rendered;
+  }
+
+  private static StringBuilder indent(final StringBuilder sb, final int depth) {
+    for (int i = 0; i < depth; i++) {
+      sb.append('\t');
+    }
+    return sb;
+  }
+
+  private static final class Frames {
+    private final StackTraceElement[] frames;
+    private final int shown;
+    private final int depth;
+    private final String rendered;
+
+    Frames(
+        final StackTraceElement[] frames, final int shown, final int depth, final String rendered) {
+      this.frames = frames;
+      this.shown = shown;
+      this.depth = depth;
+      this.rendered = rendered;
+    }
+  }
+}
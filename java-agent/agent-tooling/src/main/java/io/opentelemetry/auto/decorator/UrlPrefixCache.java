@@ -0,0 +1,179 @@
+package io.opentelemetry.auto.decorator;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Renders the {@code scheme://host[:port]} prefix of http urls and keeps the most recent ones.
+ *
+ * <p>An application usually serves and calls few hosts, so the prefix is rendered once per host
+ * instead of for every request. The cache is direct-mapped and its entries are immutable, so
+ * threads racing on a slot at worst render a prefix again.
+ *
+ * <p>Hosts are taken from requests, e.g. from the {@code Host} header, so hosts that could not be
+ * part of a url are rejected instead of rendered.
+ */
+public final class UrlPrefixCache {
+  // Must be a power of two.
+  private static final int SIZE = 32;
+
+  private final Prefix[] prefixes = new Prefix[SIZE];
+
+  /**
+   * @param scheme the scheme, or {@code null} to omit it
+   * @param host the host, optionally followed by {@code :port} as in a {@code Host} header
+   * @param port the port, or a value {@code <= 0} to take it from {@code host}
+   * @return the rendered prefix, which omits the ports 80 and 443, or {@code null} if {@code host}
+   *     is not a valid host
+   */
+  public String prefix(final String scheme, final String host, final int port) {
+    int hash = 31 * (scheme == null ? 0 : scheme.hashCode()) + host.hashCode();
+    hash = 31 * hash + port;
+    final int slot = (hash ^ (hash >>> 16)) & (SIZE - 1);
+    final Prefix cached = prefixes[slot];
+    if (cached != null
+        && cached.port == port
+        && host.equals(cached.host)
+        && (scheme == null ? cached.scheme == null : scheme.equals(cached.scheme))) {
+      return cached.rendered;
+    }
+    if (!isValidHost(host)) {
+      return null;
+    }
+    final Prefix prefix = new Prefix(scheme, host, port, render(scheme, host, port));
+    prefixes[slot] = prefix;
+    return prefix.rendered;
+  }
+
+  static String render(final String scheme, final String host, final int port) {
+    String hostName = host;
+    int hostPort = port;
+    if (port <= 0) {
+      // IPv6 addresses contain colons too, but are enclosed in brackets when followed by a port.
+      final int colon = host.lastIndexOf(':');
+      if (colon >= 0 && (host.indexOf(':') == colon || host.charAt(0) == '[')) {
+        final int parsed = parsePort(host, colon + 1);
+        if (parsed >= 0) {
+          hostName = host.substring(0, colon);
+          hostPort = parsed;
+        }
+      }
+    }
+    final StringBuilder prefix = new StringBuilder(host.length() + 16);
+    if (scheme != null) {
+      prefix.append(scheme).append("://");
+    }
+    prefix.append(hostName);
+    if (hostPort > 0 && hostPort != 80 && hostPort != 443) {
+      prefix.append(':').append(hostPort);
+    }
+    return prefix.toString();
+  }
+
+  /**
+   * Checks the characters only: host names, IPv4 and bracketed IPv6 addresses, each optionally
+   * followed by {@code :port}, pass, while e.g. user info, paths and whitespace do not.
+   */
+  static boolean isValidHost(final String host) {
+    if (host.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < host.length(); i++) {
+      final char c = host.charAt(i);
+      if (!(c >= 'a' && c <= 'z'
+          || c >= 'A' && c <= 'Z'
+          || c >= '0' && c <= '9'
+          || c == '.'
+          || c == '-'
+          || c == '_'
+          || c == ':'
+          || c == '['
+          || c == ']'
+          || c == '%')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Decodes the parts of http urls that decorators read from requests as sent, so that they are
+   * tagged like {@link URI#getPath()} and {@link URI#getQuery()} return them.
+   *
+   * @return {@code s} with percent-encoded UTF-8 octets decoded, or {@code null} if an escape is
+   *     malformed
+   */
+  static String decode(final String s) {
+    int i = s.indexOf('%');
+    if (i < 0) {
+      return s;
+    }
+    final StringBuilder decoded = new StringBuilder(s.length());
+    decoded.append(s, 0, i);
+    // At most every third character of the rest starts an escape.
+    final byte[] bytes = new byte[(s.length() - i) / 3];
+    while (i < s.length()) {
+      if (s.charAt(i) != '%') {
+        decoded.append(s.charAt(i++));
+        continue;
+      }
+      // Consecutive escapes may encode a single character.
+      int length = 0;
+      while (i < s.length() && s.charAt(i) == '%') {
+        if (i + 2 >= s.length()) {
+          return null;
+        }
+        final int high = hexDigit(s.charAt(i + 1));
+        final int low = hexDigit(s.charAt(i + 2));
+        if (high < 0 || low < 0) {
+          return null;
+        }
+        bytes[length++] = (byte) (high << 4 | low);
+        i += 3;
+      }
+      decoded.append(new String(bytes, 0, length, StandardCharsets.UTF_8));
+    }
+    return decoded.toString();
+  }
+
+  private static int hexDigit(final char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    } else if (c >= 'a' && c <= 'f') {
+      return c - 'a' + 10;
+    } else if (c >= 'A' && c <= 'F') {
+      return c - 'A' + 10;
+    }
+    return -1;
+  }
+
+  /** @return the port starting at {@code start}, or {@code -1} if it is not a number */
+  private static int parsePort(final String host, final int start) {
+    if (start == host.length() || host.length() - start > 5) {
+      return -1;
+    }
+    int port = 0;
+    for (int i = start; i < host.length(); i++) {
+      final char c = host.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      port = port * 10 + (c - '0');
+    }
+    return port;
+  }
+
+  private static final class Prefix {
+    private final String scheme;
+    private final String host;
+    private final int port;
+    private final String rendered;
+
+    Prefix(final String scheme, final String host, final int port, final String rendered) {
+      this.scheme = scheme;
+      this.host = host;
+      this.port = port;
+      this.rendered = rendered;
+    }
+  }
+}
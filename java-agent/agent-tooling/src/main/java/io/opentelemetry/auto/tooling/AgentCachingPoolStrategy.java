@@ -6,10 +6,15 @@ import static net.bytebuddy.agent.builder.AgentBuilder.PoolStrategy;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.bootstrap.WeakMap;
+import java.lang.ref.WeakReference;
+import java.net.URL;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
@@ -27,14 +32,31 @@ import net.bytebuddy.pool.TypePool;
  * that have many classes.
  *
  * <p>See eviction policy below.
+ *
+ * <p>Behind the per classloader caches sits a {@link SharedTypeCache} keyed by class file location,
+ * so a class that many classloaders load from the same parent (e.g. server libraries on application
+ * servers hosting many webapps) is only parsed once, by a pool of that parent.
  */
+@Slf4j
 public class AgentCachingPoolStrategy implements PoolStrategy {
   private final WeakMap<ClassLoader, TypePool.CacheProvider> typePoolCache =
       WeakMap.Provider.newWeakMap();
   private final Cleaner cleaner;
+  private final SharedTypeCache sharedTypeCache;
 
   public AgentCachingPoolStrategy(final Cleaner cleaner) {
+    this(cleaner, Config.get().getSharedTypeCacheSize());
+  }
+
+  AgentCachingPoolStrategy(final Cleaner cleaner, final int sharedTypeCacheSize) {
     this.cleaner = cleaner;
+    sharedTypeCache =
+        sharedTypeCacheSize > 0 ? new SharedTypeCache(cleaner, sharedTypeCacheSize) : null;
+  }
+
+  /** @return statistics of the cache shared across classloaders, or null if it is disabled */
+  public CacheStats getSharedTypeCacheStats() {
+    return sharedTypeCache == null ? null : sharedTypeCache.cache.stats();
   }
 
   @Override
@@ -52,7 +74,9 @@ public class AgentCachingPoolStrategy implements PoolStrategy {
             // This is primarily an optimization.
             cache = TypePool.CacheProvider.NoOp.INSTANCE;
           } else {
-            cache = EvictingCacheProvider.withObjectType(cleaner, 1, TimeUnit.MINUTES);
+            cache =
+                EvictingCacheProvider.withObjectType(
+                    cleaner, 1, TimeUnit.MINUTES, sharedTypeCache, key);
           }
           typePoolCache.put(key, cache);
         }
@@ -67,9 +91,29 @@ public class AgentCachingPoolStrategy implements PoolStrategy {
     /** A map containing all cached resolutions by their names. */
     private final Cache<String, TypePool.Resolution> cache;
 
+    /**
+     * The names of types whose class file the parent does not have, so that the parent is only
+     * asked once per type. Shared types are found in {@link #cache} instead.
+     */
+    private final Cache<String, Boolean> unshared;
+
+    private final SharedTypeCache sharedTypeCache;
+    private final WeakReference<ClassLoader> classLoader;
+
     /** Creates a new simple cache. */
     private EvictingCacheProvider(
         final Cleaner cleaner, final long expireDuration, final TimeUnit unit) {
+      this(cleaner, expireDuration, unit, null, null);
+    }
+
+    private EvictingCacheProvider(
+        final Cleaner cleaner,
+        final long expireDuration,
+        final TimeUnit unit,
+        final SharedTypeCache sharedTypeCache,
+        final ClassLoader classLoader) {
+      this.sharedTypeCache = sharedTypeCache;
+      this.classLoader = new WeakReference<>(classLoader);
       cache =
           CacheBuilder.newBuilder()
               .initialCapacity(100) // Per classloader, so we want a small default.
@@ -83,12 +127,26 @@ public class AgentCachingPoolStrategy implements PoolStrategy {
        * We want to ensure this happens more regularly, so we schedule a thread to do run cleanup manually.
        */
       cleaner.scheduleCleaning(cache, CacheCleaner.CLEANER, expireDuration, unit);
+      if (sharedTypeCache == null) {
+        unshared = null;
+      } else {
+        unshared =
+            CacheBuilder.newBuilder()
+                .maximumSize(5000)
+                .expireAfterAccess(expireDuration, unit)
+                .build();
+        cleaner.scheduleCleaning(unshared, CacheCleaner.CLEANER, expireDuration, unit);
+      }
     }
 
     private static EvictingCacheProvider withObjectType(
-        final Cleaner cleaner, final long expireDuration, final TimeUnit unit) {
+        final Cleaner cleaner,
+        final long expireDuration,
+        final TimeUnit unit,
+        final SharedTypeCache sharedTypeCache,
+        final ClassLoader classLoader) {
       final EvictingCacheProvider cacheProvider =
-          new EvictingCacheProvider(cleaner, expireDuration, unit);
+          new EvictingCacheProvider(cleaner, expireDuration, unit, sharedTypeCache, classLoader);
       cacheProvider.register(
           Object.class.getName(), new TypePool.Resolution.Simple(TypeDescription.OBJECT));
       return cacheProvider;
@@ -96,7 +154,20 @@ public class AgentCachingPoolStrategy implements PoolStrategy {
 
     @Override
     public TypePool.Resolution find(final String name) {
-      return cache.getIfPresent(name);
+      TypePool.Resolution resolution = cache.getIfPresent(name);
+      if (resolution == null && sharedTypeCache != null && unshared.getIfPresent(name) == null) {
+        // Classes of the bootstrap loader are cached with its proxy.
+        final ClassLoader loader = classLoader.get();
+        final ClassLoader parent = loader == null ? null : loader.getParent();
+        final String location = SharedTypeCache.location(parent, name);
+        if (location == null) {
+          unshared.put(name, Boolean.TRUE);
+        } else {
+          resolution = sharedTypeCache.find(parent, location, name);
+          cache.put(name, resolution);
+        }
+      }
+      return resolution;
     }
 
     @Override
@@ -111,6 +182,9 @@ public class AgentCachingPoolStrategy implements PoolStrategy {
     @Override
     public void clear() {
       cache.invalidateAll();
+      if (unshared != null) {
+        unshared.invalidateAll();
+      }
     }
 
     public long size() {
@@ -139,4 +213,91 @@ public class AgentCachingPoolStrategy implements PoolStrategy {
       }
     }
   }
+
+  /**
+   * Type resolutions shared across classloaders, keyed by the URL of the class file.
+   *
+   * <p>Types are only shared when the parent of the classloader has the class file, so that under
+   * the usual parent-first delegation the class is defined by the parent and the same for all its
+   * children. They are resolved lazily through a pool of the parent, whose class file locator holds
+   * the parent weakly, so that a shared resolution neither retains the classloader that first
+   * looked it up nor resolves referenced types through it. The cache is bounded by {@link
+   * Config#getSharedTypeCacheSize()} entries and values are softly referenced.
+   */
+  static class SharedTypeCache {
+    private final Cache<String, TypePool.Resolution> cache;
+    private final WeakMap<ClassLoader, TypePool> parentPools = WeakMap.Provider.newWeakMap();
+    private final Cleaner cleaner;
+
+    SharedTypeCache(final Cleaner cleaner, final int maximumSize) {
+      this.cleaner = cleaner;
+      cache = CacheBuilder.newBuilder().maximumSize(maximumSize).softValues().recordStats().build();
+      cleaner.scheduleCleaning(this, StatsLogger.LOGGER, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @return the resolution of {@code name}, whose class file {@code parent} has at {@code
+     *     location}
+     */
+    TypePool.Resolution find(final ClassLoader parent, final String location, final String name) {
+      TypePool.Resolution resolution = cache.getIfPresent(location);
+      if (resolution == null) {
+        resolution = parentPool(parent).describe(name);
+        cache.put(location, resolution);
+      }
+      return resolution;
+    }
+
+    private TypePool parentPool(final ClassLoader parent) {
+      TypePool pool = parentPools.get(parent);
+      if (pool == null) {
+        synchronized (parentPools) {
+          pool = parentPools.get(parent);
+          if (pool == null) {
+            pool =
+                new TypePool.Default.WithLazyResolution(
+                    new EvictingCacheProvider(cleaner, 1, TimeUnit.MINUTES),
+                    ClassFileLocator.ForClassLoader.WeakReferenceClassFileLocator.of(parent),
+                    TypePool.Default.ReaderMode.FAST);
+            parentPools.put(parent, pool);
+          }
+        }
+      }
+      return pool;
+    }
+
+    /**
+     * @return the location of the class file of {@code name} in {@code parent}, or {@code null} if
+     *     the class is not shared
+     */
+    static String location(final ClassLoader parent, final String name) {
+      if (parent == null) {
+        return null;
+      }
+      try {
+        final URL url = parent.getResource(name.replace('.', '/') + ".class");
+        return url == null ? null : url.toString();
+      } catch (final RuntimeException e) {
+        return null;
+      }
+    }
+
+    private static class StatsLogger implements Cleaner.Adapter<SharedTypeCache> {
+      private static final StatsLogger LOGGER = new StatsLogger();
+
+      @Override
+      public void clean(final SharedTypeCache target) {
+        target.cache.cleanUp();
+        if (log.isDebugEnabled()) {
+          final CacheStats stats = target.cache.stats();
+          log.debug(
+              "Shared type cache: size={} hits={} misses={} evictions={}",
+              target.cache.size(),
+              stats.hitCount(),
+              stats.missCount(),
+              stats.evictionCount());
+        }
+      }
+    }
+  }
 }
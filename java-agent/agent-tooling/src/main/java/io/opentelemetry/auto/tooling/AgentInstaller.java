@@ -11,6 +11,8 @@ import static net.bytebuddy.matcher.ElementMatchers.none;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
 import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.api.ConfigFileWatcher;
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import java.lang.instrument.Instrumentation;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,7 +31,15 @@ import net.bytebuddy.utility.JavaModule;
 
 @Slf4j
 public class AgentInstaller {
-  private static final Map<String, List<Runnable>> CLASS_LOAD_CALLBACKS = new HashMap<>();
+  /**
+   * Immutable snapshot of pending class load callbacks, replaced on every change. Class loading
+   * only needs a volatile read and usually an empty check, while writers serialize on {@link
+   * #CLASS_LOAD_CALLBACKS_LOCK}.
+   */
+  private static volatile Map<String, List<Runnable>> classLoadCallbacks = Collections.emptyMap();
+
+  private static final Object CLASS_LOAD_CALLBACKS_LOCK = new Object();
+
   private static volatile Instrumentation INSTRUMENTATION;
 
   public static Instrumentation getInstrumentation() {
@@ -38,7 +48,12 @@ public class AgentInstaller {
 
   public static void installBytebuddyAgent(final Instrumentation inst) {
     if (Config.get().isTraceEnabled()) {
+      if (Config.get().isTraceDormant()) {
+        log.debug("Tracing is dormant until DormantMode.setDormant(false) is called.");
+        DormantMode.setDormant(true);
+      }
       installBytebuddyAgent(inst, new AgentBuilder.Listener[0]);
+      ConfigFileWatcher.startIfEnabled();
     } else {
       log.debug("Tracing is disabled, not installing instrumentations.");
     }
@@ -153,6 +168,7 @@ public class AgentInstaller {
       }
     }
     log.debug("Installed {} instrumenter(s)", numInstrumenters);
+    IntegrationSwitches.subscribe();
 
     return agentBuilder.installOn(inst);
   }
@@ -262,19 +278,37 @@ public class AgentInstaller {
    * <ul>
    *   <li>This callback will be invoked by a jvm class transformer.
    *   <li>Classes filtered out by {@link AgentInstaller}'s skip list will not be matched.
+   *   <li>The callback runs at most once: it is removed when the first class with a matching name
+   *       is loaded.
    * </ul>
    *
    * @param className name of the class to match against
    * @param callback runnable to invoke when class name matches
    */
   public static void registerClassLoadCallback(final String className, final Runnable callback) {
-    synchronized (CLASS_LOAD_CALLBACKS) {
-      List<Runnable> callbacks = CLASS_LOAD_CALLBACKS.get(className);
-      if (callbacks == null) {
-        callbacks = new ArrayList<>();
-        CLASS_LOAD_CALLBACKS.put(className, callbacks);
-      }
+    synchronized (CLASS_LOAD_CALLBACKS_LOCK) {
+      final Map<String, List<Runnable>> updated = new HashMap<>(classLoadCallbacks);
+      final List<Runnable> existing = updated.get(className);
+      final List<Runnable> callbacks =
+          existing == null ? new ArrayList<Runnable>() : new ArrayList<>(existing);
       callbacks.add(callback);
+      updated.put(className, Collections.unmodifiableList(callbacks));
+      classLoadCallbacks = Collections.unmodifiableMap(updated);
+    }
+  }
+
+  /** @return the callbacks registered for the class name, or null if another thread took them. */
+  private static List<Runnable> removeClassLoadCallbacks(final String className) {
+    synchronized (CLASS_LOAD_CALLBACKS_LOCK) {
+      final Map<String, List<Runnable>> updated = new HashMap<>(classLoadCallbacks);
+      final List<Runnable> callbacks = updated.remove(className);
+      if (callbacks != null) {
+        classLoadCallbacks =
+            updated.isEmpty()
+                ? Collections.<String, List<Runnable>>emptyMap()
+                : Collections.unmodifiableMap(updated);
+      }
+      return callbacks;
     }
   }
 
@@ -315,12 +349,14 @@ public class AgentInstaller {
         final ClassLoader classLoader,
         final JavaModule javaModule,
         final boolean b) {
-      synchronized (CLASS_LOAD_CALLBACKS) {
-        final List<Runnable> callbacks = CLASS_LOAD_CALLBACKS.get(typeName);
-        if (callbacks != null) {
-          for (final Runnable callback : callbacks) {
-            callback.run();
-          }
+      final Map<String, List<Runnable>> pending = classLoadCallbacks;
+      if (pending.isEmpty() || !pending.containsKey(typeName)) {
+        return;
+      }
+      final List<Runnable> callbacks = removeClassLoadCallbacks(typeName);
+      if (callbacks != null) {
+        for (final Runnable callback : callbacks) {
+          callback.run();
         }
       }
     }
@@ -0,0 +1,44 @@
+package io.opentelemetry.auto.tooling;
+
+import io.opentelemetry.auto.bootstrap.DormantMode;
+import io.opentelemetry.sdk.trace.Sampler;
+import io.opentelemetry.sdk.trace.Samplers;
+import io.opentelemetry.trace.Link;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceId;
+import java.util.List;
+
+/**
+ * Samples every span started through the SDK with a {@link HeadSampler}, whether it was started
+ * through {@link AgentTracerImpl} or directly through an OpenTelemetry tracer. Children of spans
+ * that are not sampled are therefore not recorded either, and propagate the cleared sampled flag.
+ * Nothing is sampled while {@link DormantMode#isDormant() dormant}.
+ */
+final class AgentSampler implements Sampler {
+  private static final Sampler SAMPLED = Samplers.alwaysOn();
+  private static final Sampler NOT_SAMPLED = Samplers.alwaysOff();
+
+  private final HeadSampler sampler;
+
+  AgentSampler(final HeadSampler sampler) {
+    this.sampler = sampler;
+  }
+
+  @Override
+  public Decision shouldSample(
+      final SpanContext parentContext,
+      final TraceId traceId,
+      final SpanId spanId,
+      final String name,
+      final List<Link> parentLinks) {
+    final boolean sampled = !DormantMode.isDormant() && sampler.sample(name, parentContext);
+    return (sampled ? SAMPLED : NOT_SAMPLED)
+        .shouldSample(parentContext, traceId, spanId, name, parentLinks);
+  }
+
+  @Override
+  public String getDescription() {
+    return "AgentSampler";
+  }
+}
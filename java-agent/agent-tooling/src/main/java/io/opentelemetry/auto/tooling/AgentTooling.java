@@ -1,5 +1,6 @@
 package io.opentelemetry.auto.tooling;
 
+import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.bootstrap.WeakMap;
 
 /**
@@ -18,6 +19,7 @@ public class AgentTooling {
   private static final AgentLocationStrategy LOCATION_STRATEGY = new AgentLocationStrategy();
   private static final AgentCachingPoolStrategy POOL_STRATEGY =
       new AgentCachingPoolStrategy(CLEANER);
+  private static final TypeMatchCache TYPE_MATCH_CACHE = TypeMatchCache.create(Config.get());
 
   public static void init() {
     // Only need to trigger static initializers for now.
@@ -31,6 +33,11 @@ public class AgentTooling {
     return POOL_STRATEGY;
   }
 
+  /** @return the persistent type match cache, or null if it is not configured */
+  public static TypeMatchCache typeMatchCache() {
+    return TYPE_MATCH_CACHE;
+  }
+
   private static void registerWeakMapProvider(final Cleaner cleaner) {
     if (!WeakMap.Provider.isProviderRegistered()) {
       WeakMap.Provider.registerIfAbsent(new WeakMapSuppliers.WeakConcurrent(cleaner));
@@ -3,11 +3,15 @@ package io.opentelemetry.auto.tooling;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 
 import io.opentelemetry.auto.api.MoreTags;
+import io.opentelemetry.auto.bootstrap.DormantMode;
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
+import io.opentelemetry.auto.decorator.BaseDecorator;
 import io.opentelemetry.auto.instrumentation.api.AgentPropagation;
 import io.opentelemetry.auto.instrumentation.api.AgentPropagation.Getter;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.AgentTracer.TracerAPI;
+import io.opentelemetry.auto.instrumentation.api.TraceContextExtractor;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.context.propagation.HttpTextFormat;
 import io.opentelemetry.sdk.trace.ReadableSpan;
@@ -16,16 +20,29 @@ import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.SpanContext;
 import io.opentelemetry.trace.Status;
 import io.opentelemetry.trace.Tracer;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 
 public final class AgentTracerImpl implements TracerAPI {
+  private static final long NO_START_TIME = Long.MIN_VALUE;
 
   private final Tracer tracer;
   private final AgentPropagationImpl propagation = new AgentPropagationImpl();
 
   private final AgentSpanImpl noopSpan;
 
+  /**
+   * Per-thread bridge state. The SDK span classes are final so the wrapper cannot be stored on the
+   * span itself; instead the most recently seen wrapper is remembered per thread, which covers the
+   * common pattern of advice calling {@link #activeSpan()} repeatedly while the same span is
+   * current.
+   */
+  private final ThreadLocal<ThreadState> threadState =
+      new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+          return new ThreadState();
+        }
+      };
+
   public AgentTracerImpl(final Tracer tracer) {
     this.tracer = tracer;
     noopSpan = new AgentSpanImpl(DefaultSpan.getInvalid());
@@ -33,29 +50,67 @@ public final class AgentTracerImpl implements TracerAPI {
 
   @Override
   public AgentSpan startSpan(final String spanName) {
-    return new AgentSpanImpl(spanName);
+    return new AgentSpanImpl(start(spanName, null, false, NO_START_TIME));
   }
 
   @Override
   public AgentSpan startSpan(final String spanName, final long startTimeMicros) {
-    return new AgentSpanImpl(spanName, startTimeMicros);
+    return new AgentSpanImpl(start(spanName, null, false, startTimeMicros));
   }
 
   @Override
   public AgentSpan startSpan(final String spanName, final AgentSpan.Context parent) {
-    return new AgentSpanImpl(spanName, (AgentContextImpl) parent);
+    return new AgentSpanImpl(
+        start(spanName, ((AgentContextImpl) parent).context, true, NO_START_TIME));
   }
 
   @Override
   public AgentSpan startSpan(
       final String spanName, final AgentSpan.Context parent, final long startTimeMicros) {
-    return new AgentSpanImpl(spanName, parent, startTimeMicros);
+    return new AgentSpanImpl(
+        start(spanName, ((AgentContextImpl) parent).context, true, startTimeMicros));
+  }
+
+  /**
+   * @param parent the context of the parent, or {@code null} for none
+   * @param explicitParent whether {@code parent} is used rather than the current span
+   */
+  private Span start(
+      final String spanName,
+      final SpanContext parent,
+      final boolean explicitParent,
+      final long startTimeMicros) {
+    if (DormantMode.isDormant()) {
+      // Covers spans started outside advice, e.g. by wrappers installed before suspending.
+      return DefaultSpan.getInvalid();
+    }
+    final Span.Builder spanBuilder = tracer.spanBuilder(spanName);
+    if (explicitParent) {
+      if (parent == null) {
+        spanBuilder.setNoParent();
+      } else {
+        spanBuilder.setParent(parent);
+      }
+    }
+    if (startTimeMicros != NO_START_TIME) {
+      spanBuilder.setStartTimestamp(MICROSECONDS.toNanos(startTimeMicros));
+    }
+    // Sampled by the AgentSampler installed in the SDK.
+    final Span span = spanBuilder.startSpan();
+    if (!(span instanceof ReadableSpan)) {
+      // Recorded spans are reported by the SDK, see SpanMetricsProcessor.
+      SpanMetrics.started(span, spanName);
+    }
+    return span;
   }
 
   @Override
   public AgentScope activateSpan(final AgentSpan span, final boolean finishSpanOnClose) {
-    final Scope scope = tracer.withSpan(((AgentSpanImpl) span).span);
-    return new AgentScopeImpl(span, scope, finishSpanOnClose);
+    final AgentSpanImpl agentSpan = (AgentSpanImpl) span;
+    final Scope scope = tracer.withSpan(agentSpan.span);
+    final ThreadState state = threadState.get();
+    state.lastActiveSpan = agentSpan;
+    return new AgentScopeImpl(agentSpan, scope, finishSpanOnClose);
   }
 
   @Override
@@ -64,7 +119,14 @@ public final class AgentTracerImpl implements TracerAPI {
     if (!span.getContext().isValid()) {
       return null;
     }
-    return new AgentSpanImpl(span);
+    final ThreadState state = threadState.get();
+    final AgentSpanImpl cached = state.lastActiveSpan;
+    if (cached != null && cached.span == span) {
+      return cached;
+    }
+    final AgentSpanImpl agentSpan = new AgentSpanImpl(span);
+    state.lastActiveSpan = agentSpan;
+    return agentSpan;
   }
 
   @Override
@@ -81,40 +143,8 @@ public final class AgentTracerImpl implements TracerAPI {
 
     private final Span span;
 
-    private AgentSpanImpl(final String spanName) {
-      this(tracer.spanBuilder(spanName).startSpan());
-    }
-
-    private AgentSpanImpl(final String spanName, final long startTimeMicros) {
-      this(
-          tracer
-              .spanBuilder(spanName)
-              .setStartTimestamp(MICROSECONDS.toNanos(startTimeMicros))
-              .startSpan());
-    }
-
-    private AgentSpanImpl(final String spanName, final AgentContextImpl parent) {
-      final SpanContext context = parent.context;
-      final Span.Builder spanBuilder = tracer.spanBuilder(spanName);
-      if (context == null) {
-        spanBuilder.setNoParent();
-      } else {
-        spanBuilder.setParent(context);
-      }
-      span = spanBuilder.startSpan();
-    }
-
-    private AgentSpanImpl(final String spanName, final Context parent, final long startTimeMicros) {
-      final SpanContext context = ((AgentContextImpl) parent).context;
-      final Span.Builder spanBuilder =
-          tracer.spanBuilder(spanName).setStartTimestamp(MICROSECONDS.toNanos(startTimeMicros));
-      if (context == null) {
-        spanBuilder.setNoParent();
-      } else {
-        spanBuilder.setParent(context);
-      }
-      span = spanBuilder.startSpan();
-    }
+    // lazily created, benign race since AgentContextImpl is immutable
+    private AgentContextImpl context;
 
     private AgentSpanImpl(final Span span) {
       this.span = span;
@@ -166,27 +196,30 @@ public final class AgentTracerImpl implements TracerAPI {
 
     @Override
     public AgentSpan addThrowable(final Throwable throwable) {
-      final String message = throwable.getMessage();
-      if (message != null) {
-        span.setAttribute(MoreTags.ERROR_MSG, message);
-      }
-      span.setAttribute(MoreTags.ERROR_TYPE, throwable.getClass().getName());
-
-      final StringWriter errorString = new StringWriter();
-      throwable.printStackTrace(new PrintWriter(errorString));
-      span.setAttribute(MoreTags.ERROR_STACK, errorString.toString());
+      BaseDecorator.addThrowable(span, throwable);
       return this;
     }
 
     @Override
     public AgentContextImpl context() {
-      final SpanContext context = span.getContext();
-      return new AgentContextImpl(context);
+      AgentContextImpl context = this.context;
+      if (context == null) {
+        context = new AgentContextImpl(span.getContext());
+        this.context = context;
+      }
+      return context;
     }
 
     @Override
     public void finish() {
+      // Spans that are not recorded never reach SpanMetricsProcessor.
+      SpanMetrics.finished(span);
       span.end();
+      // Do not retain the ended span until the next span is activated on this thread.
+      final ThreadState state = threadState.get();
+      if (state.lastActiveSpan == this) {
+        state.lastActiveSpan = null;
+      }
     }
 
     @Override
@@ -208,6 +241,11 @@ public final class AgentTracerImpl implements TracerAPI {
       return span;
     }
 
+    @Override
+    public boolean isRecording() {
+      return BaseDecorator.isRecording(span);
+    }
+
     @Override
     public int hashCode() {
       return span.hashCode();
@@ -223,16 +261,15 @@ public final class AgentTracerImpl implements TracerAPI {
     }
   }
 
-  private final class AgentScopeImpl implements AgentScope {
+  private static final class AgentScopeImpl implements AgentScope {
 
     private final AgentSpanImpl span;
     private final Scope scope;
     private final boolean finishSpanOnClose;
 
     private AgentScopeImpl(
-        final AgentSpan span, final Scope scope, final boolean finishSpanOnClose) {
-      assert span instanceof AgentSpanImpl;
-      this.span = (AgentSpanImpl) span;
+        final AgentSpanImpl span, final Scope scope, final boolean finishSpanOnClose) {
+      this.span = span;
       this.scope = scope;
       this.finishSpanOnClose = finishSpanOnClose;
     }
@@ -265,6 +302,10 @@ public final class AgentTracerImpl implements TracerAPI {
     }
   }
 
+  private static final class ThreadState {
+    private AgentSpanImpl lastActiveSpan;
+  }
+
   private final class AgentPropagationImpl implements AgentPropagation {
 
     @Override
@@ -293,13 +334,10 @@ public final class AgentTracerImpl implements TracerAPI {
 
     @Override
     public <C> AgentSpan.Context extract(final C carrier, final Getter<C> getter) {
-      SpanContext extract;
-      try {
-        extract = tracer.getHttpTextFormat().extract(carrier, new Extractor<>(getter));
-      } catch (final IllegalArgumentException e) {
-        extract = null;
-      }
-      return new AgentContextImpl(extract);
+      final SpanContext extract =
+          TraceContextExtractor.extract(
+              tracer.getHttpTextFormat(), carrier, new Extractor<>(getter));
+      return extract == null ? AgentContextImpl.NO_PARENT : new AgentContextImpl(extract);
     }
   }
 
@@ -318,6 +356,9 @@ public final class AgentTracerImpl implements TracerAPI {
   }
 
   private static final class AgentContextImpl implements AgentSpan.Context {
+    /** Shared result of extracting from a carrier without (valid) trace context. */
+    private static final AgentContextImpl NO_PARENT = new AgentContextImpl(null);
+
     private final SpanContext context;
 
     private AgentContextImpl(final SpanContext context) {
@@ -7,6 +7,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.build.HashCodeAndEqualsPlugin;
 import net.bytebuddy.description.method.MethodDescription;
@@ -22,6 +23,16 @@ import net.bytebuddy.matcher.ElementMatchers;
 @Slf4j
 public class ByteBuddyElementMatchers {
 
+  private static final AtomicLong SWALLOWED_EXCEPTIONS = new AtomicLong();
+
+  /**
+   * @return the number of exceptions these matchers caught so far. A match result is incomplete if
+   *     this changed while matching.
+   */
+  static long swallowedExceptions() {
+    return SWALLOWED_EXCEPTIONS.get();
+  }
+
   /**
    * Matches any type description that declares a super type that matches the provided matcher.
    * Exceptions during matching process are logged and ignored.
@@ -70,6 +81,7 @@ public class ByteBuddyElementMatchers {
     try {
       return typeDefinition.asErasure();
     } catch (final Exception e) {
+      SWALLOWED_EXCEPTIONS.incrementAndGet();
       log.debug(
           "{} trying to get erasure for target {}: {}",
           e.getClass().getSimpleName(),
@@ -133,6 +145,7 @@ public class ByteBuddyElementMatchers {
       try {
         return typeDefinition.getSuperClass();
       } catch (final Exception e) {
+        SWALLOWED_EXCEPTIONS.incrementAndGet();
         log.debug(
             "{} trying to get super class for target {}: {}",
             e.getClass().getSimpleName(),
@@ -179,6 +192,7 @@ public class ByteBuddyElementMatchers {
           interfaceTypes.add(interfaceIter.next());
         }
       } catch (final Exception e) {
+        SWALLOWED_EXCEPTIONS.incrementAndGet();
         log.debug(
             "{} trying to get interfaces for target {}: {}",
             e.getClass().getSimpleName(),
@@ -277,6 +291,7 @@ public class ByteBuddyElementMatchers {
       try {
         return matcher.matches(target);
       } catch (final Exception e) {
+        SWALLOWED_EXCEPTIONS.incrementAndGet();
         log.debug(description, e);
         return fallback;
       }
@@ -365,6 +380,7 @@ public class ByteBuddyElementMatchers {
       try {
         return typeDefinition.getSuperClass();
       } catch (final Exception e) {
+        SWALLOWED_EXCEPTIONS.incrementAndGet();
         log.debug(
             "{} trying to get super class for target {}: {}",
             e.getClass().getSimpleName(),
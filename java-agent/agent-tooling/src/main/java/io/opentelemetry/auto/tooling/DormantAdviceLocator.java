@@ -0,0 +1,316 @@
+package io.opentelemetry.auto.tooling;
+
+import io.opentelemetry.auto.bootstrap.DormantMode;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.jar.asm.AnnotationVisitor;
+import net.bytebuddy.jar.asm.ClassReader;
+import net.bytebuddy.jar.asm.ClassVisitor;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+
+/**
+ * Locates advice classes with a {@link DormantMode} check prepended to their advice methods.
+ *
+ * <p>While dormant, enter advice returns the default value of its return type and records with
+ * {@link DormantMode#skipEnter(int)} that it was skipped. Exit advice returns right away when its
+ * enter advice was skipped, so exit advice of enter advice that ran before a switch, e.g. to reset
+ * a call depth, still runs. The default value is not a reliable marker because enter advice may
+ * return it when it ran. Exit advice without enter advice is not guarded, so objects created while
+ * dormant are still wrapped; the wrappers and handlers such advice installs check {@link
+ * DormantMode} themselves before starting a span. Advice declaring {@code skipOn} is left untouched
+ * since a default value could skip the instrumented method.
+ *
+ * <p>Advice of an integration registered with {@link DormantMode#registerIntegration(String...)}
+ * is also skipped while that integration alone is switched off.
+ */
+class DormantAdviceLocator implements ClassFileLocator {
+  private static final String DORMANT_MODE = Type.getInternalName(DormantMode.class);
+  private static final String ON_METHOD_ENTER = Type.getDescriptor(Advice.OnMethodEnter.class);
+  private static final String ON_METHOD_EXIT = Type.getDescriptor(Advice.OnMethodExit.class);
+  private static final String ENTER = Type.getDescriptor(Advice.Enter.class);
+
+  private final ClassFileLocator delegate;
+  private final Set<String> adviceClassNames;
+  private final int integration;
+  private final ConcurrentMap<String, byte[]> guardedAdvice = new ConcurrentHashMap<>();
+
+  DormantAdviceLocator(final ClassFileLocator delegate, final Set<String> adviceClassNames) {
+    this(delegate, adviceClassNames, DormantMode.ALL);
+  }
+
+  DormantAdviceLocator(
+      final ClassFileLocator delegate, final Set<String> adviceClassNames, final int integration) {
+    this.delegate = delegate;
+    this.adviceClassNames = adviceClassNames;
+    this.integration = integration;
+  }
+
+  @Override
+  public Resolution locate(final String name) throws IOException {
+    if (!adviceClassNames.contains(name)) {
+      return new Resolution.Illegal(name);
+    }
+    byte[] bytes = guardedAdvice.get(name);
+    if (bytes == null) {
+      final Resolution resolution = delegate.locate(name);
+      if (!resolution.isResolved()) {
+        return resolution;
+      }
+      bytes = guard(resolution.resolve(), integration);
+      guardedAdvice.putIfAbsent(name, bytes);
+    }
+    return new Resolution.Explicit(bytes);
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+
+  static byte[] guard(final byte[] adviceBytes) {
+    return guard(adviceBytes, DormantMode.ALL);
+  }
+
+  static byte[] guard(final byte[] adviceBytes, final int integration) {
+    final ClassReader reader = new ClassReader(adviceBytes);
+    final EnterAdviceScanner scanner = new EnterAdviceScanner();
+    reader.accept(scanner, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+    if (scanner.skipOn) {
+      return adviceBytes;
+    }
+
+    final ClassWriter writer = new ClassWriter(reader, 0);
+    reader.accept(
+        new GuardingClassVisitor(writer, scanner.enterReturnType, scanner.exit, integration), 0);
+    return writer.toByteArray();
+  }
+
+  /** Finds the return type of the enter advice and whether there is exit advice to guard. */
+  private static class EnterAdviceScanner extends ClassVisitor {
+    private Type enterReturnType;
+    // Only exit advice returning void is guarded.
+    private boolean exit;
+    private boolean skipOn;
+
+    EnterAdviceScanner() {
+      super(Opcodes.ASM7);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(
+        final int access,
+        final String name,
+        final String descriptor,
+        final String signature,
+        final String[] exceptions) {
+      return new MethodVisitor(Opcodes.ASM7) {
+        @Override
+        public AnnotationVisitor visitAnnotation(final String annotation, final boolean visible) {
+          if (ON_METHOD_EXIT.equals(annotation)) {
+            exit = Type.getReturnType(descriptor) == Type.VOID_TYPE;
+            return null;
+          }
+          if (!ON_METHOD_ENTER.equals(annotation)) {
+            return null;
+          }
+          enterReturnType = Type.getReturnType(descriptor);
+          return new AnnotationVisitor(Opcodes.ASM7) {
+            @Override
+            public void visit(final String name, final Object value) {
+              if ("skipOn".equals(name)) {
+                skipOn = true;
+              }
+            }
+          };
+        }
+      };
+    }
+  }
+
+  private static class GuardingClassVisitor extends ClassVisitor {
+    private final Type enterReturnType;
+    private final boolean guardsExit;
+    private final int integration;
+    private boolean frames;
+
+    GuardingClassVisitor(
+        final ClassVisitor classVisitor,
+        final Type enterReturnType,
+        final boolean exit,
+        final int integration) {
+      super(Opcodes.ASM7, classVisitor);
+      this.enterReturnType = enterReturnType;
+      guardsExit = enterReturnType != null && exit;
+      this.integration = integration;
+    }
+
+    @Override
+    public void visit(
+        final int version,
+        final int access,
+        final String name,
+        final String signature,
+        final String superName,
+        final String[] interfaces) {
+      frames = (version & 0xFFFF) >= Opcodes.V1_6;
+      super.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(
+        final int access,
+        final String name,
+        final String descriptor,
+        final String signature,
+        final String[] exceptions) {
+      return new GuardingMethodVisitor(
+          super.visitMethod(access, name, descriptor, signature, exceptions), access, descriptor);
+    }
+
+    private class GuardingMethodVisitor extends MethodVisitor {
+      private final int access;
+      private final String descriptor;
+      private boolean enter;
+      private boolean exit;
+      private int enterParameter = -1;
+
+      GuardingMethodVisitor(
+          final MethodVisitor methodVisitor, final int access, final String descriptor) {
+        super(Opcodes.ASM7, methodVisitor);
+        this.access = access;
+        this.descriptor = descriptor;
+      }
+
+      @Override
+      public AnnotationVisitor visitAnnotation(final String annotation, final boolean visible) {
+        if (ON_METHOD_ENTER.equals(annotation)) {
+          enter = true;
+        } else if (ON_METHOD_EXIT.equals(annotation)) {
+          exit = true;
+        }
+        return super.visitAnnotation(annotation, visible);
+      }
+
+      @Override
+      public AnnotationVisitor visitParameterAnnotation(
+          final int parameter, final String annotation, final boolean visible) {
+        if (ENTER.equals(annotation)) {
+          enterParameter = parameter;
+        }
+        return super.visitParameterAnnotation(parameter, annotation, visible);
+      }
+
+      @Override
+      public void visitCode() {
+        super.visitCode();
+        if (enter) {
+          guardEnter();
+        } else if (exit && guardsExit) {
+          guardExit();
+        }
+      }
+
+      @Override
+      public void visitMaxs(final int maxStack, final int maxLocals) {
+        // The guard pushes at most a long or double default value.
+        super.visitMaxs(Math.max(maxStack, 2), maxLocals);
+      }
+
+      private void guardEnter() {
+        final Type returnType = Type.getReturnType(descriptor);
+        final Label active = new Label();
+        checkDormant();
+        super.visitJumpInsn(Opcodes.IFEQ, active);
+        if (guardsExit) {
+          super.visitLdcInsn(integration);
+          super.visitMethodInsn(Opcodes.INVOKESTATIC, DORMANT_MODE, "skipEnter", "(I)V", false);
+        }
+        switch (returnType.getSort()) {
+          case Type.VOID:
+            break;
+          case Type.LONG:
+            super.visitInsn(Opcodes.LCONST_0);
+            break;
+          case Type.FLOAT:
+            super.visitInsn(Opcodes.FCONST_0);
+            break;
+          case Type.DOUBLE:
+            super.visitInsn(Opcodes.DCONST_0);
+            break;
+          case Type.OBJECT:
+          case Type.ARRAY:
+            super.visitInsn(Opcodes.ACONST_NULL);
+            break;
+          default:
+            super.visitInsn(Opcodes.ICONST_0);
+        }
+        super.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+        resume(active);
+      }
+
+      private void guardExit() {
+        final Label active = new Label();
+        if (enterParameter >= 0) {
+          // Enter advice that was skipped returned the default value, so others need no lookup.
+          switch (enterReturnType.getSort()) {
+            case Type.OBJECT:
+            case Type.ARRAY:
+              super.visitVarInsn(Opcodes.ALOAD, slotOf(enterParameter));
+              super.visitJumpInsn(Opcodes.IFNONNULL, active);
+              break;
+            case Type.BOOLEAN:
+            case Type.CHAR:
+            case Type.BYTE:
+            case Type.SHORT:
+            case Type.INT:
+              super.visitVarInsn(Opcodes.ILOAD, slotOf(enterParameter));
+              super.visitJumpInsn(Opcodes.IFNE, active);
+              break;
+            default:
+              break;
+          }
+        }
+        super.visitLdcInsn(integration);
+        super.visitMethodInsn(Opcodes.INVOKESTATIC, DORMANT_MODE, "skipExit", "(I)Z", false);
+        super.visitJumpInsn(Opcodes.IFEQ, active);
+        super.visitInsn(Opcodes.RETURN);
+        resume(active);
+      }
+
+      private void checkDormant() {
+        if (integration == DormantMode.ALL) {
+          super.visitMethodInsn(Opcodes.INVOKESTATIC, DORMANT_MODE, "isDormant", "()Z", false);
+        } else {
+          super.visitLdcInsn(integration);
+          super.visitMethodInsn(Opcodes.INVOKESTATIC, DORMANT_MODE, "isDormant", "(I)Z", false);
+        }
+      }
+
+      /** Continue with the original advice code, which may itself start with a frame. */
+      private void resume(final Label active) {
+        super.visitLabel(active);
+        if (frames) {
+          super.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        }
+        super.visitInsn(Opcodes.NOP);
+      }
+
+      private int slotOf(final int parameter) {
+        int slot = (access & Opcodes.ACC_STATIC) != 0 ? 0 : 1;
+        final Type[] argumentTypes = Type.getArgumentTypes(descriptor);
+        for (int i = 0; i < parameter; i++) {
+          slot += argumentTypes[i].getSize();
+        }
+        return slot;
+      }
+    }
+  }
+}
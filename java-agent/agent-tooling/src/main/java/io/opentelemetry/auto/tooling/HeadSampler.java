@@ -0,0 +1,108 @@
+package io.opentelemetry.auto.tooling;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.trace.SpanContext;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a span starts whether it is recorded, so that instrumentation can skip decorating
+ * spans that would not be exported anyway. The SDK asks it through {@link AgentSampler}.
+ *
+ * <p>A span with a parent follows the parent's sampled flag if {@link
+ * Config#TRACE_SAMPLER_PARENT_BASED} is set, which keeps traces complete. Other spans are recorded
+ * with the probability {@link Config#TRACE_SAMPLER_PROBABILITY}, and at most {@link
+ * Config#TRACE_SAMPLER_RATE_LIMIT} times per second for each span name, i.e. per endpoint or
+ * operation of an integration.
+ */
+final class HeadSampler implements Config.Listener {
+  // Bounds the rate limiters kept for distinct span names, the rest share one.
+  private static final int MAX_RATE_LIMITED_NAMES = 1024;
+
+  private final ConcurrentMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+  private volatile boolean parentBased;
+  private volatile double probability;
+  private volatile int rateLimit;
+  private volatile RateLimiter sharedRateLimiter;
+
+  HeadSampler() {
+    Config.subscribe(this);
+  }
+
+  @Override
+  public void onChange(final Config config) {
+    parentBased = config.isTraceSamplerParentBased();
+    probability = config.getTraceSamplerProbability();
+    final int rateLimit = config.getTraceSamplerRateLimit();
+    if (rateLimit != this.rateLimit) {
+      sharedRateLimiter = new RateLimiter(rateLimit);
+      rateLimiters.clear();
+      this.rateLimit = rateLimit;
+    }
+  }
+
+  /**
+   * @param parent the context of the parent span, or {@code null} for a root span
+   * @return whether the span is recorded
+   */
+  boolean sample(final String spanName, final SpanContext parent) {
+    if (parentBased && parent != null && parent.isValid()) {
+      return parent.getTraceFlags().isSampled();
+    }
+    final double probability = this.probability;
+    if (probability < 1.0
+        && (probability <= 0.0 || ThreadLocalRandom.current().nextDouble() >= probability)) {
+      return false;
+    }
+    return rateLimit <= 0 || rateLimiter(spanName).tryAcquire();
+  }
+
+  private RateLimiter rateLimiter(final String spanName) {
+    RateLimiter limiter = rateLimiters.get(spanName);
+    if (limiter == null) {
+      if (rateLimiters.size() >= MAX_RATE_LIMITED_NAMES) {
+        return sharedRateLimiter;
+      }
+      final RateLimiter created = new RateLimiter(rateLimit);
+      limiter = rateLimiters.putIfAbsent(spanName, created);
+      if (limiter == null) {
+        limiter = created;
+      }
+    }
+    return limiter;
+  }
+
+  /**
+   * Grants a number of permits per second. Threads racing at the turn of a second may be granted a
+   * few permits more.
+   */
+  static final class RateLimiter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int perSecond;
+    private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger granted = new AtomicInteger();
+
+    RateLimiter(final int perSecond) {
+      this.perSecond = perSecond;
+    }
+
+    boolean tryAcquire() {
+      return tryAcquire(System.nanoTime());
+    }
+
+    boolean tryAcquire(final long nanoTime) {
+      final long now = nanoTime / NANOS_PER_SECOND;
+      final long current = second.get();
+      if (now != current && second.compareAndSet(current, now)) {
+        granted.set(0);
+      }
+      return granted.get() < perSecond && granted.incrementAndGet() <= perSecond;
+    }
+  }
+}
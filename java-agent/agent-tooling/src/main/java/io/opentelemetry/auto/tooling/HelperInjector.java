@@ -17,7 +17,11 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.agent.builder.AgentBuilder.Transformer;
 import net.bytebuddy.description.type.TypeDescription;
@@ -26,13 +30,35 @@ import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.loading.ClassInjector;
 import net.bytebuddy.utility.JavaModule;
 
-/** Injects instrumentation helper classes into the user's classloader. */
+/**
+ * Injects instrumentation helper classes into the user's classloader.
+ *
+ * <p>Helper bytes located on the agent classloader are cached for the lifetime of the agent, and
+ * helpers shared between instrumentations are only injected once per classloader.
+ */
 @Slf4j
 public class HelperInjector implements Transformer {
   // Need this because we can't put null into the injectedClassLoaders map.
   private static final ClassLoader BOOTSTRAP_CLASSLOADER_PLACEHOLDER =
       new SecureClassLoader(null) {};
 
+  /** Bytes of helper classes located on the agent classloader, by class name. */
+  private static final ConcurrentMap<String, byte[]> HELPER_BYTES = new ConcurrentHashMap<>();
+
+  /** Names of agent helper classes already injected, by classloader, across all injectors. */
+  private static final WeakMap<ClassLoader, Set<String>> INJECTED_HELPERS = newWeakMap();
+
+  private static final WeakMap.ValueSupplier<Set<String>> INJECTED_HELPERS_SUPPLIER =
+      new WeakMap.ValueSupplier<Set<String>>() {
+        @Override
+        public Set<String> get() {
+          return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        }
+      };
+
+  private static final AtomicLong INJECTION_COUNT = new AtomicLong();
+  private static final AtomicLong INJECTION_NANOS = new AtomicLong();
+
   private final Set<String> helperClassNames;
   private final Map<String, byte[]> dynamicTypeMap = new LinkedHashMap<>();
 
@@ -65,15 +91,40 @@ public class HelperInjector implements Transformer {
     return new HelperInjector(bytes);
   }
 
-  private Map<String, byte[]> getHelperMap() throws IOException {
+  /**
+   * @return the number of injections, counted once per injector and classloader, so a classloader
+   *     that several instrumentations inject helpers into is counted several times
+   */
+  public static long getInjectionCount() {
+    return INJECTION_COUNT.get();
+  }
+
+  /** @return the total time spent injecting helper classes, in nanoseconds */
+  public static long getInjectionTimeNanos() {
+    return INJECTION_NANOS.get();
+  }
+
+  /**
+   * @param injected names of agent helpers already present on the target classloader
+   * @return helper bytes still to be injected, in injection order
+   */
+  private Map<String, byte[]> getHelperMap(final Set<String> injected) throws IOException {
     if (dynamicTypeMap.isEmpty()) {
       final Map<String, byte[]> classnameToBytes = new LinkedHashMap<>();
 
-      final ClassFileLocator locator =
-          ClassFileLocator.ForClassLoader.of(Utils.getAgentClassLoader());
-
+      ClassFileLocator locator = null;
       for (final String helperClassName : helperClassNames) {
-        final byte[] classBytes = locator.locate(helperClassName).resolve();
+        if (injected.contains(helperClassName)) {
+          continue;
+        }
+        byte[] classBytes = HELPER_BYTES.get(helperClassName);
+        if (classBytes == null) {
+          if (locator == null) {
+            locator = ClassFileLocator.ForClassLoader.of(Utils.getAgentClassLoader());
+          }
+          classBytes = locator.locate(helperClassName).resolve();
+          HELPER_BYTES.putIfAbsent(helperClassName, classBytes);
+        }
         classnameToBytes.put(helperClassName, classBytes);
       }
 
@@ -96,11 +147,21 @@ public class HelperInjector implements Transformer {
 
       if (!injectedClassLoaders.containsKey(classLoader)) {
         try {
-          log.debug("Injecting classes onto classloader {} -> {}", classLoader, helperClassNames);
+          final long start = System.nanoTime();
+          final Set<String> injected =
+              dynamicTypeMap.isEmpty()
+                  ? INJECTED_HELPERS.getOrCreate(classLoader, INJECTED_HELPERS_SUPPLIER)
+                  : Collections.<String>emptySet();
+          final Map<String, byte[]> classnameToBytes = getHelperMap(injected);
+          log.debug(
+              "Injecting classes onto classloader {} -> {}",
+              classLoader,
+              classnameToBytes.keySet());
 
-          final Map<String, byte[]> classnameToBytes = getHelperMap();
           final Map<String, Class<?>> classes;
-          if (classLoader == BOOTSTRAP_CLASSLOADER_PLACEHOLDER) {
+          if (classnameToBytes.isEmpty()) {
+            classes = Collections.emptyMap();
+          } else if (classLoader == BOOTSTRAP_CLASSLOADER_PLACEHOLDER) {
             classes =
                 ClassInjector.UsingInstrumentation.of(
                         new File(System.getProperty("java.io.tmpdir")),
@@ -110,14 +171,33 @@ public class HelperInjector implements Transformer {
           } else {
             classes = new ClassInjector.UsingReflection(classLoader).injectRaw(classnameToBytes);
           }
+          if (dynamicTypeMap.isEmpty()) {
+            injected.addAll(classnameToBytes.keySet());
+          }
 
           // All agent helper classes are in the unnamed module
           // And there's exactly one unnamed module per classloader
           // Use the module of the first class for convenience
           if (JavaModule.isSupported()) {
-            final JavaModule javaModule = JavaModule.ofType(classes.values().iterator().next());
+            final Class<?> helperClass =
+                classes.isEmpty()
+                    ? Class.forName(
+                        helperClassNames.iterator().next(),
+                        false,
+                        classLoader == BOOTSTRAP_CLASSLOADER_PLACEHOLDER ? null : classLoader)
+                    : classes.values().iterator().next();
+            final JavaModule javaModule = JavaModule.ofType(helperClass);
             helperModules.add(new WeakReference<>(javaModule.unwrap()));
           }
+
+          final long duration = System.nanoTime() - start;
+          INJECTION_COUNT.incrementAndGet();
+          INJECTION_NANOS.addAndGet(duration);
+          log.debug(
+              "Injected {} helper classes onto classloader {} in {} us",
+              classes.size(),
+              classLoader,
+              TimeUnit.NANOSECONDS.toMicros(duration));
         } catch (final Exception e) {
           final String classLoaderType =
               classLoader == BOOTSTRAP_CLASSLOADER_PLACEHOLDER
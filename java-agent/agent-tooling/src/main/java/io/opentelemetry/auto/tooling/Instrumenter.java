@@ -1,6 +1,5 @@
 package io.opentelemetry.auto.tooling;
 
-import static io.opentelemetry.auto.tooling.ByteBuddyElementMatchers.failSafe;
 import static net.bytebuddy.matcher.ElementMatchers.any;
 
 import io.opentelemetry.auto.api.Config;
@@ -11,6 +10,7 @@ import io.opentelemetry.auto.tooling.muzzle.ReferenceMatcher;
 import java.security.ProtectionDomain;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
@@ -19,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.utility.JavaModule;
 
@@ -63,17 +64,26 @@ public interface Instrumenter {
         return parentAgentBuilder;
       }
 
+      AgentBuilder.RawMatcher typeMatcher =
+          new AgentBuilder.RawMatcher.ForElementMatchers(
+              ByteBuddyElementMatchers.<TypeDescription>failSafe(
+                  typeMatcher(),
+                  "Instrumentation type matcher unexpected exception: " + getClass().getName()),
+              ByteBuddyElementMatchers.<ClassLoader>failSafe(
+                  classLoaderMatcher(),
+                  "Instrumentation class loader matcher unexpected exception: "
+                      + getClass().getName()));
+      AgentBuilder.RawMatcher muzzleMatcher = new MuzzleMatcher();
+      final TypeMatchCache typeMatchCache = AgentTooling.typeMatchCache();
+      if (typeMatchCache != null) {
+        typeMatcher = typeMatchCache.typeMatcher(getClass().getName(), typeMatcher);
+        muzzleMatcher = typeMatchCache.muzzleMatcher(getClass().getName(), muzzleMatcher);
+      }
+
       AgentBuilder.Identified.Extendable agentBuilder =
           parentAgentBuilder
-              .type(
-                  failSafe(
-                      typeMatcher(),
-                      "Instrumentation type matcher unexpected exception: " + getClass().getName()),
-                  failSafe(
-                      classLoaderMatcher(),
-                      "Instrumentation class loader matcher unexpected exception: "
-                          + getClass().getName()))
-              .and(new MuzzleMatcher())
+              .type(typeMatcher)
+              .and(muzzleMatcher)
               .and(new PostMatchHook())
               .transform(AgentTransformers.defaultTransformers());
       agentBuilder = injectHelperClasses(agentBuilder);
@@ -94,13 +104,23 @@ public interface Instrumenter {
 
     private AgentBuilder.Identified.Extendable applyInstrumentationTransformers(
         AgentBuilder.Identified.Extendable agentBuilder) {
-      for (final Map.Entry<? extends ElementMatcher, String> entry : transformers().entrySet()) {
-        agentBuilder =
-            agentBuilder.transform(
-                new AgentBuilder.Transformer.ForAdvice()
-                    .include(Utils.getBootstrapProxy(), Utils.getAgentClassLoader())
-                    .withExceptionHandler(ExceptionHandlers.defaultExceptionHandler())
-                    .advice(entry.getKey(), entry.getValue()));
+      final Map<? extends ElementMatcher<? super MethodDescription>, String> transformers =
+          transformers();
+      AgentBuilder.Transformer.ForAdvice forAdvice = new AgentBuilder.Transformer.ForAdvice();
+      if (suspendWhenDormant()) {
+        forAdvice =
+            forAdvice.include(
+                new DormantAdviceLocator(
+                    ClassFileLocator.ForClassLoader.of(Utils.getAgentClassLoader()),
+                    new HashSet<>(transformers.values()),
+                    IntegrationSwitches.register(this)));
+      }
+      forAdvice =
+          forAdvice
+              .include(Utils.getBootstrapProxy(), Utils.getAgentClassLoader())
+              .withExceptionHandler(ExceptionHandlers.defaultExceptionHandler());
+      for (final Map.Entry<? extends ElementMatcher, String> entry : transformers.entrySet()) {
+        agentBuilder = agentBuilder.transform(forAdvice.advice(entry.getKey(), entry.getValue()));
       }
       return agentBuilder;
     }
@@ -168,6 +188,15 @@ public interface Instrumenter {
       return null;
     }
 
+    /**
+     * @return true if this instrumentation's advice should be skipped while {@link
+     *     io.opentelemetry.auto.bootstrap.DormantMode} is on. Instrumentations that must always
+     *     run, e.g. to make agent classes visible to a classloader, return false.
+     */
+    protected boolean suspendWhenDormant() {
+      return true;
+    }
+
     /** @return Class names of helpers to inject into the user's classloader */
     public String[] helperClassNames() {
       return new String[0];
@@ -211,6 +240,10 @@ public interface Instrumenter {
       return Collections.EMPTY_MAP;
     }
 
+    SortedSet<String> instrumentationNames() {
+      return instrumentationNames;
+    }
+
     protected boolean defaultEnabled() {
       return Config.get().isIntegrationsEnabled();
     }
@@ -0,0 +1,79 @@
+package io.opentelemetry.auto.tooling;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.bootstrap.DormantMode;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turns installed integrations off and on again when the configuration is reloaded.
+ *
+ * <p>A change of {@link Config#TRACE_DORMANT} flips the global {@link DormantMode} switch. Only
+ * changes are applied, so that {@link DormantMode#setDormant(boolean)} called by the application
+ * is not undone by reloading an unrelated setting.
+ *
+ * <p>Each instrumentation guarded by {@link DormantAdviceLocator} gets its own {@link DormantMode}
+ * switch, which follows the {@code integration.<name>.enabled} and {@link
+ * Config#INTEGRATIONS_ENABLED} settings. Integrations that were disabled at startup are not
+ * installed at all, so they cannot be enabled at runtime.
+ */
+@Slf4j
+final class IntegrationSwitches implements Config.Listener {
+  private static final IntegrationSwitches INSTANCE = new IntegrationSwitches();
+
+  private final List<Integration> integrations = new ArrayList<>();
+
+  // The global switch as configured when last notified, null before the first notification.
+  private Boolean traceDormant;
+
+  private IntegrationSwitches() {}
+
+  /** @return the {@link DormantMode} switch of the instrumenter */
+  static int register(final Instrumenter.Default instrumenter) {
+    final int id =
+        DormantMode.registerIntegration(
+            instrumenter.instrumentationNames().toArray(new String[0]));
+    synchronized (INSTANCE) {
+      INSTANCE.integrations.add(new Integration(id, instrumenter));
+    }
+    return id;
+  }
+
+  /** Applies the current and all reloaded configurations to the registered integrations. */
+  static void subscribe() {
+    Config.subscribe(INSTANCE);
+  }
+
+  @Override
+  public synchronized void onChange(final Config config) {
+    // AgentInstaller applies the setting at startup, before any advice is installed.
+    if (traceDormant != null && traceDormant != config.isTraceDormant()) {
+      log.debug("{} tracing", config.isTraceDormant() ? "Suspending" : "Resuming");
+      DormantMode.setDormant(config.isTraceDormant());
+    }
+    traceDormant = config.isTraceDormant();
+    for (final Integration integration : integrations) {
+      final boolean enabled =
+          config.isIntegrationEnabled(
+              integration.instrumenter.instrumentationNames(),
+              integration.instrumenter.defaultEnabled());
+      if (enabled == integration.dormant) {
+        log.debug("{} {}", enabled ? "Enabling" : "Disabling", integration.instrumenter);
+        integration.dormant = !enabled;
+        DormantMode.setDormant(integration.id, !enabled);
+      }
+    }
+  }
+
+  private static final class Integration {
+    private final int id;
+    private final Instrumenter.Default instrumenter;
+    private boolean dormant;
+
+    Integration(final int id, final Instrumenter.Default instrumenter) {
+      this.id = id;
+      this.instrumenter = instrumenter;
+    }
+  }
+}
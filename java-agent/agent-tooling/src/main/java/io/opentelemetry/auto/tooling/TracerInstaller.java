@@ -2,26 +2,169 @@ package io.opentelemetry.auto.tooling;
 
 import io.opentelemetry.OpenTelemetry;
 import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.bootstrap.metrics.SpanAggregator;
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
 import io.opentelemetry.auto.instrumentation.api.AgentTracer;
+import io.opentelemetry.auto.tooling.export.BatchExportProcessor;
+import io.opentelemetry.auto.tooling.export.FileSpanExporter;
+import io.opentelemetry.auto.tooling.export.JournalSpanExporter;
+import io.opentelemetry.auto.tooling.export.SpanMetricsProcessor;
+import io.opentelemetry.auto.tooling.export.SpanMetricsReporter;
+import io.opentelemetry.auto.tooling.export.TailSampler;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.TracerSdkFactory;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
 import io.opentelemetry.trace.Tracer;
+import java.io.File;
+import java.io.IOException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class TracerInstaller {
+  private static final String FILE_EXPORTER = "file";
+  private static final String JOURNAL_EXPORTER = "journal";
+
+  private static AgentSampler sampler;
+  private static BatchExportProcessor exportProcessor;
+  private static SpanMetricsReporter metricsReporter;
+
   /** Register agent tracer if no agent tracer is already registered. */
   public static synchronized void installAgentTracer() {
     if (Config.get().isTraceEnabled()) {
+      installSampler();
       final Tracer tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto");
       try {
         AgentTracer.registerIfAbsent(new AgentTracerImpl(tracer));
       } catch (final RuntimeException re) {
         log.warn("Failed to register tracer '" + tracer + "'", re);
       }
+      installExportProcessor(Config.get());
+      installSpanMetrics(Config.get());
     } else {
       log.debug("Tracing is disabled.");
     }
   }
 
+  /** Samples all spans started through the SDK with {@link AgentSampler}. Does nothing twice. */
+  private static void installSampler() {
+    if (sampler != null) {
+      return;
+    }
+    sampler = new AgentSampler(new HeadSampler());
+    final TracerSdkFactory tracerFactory = OpenTelemetrySdk.getTracerFactory();
+    tracerFactory.updateActiveTraceConfig(
+        tracerFactory.getActiveTraceConfig().toBuilder().setSampler(sampler).build());
+  }
+
+  /** Exports the ended spans in batches if {@link Config#EXPORTER} is set. Does nothing twice. */
+  private static void installExportProcessor(final Config config) {
+    if (exportProcessor != null) {
+      return;
+    }
+    final SpanExporter exporter = createExporter(config);
+    if (exporter == null) {
+      if (config.isTailSamplingEnabled()) {
+        log.warn("{} is set, but there is no {}.", Config.TAIL_SAMPLING_ENABLED, Config.EXPORTER);
+      }
+      return;
+    }
+    final TailSampler tailSampler =
+        config.isTailSamplingEnabled()
+            ? new TailSampler(
+                config.getTailSamplingLatencyThresholdMillis(),
+                config.getTailSamplingDecisionTimeoutMillis(),
+                config.getTailSamplingMaxSpans(),
+                config.getTailSamplingMaxBytes(),
+                config.getTailSamplingKeepAttributes())
+            : null;
+    final BatchExportProcessor processor =
+        new BatchExportProcessor(
+            exporter,
+            tailSampler,
+            config.getExporterQueueSize(),
+            config.getExporterBatchSize(),
+            config.getExporterBatchDelayMillis());
+    OpenTelemetrySdk.getTracerFactory().addSpanProcessor(processor);
+    exportProcessor = processor;
+    try {
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread("agent-span-exporter-shutdown") {
+                @Override
+                public void run() {
+                  processor.shutdown();
+                }
+              });
+    } catch (final IllegalStateException ex) {
+      // The JVM is already shutting down.
+    }
+    log.debug("Exporting spans with {}", exporter);
+  }
+
+  /**
+   * Counts the client and server spans in {@link Config#METRICS_FILE} if {@link
+   * Config#METRICS_ENABLED} is set. Does nothing twice.
+   */
+  private static void installSpanMetrics(final Config config) {
+    if (metricsReporter != null || !config.isMetricsEnabled()) {
+      return;
+    }
+    final SpanAggregator aggregator = new SpanAggregator(config.getMetricsMaxSpansInFlight());
+    final SpanMetricsReporter reporter;
+    try {
+      reporter =
+          new SpanMetricsReporter(
+              aggregator, new File(config.getMetricsFile()), config.getMetricsIntervalMillis());
+    } catch (final IOException e) {
+      log.warn("Failed to open span metrics file '{}'", config.getMetricsFile(), e);
+      return;
+    }
+    OpenTelemetrySdk.getTracerFactory().addSpanProcessor(new SpanMetricsProcessor());
+    SpanMetrics.install(aggregator);
+    metricsReporter = reporter;
+    try {
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread("agent-span-metrics-shutdown") {
+                @Override
+                public void run() {
+                  reporter.shutdown();
+                }
+              });
+    } catch (final IllegalStateException ex) {
+      // The JVM is already shutting down.
+    }
+    log.debug("Writing span metrics to '{}'", config.getMetricsFile());
+  }
+
+  /**
+   * @return the exporter named by {@link Config#EXPORTER}, either {@code file}, {@code journal}
+   *     or the name of a {@link SpanExporter} class on the agent's class path, or {@code null} if
+   *     there is none
+   */
+  static SpanExporter createExporter(final Config config) {
+    final String name = config.getExporter() == null ? "" : config.getExporter().trim();
+    if (name.isEmpty()) {
+      return null;
+    }
+    try {
+      if (FILE_EXPORTER.equals(name)) {
+        return new FileSpanExporter(new File(config.getExporterFile()));
+      }
+      if (JOURNAL_EXPORTER.equals(name)) {
+        return new JournalSpanExporter(
+            new File(config.getExporterJournalDirectory()),
+            config.getExporterJournalSegmentSize(),
+            config.getExporterJournalMaxSegments());
+      }
+      return (SpanExporter)
+          Class.forName(name, true, TracerInstaller.class.getClassLoader()).newInstance();
+    } catch (final Exception e) {
+      log.warn("Failed to create span exporter '{}'", name, e);
+      return null;
+    }
+  }
+
   public static void logVersionInfo() {
     VersionLogger.logAllVersions();
     log.debug(
@@ -0,0 +1,459 @@
+package io.opentelemetry.auto.tooling;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.bootstrap.WeakMap;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Persistent cache of negative type matching results.
+ *
+ * <p>Records which class names did not match each instrumentation, keyed by a fingerprint of the
+ * class loader's class path. On the next start the cache file is memory mapped and classes known
+ * to be irrelevant skip type matching and muzzle checks entirely. Only negative results are
+ * cached, so a stale or colliding entry can at worst hide a match for a class that was irrelevant
+ * on a previous run with an identical class path.
+ *
+ * <p>The class loader fingerprint covers the agent version, the settings that type matchers depend
+ * on, the loader type and the path, size and modification time of every jar visible to the loader
+ * and its parents. Class loaders whose class path cannot be fingerprinted (directories, non-file
+ * URLs, custom loaders) are never cached. Neither are classes that do not come from the JDK or
+ * from one of the fingerprinted jars, e.g. proxies, generated subclasses and other classes defined
+ * at runtime, whose names do not identify their contents. Mismatches of matchers that caught an
+ * exception are not cached either, since the class might match once the exception goes away.
+ *
+ * <p>Entries found during a run are written back to the file at JVM shutdown.
+ *
+ * <p>File layout: magic, format version, hash of the agent version and settings, capacity, entry
+ * count, followed by an open addressing table of {@code capacity} non-zero 64 bit entry hashes.
+ */
+@Slf4j
+public final class TypeMatchCache {
+  private static final int MAGIC = 0x4f544d43; // "OTMC"
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_SIZE = 24;
+  private static final int MAX_ENTRIES = 1 << 22;
+
+  private static final long UNCACHEABLE = 0;
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private static final String MUZZLE_MARKER = "$muzzle";
+
+  private final File file;
+  private final long versionHash;
+  private final long bootstrapKey;
+
+  // read-only table loaded from the previous run, null if absent or invalid
+  private final ByteBuffer persisted;
+  private final int persistedCapacity;
+  private final int persistedCount;
+
+  private final Set<Long> recorded =
+      Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+  private final WeakMap<ClassLoader, Long> classLoaderKeys = WeakMap.Provider.newWeakMap();
+  // Absolute paths of the jars covered by class loader fingerprints.
+  private final Set<String> fingerprintedJars =
+      Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+  static TypeMatchCache create(final Config config) {
+    final String path = config.getTypeMatchCacheFile();
+    if (path == null || path.trim().isEmpty()) {
+      return null;
+    }
+    final TypeMatchCache cache =
+        new TypeMatchCache(new File(path.trim()), agentVersion(), matcherSettings(config));
+    try {
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread("agent-type-match-cache-writer") {
+                @Override
+                public void run() {
+                  cache.write();
+                }
+              });
+    } catch (final IllegalStateException ex) {
+      // The JVM is already shutting down.
+    }
+    return cache;
+  }
+
+  /** @param matcherSettings the settings that type matchers depend on */
+  TypeMatchCache(final File file, final String agentVersion, final String matcherSettings) {
+    this.file = file;
+    versionHash = hash(hash(FNV_OFFSET_BASIS, agentVersion), matcherSettings);
+    bootstrapKey =
+        nonZero(
+            hash(
+                hash(versionHash, System.getProperty("java.home")),
+                System.getProperty("java.version")));
+
+    ByteBuffer table = null;
+    int capacity = 0;
+    int count = 0;
+    if (file.isFile()) {
+      try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        final MappedByteBuffer mapped =
+            channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (isValid(mapped)) {
+          table = mapped;
+          capacity = mapped.getInt(16);
+          count = mapped.getInt(20);
+          log.debug("Loaded {} type match cache entries from {}", count, file);
+        } else {
+          log.debug("Ignoring stale or invalid type match cache {}", file);
+        }
+      } catch (final IOException | RuntimeException e) {
+        log.debug("Unable to read type match cache {}", file, e);
+      }
+    }
+    persisted = table;
+    persistedCapacity = capacity;
+    persistedCount = count;
+  }
+
+  /** Wraps the type and class loader matchers of an instrumentation. */
+  AgentBuilder.RawMatcher typeMatcher(
+      final String instrumentationName, final AgentBuilder.RawMatcher delegate) {
+    return new CachingMatcher(instrumentationName, "", delegate);
+  }
+
+  /** Wraps the muzzle matcher of an instrumentation, muzzle results only depend on the loader. */
+  AgentBuilder.RawMatcher muzzleMatcher(
+      final String instrumentationName, final AgentBuilder.RawMatcher delegate) {
+    return new CachingMatcher(instrumentationName, MUZZLE_MARKER, delegate);
+  }
+
+  boolean isKnownMismatch(final long entry) {
+    return recorded.contains(entry) || persistedContains(entry);
+  }
+
+  void recordMismatch(final long entry) {
+    if (recorded.size() < MAX_ENTRIES) {
+      recorded.add(entry);
+    }
+  }
+
+  long entry(final long classLoaderKey, final String instrumentationName, final String name) {
+    return nonZero(fmix(hash(hash(classLoaderKey, instrumentationName), name)));
+  }
+
+  long classLoaderKey(final ClassLoader classLoader) {
+    if (classLoader == null) {
+      return bootstrapKey;
+    }
+    Long key = classLoaderKeys.get(classLoader);
+    if (key == null) {
+      key = computeClassLoaderKey(classLoader);
+      classLoaderKeys.put(classLoader, key);
+    }
+    return key;
+  }
+
+  /**
+   * @return whether the class defined with {@code protectionDomain} was loaded from the JDK or from
+   *     a jar covered by a class loader fingerprint
+   */
+  boolean isFingerprinted(final ClassLoader classLoader, final ProtectionDomain protectionDomain) {
+    final CodeSource codeSource =
+        protectionDomain == null ? null : protectionDomain.getCodeSource();
+    final URL location = codeSource == null ? null : codeSource.getLocation();
+    if (location == null || "jrt".equals(location.getProtocol())) {
+      return classLoader == null || isPlatformClassLoader(classLoader);
+    }
+    if (!"file".equals(location.getProtocol())) {
+      return false;
+    }
+    try {
+      return fingerprintedJars.contains(new File(location.toURI()).getAbsolutePath());
+    } catch (final Exception e) {
+      return false;
+    }
+  }
+
+  private static boolean isPlatformClassLoader(final ClassLoader classLoader) {
+    final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    return systemClassLoader != null && classLoader == systemClassLoader.getParent();
+  }
+
+  private long computeClassLoaderKey(final ClassLoader classLoader) {
+    final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    if (isPlatformClassLoader(classLoader)) {
+      // extension/platform loader is part of the JDK
+      return nonZero(hash(bootstrapKey, "platform"));
+    }
+
+    final long parentKey = classLoaderKey(classLoader.getParent());
+    if (parentKey == UNCACHEABLE) {
+      return UNCACHEABLE;
+    }
+    long key = hash(parentKey, classLoader.getClass().getName());
+    if (classLoader == systemClassLoader) {
+      final String classPath = System.getProperty("java.class.path", "");
+      for (final String entry : classPath.split(File.pathSeparator)) {
+        if (!entry.isEmpty()) {
+          key = hashJar(key, new File(entry));
+          if (key == UNCACHEABLE) {
+            return UNCACHEABLE;
+          }
+        }
+      }
+    } else if (classLoader instanceof URLClassLoader) {
+      for (final URL url : ((URLClassLoader) classLoader).getURLs()) {
+        if (!"file".equals(url.getProtocol())) {
+          return UNCACHEABLE;
+        }
+        try {
+          key = hashJar(key, new File(url.toURI()));
+        } catch (final Exception e) {
+          return UNCACHEABLE;
+        }
+        if (key == UNCACHEABLE) {
+          return UNCACHEABLE;
+        }
+      }
+    } else {
+      return UNCACHEABLE;
+    }
+    return nonZero(key);
+  }
+
+  private long hashJar(final long key, final File jar) {
+    if (!jar.isFile()) {
+      // directory contents can change without changing the directory itself
+      return jar.exists() ? UNCACHEABLE : hash(key, jar.getPath());
+    }
+    fingerprintedJars.add(jar.getAbsolutePath());
+    long result = hash(key, jar.getAbsolutePath());
+    result = mix(result, jar.length());
+    result = mix(result, jar.lastModified());
+    return nonZero(result);
+  }
+
+  private boolean persistedContains(final long entry) {
+    final ByteBuffer table = persisted;
+    if (table == null) {
+      return false;
+    }
+    final int mask = persistedCapacity - 1;
+    for (int i = (int) entry & mask, probes = 0;
+        probes < persistedCapacity;
+        i = (i + 1) & mask, probes++) {
+      final long value = table.getLong(HEADER_SIZE + i * 8);
+      if (value == entry) {
+        return true;
+      }
+      if (value == 0) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private boolean isValid(final ByteBuffer buffer) {
+    if (buffer.capacity() < HEADER_SIZE
+        || buffer.getInt(0) != MAGIC
+        || buffer.getInt(4) != FORMAT_VERSION
+        || buffer.getLong(8) != versionHash) {
+      return false;
+    }
+    final int capacity = buffer.getInt(16);
+    return capacity > 0
+        && Integer.bitCount(capacity) == 1
+        && buffer.capacity() == HEADER_SIZE + (long) capacity * 8;
+  }
+
+  /** Merges entries recorded during this run with the previous file and replaces it. */
+  synchronized void write() {
+    if (recorded.isEmpty()) {
+      return;
+    }
+    final boolean keepPersisted = persistedCount + recorded.size() <= MAX_ENTRIES;
+    final int count = (keepPersisted ? persistedCount : 0) + recorded.size();
+    int capacity = 16;
+    while (capacity < count * 2) {
+      capacity <<= 1;
+    }
+
+    final ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + capacity * 8);
+    out.order(ByteOrder.LITTLE_ENDIAN);
+    int written = 0;
+    if (keepPersisted && persisted != null) {
+      for (int i = 0; i < persistedCapacity; i++) {
+        final long value = persisted.getLong(HEADER_SIZE + i * 8);
+        if (value != 0 && insert(out, capacity, value)) {
+          written++;
+        }
+      }
+    }
+    for (final Long value : recorded) {
+      if (insert(out, capacity, value)) {
+        written++;
+      }
+    }
+    out.putInt(0, MAGIC);
+    out.putInt(4, FORMAT_VERSION);
+    out.putLong(8, versionHash);
+    out.putInt(16, capacity);
+    out.putInt(20, written);
+
+    final Path target = file.toPath();
+    final Path temp = Paths.get(target.toString() + ".tmp");
+    try {
+      final Path parent = target.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.write(temp, out.array());
+      Files.move(
+          temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException | RuntimeException e) {
+      log.debug("Unable to write type match cache {}", file, e);
+    }
+  }
+
+  private static boolean insert(final ByteBuffer table, final int capacity, final long value) {
+    final int mask = capacity - 1;
+    for (int i = (int) value & mask; ; i = (i + 1) & mask) {
+      final long existing = table.getLong(HEADER_SIZE + i * 8);
+      if (existing == value) {
+        return false;
+      }
+      if (existing == 0) {
+        table.putLong(HEADER_SIZE + i * 8, value);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @return the settings that decide which classes the trace annotation, trace config and executor
+   *     instrumentations match
+   */
+  static String matcherSettings(final Config config) {
+    return config.getTraceAnnotations()
+        + '\n'
+        + config.getTraceMethods()
+        + '\n'
+        + config.isTraceExecutorsAll()
+        + '\n'
+        + config.getTraceExecutors();
+  }
+
+  private static String agentVersion() {
+    final InputStream stream =
+        ClassLoader.getSystemClassLoader().getResourceAsStream("java-agent.version");
+    if (stream == null) {
+      return "unknown";
+    }
+    try {
+      final StringBuilder sb = new StringBuilder();
+      for (int c = stream.read(); c != -1; c = stream.read()) {
+        sb.append((char) c);
+      }
+      return sb.toString().trim();
+    } catch (final IOException e) {
+      return "unknown";
+    } finally {
+      try {
+        stream.close();
+      } catch (final IOException e) {
+      }
+    }
+  }
+
+  private static long hash(long hash, final String value) {
+    if (value == null) {
+      return mix(hash, 0);
+    }
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+    }
+    return (hash ^ 0xff) * FNV_PRIME;
+  }
+
+  private static long mix(final long hash, final long value) {
+    return fmix(hash ^ value) * FNV_PRIME;
+  }
+
+  private static long fmix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  private static long nonZero(final long value) {
+    return value == 0 ? 1 : value;
+  }
+
+  private final class CachingMatcher implements AgentBuilder.RawMatcher {
+    private final String instrumentationName;
+    private final String marker;
+    private final AgentBuilder.RawMatcher delegate;
+
+    private CachingMatcher(
+        final String instrumentationName,
+        final String marker,
+        final AgentBuilder.RawMatcher delegate) {
+      this.instrumentationName = instrumentationName;
+      this.marker = marker;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean matches(
+        final TypeDescription typeDescription,
+        final ClassLoader classLoader,
+        final JavaModule module,
+        final Class<?> classBeingRedefined,
+        final ProtectionDomain protectionDomain) {
+      final long classLoaderKey = classLoaderKey(classLoader);
+      if (classLoaderKey == UNCACHEABLE) {
+        return delegate.matches(
+            typeDescription, classLoader, module, classBeingRedefined, protectionDomain);
+      }
+      final String name = marker.isEmpty() ? typeDescription.getName() : marker;
+      final long entry = entry(classLoaderKey, instrumentationName, name);
+      if (isKnownMismatch(entry)) {
+        return false;
+      }
+      final long swallowedExceptions = ByteBuddyElementMatchers.swallowedExceptions();
+      final boolean matches =
+          delegate.matches(
+              typeDescription, classLoader, module, classBeingRedefined, protectionDomain);
+      // Exceptions on other threads also prevent recording, which only costs a cache entry. Muzzle
+      // results depend on the class loader only.
+      if (!matches
+          && ByteBuddyElementMatchers.swallowedExceptions() == swallowedExceptions
+          && (!marker.isEmpty() || isFingerprinted(classLoader, protectionDomain))) {
+        recordMismatch(entry);
+      }
+      return matches;
+    }
+  }
+}
@@ -10,6 +10,7 @@ import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.bootstrap.ContextStore;
 import io.opentelemetry.auto.bootstrap.FieldBackedContextStoreAppliedMarker;
 import io.opentelemetry.auto.bootstrap.InstrumentationContext;
+import io.opentelemetry.auto.bootstrap.StripedLocks;
 import io.opentelemetry.auto.bootstrap.WeakMap;
 import io.opentelemetry.auto.tooling.HelperInjector;
 import io.opentelemetry.auto.tooling.Instrumenter;
@@ -829,13 +830,19 @@ public class FieldBackedProvider implements InstrumentationContextProvider {
   /**
    * Template class used to generate the class that accesses stored context using either key
    * instance's own injected field or global hash map if field is not available.
+   *
+   * <p>Inserts into the global map are guarded by striped locks rather than by the map itself, so
+   * that threads attaching context to different keys do not contend on one monitor.
    */
   private static final class ContextStoreImplementationTemplate
       implements ContextStore<Object, Object> {
+    private static final int LOCK_STRIPES = 64;
+
     private static final ContextStoreImplementationTemplate INSTANCE =
         new ContextStoreImplementationTemplate(WeakMap.Provider.newWeakMap());
 
     private final WeakMap map;
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
 
     private ContextStoreImplementationTemplate(final WeakMap map) {
       this.map = map;
@@ -907,7 +914,7 @@ public class FieldBackedProvider implements InstrumentationContextProvider {
     }
 
     private Object mapSynchronizeInstance(final Object key) {
-      return map;
+      return locks.lockFor(key);
     }
 
     public static ContextStore getContextStore(final Class keyClass, final Class contextClass) {
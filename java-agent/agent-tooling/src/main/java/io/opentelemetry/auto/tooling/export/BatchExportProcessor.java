@@ -0,0 +1,242 @@
+package io.opentelemetry.auto.tooling.export;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands ended spans to a {@link SpanExporter} in batches, off the application threads.
+ *
+ * <p>{@link #onEnd(ReadableSpan)} only puts the span in a bounded {@link SpanRingBuffer}, which
+ * takes a single compare-and-set. A background thread drains it and exports a batch whenever
+ * {@code batchSize} spans were queued or {@code batchDelayMillis} passed since the last export,
+ * whichever comes first. Spans are converted to {@link SpanData} on that thread as well.
+ *
+ * <p>Spans ended while the queue is full are dropped rather than slowing down the application.
+ * They are counted by {@link #getDroppedSpans()} and reported in the log.
+ *
+ * <p>An optional {@link TailSampler} decides on the exporting thread which traces are exported.
+ */
+@Slf4j
+public final class BatchExportProcessor implements SpanProcessor {
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+  private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final SpanExporter exporter;
+  private final TailSampler tailSampler;
+  private final SpanRingBuffer<ReadableSpan> queue;
+  private final int batchSize;
+  private final long batchDelayNanos;
+  private final Thread drainer;
+
+  private final AtomicLong droppedSpans = new AtomicLong();
+  private final AtomicLong exportedSpans = new AtomicLong();
+  private final AtomicLong failedSpans = new AtomicLong();
+
+  private volatile boolean drainerWaiting;
+  private volatile boolean shutdown;
+
+  public BatchExportProcessor(
+      final SpanExporter exporter,
+      final int queueSize,
+      final int batchSize,
+      final long batchDelayMillis) {
+    this(exporter, null, queueSize, batchSize, batchDelayMillis);
+  }
+
+  /**
+   * Starts the thread exporting the spans.
+   *
+   * @param tailSampler the sampler deciding which traces are exported, or {@code null} to export
+   *     all spans
+   * @param queueSize the number of spans that may wait for export, rounded up to a power of two
+   * @param batchSize the maximum number of spans exported at once
+   * @param batchDelayMillis the maximum time a span waits for its batch to fill up
+   */
+  public BatchExportProcessor(
+      final SpanExporter exporter,
+      final TailSampler tailSampler,
+      final int queueSize,
+      final int batchSize,
+      final long batchDelayMillis) {
+    this.exporter = exporter;
+    this.tailSampler = tailSampler;
+    queue = new SpanRingBuffer<>(queueSize);
+    this.batchSize = Math.max(1, Math.min(batchSize, queue.capacity()));
+    batchDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, batchDelayMillis));
+    drainer = new Thread(new Drainer(), "agent-span-exporter");
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+  @Override
+  public void onStart(final ReadableSpan span) {}
+
+  @Override
+  public void onEnd(final ReadableSpan span) {
+    if (!span.getSpanContext().getTraceFlags().isSampled()) {
+      return;
+    }
+    final long position = queue.offer(span);
+    if (position < 0) {
+      droppedSpans.incrementAndGet();
+    } else if ((position + 1) % batchSize == 0 && drainerWaiting) {
+      LockSupport.unpark(drainer);
+    }
+  }
+
+  /**
+   * Exports the queued spans and shuts the exporter down. Spans ended afterwards are not exported.
+   */
+  @Override
+  public void shutdown() {
+    if (shutdown) {
+      return;
+    }
+    shutdown = true;
+    LockSupport.unpark(drainer);
+    try {
+      drainer.join(SHUTDOWN_TIMEOUT_MILLIS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** @return the number of spans dropped because the queue was full */
+  public long getDroppedSpans() {
+    return droppedSpans.get();
+  }
+
+  /** @return the number of spans the exporter accepted */
+  public long getExportedSpans() {
+    return exportedSpans.get();
+  }
+
+  /** @return the number of spans the exporter failed to export */
+  public long getFailedSpans() {
+    return failedSpans.get();
+  }
+
+  private final class Drainer implements Runnable {
+    private final List<ReadableSpan> batch = new ArrayList<>(batchSize);
+    private long reportedDroppedSpans;
+    private long nextDropReport = System.nanoTime();
+    private long nextTailSamplingReport = System.nanoTime() + REPORT_INTERVAL_NANOS;
+
+    @Override
+    public void run() {
+      long deadline = System.nanoTime() + batchDelayNanos;
+      while (!shutdown) {
+        queue.drainTo(batch, batchSize - batch.size());
+        if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0) {
+          export();
+          deadline = System.nanoTime() + batchDelayNanos;
+          continue;
+        }
+        drainerWaiting = true;
+        // A producer may have filled the batch before it could see this thread waiting.
+        queue.drainTo(batch, batchSize - batch.size());
+        if (batch.size() < batchSize && !shutdown) {
+          LockSupport.parkNanos(this, deadline - System.nanoTime());
+        }
+        drainerWaiting = false;
+      }
+      do {
+        queue.drainTo(batch, batchSize - batch.size());
+        export();
+      } while (queue.drainTo(batch, batchSize) > 0);
+      reportTailSampling(true);
+      try {
+        exporter.shutdown();
+      } catch (final Throwable t) {
+        log.warn("Failed to shut down span exporter", t);
+      }
+    }
+
+    /** Exports the batch, keeping this thread alive whatever the exporter or sampler throws. */
+    private void export() {
+      final int size = batch.size();
+      try {
+        exportBatch();
+      } catch (final Throwable t) {
+        batch.clear();
+        failedSpans.addAndGet(size);
+        log.warn("Failed to export {} spans", size, t);
+      }
+    }
+
+    private void exportBatch() {
+      reportDroppedSpans();
+      reportTailSampling(false);
+      if (batch.isEmpty() && tailSampler == null) {
+        return;
+      }
+      List<SpanData> spans = new ArrayList<>(batch.size());
+      for (final ReadableSpan span : batch) {
+        spans.add(span.toSpanData());
+      }
+      batch.clear();
+      if (tailSampler != null) {
+        // Also drops the buffered traces that timed out.
+        spans = tailSampler.sample(spans, System.nanoTime());
+        if (spans.isEmpty()) {
+          return;
+        }
+      }
+      SpanExporter.ResultCode result;
+      try {
+        result = exporter.export(spans);
+      } catch (final Throwable t) {
+        log.debug("Span exporter failed", t);
+        result = SpanExporter.ResultCode.FAILED_NOT_RETRYABLE;
+      }
+      if (result == SpanExporter.ResultCode.SUCCESS) {
+        exportedSpans.addAndGet(spans.size());
+      } else {
+        failedSpans.addAndGet(spans.size());
+        log.debug("Failed to export {} spans: {}", spans.size(), result);
+      }
+    }
+
+    private void reportDroppedSpans() {
+      final long now = System.nanoTime();
+      if (now - nextDropReport < 0) {
+        return;
+      }
+      final long dropped = droppedSpans.get();
+      if (dropped != reportedDroppedSpans) {
+        log.warn(
+            "Dropped {} spans because the export queue was full, consider raising {}",
+            dropped - reportedDroppedSpans,
+            Config.EXPORTER_QUEUE_SIZE);
+        reportedDroppedSpans = dropped;
+        nextDropReport = now + REPORT_INTERVAL_NANOS;
+      }
+    }
+
+    private void reportTailSampling(final boolean force) {
+      final long now = System.nanoTime();
+      if (tailSampler == null || (!force && now - nextTailSamplingReport < 0)) {
+        return;
+      }
+      nextTailSamplingReport = now + REPORT_INTERVAL_NANOS;
+      log.debug(
+          "Tail sampling kept {} traces, dropped {}, evicted {} with {} spans, buffers {} spans"
+              + " of about {} bytes",
+          tailSampler.getKeptTraces(),
+          tailSampler.getDroppedTraces(),
+          tailSampler.getEvictedTraces(),
+          tailSampler.getEvictedSpans(),
+          tailSampler.getBufferedSpans(),
+          tailSampler.getBufferedBytes());
+    }
+  }
+}
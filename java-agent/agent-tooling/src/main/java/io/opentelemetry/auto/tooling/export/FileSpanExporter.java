@@ -0,0 +1,143 @@
+package io.opentelemetry.auto.tooling.export;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.AttributeValue;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends spans to a local file, one JSON object per line, so that exported spans can be looked at
+ * without a collector.
+ */
+@Slf4j
+public final class FileSpanExporter implements SpanExporter {
+  private final File file;
+  private final Writer writer;
+  private final StringBuilder line = new StringBuilder(512);
+
+  public FileSpanExporter(final File file) throws IOException {
+    this.file = file;
+    writer =
+        new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public synchronized ResultCode export(final List<SpanData> spans) {
+    try {
+      for (final SpanData span : spans) {
+        line.setLength(0);
+        render(span, line);
+        writer.write(line.toString());
+        writer.write('\n');
+      }
+      writer.flush();
+      return ResultCode.SUCCESS;
+    } catch (final IOException e) {
+      log.debug("Failed to write spans to '{}'", file, e);
+      return ResultCode.FAILED_NOT_RETRYABLE;
+    }
+  }
+
+  @Override
+  public synchronized void shutdown() {
+    try {
+      writer.close();
+    } catch (final IOException e) {
+      log.debug("Failed to close '{}'", file, e);
+    }
+  }
+
+  /** Renders {@code span} as a single line of JSON. */
+  public static void render(final SpanData span, final StringBuilder json) {
+    json.append("{\"traceId\":\"").append(span.getTraceId().toLowerBase16());
+    json.append("\",\"spanId\":\"").append(span.getSpanId().toLowerBase16());
+    json.append("\",\"parentSpanId\":\"").append(span.getParentSpanId().toLowerBase16());
+    json.append("\",\"name\":");
+    string(span.getName(), json);
+    json.append(",\"kind\":\"").append(span.getKind());
+    json.append("\",\"startEpochNanos\":").append(span.getStartEpochNanos());
+    json.append(",\"endEpochNanos\":").append(span.getEndEpochNanos());
+    json.append(",\"status\":\"").append(span.getStatus().getCanonicalCode());
+    json.append("\",\"attributes\":{");
+    boolean first = true;
+    for (final Map.Entry<String, AttributeValue> attribute : span.getAttributes().entrySet()) {
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+      string(attribute.getKey(), json);
+      json.append(':');
+      value(attribute.getValue(), json);
+    }
+    json.append("}}");
+  }
+
+  private static void value(final AttributeValue value, final StringBuilder json) {
+    switch (value.getType()) {
+      case STRING:
+        string(value.getStringValue(), json);
+        break;
+      case BOOLEAN:
+        json.append(value.getBooleanValue());
+        break;
+      case LONG:
+        json.append(value.getLongValue());
+        break;
+      case DOUBLE:
+        final double number = value.getDoubleValue();
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+          string(String.valueOf(number), json);
+        } else {
+          json.append(number);
+        }
+        break;
+      default:
+        json.append("null");
+    }
+  }
+
+  static void string(final String value, final StringBuilder json) {
+    if (value == null) {
+      json.append("null");
+      return;
+    }
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+      }
+    }
+    json.append('"');
+  }
+}
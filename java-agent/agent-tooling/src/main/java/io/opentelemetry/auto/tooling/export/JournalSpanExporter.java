@@ -0,0 +1,293 @@
+package io.opentelemetry.auto.tooling.export;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.TraceId;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends spans in a compact binary format to a directory of memory-mapped segment files, so that
+ * spans can be kept locally at a high rate and replayed later with {@link SpanJournalReader}.
+ *
+ * <p>Segments have a fixed size and are named by an increasing sequence number. When a span does
+ * not fit into the current segment, a new one is started, and the oldest segments beyond {@code
+ * maxSegments} are deleted. An exporter never appends to segments written before it was created.
+ *
+ * <p>A segment starts with {@link #MAGIC} and {@link #VERSION}. Each record is the length of the
+ * span followed by the span, and the length is written last. Segments are zero-filled when created,
+ * so after a crash a reader finds the end of the journal at the first record without a length.
+ *
+ * <p>Spans are encoded straight into the mapped segment without allocating. A segment is forced to
+ * disk and unmapped when the next one is started, so that the space of deleted segments is freed
+ * right away. Where the JVM does not allow unmapping, the mapping is released when it is garbage
+ * collected, and deleting the segment may fail until then on Windows.
+ */
+@Slf4j
+public final class JournalSpanExporter implements SpanExporter {
+  static final int MAGIC = 0x4f544a31; // "OTJ1"
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 8;
+
+  private static final String SEGMENT_PREFIX = "spans-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+  private static final int MIN_SEGMENT_SIZE = 4096;
+
+  private final File directory;
+  private final int segmentSize;
+  private final int maxSegments;
+  private final byte[] id = new byte[TraceId.getSize()];
+
+  private long sequence;
+  private MappedByteBuffer segment;
+  private long droppedSpans;
+
+  /**
+   * @param segmentSize the size of each segment file in bytes, which also bounds the size of a span
+   * @param maxSegments the number of segment files kept, including the one being written
+   */
+  public JournalSpanExporter(final File directory, final int segmentSize, final int maxSegments)
+      throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Failed to create directory " + directory);
+    }
+    this.directory = directory;
+    this.segmentSize = Math.max(MIN_SEGMENT_SIZE, segmentSize);
+    this.maxSegments = Math.max(1, maxSegments);
+    final File[] segments = segments(directory);
+    sequence = segments.length == 0 ? 0 : sequence(segments[segments.length - 1]);
+    startSegment();
+  }
+
+  @Override
+  public synchronized ResultCode export(final List<SpanData> spans) {
+    if (segment == null) {
+      return ResultCode.FAILED_NOT_RETRYABLE;
+    }
+    try {
+      for (final SpanData span : spans) {
+        append(span);
+      }
+      return ResultCode.SUCCESS;
+    } catch (final IOException e) {
+      log.debug("Failed to write spans to '{}'", directory, e);
+      return ResultCode.FAILED_NOT_RETRYABLE;
+    }
+  }
+
+  /** Writes the current segment to disk. Spans exported afterwards are not written. */
+  @Override
+  public synchronized void shutdown() {
+    if (segment != null) {
+      release(segment);
+      segment = null;
+    }
+    if (droppedSpans > 0) {
+      log.warn(
+          "Dropped {} spans larger than the journal segment size of {} bytes",
+          droppedSpans,
+          segmentSize);
+    }
+  }
+
+  private void append(final SpanData span) throws IOException {
+    final int start = segment.position();
+    try {
+      write(span, start);
+      return;
+    } catch (final BufferOverflowException e) {
+      // The length of the record is not written, so readers stop at it.
+    }
+    startSegment();
+    try {
+      write(span, HEADER_SIZE);
+    } catch (final BufferOverflowException e) {
+      clear(segment, HEADER_SIZE);
+      droppedSpans++;
+    }
+  }
+
+  private void write(final SpanData span, final int start) {
+    if (segment.limit() - start < 4) {
+      throw new BufferOverflowException();
+    }
+    segment.position(start + 4);
+    span.getTraceId().copyBytesTo(id, 0);
+    segment.put(id, 0, 16);
+    span.getSpanId().copyBytesTo(id, 0);
+    segment.put(id, 0, 8);
+    span.getParentSpanId().copyBytesTo(id, 0);
+    segment.put(id, 0, 8);
+    segment.put(span.getTraceFlags().getByte());
+    putString(span.getName());
+    segment.put((byte) span.getKind().ordinal());
+    segment.putLong(span.getStartEpochNanos());
+    segment.putLong(span.getEndEpochNanos());
+    segment.put((byte) span.getStatus().getCanonicalCode().ordinal());
+    putString(span.getStatus().getDescription());
+    final Map<String, AttributeValue> attributes = span.getAttributes();
+    segment.putInt(attributes.size());
+    for (final Map.Entry<String, AttributeValue> attribute : attributes.entrySet()) {
+      putString(attribute.getKey());
+      putValue(attribute.getValue());
+    }
+    segment.putInt(start, segment.position() - start - 4);
+  }
+
+  private void putValue(final AttributeValue value) {
+    segment.put((byte) value.getType().ordinal());
+    switch (value.getType()) {
+      case STRING:
+        putString(value.getStringValue());
+        break;
+      case BOOLEAN:
+        segment.put(value.getBooleanValue() ? (byte) 1 : (byte) 0);
+        break;
+      case LONG:
+        segment.putLong(value.getLongValue());
+        break;
+      case DOUBLE:
+        segment.putDouble(value.getDoubleValue());
+        break;
+      default:
+        break;
+    }
+  }
+
+  // Encodes UTF-8 by hand, String.getBytes would allocate.
+  private void putString(final String value) {
+    if (value == null) {
+      segment.putInt(-1);
+      return;
+    }
+    final int lengthPosition = segment.position();
+    segment.putInt(0);
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if (c < 0x80) {
+        segment.put((byte) c);
+      } else if (c < 0x800) {
+        segment.put((byte) (0xc0 | (c >> 6)));
+        segment.put((byte) (0x80 | (c & 0x3f)));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        segment.put((byte) (0xf0 | (codePoint >> 18)));
+        segment.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+        segment.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+        segment.put((byte) (0x80 | (codePoint & 0x3f)));
+      } else if (Character.isSurrogate(c)) {
+        segment.put((byte) '?');
+      } else {
+        segment.put((byte) (0xe0 | (c >> 12)));
+        segment.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+        segment.put((byte) (0x80 | (c & 0x3f)));
+      }
+    }
+    segment.putInt(lengthPosition, segment.position() - lengthPosition - 4);
+  }
+
+  private void startSegment() throws IOException {
+    final File file = new File(directory, name(++sequence));
+    final MappedByteBuffer next;
+    try (final RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+      out.setLength(segmentSize);
+      // The mapping stays valid after the file is closed.
+      next = out.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    if (segment != null) {
+      release(segment);
+    }
+    segment = next;
+    segment.putInt(MAGIC);
+    segment.putInt(VERSION);
+
+    final File[] segments = segments(directory);
+    for (int i = 0; i < segments.length - maxSegments; i++) {
+      if (!segments[i].delete()) {
+        log.debug("Failed to delete journal segment '{}'", segments[i]);
+      }
+    }
+  }
+
+  /** Forces the segment to disk and unmaps it. It must not be accessed afterwards. */
+  private static void release(final MappedByteBuffer segment) {
+    segment.force();
+    try {
+      try {
+        // Java 9 and later
+        final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), segment);
+      } catch (final NoSuchMethodException e) {
+        // Java 7 and 8
+        final Method cleanerMethod = segment.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        final Object cleaner = cleanerMethod.invoke(segment);
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    } catch (final Exception e) {
+      log.debug("Failed to unmap journal segment, leaving it to garbage collection", e);
+    }
+  }
+
+  private static void clear(final MappedByteBuffer segment, final int from) {
+    segment.position(from);
+    while (segment.remaining() >= 8) {
+      segment.putLong(0);
+    }
+    while (segment.hasRemaining()) {
+      segment.put((byte) 0);
+    }
+    segment.position(from);
+  }
+
+  /** @return the segment files in {@code directory}, oldest first */
+  static File[] segments(final File directory) {
+    final File[] segments =
+        directory.listFiles(
+            new FilenameFilter() {
+              @Override
+              public boolean accept(final File dir, final String name) {
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+              }
+            });
+    if (segments == null) {
+      return new File[0];
+    }
+    // Sequence numbers are zero-padded, so names sort in the order of the segments.
+    Arrays.sort(segments);
+    return segments;
+  }
+
+  private static String name(final long sequence) {
+    return String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+  }
+
+  private static long sequence(final File segment) {
+    final String name = segment.getName();
+    try {
+      return Long.parseLong(
+          name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (final NumberFormatException e) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package io.opentelemetry.auto.tooling.export;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.Status;
+import io.opentelemetry.trace.TraceFlags;
+import io.opentelemetry.trace.TraceId;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the spans written by a {@link JournalSpanExporter}, oldest first.
+ *
+ * <p>Reading stops at the end of each segment's records. A record that was not completely written,
+ * e.g. because the process crashed, ends its segment as well.
+ */
+@Slf4j
+public final class SpanJournalReader {
+  private static final Span.Kind[] KINDS = Span.Kind.values();
+  private static final Status.CanonicalCode[] CODES = Status.CanonicalCode.values();
+  private static final AttributeValue.Type[] TYPES = AttributeValue.Type.values();
+
+  private final File[] segments;
+  private int nextSegment;
+  private ByteBuffer segment;
+  private byte[] bytes = new byte[256];
+
+  public SpanJournalReader(final File directory) {
+    segments = JournalSpanExporter.segments(directory);
+  }
+
+  /** @return the next span, or {@code null} after the last one */
+  public SpanData read() throws IOException {
+    while (true) {
+      if (segment != null) {
+        final SpanData span = readRecord();
+        if (span != null) {
+          return span;
+        }
+        segment = null;
+      }
+      if (nextSegment == segments.length) {
+        return null;
+      }
+      segment = open(segments[nextSegment++]);
+    }
+  }
+
+  private static ByteBuffer open(final File file) throws IOException {
+    final ByteBuffer segment;
+    try (final RandomAccessFile in = new RandomAccessFile(file, "r")) {
+      segment = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+    }
+    if (segment.remaining() < JournalSpanExporter.HEADER_SIZE
+        || segment.getInt() != JournalSpanExporter.MAGIC
+        || segment.getInt() != JournalSpanExporter.VERSION) {
+      log.warn("Skipping '{}', which is not a span journal segment", file);
+      return null;
+    }
+    return segment;
+  }
+
+  private SpanData readRecord() {
+    if (segment.remaining() < 4) {
+      return null;
+    }
+    final int length = segment.getInt();
+    if (length <= 0 || length > segment.remaining()) {
+      return null;
+    }
+    final ByteBuffer record = segment.slice();
+    record.limit(length);
+    segment.position(segment.position() + length);
+    try {
+      final SpanData span = decode(record);
+      return record.hasRemaining() ? null : span;
+    } catch (final BufferUnderflowException
+        | IndexOutOfBoundsException
+        | IllegalArgumentException e) {
+      // Not completely written.
+      return null;
+    }
+  }
+
+  private SpanData decode(final ByteBuffer record) {
+    final TraceId traceId = TraceId.fromBytes(getBytes(record, 16), 0);
+    final SpanId spanId = SpanId.fromBytes(getBytes(record, 8), 0);
+    final SpanId parentSpanId = SpanId.fromBytes(getBytes(record, 8), 0);
+    final TraceFlags traceFlags = TraceFlags.fromByte(record.get());
+    final String name = getString(record);
+    final Span.Kind kind = KINDS[record.get()];
+    final long startEpochNanos = record.getLong();
+    final long endEpochNanos = record.getLong();
+    final Status.CanonicalCode code = CODES[record.get()];
+    final String description = getString(record);
+    final Status status =
+        description == null ? code.toStatus() : code.toStatus().withDescription(description);
+    final int attributeCount = record.getInt();
+    if (attributeCount < 0 || attributeCount > record.remaining()) {
+      throw new IllegalArgumentException("Invalid attribute count");
+    }
+    final Map<String, AttributeValue> attributes =
+        attributeCount == 0
+            ? Collections.<String, AttributeValue>emptyMap()
+            : new HashMap<String, AttributeValue>(attributeCount * 2);
+    for (int i = 0; i < attributeCount; i++) {
+      final String key = getString(record);
+      attributes.put(key, getValue(record));
+    }
+    return SpanData.newBuilder()
+        .setTraceId(traceId)
+        .setSpanId(spanId)
+        .setParentSpanId(parentSpanId)
+        .setTraceFlags(traceFlags)
+        .setName(name)
+        .setKind(kind)
+        .setStartEpochNanos(startEpochNanos)
+        .setEndEpochNanos(endEpochNanos)
+        .setStatus(status)
+        .setAttributes(attributes)
+        .build();
+  }
+
+  private AttributeValue getValue(final ByteBuffer record) {
+    switch (TYPES[record.get()]) {
+      case STRING:
+        return AttributeValue.stringAttributeValue(getString(record));
+      case BOOLEAN:
+        return AttributeValue.booleanAttributeValue(record.get() != 0);
+      case LONG:
+        return AttributeValue.longAttributeValue(record.getLong());
+      case DOUBLE:
+        return AttributeValue.doubleAttributeValue(record.getDouble());
+      default:
+        throw new IllegalArgumentException("Unknown attribute type");
+    }
+  }
+
+  private String getString(final ByteBuffer record) {
+    final int length = record.getInt();
+    if (length < 0) {
+      return null;
+    }
+    return new String(getBytes(record, length), 0, length, StandardCharsets.UTF_8);
+  }
+
+  private byte[] getBytes(final ByteBuffer record, final int length) {
+    if (length > record.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    if (bytes.length < length) {
+      bytes = new byte[Math.max(length, bytes.length * 2)];
+    }
+    record.get(bytes, 0, length);
+    return bytes;
+  }
+}
@@ -0,0 +1,30 @@
+package io.opentelemetry.auto.tooling.export;
+
+import io.opentelemetry.auto.bootstrap.metrics.SpanMetrics;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.trace.Span;
+
+/**
+ * Reports every span the SDK starts and ends to {@link SpanMetrics}, including the spans that
+ * instrumentation starts through the OpenTelemetry API rather than the agent tracer.
+ */
+public final class SpanMetricsProcessor implements SpanProcessor {
+
+  @Override
+  public void onStart(final ReadableSpan span) {
+    if (span instanceof Span) {
+      SpanMetrics.started((Span) span, span.getName());
+    }
+  }
+
+  @Override
+  public void onEnd(final ReadableSpan span) {
+    if (span instanceof Span) {
+      SpanMetrics.finished((Span) span);
+    }
+  }
+
+  @Override
+  public void shutdown() {}
+}
@@ -0,0 +1,130 @@
+package io.opentelemetry.auto.tooling.export;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.bootstrap.metrics.LatencyHistogram;
+import io.opentelemetry.auto.bootstrap.metrics.SpanAggregator;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends the span metrics counted by a {@link SpanAggregator} to a local file every interval, one
+ * JSON object per span name, component and status.
+ *
+ * <p>Each line holds the number of spans, the sum of their latencies and the 50th, 90th and 99th
+ * percentile and maximum of their latencies in microseconds. The percentiles are the upper bounds
+ * of {@link LatencyHistogram} buckets.
+ */
+@Slf4j
+public final class SpanMetricsReporter {
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+  private final SpanAggregator aggregator;
+  private final File file;
+  private final Writer writer;
+  private final long intervalNanos;
+  private final Thread thread;
+  private final StringBuilder line = new StringBuilder(256);
+
+  private long reportedUntimedSpans;
+  private volatile boolean shutdown;
+
+  /** Starts the thread writing the metrics. */
+  public SpanMetricsReporter(
+      final SpanAggregator aggregator, final File file, final long intervalMillis)
+      throws IOException {
+    this.aggregator = aggregator;
+    this.file = file;
+    writer =
+        new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMillis));
+    thread =
+        new Thread("agent-span-metrics") {
+          @Override
+          public void run() {
+            long deadline = System.nanoTime() + intervalNanos;
+            while (!shutdown) {
+              final long remaining = deadline - System.nanoTime();
+              if (remaining > 0) {
+                LockSupport.parkNanos(this, remaining);
+                continue;
+              }
+              report(System.currentTimeMillis());
+              deadline = System.nanoTime() + intervalNanos;
+            }
+            report(System.currentTimeMillis());
+            try {
+              writer.close();
+            } catch (final IOException e) {
+              log.debug("Failed to close '{}'", SpanMetricsReporter.this.file, e);
+            }
+          }
+        };
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Writes the metrics of the current interval and stops. */
+  public void shutdown() {
+    if (shutdown) {
+      return;
+    }
+    shutdown = true;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  void report(final long timestamp) {
+    final List<SpanAggregator.Aggregate> aggregates = aggregator.drain();
+    try {
+      for (final SpanAggregator.Aggregate aggregate : aggregates) {
+        line.setLength(0);
+        render(timestamp, aggregate, line);
+        writer.write(line.toString());
+        writer.write('\n');
+      }
+      writer.flush();
+    } catch (final IOException e) {
+      log.debug("Failed to write span metrics to '{}'", file, e);
+    }
+    final long untimed = aggregator.getUntimedSpans();
+    if (untimed != reportedUntimedSpans) {
+      log.warn(
+          "Did not count {} spans because too many were in flight, consider raising {}",
+          untimed - reportedUntimedSpans,
+          Config.METRICS_MAX_SPANS_IN_FLIGHT);
+      reportedUntimedSpans = untimed;
+    }
+  }
+
+  static void render(
+      final long timestamp, final SpanAggregator.Aggregate aggregate, final StringBuilder json) {
+    final LatencyHistogram.Snapshot latencies = aggregate.getLatencies();
+    json.append("{\"timestamp\":").append(timestamp);
+    json.append(",\"name\":");
+    FileSpanExporter.string(aggregate.getName(), json);
+    json.append(",\"component\":");
+    FileSpanExporter.string(aggregate.getComponent(), json);
+    json.append(",\"status\":\"").append(aggregate.isError() ? "ERROR" : "OK");
+    json.append("\",\"count\":").append(latencies.getCount());
+    json.append(",\"sumMicros\":").append(latencies.getSumMicros());
+    json.append(",\"p50Micros\":").append(latencies.getPercentileMicros(0.5));
+    json.append(",\"p90Micros\":").append(latencies.getPercentileMicros(0.9));
+    json.append(",\"p99Micros\":").append(latencies.getPercentileMicros(0.99));
+    json.append(",\"maxMicros\":").append(latencies.getMaxMicros());
+    json.append('}');
+  }
+}
@@ -0,0 +1,93 @@
+package io.opentelemetry.auto.tooling.export;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer.
+ *
+ * <p>Each slot carries a sequence number telling whether it is free for the producer claiming
+ * position {@code p} (sequence {@code p}) or filled for the consumer reading it (sequence {@code p
+ * + 1}). Producers claim positions with a single compare-and-set on the tail and never wait for
+ * each other, so a full queue fails an offer instead of blocking the application thread.
+ *
+ * @param <E> the type of the elements
+ */
+final class SpanRingBuffer<E> {
+  private final int mask;
+  private final AtomicLongArray sequences;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLong tail = new AtomicLong();
+
+  // Only read and written by the consumer.
+  private long head;
+
+  /** @param capacity the capacity, rounded up to a power of two */
+  SpanRingBuffer(final int capacity) {
+    final int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    mask = size - 1;
+    sequences = new AtomicLongArray(size);
+    elements = new AtomicReferenceArray<>(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Adds an element unless the queue is full. May be called by any thread.
+   *
+   * @return the number of elements offered before this one, or {@code -1} if the queue is full
+   */
+  long offer(final E element) {
+    long position = tail.get();
+    while (true) {
+      final int index = (int) position & mask;
+      final long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          // Publishes the element to the consumer.
+          sequences.lazySet(index, position + 1);
+          return position;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        // The slot still holds the element offered one lap before.
+        return -1;
+      } else {
+        // Another producer claimed the position.
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Moves up to {@code max} elements, in the order they were offered, to {@code target}. Must only
+   * be called by the consumer.
+   *
+   * @return the number of elements moved
+   */
+  int drainTo(final Collection<? super E> target, final int max) {
+    int drained = 0;
+    while (drained < max) {
+      final int index = (int) head & mask;
+      if (sequences.get(index) != head + 1) {
+        break;
+      }
+      final E element = elements.get(index);
+      elements.lazySet(index, null);
+      // Frees the slot for the producer claiming it on the next lap.
+      sequences.lazySet(index, head + mask + 1);
+      head++;
+      target.add(element);
+      drained++;
+    }
+    return drained;
+  }
+}
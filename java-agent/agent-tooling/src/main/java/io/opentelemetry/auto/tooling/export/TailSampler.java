@@ -0,0 +1,251 @@
+package io.opentelemetry.auto.tooling.export;
+
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.TraceId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds back the ended spans of each trace until it is known whether the trace is worth exporting.
+ *
+ * <p>A trace is kept as soon as one of its spans failed, took at least the latency threshold, or
+ * has one of the keep attributes. Its buffered spans are exported then, and its spans ending later
+ * right away. A trace none of whose spans ended for the decision timeout is dropped.
+ *
+ * <p>At most {@code maxSpans} spans, of an estimated size of at most {@code maxBytes} in total, are
+ * buffered. Beyond either bound, the traces that went longest without a span ending are evicted
+ * whole, as they are the closest to being dropped anyway. The size of a span is estimated from a
+ * fixed overhead plus its name and attributes, with strings at two bytes per character, and a fixed
+ * size per event and link, so it approximates the retained heap rather than measuring it.
+ *
+ * <p>Only the thread exporting the spans calls {@link #sample(List, long)}, so the buffer is not
+ * synchronized. The counters may be read from any thread.
+ */
+public final class TailSampler {
+  // Spans of a kept trace may end after the decision, so recent decisions are remembered.
+  private static final int MAX_KEPT_TRACE_IDS = 4096;
+  private static final String ANY_VALUE = "*";
+
+  // Rough retained sizes of the SpanData object graph, ids, timestamps and status included.
+  private static final int SPAN_BYTES = 400;
+  private static final int ATTRIBUTE_BYTES = 80;
+  private static final int EVENT_BYTES = 120;
+  private static final int LINK_BYTES = 120;
+
+  private final long latencyThresholdNanos;
+  private final long decisionTimeoutNanos;
+  private final int maxSpans;
+  private final long maxBytes;
+  private final Map<String, String> keepAttributes;
+
+  // Ordered by the time a span of the trace was last added, which is also the order of expiry.
+  private final LinkedHashMap<TraceId, BufferedTrace> traces = new LinkedHashMap<>(64, 0.75f, true);
+  private final Set<TraceId> keptTraceIds =
+      Collections.newSetFromMap(
+          new LinkedHashMap<TraceId, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<TraceId, Boolean> eldest) {
+              return size() > MAX_KEPT_TRACE_IDS;
+            }
+          });
+
+  // Only written by the exporting thread.
+  private volatile int bufferedSpans;
+  private volatile long bufferedBytes;
+
+  private final AtomicLong keptTraces = new AtomicLong();
+  private final AtomicLong droppedTraces = new AtomicLong();
+  private final AtomicLong evictedTraces = new AtomicLong();
+  private final AtomicLong evictedSpans = new AtomicLong();
+
+  /**
+   * @param latencyThresholdMillis the duration of a span that keeps its trace, or {@code 0} to keep
+   *     no trace for its latency
+   * @param maxSpans the maximum number of buffered spans
+   * @param maxBytes the maximum estimated size of the buffered spans in bytes
+   * @param keepAttributes the attributes that keep the trace of a span having them, mapped to their
+   *     value or to {@code *} for any value
+   */
+  public TailSampler(
+      final long latencyThresholdMillis,
+      final long decisionTimeoutMillis,
+      final int maxSpans,
+      final long maxBytes,
+      final Map<String, String> keepAttributes) {
+    latencyThresholdNanos =
+        latencyThresholdMillis > 0
+            ? TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis)
+            : Long.MAX_VALUE;
+    decisionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(decisionTimeoutMillis);
+    this.maxSpans = maxSpans;
+    this.maxBytes = maxBytes;
+    this.keepAttributes = keepAttributes;
+  }
+
+  /**
+   * Buffers the ended spans, and drops the traces that timed out or have to be evicted.
+   *
+   * @param nanoTime the current {@link System#nanoTime()}
+   * @return the spans to export now
+   */
+  List<SpanData> sample(final List<SpanData> spans, final long nanoTime) {
+    List<SpanData> export = Collections.emptyList();
+    int buffered = bufferedSpans;
+    long bytes = bufferedBytes;
+    for (final SpanData span : spans) {
+      final TraceId traceId = span.getTraceId();
+      if (keptTraceIds.contains(traceId)) {
+        export = add(export, span);
+        continue;
+      }
+      BufferedTrace trace = traces.get(traceId);
+      if (keep(span)) {
+        if (trace != null) {
+          traces.remove(traceId);
+          buffered -= trace.spans.size();
+          bytes -= trace.bytes;
+          for (final SpanData bufferedSpan : trace.spans) {
+            export = add(export, bufferedSpan);
+          }
+        }
+        export = add(export, span);
+        keptTraceIds.add(traceId);
+        keptTraces.incrementAndGet();
+        continue;
+      }
+      if (trace == null) {
+        trace = new BufferedTrace();
+        traces.put(traceId, trace);
+      }
+      final long spanBytes = estimateBytes(span);
+      trace.spans.add(span);
+      trace.bytes += spanBytes;
+      trace.lastAdded = nanoTime;
+      buffered++;
+      bytes += spanBytes;
+    }
+
+    final Iterator<BufferedTrace> eldest = traces.values().iterator();
+    while ((buffered > maxSpans || bytes > maxBytes) && eldest.hasNext()) {
+      final BufferedTrace trace = eldest.next();
+      eldest.remove();
+      buffered -= trace.spans.size();
+      bytes -= trace.bytes;
+      evictedTraces.incrementAndGet();
+      evictedSpans.addAndGet(trace.spans.size());
+    }
+    while (eldest.hasNext()) {
+      final BufferedTrace trace = eldest.next();
+      if (nanoTime - trace.lastAdded < decisionTimeoutNanos) {
+        break;
+      }
+      eldest.remove();
+      buffered -= trace.spans.size();
+      bytes -= trace.bytes;
+      droppedTraces.incrementAndGet();
+    }
+    bufferedSpans = buffered;
+    bufferedBytes = bytes;
+    return export;
+  }
+
+  static long estimateBytes(final SpanData span) {
+    long bytes =
+        SPAN_BYTES
+            + 2L * span.getName().length()
+            + (long) EVENT_BYTES * span.getTimedEvents().size()
+            + (long) LINK_BYTES * span.getLinks().size();
+    for (final Map.Entry<String, AttributeValue> attribute : span.getAttributes().entrySet()) {
+      bytes += ATTRIBUTE_BYTES + 2L * attribute.getKey().length();
+      final AttributeValue value = attribute.getValue();
+      if (value.getType() == AttributeValue.Type.STRING) {
+        bytes += 2L * value.getStringValue().length();
+      }
+    }
+    return bytes;
+  }
+
+  private boolean keep(final SpanData span) {
+    if (!span.getStatus().isOk()
+        || span.getEndEpochNanos() - span.getStartEpochNanos() >= latencyThresholdNanos) {
+      return true;
+    }
+    if (!keepAttributes.isEmpty()) {
+      final Map<String, AttributeValue> attributes = span.getAttributes();
+      for (final Map.Entry<String, String> keepAttribute : keepAttributes.entrySet()) {
+        final AttributeValue value = attributes.get(keepAttribute.getKey());
+        if (value != null
+            && (ANY_VALUE.equals(keepAttribute.getValue())
+                || keepAttribute.getValue().equals(toString(value)))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static String toString(final AttributeValue value) {
+    switch (value.getType()) {
+      case STRING:
+        return value.getStringValue();
+      case BOOLEAN:
+        return String.valueOf(value.getBooleanValue());
+      case LONG:
+        return String.valueOf(value.getLongValue());
+      case DOUBLE:
+        return String.valueOf(value.getDoubleValue());
+      default:
+        return null;
+    }
+  }
+
+  private static List<SpanData> add(final List<SpanData> spans, final SpanData span) {
+    final List<SpanData> list = spans.isEmpty() ? new ArrayList<SpanData>() : spans;
+    list.add(span);
+    return list;
+  }
+
+  /** @return the number of spans waiting for the decision on their trace */
+  public int getBufferedSpans() {
+    return bufferedSpans;
+  }
+
+  /** @return the number of traces kept because of one of their spans */
+  public long getKeptTraces() {
+    return keptTraces.get();
+  }
+
+  /** @return the number of traces dropped after the decision timeout */
+  public long getDroppedTraces() {
+    return droppedTraces.get();
+  }
+
+  /** @return the estimated size in bytes of the spans waiting for the decision on their trace */
+  public long getBufferedBytes() {
+    return bufferedBytes;
+  }
+
+  /** @return the number of traces evicted to stay within the bounds of the buffer */
+  public long getEvictedTraces() {
+    return evictedTraces.get();
+  }
+
+  /** @return the number of spans of the evicted traces */
+  public long getEvictedSpans() {
+    return evictedSpans.get();
+  }
+
+  private static final class BufferedTrace {
+    private final List<SpanData> spans = new ArrayList<>(4);
+    private long bytes;
+    private long lastAdded;
+  }
+}
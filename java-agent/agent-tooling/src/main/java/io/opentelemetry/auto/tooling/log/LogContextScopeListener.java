@@ -1,49 +1,139 @@
 package io.opentelemetry.auto.tooling.log;
 
 import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.trace.SpanContext;
+import io.opentelemetry.trace.SpanId;
+import io.opentelemetry.trace.TraceId;
 import io.opentelemetry.trace.Tracer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * A scope listener that receives the MDC/ThreadContext put and receive methods and update the trace
  * and span reference anytime a new scope is activated or closed.
+ *
+ * <p>The methods are bound as typed {@link MethodHandle}s, which avoids the argument boxing and
+ * access checks of reflective calls. Each thread remembers the ids it last wrote, so the log
+ * context is only written when the current span changes, and the hex encoding of recently seen
+ * ids is cached.
  */
 @Slf4j
 public class LogContextScopeListener {
   private static final String TRACE_ID_KEY = "ot.trace_id";
   private static final String SPAN_ID_KEY = "ot.span_id";
 
+  private static final MethodType PUT_TYPE =
+      MethodType.methodType(void.class, String.class, String.class);
+  private static final MethodType REMOVE_TYPE = MethodType.methodType(void.class, String.class);
+
   /** A reference to the log context method that sets a new attribute in the log context */
-  private final Method putMethod;
+  private final MethodHandle putMethod;
 
   /** A reference to the log context method that removes an attribute from the log context */
-  private final Method removeMethod;
+  private final MethodHandle removeMethod;
+
+  private final ThreadLocal<WrittenIds> writtenIds =
+      new ThreadLocal<WrittenIds>() {
+        @Override
+        protected WrittenIds initialValue() {
+          return new WrittenIds();
+        }
+      };
 
   final Tracer tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto");
 
-  public LogContextScopeListener(final Method putMethod, final Method removeMethod) {
-    this.putMethod = putMethod;
-    this.removeMethod = removeMethod;
+  /** Binds the static {@code put(String, String)} and {@code remove(String)} of the class. */
+  public LogContextScopeListener(final Class<?> logContextClass)
+      throws NoSuchMethodException, IllegalAccessException {
+    final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    putMethod = lookup.findStatic(logContextClass, "put", PUT_TYPE);
+    removeMethod = lookup.findStatic(logContextClass, "remove", REMOVE_TYPE);
+  }
+
+  /** Binds static methods whose parameters accept strings, e.g. {@code put(String, Object)}. */
+  public LogContextScopeListener(final Method putMethod, final Method removeMethod)
+      throws IllegalAccessException {
+    final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    this.putMethod = lookup.unreflect(putMethod).asType(PUT_TYPE);
+    this.removeMethod = lookup.unreflect(removeMethod).asType(REMOVE_TYPE);
   }
 
   public void afterScopeActivated() {
-    try {
-      putMethod.invoke(
-          null, TRACE_ID_KEY, tracer.getCurrentSpan().getContext().getTraceId().toLowerBase16());
-      putMethod.invoke(
-          null, SPAN_ID_KEY, tracer.getCurrentSpan().getContext().getSpanId().toLowerBase16());
-    } catch (final Exception e) {
-      log.debug("Exception setting log context context", e);
-    }
+    update();
   }
 
+  /** Restores the ids of the span that is current again, or removes them if there is none. */
   public void afterScopeClosed() {
+    update();
+  }
+
+  private void update() {
+    final SpanContext context = tracer.getCurrentSpan().getContext();
+    final WrittenIds written = writtenIds.get();
     try {
-      removeMethod.invoke(null, TRACE_ID_KEY);
-      removeMethod.invoke(null, SPAN_ID_KEY);
-    } catch (final Exception e) {
-      log.debug("Exception removing log context context", e);
+      if (!context.isValid()) {
+        if (written.spanId != null) {
+          removeMethod.invokeExact(TRACE_ID_KEY);
+          removeMethod.invokeExact(SPAN_ID_KEY);
+          written.traceId = null;
+          written.spanId = null;
+        }
+        return;
+      }
+      final TraceId traceId = context.getTraceId();
+      if (!traceId.equals(written.traceId)) {
+        putMethod.invokeExact(TRACE_ID_KEY, written.traceIdHex(traceId));
+      }
+      final SpanId spanId = context.getSpanId();
+      if (!spanId.equals(written.spanId)) {
+        putMethod.invokeExact(SPAN_ID_KEY, written.spanIdHex(spanId));
+      }
+    } catch (final Throwable t) {
+      // The log context may have been partially written, so write both ids next time.
+      written.traceId = null;
+      written.spanId = null;
+      log.debug("Exception setting log context context", t);
+    }
+  }
+
+  /** The ids last written to the log context on a thread, and the encoding of recent span ids. */
+  private static final class WrittenIds {
+    // Parents are activated again when their children close, so remember a few span ids.
+    private static final int CACHED_SPAN_IDS = 8;
+
+    private TraceId traceId;
+    private SpanId spanId;
+
+    private String cachedTraceIdHex;
+    private TraceId cachedTraceId;
+    private final SpanId[] cachedSpanIds = new SpanId[CACHED_SPAN_IDS];
+    private final String[] cachedSpanIdHex = new String[CACHED_SPAN_IDS];
+    private int nextSpanIdSlot;
+
+    String traceIdHex(final TraceId traceId) {
+      if (!traceId.equals(cachedTraceId)) {
+        cachedTraceIdHex = traceId.toLowerBase16();
+        cachedTraceId = traceId;
+      }
+      this.traceId = traceId;
+      return cachedTraceIdHex;
+    }
+
+    String spanIdHex(final SpanId spanId) {
+      this.spanId = spanId;
+      for (int i = 0; i < CACHED_SPAN_IDS; i++) {
+        if (spanId.equals(cachedSpanIds[i])) {
+          return cachedSpanIdHex[i];
+        }
+      }
+      final String hex = spanId.toLowerBase16();
+      cachedSpanIds[nextSpanIdSlot] = spanId;
+      cachedSpanIdHex[nextSpanIdSlot] = hex;
+      nextSpanIdSlot = (nextSpanIdSlot + 1) % CACHED_SPAN_IDS;
+      return hex;
     }
   }
 }
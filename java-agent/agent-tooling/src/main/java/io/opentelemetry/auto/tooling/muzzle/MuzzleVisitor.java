@@ -2,6 +2,8 @@ package io.opentelemetry.auto.tooling.muzzle;
 
 import io.opentelemetry.auto.tooling.Instrumenter;
 import io.opentelemetry.auto.tooling.Utils;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -146,7 +148,17 @@ public class MuzzleVisitor implements AsmVisitorWrapper {
           }
         }
       }
-      return references.values().toArray(new Reference[0]);
+      // Emit references sorted by class name so matching visits each class in a stable order.
+      final Reference[] sorted = references.values().toArray(new Reference[0]);
+      Arrays.sort(
+          sorted,
+          new Comparator<Reference>() {
+            @Override
+            public int compare(final Reference left, final Reference right) {
+              return left.getClassName().compareTo(right.getClassName());
+            }
+          });
+      return sorted;
     }
 
     @Override
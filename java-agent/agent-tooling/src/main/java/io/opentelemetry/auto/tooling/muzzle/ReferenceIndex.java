@@ -0,0 +1,210 @@
+package io.opentelemetry.auto.tooling.muzzle;
+
+import static io.opentelemetry.auto.bootstrap.WeakMap.Provider.newWeakMap;
+
+import io.opentelemetry.auto.bootstrap.WeakMap;
+import io.opentelemetry.auto.tooling.AgentTooling;
+import io.opentelemetry.auto.tooling.Utils;
+import io.opentelemetry.auto.tooling.muzzle.Reference.Mismatch;
+import io.opentelemetry.auto.tooling.muzzle.Reference.Source;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * Outcome of class and member lookups against one classloader, shared by all {@link
+ * ReferenceMatcher}s.
+ *
+ * <p>Instrumentations frequently reference the same library types (e.g. {@code javax.servlet.*}).
+ * With the index each class and member is resolved once per classloader no matter how many
+ * instrumentations refer to it. Only names and modifiers are stored so the index never holds on to
+ * the classloader.
+ */
+final class ReferenceIndex {
+  private static final int MISSING = -1;
+
+  private static final WeakMap<ClassLoader, ReferenceIndex> INDEXES = newWeakMap();
+
+  private static final WeakMap.ValueSupplier<ReferenceIndex> SUPPLIER =
+      new WeakMap.ValueSupplier<ReferenceIndex>() {
+        @Override
+        public ReferenceIndex get() {
+          return new ReferenceIndex();
+        }
+      };
+
+  private final ConcurrentMap<String, ClassEntry> classes = new ConcurrentHashMap<>();
+
+  private ReferenceIndex() {}
+
+  static ReferenceIndex forClassLoader(final ClassLoader loader) {
+    return INDEXES.getOrCreate(loader, SUPPLIER);
+  }
+
+  /**
+   * Check a reference against the classloader of this index.
+   *
+   * @param loader the classloader this index was obtained for
+   * @return A list of mismatched sources. A list of size 0 means the reference matches the class.
+   */
+  List<Mismatch> check(final Reference reference, final ClassLoader loader) {
+    final Lookup lookup = new Lookup(reference.getClassName(), loader);
+    try {
+      final ClassEntry entry = classEntry(lookup);
+      if (entry.missingClassName != null) {
+        return Collections.<Mismatch>singletonList(
+            new Mismatch.MissingClass(
+                reference.getSources().toArray(new Source[0]), entry.missingClassName));
+      }
+
+      final List<Mismatch> mismatches = new ArrayList<>(0);
+      for (final Reference.Flag flag : reference.getFlags()) {
+        if (!flag.matches(entry.modifiers)) {
+          mismatches.add(
+              new Mismatch.MissingFlag(
+                  reference.getSources().toArray(new Source[0]),
+                  reference.getClassName(),
+                  flag,
+                  entry.modifiers));
+        }
+      }
+
+      for (final Reference.Field fieldRef : reference.getFields()) {
+        final String key = fieldRef.getName() + fieldRef.getType().getDescriptor();
+        Integer modifiers = entry.fields.get(key);
+        if (modifiers == null) {
+          final FieldDescription.InDefinedShape field =
+              ReferenceMatcher.findField(fieldRef, lookup.type());
+          modifiers = field == null ? MISSING : field.getModifiers();
+          entry.fields.put(key, modifiers);
+        }
+        if (modifiers == MISSING) {
+          mismatches.add(
+              new Mismatch.MissingField(
+                  fieldRef.getSources().toArray(new Source[0]),
+                  reference.getClassName(),
+                  fieldRef.getName(),
+                  fieldRef.getType().getInternalName()));
+          continue;
+        }
+        for (final Reference.Flag flag : fieldRef.getFlags()) {
+          if (!flag.matches(modifiers)) {
+            mismatches.add(
+                new Mismatch.MissingFlag(
+                    fieldRef.getSources().toArray(new Source[0]),
+                    reference.getClassName()
+                        + "#"
+                        + fieldRef.getName()
+                        + fieldRef.getType().getInternalName(),
+                    flag,
+                    modifiers));
+          }
+        }
+      }
+
+      for (final Reference.Method methodRef : reference.getMethods()) {
+        final String key = methodRef.getName() + methodRef.getDescriptor();
+        Integer modifiers = entry.methods.get(key);
+        if (modifiers == null) {
+          final MethodDescription.InDefinedShape method =
+              ReferenceMatcher.findMethod(methodRef, lookup.type());
+          modifiers = method == null ? MISSING : method.getModifiers();
+          entry.methods.put(key, modifiers);
+        }
+        if (modifiers == MISSING) {
+          mismatches.add(
+              new Mismatch.MissingMethod(
+                  methodRef.getSources().toArray(new Source[0]),
+                  methodRef.getName(),
+                  methodRef.getDescriptor()));
+          continue;
+        }
+        for (final Reference.Flag flag : methodRef.getFlags()) {
+          if (!flag.matches(modifiers)) {
+            mismatches.add(
+                new Mismatch.MissingFlag(
+                    methodRef.getSources().toArray(new Source[0]),
+                    reference.getClassName() + "#" + key,
+                    flag,
+                    modifiers));
+          }
+        }
+      }
+      return mismatches;
+    } catch (final Exception e) {
+      final String message = e.getMessage();
+      if (message != null && message.startsWith("Cannot resolve type description for ")) {
+        // bytebuddy throws an illegal state exception with this message if it cannot resolve types
+        // TODO: handle missing type resolutions without catching bytebuddy's exceptions
+        final String className = message.replace("Cannot resolve type description for ", "");
+        return Collections.<Mismatch>singletonList(
+            new Mismatch.MissingClass(reference.getSources().toArray(new Source[0]), className));
+      }
+      // Shouldn't happen. Fail the reference check and add a mismatch for debug logging.
+      return Collections.<Mismatch>singletonList(
+          new Mismatch.ReferenceCheckError(e, reference, loader));
+    }
+  }
+
+  private ClassEntry classEntry(final Lookup lookup) {
+    ClassEntry entry = classes.get(lookup.className);
+    if (entry == null) {
+      final TypePool.Resolution resolution = lookup.resolution();
+      entry =
+          resolution.isResolved()
+              ? new ClassEntry(null, resolution.resolve().getModifiers())
+              : new ClassEntry(lookup.className, 0);
+      final ClassEntry existing = classes.putIfAbsent(lookup.className, entry);
+      if (existing != null) {
+        entry = existing;
+      }
+    }
+    return entry;
+  }
+
+  private static final class ClassEntry {
+    /** Name of the class when it could not be resolved, null otherwise. */
+    private final String missingClassName;
+
+    private final int modifiers;
+    private final ConcurrentMap<String, Integer> fields = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> methods = new ConcurrentHashMap<>();
+
+    private ClassEntry(final String missingClassName, final int modifiers) {
+      this.missingClassName = missingClassName;
+      this.modifiers = modifiers;
+    }
+  }
+
+  /** Resolves the referenced type on first use only, so fully indexed references skip the pool. */
+  private static final class Lookup {
+    private final String className;
+    private final ClassLoader loader;
+    private TypePool.Resolution resolution;
+
+    private Lookup(final String className, final ClassLoader loader) {
+      this.className = className;
+      this.loader = loader;
+    }
+
+    private TypePool.Resolution resolution() {
+      if (resolution == null) {
+        final TypePool typePool =
+            AgentTooling.poolStrategy()
+                .typePool(AgentTooling.locationStrategy().classFileLocator(loader), loader);
+        resolution = typePool.describe(Utils.getClassName(className));
+      }
+      return resolution;
+    }
+
+    private TypeDescription type() {
+      return resolution().resolve();
+    }
+  }
+}
@@ -4,13 +4,9 @@ import static io.opentelemetry.auto.bootstrap.WeakMap.Provider.newWeakMap;
 import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.BOOTSTRAP_LOADER;
 
 import io.opentelemetry.auto.bootstrap.WeakMap;
-import io.opentelemetry.auto.tooling.AgentTooling;
 import io.opentelemetry.auto.tooling.Utils;
-import io.opentelemetry.auto.tooling.muzzle.Reference.Mismatch;
-import io.opentelemetry.auto.tooling.muzzle.Reference.Source;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -18,7 +14,6 @@ import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.pool.TypePool;
 
 /** Matches a set of references against a classloader. */
 @Slf4j
@@ -62,11 +57,12 @@ public class ReferenceMatcher {
         mismatches = mismatchCache.get(loader);
         if (null == mismatches) {
           mismatches = new ArrayList<>(0);
+          final ReferenceIndex index = ReferenceIndex.forClassLoader(loader);
           for (final Reference reference : references) {
             // Don't reference-check helper classes.
             // They will be injected by the instrumentation's HelperInjector.
             if (!helperClassNames.contains(reference.getClassName())) {
-              mismatches.addAll(checkMatch(reference, loader));
+              mismatches.addAll(index.check(reference, loader));
             }
           }
           mismatchCache.put(loader, mismatches);
@@ -79,111 +75,17 @@ public class ReferenceMatcher {
   /**
    * Check a reference against a classloader's classpath.
    *
+   * <p>Lookups are recorded in the classloader's {@link ReferenceIndex}, so classes and members
+   * referenced by several instrumentations are only resolved once.
+   *
    * @param loader
    * @return A list of mismatched sources. A list of size 0 means the reference matches the class.
    */
   public static List<Reference.Mismatch> checkMatch(Reference reference, ClassLoader loader) {
-    final TypePool typePool =
-        AgentTooling.poolStrategy()
-            .typePool(AgentTooling.locationStrategy().classFileLocator(loader), loader);
-    final List<Mismatch> mismatches = new ArrayList<>(0);
-    try {
-      final TypePool.Resolution resolution =
-          typePool.describe(Utils.getClassName(reference.getClassName()));
-      if (!resolution.isResolved()) {
-        return Collections.<Mismatch>singletonList(
-            new Mismatch.MissingClass(
-                reference.getSources().toArray(new Source[0]), reference.getClassName()));
-      }
-      return checkMatch(reference, resolution.resolve());
-    } catch (Exception e) {
-      if (e.getMessage().startsWith("Cannot resolve type description for ")) {
-        // bytebuddy throws an illegal state exception with this message if it cannot resolve types
-        // TODO: handle missing type resolutions without catching bytebuddy's exceptions
-        final String className = e.getMessage().replace("Cannot resolve type description for ", "");
-        mismatches.add(
-            new Mismatch.MissingClass(reference.getSources().toArray(new Source[0]), className));
-      } else {
-        // Shouldn't happen. Fail the reference check and add a mismatch for debug logging.
-        mismatches.add(new Mismatch.ReferenceCheckError(e, reference, loader));
-      }
-    }
-    return mismatches;
-  }
-
-  public static List<Reference.Mismatch> checkMatch(
-      Reference reference, TypeDescription typeOnClasspath) {
-    final List<Mismatch> mismatches = new ArrayList<>(0);
-
-    for (Reference.Flag flag : reference.getFlags()) {
-      if (!flag.matches(typeOnClasspath.getModifiers())) {
-        final String desc = reference.getClassName();
-        mismatches.add(
-            new Mismatch.MissingFlag(
-                reference.getSources().toArray(new Source[0]),
-                desc,
-                flag,
-                typeOnClasspath.getModifiers()));
-      }
-    }
-
-    for (Reference.Field fieldRef : reference.getFields()) {
-      FieldDescription.InDefinedShape fieldDescription = findField(fieldRef, typeOnClasspath);
-      if (fieldDescription == null) {
-        mismatches.add(
-            new Reference.Mismatch.MissingField(
-                fieldRef.getSources().toArray(new Reference.Source[0]),
-                reference.getClassName(),
-                fieldRef.getName(),
-                fieldRef.getType().getInternalName()));
-      } else {
-        for (Reference.Flag flag : fieldRef.getFlags()) {
-          if (!flag.matches(fieldDescription.getModifiers())) {
-            final String desc =
-                reference.getClassName()
-                    + "#"
-                    + fieldRef.getName()
-                    + fieldRef.getType().getInternalName();
-            mismatches.add(
-                new Mismatch.MissingFlag(
-                    fieldRef.getSources().toArray(new Source[0]),
-                    desc,
-                    flag,
-                    fieldDescription.getModifiers()));
-          }
-        }
-      }
-    }
-
-    for (Reference.Method methodRef : reference.getMethods()) {
-      final MethodDescription.InDefinedShape methodDescription =
-          findMethod(methodRef, typeOnClasspath);
-      if (methodDescription == null) {
-        mismatches.add(
-            new Reference.Mismatch.MissingMethod(
-                methodRef.getSources().toArray(new Reference.Source[0]),
-                methodRef.getName(),
-                methodRef.getDescriptor()));
-      } else {
-        for (Reference.Flag flag : methodRef.getFlags()) {
-          if (!flag.matches(methodDescription.getModifiers())) {
-            final String desc =
-                reference.getClassName() + "#" + methodRef.getName() + methodRef.getDescriptor();
-            mismatches.add(
-                new Mismatch.MissingFlag(
-                    methodRef.getSources().toArray(new Source[0]),
-                    desc,
-                    flag,
-                    methodDescription.getModifiers()));
-          }
-        }
-      }
-    }
-
-    return mismatches;
+    return ReferenceIndex.forClassLoader(loader).check(reference, loader);
   }
 
-  private static FieldDescription.InDefinedShape findField(
+  static FieldDescription.InDefinedShape findField(
       Reference.Field fieldRef, TypeDescription typeOnClasspath) {
     for (FieldDescription.InDefinedShape fieldType : typeOnClasspath.getDeclaredFields()) {
       if (fieldType.getName().equals(fieldRef.getName())
@@ -212,7 +114,7 @@ public class ReferenceMatcher {
     return null;
   }
 
-  private static MethodDescription.InDefinedShape findMethod(
+  static MethodDescription.InDefinedShape findMethod(
       Reference.Method methodRef, TypeDescription typeOnClasspath) {
     for (MethodDescription.InDefinedShape methodDescription :
         typeOnClasspath.getDeclaredMethods()) {
@@ -3,6 +3,7 @@ package io.opentelemetry.auto.decorator
 import io.opentelemetry.auto.api.MoreTags
 import io.opentelemetry.auto.instrumentation.api.Tags
 import io.opentelemetry.auto.util.test.AgentSpecification
+import io.opentelemetry.trace.DefaultSpan
 import io.opentelemetry.trace.Span
 import io.opentelemetry.trace.Status
 import spock.lang.Shared
@@ -101,6 +102,18 @@ class BaseDecoratorTest extends AgentSpecification {
     thrown(AssertionError)
   }
 
+  def "spans that are not recorded are not decorated"() {
+    setup:
+    def span = DefaultSpan.getInvalid()
+
+    expect:
+    !BaseDecorator.isRecording(span)
+    BaseDecorator.isRecording(this.span)
+    decorator.afterStart(span).is(span)
+    decorator.onError(span, new Exception()).is(span)
+    decorator.onPeerConnection(span, new InetSocketAddress("localhost", 888)).is(span)
+  }
+
   def "test spanNameForMethod"() {
     when:
     def result = decorator.spanNameForMethod(method)
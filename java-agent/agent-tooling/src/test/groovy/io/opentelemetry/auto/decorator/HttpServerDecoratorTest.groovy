@@ -75,6 +75,57 @@ class HttpServerDecoratorTest extends ServerDecoratorTest {
     req = [url: url == null ? null : new URI(url)]
   }
 
+  def "test url parts for #path"() {
+    setup:
+    def decorator = newDecorator()
+
+    when:
+    withConfigOverride(Config.HTTP_SERVER_TAG_QUERY_STRING, "true") {
+      decorator.onRequest(span, req)
+    }
+
+    then:
+    1 * span.setAttribute(Tags.HTTP_URL, expectedUrl)
+    if (query) {
+      1 * span.setAttribute(MoreTags.HTTP_QUERY, expectedQuery)
+    }
+    1 * span.setAttribute(Tags.HTTP_METHOD, null)
+    0 * _
+
+    where:
+    scheme  | host        | port | path          | query          | expectedUrl                  | expectedQuery
+    "http"  | "host"      | 8080 | "/some/path"  | null           | "http://host:8080/some/path" | null
+    "https" | "host"      | 443  | ""            | null           | "https://host/"              | null
+    "http"  | "host:99"   | -1   | "/path"       | "a=%28b%29"    | "http://host:99/path"        | "a=(b)"
+    "http"  | "host:99"   | -1   | "/path"       | "a=%2"         | "http://host:99/path"        | "a=%2"
+    "http"  | null        | -1   | "/path"       | "query"        | "/path"                      | "query"
+    "http"  | ""          | 80   | "/path"       | null           | "/path"                      | null
+    "http"  | "host"      | 80   | "/a%20b/c%2F" | null           | "http://host/a b/c/"         | null
+
+    req = [scheme: scheme, urlHost: host, urlPort: port, path: path, query: query]
+  }
+
+  def "malformed url parts fall back to url for #path and #host"() {
+    setup:
+    def decorator = newDecorator()
+
+    when:
+    decorator.onRequest(span, req)
+
+    then:
+    1 * span.setAttribute(Tags.HTTP_URL, expectedUrl)
+    1 * span.setAttribute(Tags.HTTP_METHOD, null)
+    0 * _
+
+    where:
+    host           | path      | url                          | expectedUrl
+    "host"         | "/a%2"    | "http://host/a%252"          | "http://host/a%2"
+    "user@host"    | "/path"   | "http://host/path"           | "http://host/path"
+    "host/evil"    | "/path"   | "http://host/path"           | "http://host/path"
+
+    req = [scheme: "http", urlHost: host, path: path, url: new URI(url)]
+  }
+
   def "test onConnection"() {
     setup:
     def decorator = newDecorator()
@@ -102,6 +153,26 @@ class HttpServerDecoratorTest extends ServerDecoratorTest {
     false | [host: "test-host", ip: "3ffe:1900:4545:3:200:f8ff:fe21:67cf", port: 555]
   }
 
+  def "isIpv4(#ip)"() {
+    expect:
+    HttpServerDecorator.isIpv4(ip) == ipv4
+
+    where:
+    ip                                     | ipv4
+    "10.0.0.1"                             | true
+    "0.0.0.0"                              | true
+    "255.255.255.255"                      | true
+    "256.0.0.1"                            | false
+    "10.0.0.01"                            | false
+    "10.0.0"                               | false
+    "10.0.0.1."                            | false
+    "10..0.1"                              | false
+    "10.0.0.1.1"                           | false
+    "10.0.0.a"                             | false
+    "3ffe:1900:4545:3:200:f8ff:fe21:67cf"  | false
+    ""                                     | false
+  }
+
   def "test onResponse"() {
     setup:
     def decorator = newDecorator()
@@ -174,6 +245,31 @@ class HttpServerDecoratorTest extends ServerDecoratorTest {
         return m.url
       }
 
+      @Override
+      protected String urlPath(Map m) {
+        return m.path
+      }
+
+      @Override
+      protected String urlScheme(Map m) {
+        return m.scheme
+      }
+
+      @Override
+      protected String urlHost(Map m) {
+        return m.urlHost
+      }
+
+      @Override
+      protected int urlPort(Map m) {
+        return m.urlPort == null ? -1 : m.urlPort
+      }
+
+      @Override
+      protected String urlQuery(Map m) {
+        return m.query
+      }
+
       @Override
       protected String peerHostname(Map m) {
         return m.host
@@ -0,0 +1,93 @@
+package io.opentelemetry.auto.decorator
+
+import io.opentelemetry.auto.util.test.AgentSpecification
+
+class StackTraceRendererTest extends AgentSpecification {
+
+  def "renders like printStackTrace"() {
+    setup:
+    def renderer = new StackTraceRenderer(256, 32 * 1024, 10)
+    def error = new RuntimeException("outer", new IOException("inner"))
+    error.addSuppressed(new IllegalStateException("suppressed"))
+    def expected = new StringWriter()
+    error.printStackTrace(new PrintWriter(expected))
+
+    expect:
+    renderer.render(error) == expected.toString().replace(System.lineSeparator(), "\n")
+  }
+
+  def "identical frames share one rendering but keep their messages"() {
+    setup:
+    def renderer = new StackTraceRenderer(256, 32 * 1024, 10)
+    // created on the same line so that the stack traces are identical
+    def (first, second) = ["first", "second"].collect { new IllegalStateException(it) }
+
+    expect:
+    renderer.frames(first.stackTrace, 3, 0).is(renderer.frames(second.stackTrace, 3, 0))
+    renderer.render(first).startsWith(IllegalStateException.name + ": first\n")
+    renderer.render(second).startsWith(IllegalStateException.name + ": second\n")
+  }
+
+  def "different frames in the same slot are rendered separately"() {
+    setup:
+    // a single slot, so every rendering competes for it
+    def renderer = new StackTraceRenderer(256, 32 * 1024, 1)
+    def first = new IllegalStateException()
+    def second = new IllegalArgumentException()
+
+    expect:
+    renderer.frames(first.stackTrace, 1, 0) == "\tat " + first.stackTrace[0] + "\n\t... ${first.stackTrace.length - 1} more\n"
+    renderer.frames(second.stackTrace, 1, 0) == "\tat " + second.stackTrace[0] + "\n\t... ${second.stackTrace.length - 1} more\n"
+  }
+
+  def "frames and length are limited"() {
+    setup:
+    def error = new Exception()
+    def frames = error.stackTrace.length
+
+    expect:
+    new StackTraceRenderer(2, 32 * 1024, 10).render(error).contains("... ${frames - 2} more")
+    new StackTraceRenderer(256, 20, 10).render(error).length() == 20
+  }
+
+  def "the size limit applies to the UTF-8 encoding"() {
+    setup:
+    def error = new Exception("\u00e9\u20ac\ud83d\ude00" * 10)
+
+    when:
+    def rendered = new StackTraceRenderer(256, 40, 10).render(error)
+
+    then:
+    rendered.getBytes("UTF-8").length <= 40
+    rendered.getBytes("UTF-8").length > 40 - 4
+    !Character.isHighSurrogate(rendered.charAt(rendered.length() - 1))
+  }
+
+  def "frames cut off by the size limit are counted as omitted"() {
+    setup:
+    def error = new Exception()
+    def frames = error.stackTrace.length
+    def renderer = new StackTraceRenderer(256, 100, 10)
+
+    when:
+    def rendered = renderer.frames(error.stackTrace, frames, 0)
+    def shown = rendered.count("\tat ")
+
+    then:
+    shown < frames
+    rendered.endsWith("\t... ${frames - shown} more\n")
+  }
+
+  def "cyclic causes are cut off"() {
+    setup:
+    def first = new RuntimeException("first")
+    def second = new RuntimeException("second", first)
+    first.initCause(second)
+
+    when:
+    def rendered = new StackTraceRenderer(256, 32 * 1024, 10).render(first)
+
+    then:
+    rendered.count("Caused by: ") == 15
+  }
+}
@@ -0,0 +1,75 @@
+package io.opentelemetry.auto.decorator
+
+import io.opentelemetry.auto.util.test.AgentSpecification
+
+class UrlPrefixCacheTest extends AgentSpecification {
+
+  def "render #scheme #host #port"() {
+    expect:
+    UrlPrefixCache.render(scheme, host, port) == prefix
+
+    where:
+    scheme  | host             | port | prefix
+    "http"  | "host"           | -1   | "http://host"
+    "http"  | "host"           | 80   | "http://host"
+    "https" | "host"           | 443  | "https://host"
+    "http"  | "host"           | 0    | "http://host"
+    "http"  | "host"           | 8080 | "http://host:8080"
+    "http"  | "host:8080"      | -1   | "http://host:8080"
+    "http"  | "host:80"        | -1   | "http://host"
+    "http"  | "host:"          | -1   | "http://host:"
+    "http"  | "host:port"      | -1   | "http://host:port"
+    "http"  | "[::1]:8080"     | -1   | "http://[::1]:8080"
+    "http"  | "[::1]"          | -1   | "http://[::1]"
+    "http"  | "::1"            | -1   | "http://::1"
+    null    | "host:99"        | -1   | "host:99"
+  }
+
+  def "prefixes are cached per scheme, host and port"() {
+    setup:
+    def cache = new UrlPrefixCache()
+
+    expect:
+    cache.prefix("http", "host", 8080).is(cache.prefix("http", "host", 8080))
+    cache.prefix("http", "host", 8080) == "http://host:8080"
+    cache.prefix("https", "host", 8080) == "https://host:8080"
+    cache.prefix("http", "host", 9090) == "http://host:9090"
+    cache.prefix("http", "other", 8080) == "http://other:8080"
+    cache.prefix(null, "host", 8080) == "host:8080"
+    cache.prefix("http", "user@host", 8080) == null
+  }
+
+  def "isValidHost(#host)"() {
+    expect:
+    UrlPrefixCache.isValidHost(host) == valid
+
+    where:
+    host                 | valid
+    "host"               | true
+    "my-host.example_1"  | true
+    "10.0.0.1:8080"      | true
+    "[::1]:8080"         | true
+    "[fe80::1%25eth0]"   | true
+    ""                   | false
+    "user@host"          | false
+    "host/path"          | false
+    "host name"          | false
+    "host\r\nX: y"       | false
+  }
+
+  def "decode #encoded"() {
+    expect:
+    UrlPrefixCache.decode(encoded) == decoded
+
+    where:
+    encoded              | decoded
+    "/plain"             | "/plain"
+    "/a%20b"             | "/a b"
+    "/a+b"               | "/a+b"
+    "/caf%C3%A9"         | "/caf\u00e9"
+    "/%e2%82%ac"         | "/\u20ac"
+    "%2F%2f"             | "//"
+    "/a%2"               | null
+    "/a%zz"              | null
+  }
+}
@@ -51,6 +51,28 @@ class HelperInjectionTest extends AgentSpecification {
     null == ref.get()
   }
 
+  def "helpers shared between injectors are injected once per classloader"() {
+    setup:
+    String helperClassName = HelperInjectionTest.getPackage().getName() + '.HelperClass'
+    HelperInjector first = new HelperInjector(helperClassName)
+    HelperInjector second = new HelperInjector(helperClassName)
+    URLClassLoader emptyLoader = new URLClassLoader(new URL[0], (ClassLoader) null)
+    long injections = HelperInjector.getInjectionCount()
+
+    when:
+    first.transform(null, null, emptyLoader, null)
+    Class<?> helperClass = emptyLoader.loadClass(helperClassName)
+    second.transform(null, null, emptyLoader, null)
+
+    then:
+    emptyLoader.loadClass(helperClassName) == helperClass
+    HelperInjector.getInjectionCount() == injections + 2
+    HelperInjector.getInjectionTimeNanos() > 0
+
+    cleanup:
+    emptyLoader?.close()
+  }
+
   def "helpers injected on bootstrap classloader"() {
     setup:
     ByteBuddyAgent.install()
@@ -0,0 +1,135 @@
+package io.opentelemetry.auto.tooling
+
+import io.opentelemetry.auto.bootstrap.DormantMode
+import io.opentelemetry.auto.test.DormantTestAdvice
+import io.opentelemetry.auto.util.test.AgentSpecification
+import net.bytebuddy.dynamic.ClassFileLocator
+import net.bytebuddy.dynamic.loading.ByteArrayClassLoader
+
+class DormantAdviceLocatorTest extends AgentSpecification {
+
+  def cleanup() {
+    DormantMode.setDormant(false)
+  }
+
+  def "enter and exit advice are skipped while dormant"() {
+    setup:
+    Class<?> advice = guarded(DormantTestAdvice)
+
+    expect:
+    advice.enter() == "entered"
+
+    when:
+    advice.exit(null)
+
+    then:
+    advice.exits == 1
+
+    when:
+    DormantMode.setDormant(true)
+
+    then:
+    advice.enter() == null
+
+    when:
+    advice.exit(null)
+
+    then:
+    advice.exits == 1
+
+    when: "the enter advice ran before switching"
+    advice.exit("entered")
+
+    then:
+    advice.exits == 2
+
+    when: "the enter advice ran before switching and returned the default value"
+    advice.exit(null)
+
+    then:
+    advice.exits == 3
+  }
+
+  def "exit advice of enter advice skipped before resuming runs"() {
+    setup:
+    Class<?> advice = guarded(DormantTestAdvice)
+
+    when:
+    DormantMode.setDormant(true)
+    advice.enter()
+    advice.enter()
+    advice.exit(null)
+    DormantMode.setDormant(false)
+    DormantMode.setDormant(true)
+    advice.exit(null)
+
+    then:
+    advice.exits == 1
+  }
+
+  def "exit only advice runs while dormant"() {
+    setup:
+    Class<?> advice = guarded(DormantTestAdvice.ExitOnlyAdvice)
+
+    when:
+    advice.exit()
+    DormantMode.setDormant(true)
+    advice.exit()
+
+    then:
+    advice.exits == 2
+  }
+
+  def "advice of a switched off integration is skipped"() {
+    setup:
+    def integration = DormantMode.registerIntegration()
+    Class<?> advice = guarded(DormantTestAdvice, integration)
+
+    expect:
+    advice.enter() == "entered"
+
+    when:
+    DormantMode.setDormant(integration, true)
+
+    then:
+    advice.enter() == null
+    !DormantMode.isDormant()
+
+    when:
+    DormantMode.setDormant(integration, false)
+
+    then:
+    advice.enter() == "entered"
+  }
+
+  def "helpers look up the switch of an integration by name"() {
+    setup:
+    def integration = DormantMode.registerIntegration("dormant-test", "dormant-test-alias")
+    def other = DormantMode.registerIntegration("dormant-test")
+
+    expect:
+    DormantMode.integration("dormant-test") == integration
+    DormantMode.integration("dormant-test-alias") == integration
+    other != integration
+    DormantMode.integration("dormant-test-unknown") == DormantMode.ALL
+  }
+
+  def "only advice classes are located"() {
+    setup:
+    def locator = new DormantAdviceLocator(
+      ClassFileLocator.ForClassLoader.of(DormantTestAdvice.classLoader),
+      [DormantTestAdvice.name] as Set)
+
+    expect:
+    locator.locate(DormantTestAdvice.name).isResolved()
+    !locator.locate(DormantAdviceLocatorTest.name).isResolved()
+  }
+
+  private static Class<?> guarded(Class<?> adviceClass, int integration = DormantMode.ALL) {
+    def bytes = ClassFileLocator.ForClassLoader.read(adviceClass)
+    def loader = new ByteArrayClassLoader.ChildFirst(
+      DormantAdviceLocatorTest.classLoader,
+      [(adviceClass.name): DormantAdviceLocator.guard(bytes, integration)])
+    return loader.loadClass(adviceClass.name)
+  }
+}
@@ -99,4 +99,75 @@ class EvictingCacheProviderTest extends AgentSpecification {
     then:
     provider.size() == 0
   }
+
+  def "test shared cache across classloaders"() {
+    setup:
+    def shared = new AgentCachingPoolStrategy.SharedTypeCache(CLEANER, 10)
+    def parent = EvictingCacheProviderTest.classLoader
+    def first = new URLClassLoader(new URL[0], parent)
+    def second = new URLClassLoader(new URL[0], parent)
+    def firstProvider = new AgentCachingPoolStrategy.EvictingCacheProvider(CLEANER, 2, TimeUnit.MINUTES, shared, first)
+    def secondProvider = new AgentCachingPoolStrategy.EvictingCacheProvider(CLEANER, 2, TimeUnit.MINUTES, shared, second)
+
+    when:
+    def resolution = firstProvider.find(className)
+
+    then:
+    resolution != null
+    secondProvider.find(className).is(resolution)
+    secondProvider.size() == 1
+    shared.cache.size() == 1
+    shared.cache.stats().hitCount() == 1
+    resolution.resolve().name == className
+    resolution.resolve().superClass.asErasure().name == AgentSpecification.name
+
+    where:
+    className = EvictingCacheProviderTest.name
+  }
+
+  def "test shared resolutions do not retain the classloader that looked them up"() {
+    setup:
+    def shared = new AgentCachingPoolStrategy.SharedTypeCache(CLEANER, 10)
+    def loader = new URLClassLoader(new URL[0], EvictingCacheProviderTest.classLoader)
+    def loaderRef = new WeakReference(loader)
+    def provider = new AgentCachingPoolStrategy.EvictingCacheProvider(CLEANER, 2, TimeUnit.MINUTES, shared, loader)
+
+    when:
+    provider.find(className).resolve().declaredMethods.size()
+    provider = null
+    loader = null
+    GCUtils.awaitGC(loaderRef)
+
+    then:
+    loaderRef.get() == null
+    shared.cache.size() == 1
+
+    where:
+    className = EvictingCacheProviderTest.name
+  }
+
+  def "test classes the parent does not have are not shared"() {
+    setup:
+    def shared = new AgentCachingPoolStrategy.SharedTypeCache(CLEANER, 10)
+    def parent = EvictingCacheProviderTest.classLoader
+    def first = new URLClassLoader(new URL[0], parent)
+    def second = new URLClassLoader(new URL[0], parent)
+    def firstProvider = new AgentCachingPoolStrategy.EvictingCacheProvider(CLEANER, 2, TimeUnit.MINUTES, shared, first)
+    def secondProvider = new AgentCachingPoolStrategy.EvictingCacheProvider(CLEANER, 2, TimeUnit.MINUTES, shared, second)
+    def resolution = new TypePool.Resolution.Simple(TypeDescription.VOID)
+
+    when:
+    firstProvider.find(className)
+    firstProvider.find(className)
+    firstProvider.register(className, resolution)
+
+    then: "the parent is asked once and the resolution stays with the first classloader"
+    firstProvider.unshared.size() == 1
+    firstProvider.find(className).is(resolution)
+    secondProvider.find(className) == null
+    shared.cache.size() == 0
+
+    where:
+    className = "com.example.DoesNotExist"
+  }
 }
@@ -0,0 +1,181 @@
+package io.opentelemetry.auto.tooling
+
+import io.opentelemetry.OpenTelemetry
+import io.opentelemetry.auto.api.Config
+import io.opentelemetry.auto.bootstrap.DormantMode
+import io.opentelemetry.auto.util.test.AgentSpecification
+import io.opentelemetry.sdk.OpenTelemetrySdk
+import io.opentelemetry.sdk.trace.config.TraceConfig
+import io.opentelemetry.trace.DefaultSpan
+import io.opentelemetry.trace.SpanContext
+import io.opentelemetry.trace.SpanId
+import io.opentelemetry.trace.TraceFlags
+import io.opentelemetry.trace.TraceId
+import io.opentelemetry.trace.Tracestate
+import spock.lang.Shared
+
+import java.util.concurrent.TimeUnit
+
+import static io.opentelemetry.auto.test.utils.ConfigUtils.withConfigOverride
+
+class HeadSamplerTest extends AgentSpecification {
+  static final SpanContext SAMPLED_PARENT = parent(true)
+  static final SpanContext UNSAMPLED_PARENT = parent(false)
+
+  @Shared
+  TraceConfig previousConfig = OpenTelemetrySdk.tracerFactory.activeTraceConfig
+
+  def setupSpec() {
+    OpenTelemetrySdk.tracerFactory.updateActiveTraceConfig(
+      previousConfig.toBuilder().setSampler(new AgentSampler(new HeadSampler())).build())
+  }
+
+  def cleanupSpec() {
+    OpenTelemetrySdk.tracerFactory.updateActiveTraceConfig(previousConfig)
+  }
+
+  def "spans follow the sampled flag of their parent"() {
+    setup:
+    def sampler = new HeadSampler()
+
+    expect:
+    withConfigOverride(Config.TRACE_SAMPLER_PROBABILITY, "0") {
+      sampler.sample("span", SAMPLED_PARENT)
+    }
+    !sampler.sample("span", UNSAMPLED_PARENT)
+    sampler.sample("span", null)
+    sampler.sample("span", SpanContext.getInvalid())
+  }
+
+  def "spans ignore their parent unless parent based"() {
+    setup:
+    def sampler = new HeadSampler()
+
+    expect:
+    withConfigOverride(Config.TRACE_SAMPLER_PARENT_BASED, "false") {
+      sampler.sample("span", UNSAMPLED_PARENT)
+    }
+  }
+
+  def "root spans are sampled with probability #probability"() {
+    setup:
+    def sampler = new HeadSampler()
+
+    when:
+    def sampled = withConfigOverride(Config.TRACE_SAMPLER_PROBABILITY, "$probability") {
+      (0..<10000).count { sampler.sample("span", null) }
+    }
+
+    then:
+    sampled >= min
+    sampled <= max
+
+    where:
+    probability | min   | max
+    0           | 0     | 0
+    0.1         | 800   | 1200
+    1           | 10000 | 10000
+  }
+
+  def "root spans are rate limited per span name"() {
+    setup:
+    def sampler = new HeadSampler()
+
+    when:
+    def sampled = withConfigOverride(Config.TRACE_SAMPLER_RATE_LIMIT, "5") {
+      [a: (0..<10).count { sampler.sample("a", null) },
+       b: (0..<10).count { sampler.sample("b", null) }]
+    }
+
+    then:
+    // The limit may be granted again if a second passed meanwhile.
+    sampled.a >= 5 && sampled.a <= 10
+    sampled.b >= 5 && sampled.b <= 10
+  }
+
+  def "rate limiter grants permits per second"() {
+    setup:
+    def limiter = new HeadSampler.RateLimiter(2)
+    def second = TimeUnit.SECONDS.toNanos(1)
+
+    expect:
+    limiter.tryAcquire(10 * second)
+    limiter.tryAcquire(10 * second + 1)
+    !limiter.tryAcquire(10 * second + 2)
+    limiter.tryAcquire(11 * second)
+    limiter.tryAcquire(11 * second)
+    !limiter.tryAcquire(11 * second)
+  }
+
+  def "spans of unsampled traces are not recorded but propagate the trace"() {
+    setup:
+    def tracer = new AgentTracerImpl(OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto.test"))
+
+    when:
+    def root = withConfigOverride(Config.TRACE_SAMPLER_PROBABILITY, "0") {
+      tracer.startSpan("root")
+    }
+    def scope = tracer.activateSpan(root, true)
+    def child = tracer.startSpan("child")
+    scope.close()
+
+    then:
+    !root.recording
+    root.span instanceof DefaultSpan
+    root.span.context.valid
+    !root.span.context.traceFlags.sampled
+    !child.recording
+    child.span.context.traceId == root.span.context.traceId
+    child.span.context.spanId != root.span.context.spanId
+  }
+
+  def "spans of sampled traces are recorded"() {
+    setup:
+    def tracer = new AgentTracerImpl(OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto.test"))
+
+    when:
+    def span = tracer.startSpan("root")
+    span.finish()
+
+    then:
+    span.recording
+    !tracer.noopSpan().recording
+  }
+
+  def "spans started through the SDK tracer follow their unsampled parent"() {
+    setup:
+    def tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto.test")
+
+    when:
+    def child = tracer.spanBuilder("child").setParent(UNSAMPLED_PARENT).startSpan()
+
+    then:
+    child instanceof DefaultSpan
+    !child.context.traceFlags.sampled
+    child.context.traceId == UNSAMPLED_PARENT.traceId
+  }
+
+  def "spans started through the SDK tracer are not sampled while dormant"() {
+    setup:
+    def tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto.test")
+
+    when:
+    DormantMode.setDormant(true)
+    def span = tracer.spanBuilder("root").startSpan()
+
+    then:
+    span instanceof DefaultSpan
+    !span.context.traceFlags.sampled
+
+    cleanup:
+    DormantMode.setDormant(false)
+  }
+
+  static SpanContext parent(boolean sampled) {
+    return SpanContext.createFromRemoteParent(
+      new TraceId(1, 2),
+      new SpanId(3),
+      TraceFlags.fromLowerBase16(sampled ? "01" : "00", 0),
+      Tracestate.getDefault())
+  }
+}
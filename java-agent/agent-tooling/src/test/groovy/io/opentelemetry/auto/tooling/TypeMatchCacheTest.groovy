@@ -0,0 +1,156 @@
+package io.opentelemetry.auto.tooling
+
+import io.opentelemetry.auto.util.test.AgentSpecification
+import net.bytebuddy.agent.builder.AgentBuilder
+import net.bytebuddy.description.type.TypeDescription
+import net.bytebuddy.matcher.ElementMatcher
+
+import java.security.CodeSource
+import java.security.ProtectionDomain
+import java.security.cert.Certificate
+
+class TypeMatchCacheTest extends AgentSpecification {
+
+  def "mismatches are persisted across instances"() {
+    setup:
+    def file = File.createTempFile("type-match-cache", ".bin")
+    file.delete()
+    def cache = new TypeMatchCache(file, "1.0", "")
+    def entry = cache.entry(cache.classLoaderKey(null), "instrumentation", "com.example.Foo")
+
+    when:
+    cache.recordMismatch(entry)
+    cache.write()
+    def reloaded = new TypeMatchCache(file, "1.0", "")
+
+    then:
+    reloaded.isKnownMismatch(entry)
+    !reloaded.isKnownMismatch(reloaded.entry(reloaded.classLoaderKey(null), "instrumentation", "com.example.Bar"))
+
+    cleanup:
+    file.delete()
+  }
+
+  def "cache is invalidated when agent version changes"() {
+    setup:
+    def file = File.createTempFile("type-match-cache", ".bin")
+    file.delete()
+    def cache = new TypeMatchCache(file, "1.0", "")
+    def entry = cache.entry(cache.classLoaderKey(null), "instrumentation", "com.example.Foo")
+    cache.recordMismatch(entry)
+    cache.write()
+
+    when:
+    def reloaded = new TypeMatchCache(file, "2.0", "")
+
+    then:
+    !reloaded.isKnownMismatch(entry)
+
+    cleanup:
+    file.delete()
+  }
+
+  def "cache is invalidated when matcher settings change"() {
+    setup:
+    def file = File.createTempFile("type-match-cache", ".bin")
+    file.delete()
+    def cache = new TypeMatchCache(file, "1.0", "com.example.Foo[bar]")
+    def entry = cache.entry(cache.classLoaderKey(null), "instrumentation", "com.example.Foo")
+    cache.recordMismatch(entry)
+    cache.write()
+
+    when:
+    def reloaded = new TypeMatchCache(file, "1.0", "com.example.Foo[bar,baz]")
+
+    then:
+    !reloaded.isKnownMismatch(entry)
+
+    cleanup:
+    file.delete()
+  }
+
+  def "class loader key changes with class path"() {
+    setup:
+    def cache = new TypeMatchCache(new File("unused"), "1.0", "")
+    def jar1 = File.createTempFile("first", ".jar")
+    def jar2 = File.createTempFile("second", ".jar")
+    def loader1 = new URLClassLoader([jar1.toURI().toURL()] as URL[], (ClassLoader) null)
+    def loader2 = new URLClassLoader([jar2.toURI().toURL()] as URL[], (ClassLoader) null)
+    def directoryLoader =
+      new URLClassLoader([jar1.parentFile.toURI().toURL()] as URL[], (ClassLoader) null)
+
+    expect:
+    cache.classLoaderKey(loader1) != cache.classLoaderKey(loader2)
+    cache.classLoaderKey(directoryLoader) == 0
+
+    cleanup:
+    jar1.delete()
+    jar2.delete()
+  }
+
+  def "negative results skip the delegate matcher"() {
+    setup:
+    def cache = new TypeMatchCache(new File("unused"), "1.0", "")
+    def delegate = Mock(AgentBuilder.RawMatcher)
+    def matcher = cache.typeMatcher("instrumentation", delegate)
+    def type = new TypeDescription.ForLoadedType(String)
+
+    when:
+    def first = matcher.matches(type, null, null, null, null)
+    def second = matcher.matches(type, null, null, null, null)
+
+    then:
+    1 * delegate.matches(type, null, null, null, null) >> false
+    !first
+    !second
+  }
+
+  def "negative results are only cached for classes from fingerprinted jars"() {
+    setup:
+    def cache = new TypeMatchCache(new File("unused"), "1.0", "")
+    def jar = File.createTempFile("classes", ".jar")
+    def loader = new URLClassLoader([jar.toURI().toURL()] as URL[], (ClassLoader) null)
+    def delegate = Mock(AgentBuilder.RawMatcher)
+    def matcher = cache.typeMatcher("instrumentation", delegate)
+    def type = new TypeDescription.ForLoadedType(String)
+    def generated = new ProtectionDomain(null, null)
+    def fromJar =
+      new ProtectionDomain(new CodeSource(jar.toURI().toURL(), (Certificate[]) null), null)
+
+    when:
+    matcher.matches(type, loader, null, null, generated)
+    matcher.matches(type, loader, null, null, generated)
+
+    then:
+    2 * delegate.matches(type, loader, null, null, generated) >> false
+
+    when:
+    matcher.matches(type, loader, null, null, fromJar)
+    matcher.matches(type, loader, null, null, fromJar)
+
+    then:
+    1 * delegate.matches(type, loader, null, null, fromJar) >> false
+
+    cleanup:
+    jar.delete()
+  }
+
+  def "negative results of failing matchers are not cached"() {
+    setup:
+    def cache = new TypeMatchCache(new File("unused"), "1.0", "")
+    def calls = 0
+    def failing = ByteBuddyElementMatchers.failSafe(
+      { calls++; throw new IllegalStateException() } as ElementMatcher, "failed")
+    def matcher = cache.typeMatcher("instrumentation", new AgentBuilder.RawMatcher.ForElementMatchers(failing))
+    def type = new TypeDescription.ForLoadedType(String)
+
+    when:
+    def first = matcher.matches(type, null, null, null, null)
+    def second = matcher.matches(type, null, null, null, null)
+
+    then:
+    calls == 2
+    !first
+    !second
+  }
+}
@@ -0,0 +1,207 @@
+package io.opentelemetry.auto.tooling.export
+
+import io.opentelemetry.OpenTelemetry
+import io.opentelemetry.auto.util.test.AgentSpecification
+import io.opentelemetry.sdk.trace.ReadableSpan
+import io.opentelemetry.sdk.trace.SpanData
+import io.opentelemetry.sdk.trace.export.SpanExporter
+import io.opentelemetry.trace.SpanContext
+import io.opentelemetry.trace.Tracer
+import spock.lang.Shared
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class BatchExportProcessorTest extends AgentSpecification {
+  @Shared
+  Tracer tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto.test")
+
+  def exporter = new CollectingExporter()
+
+  def "spans are exported in batches of the batch size"() {
+    setup:
+    def processor = new BatchExportProcessor(exporter, 64, 4, TimeUnit.MINUTES.toMillis(1))
+
+    when:
+    8.times { processor.onEnd(endedSpan("span-$it")) }
+    exporter.awaitSpans(8)
+
+    then:
+    exporter.batches*.size() == [4, 4]
+    exporter.batches.flatten()*.name == (0..<8).collect { "span-$it" }
+    processor.exportedSpans == 8
+
+    cleanup:
+    processor.shutdown()
+  }
+
+  def "a partial batch is exported after the batch delay"() {
+    setup:
+    def processor = new BatchExportProcessor(exporter, 64, 16, 10)
+
+    when:
+    processor.onEnd(endedSpan("span"))
+    exporter.awaitSpans(1)
+
+    then:
+    exporter.batches*.size() == [1]
+
+    cleanup:
+    processor.shutdown()
+  }
+
+  def "shutdown exports the queued spans and shuts the exporter down"() {
+    setup:
+    def processor = new BatchExportProcessor(exporter, 64, 16, TimeUnit.MINUTES.toMillis(1))
+
+    when:
+    3.times { processor.onEnd(endedSpan("span-$it")) }
+    processor.shutdown()
+
+    then:
+    exporter.batches.flatten().size() == 3
+    exporter.shutdown
+  }
+
+  def "unsampled spans are not exported"() {
+    setup:
+    def processor = new BatchExportProcessor(exporter, 64, 16, TimeUnit.MINUTES.toMillis(1))
+    def unsampled = Stub(ReadableSpan) {
+      getSpanContext() >> SpanContext.getInvalid()
+    }
+
+    when:
+    processor.onEnd(unsampled)
+    processor.shutdown()
+
+    then:
+    exporter.batches.isEmpty()
+    processor.droppedSpans == 0
+  }
+
+  def "spans ended while the queue is full are dropped and counted"() {
+    setup:
+    def blocked = new CountDownLatch(1)
+    exporter.blockUntil = blocked
+    def processor = new BatchExportProcessor(exporter, 4, 1, TimeUnit.MINUTES.toMillis(1))
+
+    when:
+    processor.onEnd(endedSpan("exporting"))
+    exporter.awaitBlocked()
+    10.times { processor.onEnd(endedSpan("span-$it")) }
+    blocked.countDown()
+    processor.shutdown()
+
+    then:
+    processor.droppedSpans == 6
+    processor.exportedSpans == 5
+    exporter.batches.flatten().size() == 5
+  }
+
+  def "failed exports are counted"() {
+    setup:
+    exporter.result = SpanExporter.ResultCode.FAILED_NOT_RETRYABLE
+    def processor = new BatchExportProcessor(exporter, 64, 2, TimeUnit.MINUTES.toMillis(1))
+
+    when:
+    2.times { processor.onEnd(endedSpan("span-$it")) }
+    processor.shutdown()
+
+    then:
+    processor.failedSpans == 2
+    processor.exportedSpans == 0
+  }
+
+  def "the drainer keeps exporting after the exporter throws"() {
+    setup:
+    exporter.error = new Error("exporter failed")
+    def processor = new BatchExportProcessor(exporter, 64, 2, TimeUnit.MINUTES.toMillis(1))
+
+    when:
+    4.times { processor.onEnd(endedSpan("span-$it")) }
+    exporter.awaitSpans(2)
+    processor.shutdown()
+
+    then:
+    processor.failedSpans == 2
+    processor.exportedSpans == 2
+    exporter.batches.flatten()*.name == ["span-2", "span-3"]
+    exporter.shutdown
+  }
+
+  def "file exporter writes a json line per span"() {
+    setup:
+    def file = File.createTempFile("spans", ".json")
+    file.deleteOnExit()
+    def processor = new BatchExportProcessor(new FileSpanExporter(file), 64, 16, 10)
+    def span = tracer.spanBuilder("say \"hi\"").startSpan()
+    span.setAttribute("string", "a\nb")
+    span.setAttribute("long", 42L)
+    span.setAttribute("boolean", true)
+    span.end()
+
+    when:
+    processor.onEnd(span as ReadableSpan)
+    processor.shutdown()
+    def lines = file.readLines("UTF-8")
+
+    then:
+    lines.size() == 1
+    lines[0].startsWith("{\"traceId\":\"${span.context.traceId.toLowerBase16()}\"," +
+      "\"spanId\":\"${span.context.spanId.toLowerBase16()}\"," +
+      "\"parentSpanId\":\"0000000000000000\",\"name\":\"say \\\"hi\\\"\",\"kind\":\"INTERNAL\",")
+    lines[0].contains("\"status\":\"OK\"")
+    lines[0].contains("\"string\":\"a\\nb\"")
+    lines[0].contains("\"long\":42")
+    lines[0].contains("\"boolean\":true")
+    lines[0].endsWith("}}")
+  }
+
+  ReadableSpan endedSpan(String name) {
+    def span = tracer.spanBuilder(name).startSpan()
+    span.end()
+    return span as ReadableSpan
+  }
+
+  static class CollectingExporter implements SpanExporter {
+    final List<List<SpanData>> batches = new CopyOnWriteArrayList<>()
+    volatile SpanExporter.ResultCode result = SpanExporter.ResultCode.SUCCESS
+    volatile Throwable error
+    volatile CountDownLatch blockUntil
+    final CountDownLatch blocked = new CountDownLatch(1)
+    volatile boolean shutdown
+
+    @Override
+    SpanExporter.ResultCode export(List<SpanData> spans) {
+      if (blockUntil != null) {
+        blocked.countDown()
+        blockUntil.await()
+        blockUntil = null
+      }
+      if (error != null) {
+        def thrown = error
+        error = null
+        throw thrown
+      }
+      batches.add(spans)
+      return result
+    }
+
+    @Override
+    void shutdown() {
+      shutdown = true
+    }
+
+    void awaitBlocked() {
+      assert blocked.await(10, TimeUnit.SECONDS)
+    }
+
+    void awaitSpans(int count) {
+      def deadline = System.currentTimeMillis() + 10000
+      while (batches.flatten().size() < count && System.currentTimeMillis() < deadline) {
+        Thread.sleep(1)
+      }
+    }
+  }
+}
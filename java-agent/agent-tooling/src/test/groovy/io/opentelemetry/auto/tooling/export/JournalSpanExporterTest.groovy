@@ -0,0 +1,152 @@
+package io.opentelemetry.auto.tooling.export
+
+import io.opentelemetry.OpenTelemetry
+import io.opentelemetry.auto.util.test.AgentSpecification
+import io.opentelemetry.sdk.trace.ReadableSpan
+import io.opentelemetry.sdk.trace.SpanData
+import io.opentelemetry.sdk.trace.export.SpanExporter
+import io.opentelemetry.trace.Span
+import io.opentelemetry.trace.Status
+import io.opentelemetry.trace.Tracer
+import spock.lang.Shared
+
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+
+class JournalSpanExporterTest extends AgentSpecification {
+  @Shared
+  Tracer tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto.test")
+
+  def directory = File.createTempDir()
+
+  def cleanup() {
+    directory.deleteDir()
+  }
+
+  def "spans are read back as they were written"() {
+    setup:
+    def parent = tracer.spanBuilder("parent").startSpan()
+    def span = tracer.spanBuilder("grüße 😀").setParent(parent).setSpanKind(Span.Kind.CLIENT).startSpan()
+    span.setAttribute("string", "value")
+    span.setAttribute("long", 42L)
+    span.setAttribute("double", 0.5d)
+    span.setAttribute("boolean", true)
+    span.setStatus(Status.UNKNOWN.withDescription("failed"))
+    span.end()
+    def written = data(span)
+    def exporter = new JournalSpanExporter(directory, 4096, 2)
+
+    when:
+    def result = exporter.export([written])
+    exporter.shutdown()
+    def read = readAll()
+
+    then:
+    result == SpanExporter.ResultCode.SUCCESS
+    read.size() == 1
+    read[0].traceId == written.traceId
+    read[0].spanId == written.spanId
+    read[0].parentSpanId == written.parentSpanId
+    read[0].traceFlags == written.traceFlags
+    read[0].name == written.name
+    read[0].kind == Span.Kind.CLIENT
+    read[0].startEpochNanos == written.startEpochNanos
+    read[0].endEpochNanos == written.endEpochNanos
+    read[0].status == written.status
+    read[0].attributes == written.attributes
+  }
+
+  def "segments rotate and only the newest are kept"() {
+    setup:
+    def exporter = new JournalSpanExporter(directory, 4096, 2)
+    def spans = (0..<200).collect { endedSpan("span-$it") }
+
+    when:
+    spans.each { exporter.export([it]) }
+    exporter.shutdown()
+    def names = readAll()*.name
+
+    then:
+    directory.list().length == 2
+    names.size() > 0
+    names.size() < 200
+    names == spans*.name.takeRight(names.size())
+  }
+
+  def "a new exporter starts a new segment after the existing ones"() {
+    setup:
+    def first = new JournalSpanExporter(directory, 4096, 4)
+    first.export([endedSpan("first")])
+    first.shutdown()
+
+    when:
+    def second = new JournalSpanExporter(directory, 4096, 4)
+    second.export([endedSpan("second")])
+    second.shutdown()
+
+    then:
+    directory.list().length == 2
+    readAll()*.name == ["first", "second"]
+  }
+
+  def "reading stops at a record that was not completely written"() {
+    setup:
+    def exporter = new JournalSpanExporter(directory, 4096, 2)
+    exporter.export([endedSpan("complete"), endedSpan("torn")])
+    exporter.shutdown()
+    def segment = directory.listFiles()[0]
+    def channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)
+    def buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segment.length())
+    def secondRecord = JournalSpanExporter.HEADER_SIZE + 4 + buffer.getInt(JournalSpanExporter.HEADER_SIZE)
+    // Claims more bytes than were written.
+    buffer.putInt(secondRecord, buffer.getInt(secondRecord) + 3)
+    channel.close()
+
+    expect:
+    readAll()*.name == ["complete"]
+  }
+
+  def "spans larger than a segment are dropped"() {
+    setup:
+    def exporter = new JournalSpanExporter(directory, 4096, 2)
+
+    when:
+    exporter.export([endedSpan("x" * 5000), endedSpan("small")])
+    exporter.shutdown()
+
+    then:
+    readAll()*.name == ["small"]
+  }
+
+  def "segments without the journal header are skipped"() {
+    setup:
+    def exporter = new JournalSpanExporter(directory, 4096, 2)
+    exporter.export([endedSpan("span")])
+    exporter.shutdown()
+    new File(directory, "spans-00000000000000000000.journal").bytes = ByteBuffer.allocate(16).array()
+
+    expect:
+    readAll()*.name == ["span"]
+  }
+
+  List<SpanData> readAll() {
+    def reader = new SpanJournalReader(directory)
+    def spans = []
+    def span
+    while ((span = reader.read()) != null) {
+      spans.add(span)
+    }
+    return spans
+  }
+
+  SpanData endedSpan(String name) {
+    def span = tracer.spanBuilder(name).startSpan()
+    span.end()
+    return data(span)
+  }
+
+  static SpanData data(Span span) {
+    return (span as ReadableSpan).toSpanData()
+  }
+}
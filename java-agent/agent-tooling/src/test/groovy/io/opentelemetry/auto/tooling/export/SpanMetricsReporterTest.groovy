@@ -0,0 +1,36 @@
+package io.opentelemetry.auto.tooling.export
+
+import io.opentelemetry.auto.bootstrap.metrics.SpanAggregator
+import io.opentelemetry.auto.util.test.AgentSpecification
+import io.opentelemetry.trace.DefaultSpan
+
+import java.util.concurrent.TimeUnit
+
+class SpanMetricsReporterTest extends AgentSpecification {
+
+  def "the metrics of the last interval are written on shutdown"() {
+    setup:
+    def file = File.createTempFile("metrics", ".json")
+    file.deleteOnExit()
+    def aggregator = new SpanAggregator(16)
+    def reporter = new SpanMetricsReporter(aggregator, file, TimeUnit.MINUTES.toMillis(1))
+    2.times {
+      def span = DefaultSpan.create(DefaultSpan.getInvalid().context)
+      aggregator.started(span, "say \"hi\"")
+      aggregator.time(span, "component")
+      if (it == 1) {
+        aggregator.failed(span)
+      }
+      aggregator.finished(span)
+    }
+
+    when:
+    reporter.shutdown()
+    def lines = file.readLines("UTF-8").sort()
+
+    then:
+    lines.size() == 2
+    lines[0] =~ /^\{"timestamp":\d+,"name":"say \\"hi\\"","component":"component","status":"ERROR","count":1,"sumMicros":\d+,"p50Micros":\d+,"p90Micros":\d+,"p99Micros":\d+,"maxMicros":\d+}$/
+    lines[1].contains("\"status\":\"OK\",\"count\":1,")
+  }
+}
@@ -0,0 +1,78 @@
+package io.opentelemetry.auto.tooling.export
+
+import io.opentelemetry.auto.util.test.AgentSpecification
+
+import java.util.concurrent.CountDownLatch
+
+class SpanRingBufferTest extends AgentSpecification {
+
+  def "capacity #capacity is rounded up to #rounded"() {
+    expect:
+    new SpanRingBuffer<String>(capacity).capacity() == rounded
+
+    where:
+    capacity | rounded
+    0        | 1
+    1        | 1
+    2        | 2
+    3        | 4
+    1000     | 1024
+    1024     | 1024
+  }
+
+  def "offers fail while full and succeed once drained"() {
+    setup:
+    def buffer = new SpanRingBuffer<String>(2)
+    def drained = []
+
+    expect:
+    buffer.offer("a") == 0
+    buffer.offer("b") == 1
+    buffer.offer("c") == -1
+
+    buffer.drainTo(drained, 1) == 1
+    drained == ["a"]
+
+    buffer.offer("c") == 2
+    buffer.drainTo(drained, 10) == 2
+    drained == ["a", "b", "c"]
+    buffer.drainTo(drained, 10) == 0
+  }
+
+  def "elements of concurrent producers are neither lost nor duplicated"() {
+    setup:
+    def buffer = new SpanRingBuffer<Integer>(64)
+    def producers = 8
+    def perProducer = 10000
+    def start = new CountDownLatch(1)
+    def threads = (0..<producers).collect { producer ->
+      Thread.start {
+        start.await()
+        for (int i = 0; i < perProducer; i++) {
+          while (buffer.offer(producer * perProducer + i) < 0) {
+            Thread.yield()
+          }
+        }
+      }
+    }
+    def drained = new ArrayList<Integer>()
+
+    when:
+    start.countDown()
+    while (drained.size() < producers * perProducer) {
+      if (buffer.drainTo(drained, 16) == 0) {
+        Thread.yield()
+      }
+    }
+    threads*.join()
+
+    then:
+    drained.toSet().size() == producers * perProducer
+    buffer.drainTo(drained, 16) == 0
+    // Each producer's elements keep their order.
+    (0..<producers).every { producer ->
+      def own = drained.findAll { it.intdiv(perProducer) == producer }
+      own == own.sort(false)
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package io.opentelemetry.auto.tooling.export
+
+import io.opentelemetry.OpenTelemetry
+import io.opentelemetry.auto.util.test.AgentSpecification
+import io.opentelemetry.sdk.trace.ReadableSpan
+import io.opentelemetry.sdk.trace.SpanData
+import io.opentelemetry.trace.EndSpanOptions
+import io.opentelemetry.trace.Span
+import io.opentelemetry.trace.Status
+import io.opentelemetry.trace.Tracer
+import spock.lang.Shared
+
+import java.util.concurrent.TimeUnit
+
+class TailSamplerTest extends AgentSpecification {
+  @Shared
+  Tracer tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto.test")
+
+  def sampler = new TailSampler(1000, 10000, 100, Long.MAX_VALUE, ["sampling.keep": "true", "error.kind": "*"])
+
+  def "spans of a trace are held back until the trace is known to be kept"() {
+    setup:
+    def root = tracer.spanBuilder("root").startSpan()
+    def child = endedSpan("child", root)
+    def failed = endedSpan("failed", root) { it.setStatus(Status.UNKNOWN) }
+
+    expect:
+    sampler.sample([child], 0).isEmpty()
+    sampler.bufferedSpans == 1
+    sampler.sample([failed], 0)*.name == ["child", "failed"]
+    sampler.bufferedSpans == 0
+    sampler.keptTraces == 1
+  }
+
+  def "a trace is kept for a span taking the latency threshold"() {
+    setup:
+    def start = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis())
+    def span = tracer.spanBuilder("slow").setStartTimestamp(start).startSpan()
+    span.end(EndSpanOptions.builder()
+      .setEndTimestamp(start + TimeUnit.MILLISECONDS.toNanos(duration)).build())
+
+    expect:
+    sampler.sample([data(span)], 0).size() == (kept ? 1 : 0)
+
+    where:
+    duration | kept
+    999      | false
+    1000     | true
+    5000     | true
+  }
+
+  def "a trace is kept for a span with a keep attribute"() {
+    setup:
+    def span = endedSpan("span", null) { it.setAttribute(key, value) }
+
+    expect:
+    sampler.sample([span], 0).size() == (kept ? 1 : 0)
+
+    where:
+    key             | value   | kept
+    "sampling.keep" | "true"  | true
+    "sampling.keep" | true    | true
+    "sampling.keep" | "false" | false
+    "error.kind"    | "any"   | true
+    "other"         | "true"  | false
+  }
+
+  def "spans ending after the trace was kept are exported right away"() {
+    setup:
+    def root = tracer.spanBuilder("root").startSpan()
+    def failed = endedSpan("failed", root) { it.setStatus(Status.UNKNOWN) }
+    def late = endedSpan("late", root)
+
+    expect:
+    sampler.sample([failed], 0)*.name == ["failed"]
+    sampler.sample([late], 0)*.name == ["late"]
+    sampler.keptTraces == 1
+  }
+
+  def "traces are dropped once no span ended for the decision timeout"() {
+    setup:
+    def timeout = TimeUnit.MILLISECONDS.toNanos(10000)
+    def first = endedSpan("first", null)
+    def second = endedSpan("second", null)
+
+    when:
+    sampler.sample([first], 0)
+    sampler.sample([second], timeout - 1)
+
+    then:
+    sampler.droppedTraces == 0
+    sampler.bufferedSpans == 2
+
+    when:
+    sampler.sample([], timeout)
+
+    then:
+    sampler.droppedTraces == 1
+    sampler.bufferedSpans == 1
+  }
+
+  def "whole traces are evicted beyond the maximum number of buffered spans"() {
+    setup:
+    def sampler = new TailSampler(0, 10000, 4, Long.MAX_VALUE, [:])
+    def oldest = tracer.spanBuilder("oldest").startSpan()
+    def newer = tracer.spanBuilder("newer").startSpan()
+
+    when:
+    sampler.sample([endedSpan("a", oldest), endedSpan("b", oldest)], 0)
+    sampler.sample([endedSpan("c", newer), endedSpan("d", newer)], 1)
+    sampler.sample([endedSpan("e", newer)], 2)
+
+    then:
+    sampler.evictedTraces == 1
+    sampler.evictedSpans == 2
+    sampler.bufferedSpans == 3
+  }
+
+  def "whole traces are evicted beyond the maximum estimated size of the buffer"() {
+    setup:
+    def oldest = tracer.spanBuilder("oldest").startSpan()
+    def newer = tracer.spanBuilder("newer").startSpan()
+    def large = endedSpan("large", newer) { it.setAttribute("payload", "x" * 1000) }
+    def small = endedSpan("small", oldest)
+    def sampler = new TailSampler(0, 10000, 100, TailSampler.estimateBytes(large) + 1, [:])
+
+    expect:
+    TailSampler.estimateBytes(large) >= TailSampler.estimateBytes(small) + 2000
+
+    when:
+    sampler.sample([small], 0)
+    sampler.sample([large], 1)
+
+    then:
+    sampler.evictedTraces == 1
+    sampler.evictedSpans == 1
+    sampler.bufferedSpans == 1
+    sampler.bufferedBytes == TailSampler.estimateBytes(large)
+  }
+
+  SpanData endedSpan(String name, Span parent, Closure decorate = {}) {
+    def builder = tracer.spanBuilder(name)
+    if (parent != null) {
+      builder.setParent(parent)
+    }
+    def span = builder.startSpan()
+    decorate(span)
+    span.end()
+    return data(span)
+  }
+
+  static SpanData data(Span span) {
+    return (span as ReadableSpan).toSpanData()
+  }
+}
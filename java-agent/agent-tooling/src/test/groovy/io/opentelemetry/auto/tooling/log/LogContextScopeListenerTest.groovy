@@ -0,0 +1,135 @@
+package io.opentelemetry.auto.tooling.log
+
+import io.opentelemetry.auto.util.test.AgentSpecification
+import io.opentelemetry.trace.DefaultSpan
+import io.opentelemetry.trace.Span
+import io.opentelemetry.trace.SpanContext
+import io.opentelemetry.trace.SpanId
+import io.opentelemetry.trace.TraceFlags
+import io.opentelemetry.trace.TraceId
+import io.opentelemetry.trace.Tracestate
+
+class LogContextScopeListenerTest extends AgentSpecification {
+  static final TraceId TRACE_ID = new TraceId(1, 2)
+  static final Span PARENT = span(TRACE_ID, 3)
+  static final Span CHILD = span(TRACE_ID, 4)
+
+  def listener = new LogContextScopeListener(FakeLogContext)
+
+  def setup() {
+    FakeLogContext.clear()
+  }
+
+  def "ids are written when a span is activated"() {
+    when:
+    activate(PARENT)
+
+    then:
+    FakeLogContext.writes == ["put ot.trace_id", "put ot.span_id"]
+    FakeLogContext.context == ["ot.trace_id": TRACE_ID.toLowerBase16(), "ot.span_id": "0000000000000003"]
+  }
+
+  def "activating the same span again writes nothing"() {
+    setup:
+    activate(PARENT)
+    FakeLogContext.writes.clear()
+
+    when:
+    activate(PARENT)
+
+    then:
+    FakeLogContext.writes.isEmpty()
+  }
+
+  def "a child in the same trace only writes its span id"() {
+    setup:
+    activate(PARENT)
+    FakeLogContext.writes.clear()
+
+    when:
+    activate(CHILD)
+
+    then:
+    FakeLogContext.writes == ["put ot.span_id"]
+    FakeLogContext.context == ["ot.trace_id": TRACE_ID.toLowerBase16(), "ot.span_id": "0000000000000004"]
+  }
+
+  def "closing the child restores the parent"() {
+    setup:
+    def parentScope = listener.tracer.withSpan(PARENT)
+    listener.afterScopeActivated()
+    def childScope = listener.tracer.withSpan(CHILD)
+    listener.afterScopeActivated()
+    FakeLogContext.writes.clear()
+
+    when:
+    childScope.close()
+    listener.afterScopeClosed()
+
+    then:
+    FakeLogContext.writes == ["put ot.span_id"]
+    FakeLogContext.context == ["ot.trace_id": TRACE_ID.toLowerBase16(), "ot.span_id": "0000000000000003"]
+
+    cleanup:
+    parentScope.close()
+  }
+
+  def "closing the last scope removes the ids"() {
+    setup:
+    def scope = listener.tracer.withSpan(PARENT)
+    listener.afterScopeActivated()
+    FakeLogContext.writes.clear()
+
+    when:
+    scope.close()
+    listener.afterScopeClosed()
+
+    then:
+    FakeLogContext.writes == ["remove ot.trace_id", "remove ot.span_id"]
+    FakeLogContext.context.isEmpty()
+
+    when: "there still is no span"
+    listener.afterScopeClosed()
+
+    then:
+    FakeLogContext.writes.size() == 2
+  }
+
+  private void activate(final Span span) {
+    def scope = listener.tracer.withSpan(span)
+    try {
+      listener.afterScopeActivated()
+    } finally {
+      scope.close()
+    }
+  }
+
+  private static Span span(final TraceId traceId, final long spanId) {
+    return DefaultSpan.create(SpanContext.create(
+      traceId,
+      new SpanId(spanId),
+      TraceFlags.fromLowerBase16("01", 0),
+      Tracestate.getDefault()))
+  }
+
+  /** Stands in for an MDC class with static {@code put} and {@code remove} methods. */
+  static class FakeLogContext {
+    static final List<String> writes = []
+    static final Map<String, String> context = [:]
+
+    static void put(String key, String value) {
+      writes.add("put " + key)
+      context.put(key, value)
+    }
+
+    static void remove(String key) {
+      writes.add("remove " + key)
+      context.remove(key)
+    }
+
+    static void clear() {
+      writes.clear()
+      context.clear()
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package io.opentelemetry.auto.test;
+
+import net.bytebuddy.asm.Advice;
+
+public class DormantTestAdvice {
+  public static int exits = 0;
+
+  @Advice.OnMethodEnter(suppress = Throwable.class)
+  public static String enter() {
+    return "entered";
+  }
+
+  @Advice.OnMethodExit(suppress = Throwable.class)
+  public static void exit(@Advice.Enter final String entered) {
+    exits++;
+  }
+
+  public static class ExitOnlyAdvice {
+    public static int exits = 0;
+
+    @Advice.OnMethodExit(suppress = Throwable.class)
+    public static void exit() {
+      exits++;
+    }
+  }
+}
@@ -13,10 +13,12 @@ if [[ "$server_package" = "" ]] || [[ "$server_type" != "play-zip" && "$server_t
     echo "[play-zip|jar] : Specify whether the server will be in zip format (play server) or jar format"
     echo "path-to-server-package : Must be a jar or binary zip package which creates an http server on local port 8080 when started."
     echo "    Note: if the server package is a zip, then the script will attempt to unzip to a temp directory and run the server from there."
-    echo "path-to-agent*     : Each must be a javaagent jar, or NoAgent."
+    echo "path-to-agent*     : Each must be a javaagent jar, NoAgent, or Dormant:path-to-agent to run that agent in dormant mode."
     echo ""
     echo "Example: This will run the perf tests against myserver.jar. It will run against no agent as a baseline, then against myagent-1.0.jar."
     echo "  ./run-perf-test.sh /tmp/myserve.jar NoAgent /tmp/myagent-1.0.jar"
+    echo "Example: This will measure the overhead of an agent whose advice is woven but dormant."
+    echo "  ./run-perf-test.sh /tmp/myserve.jar NoAgent Dormant:/tmp/myagent-1.0.jar"
     echo ""
     echo "Test results are saved to $test_csv_file"
     exit 1
@@ -40,9 +42,10 @@ unzipped_server_path=""
 # Blocks until server is bound to local port 8080
 function start_server {
     agent_jar="$1"
+    agent_opts="$2"
     javaagent_arg=""
     if [ "$agent_jar" != "" -a -f "$agent_jar" ]; then
-        javaagent_arg="-javaagent:$agent_jar -Dio.opentelemetry.auto.slf4j.simpleLogger.defaultLogLevel=off"
+        javaagent_arg="-javaagent:$agent_jar -Dio.opentelemetry.auto.slf4j.simpleLogger.defaultLogLevel=off $agent_opts"
     fi
 
     if [ "$server_type" = "jar" ]; then
@@ -134,6 +137,11 @@ for agent_jar in $agent_jars; do
     if [ "$agent_jar" == "NoAgent" ]; then
         result_row="NoAgent"
         start_server ""
+    elif [[ "$agent_jar" == Dormant:* ]]; then
+        agent_jar="${agent_jar#Dormant:}"
+        agent_version=$(java -jar $agent_jar 2>/dev/null)
+        result_row="$agent_version (dormant)"
+        start_server $agent_jar "-Dopentelemetry.auto.trace.dormant=true"
     else
         agent_version=$(java -jar $agent_jar 2>/dev/null)
         result_row="$agent_version"
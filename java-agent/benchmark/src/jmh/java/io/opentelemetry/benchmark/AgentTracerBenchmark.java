@@ -0,0 +1,52 @@
+package io.opentelemetry.benchmark;
+
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.auto.instrumentation.api.AgentScope;
+import io.opentelemetry.auto.instrumentation.api.AgentSpan;
+import io.opentelemetry.auto.tooling.AgentTracerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the deprecated {@code AgentSpan} bridge. Run with {@code -prof gc} and check that
+ * {@code gc.alloc.rate.norm} is 0 B/op for {@link #activeSpan} and {@link #activeSpanContext}.
+ */
+public class AgentTracerBenchmark {
+
+  @State(Scope.Thread)
+  public static class TracerState {
+    private final AgentTracerImpl tracer =
+        new AgentTracerImpl(OpenTelemetry.getTracerFactory().get("io.opentelemetry.benchmark"));
+
+    private AgentScope scope;
+
+    @Setup
+    public void activate() {
+      scope = tracer.activateSpan(tracer.startSpan("benchmark"), true);
+    }
+
+    @TearDown
+    public void close() {
+      scope.close();
+    }
+  }
+
+  @Benchmark
+  public AgentSpan activeSpan(final TracerState state) {
+    return state.tracer.activeSpan();
+  }
+
+  @Benchmark
+  public AgentSpan.Context activeSpanContext(final TracerState state) {
+    return state.tracer.activeSpan().context();
+  }
+
+  @Benchmark
+  public void activateAndClose(final TracerState state) {
+    final AgentScope scope = state.tracer.activateSpan(state.tracer.activeSpan(), false);
+    scope.close();
+  }
+}
@@ -0,0 +1,24 @@
+package io.opentelemetry.benchmark;
+
+import io.opentelemetry.auto.bootstrap.CallDepth;
+import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import java.sql.Statement;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/** Compares an advice enter/exit pair using slot based and map based call depth tracking. */
+public class CallDepthBenchmark {
+
+  @Benchmark
+  public int callDepthSlot() {
+    final int depth = CallDepth.increment(CallDepth.JDBC_STATEMENT);
+    CallDepth.reset(CallDepth.JDBC_STATEMENT);
+    return depth;
+  }
+
+  @Benchmark
+  public int callDepthThreadLocalMap() {
+    final int depth = CallDepthThreadLocalMap.incrementCallDepth(Statement.class);
+    CallDepthThreadLocalMap.reset(Statement.class);
+    return depth;
+  }
+}
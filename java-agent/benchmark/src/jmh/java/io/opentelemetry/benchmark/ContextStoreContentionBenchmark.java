@@ -0,0 +1,49 @@
+package io.opentelemetry.benchmark;
+
+import com.blogspot.mydailyjava.weaklockfree.WeakConcurrentMap;
+import io.opentelemetry.auto.bootstrap.StripedLocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the insert path of the context store map fallback when guarded by one global monitor
+ * versus striped monitors.
+ */
+@Threads(32)
+public class ContextStoreContentionBenchmark {
+  private static final Object CONTEXT = new Object();
+
+  @State(Scope.Benchmark)
+  public static class MapState {
+    private final WeakConcurrentMap<Object, Object> map =
+        new WeakConcurrentMap.WithInlinedExpunction<>();
+    private final StripedLocks locks = new StripedLocks(64);
+  }
+
+  @Benchmark
+  public Object globalMonitor(final MapState state) {
+    final Object key = new Object();
+    synchronized (state.map) {
+      return putIfAbsent(state.map, key);
+    }
+  }
+
+  @Benchmark
+  public Object stripedMonitors(final MapState state) {
+    final Object key = new Object();
+    synchronized (state.locks.lockFor(key)) {
+      return putIfAbsent(state.map, key);
+    }
+  }
+
+  private static Object putIfAbsent(final WeakConcurrentMap<Object, Object> map, final Object key) {
+    final Object existing = map.get(key);
+    if (existing != null) {
+      return existing;
+    }
+    map.put(key, CONTEXT);
+    return CONTEXT;
+  }
+}
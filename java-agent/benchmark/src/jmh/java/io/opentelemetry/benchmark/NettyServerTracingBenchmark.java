@@ -0,0 +1,81 @@
+package io.opentelemetry.benchmark;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.auto.instrumentation.api.AgentTracer;
+import io.opentelemetry.auto.instrumentation.netty41.server.HttpServerTracingHandler;
+import io.opentelemetry.auto.tooling.AgentTracerImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the netty 4.1 server tracing handler while many requests are in flight on one channel.
+ * In {@code pipelined} mode the requests are answered in order. In {@code streams} mode they carry
+ * HTTP/2 stream ids and are answered in reverse order.
+ */
+@State(Scope.Thread)
+public class NettyServerTracingBenchmark {
+  private static final String STREAM_ID = "x-http2-stream-id";
+
+  @Param({"1", "16", "256"})
+  public int inFlight;
+
+  @Param({"pipelined", "streams"})
+  public String mode;
+
+  private EmbeddedChannel channel;
+  private HttpRequest[] requests;
+  private HttpResponse[] responses;
+
+  @Setup
+  public void setup() {
+    AgentTracer.registerIfAbsent(
+        new AgentTracerImpl(OpenTelemetry.getTracerFactory().get("io.opentelemetry.benchmark")));
+    channel = new EmbeddedChannel(new HttpServerTracingHandler());
+    requests = new HttpRequest[inFlight];
+    responses = new HttpResponse[inFlight];
+    for (int i = 0; i < inFlight; i++) {
+      requests[i] = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/request/" + i);
+      requests[i].headers().set("Host", "localhost");
+      final HttpResponse response =
+          new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+      if (mode.equals("streams")) {
+        final String streamId = String.valueOf(2 * i + 1);
+        requests[i].headers().set(STREAM_ID, streamId);
+        response.headers().set(STREAM_ID, streamId);
+        // Answer the last stream first.
+        responses[inFlight - 1 - i] = response;
+      } else {
+        responses[i] = response;
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    channel.finish();
+  }
+
+  @Benchmark
+  public void requestsInFlight() {
+    for (final HttpRequest request : requests) {
+      channel.writeInbound(request);
+    }
+    for (final HttpResponse response : responses) {
+      channel.writeOutbound(response);
+    }
+    channel.inboundMessages().clear();
+    channel.outboundMessages().clear();
+  }
+}
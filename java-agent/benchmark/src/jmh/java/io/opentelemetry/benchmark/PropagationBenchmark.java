@@ -0,0 +1,64 @@
+package io.opentelemetry.benchmark;
+
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.auto.instrumentation.api.AgentPropagation;
+import io.opentelemetry.auto.instrumentation.api.AgentSpan;
+import io.opentelemetry.auto.tooling.AgentTracerImpl;
+import java.util.Collections;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link AgentPropagation#extract} for carriers with a valid, missing or malformed {@code
+ * traceparent} header. None of the cases should throw, run with {@code -prof gc} to compare
+ * allocations.
+ */
+@State(Scope.Benchmark)
+public class PropagationBenchmark {
+  private static final AgentPropagation.Getter<Map<String, String>> GETTER =
+      new AgentPropagation.Getter<Map<String, String>>() {
+        @Override
+        public Iterable<String> keys(final Map<String, String> carrier) {
+          return carrier.keySet();
+        }
+
+        @Override
+        public String get(final Map<String, String> carrier, final String key) {
+          return carrier.get(key);
+        }
+      };
+
+  @Param({"present", "absent", "malformed"})
+  public String header;
+
+  private final AgentPropagation propagation =
+      new AgentTracerImpl(OpenTelemetry.getTracerFactory().get("io.opentelemetry.benchmark"))
+          .propagate();
+
+  private Map<String, String> carrier;
+
+  @Setup
+  public void setup() {
+    switch (header) {
+      case "present":
+        carrier =
+            Collections.singletonMap(
+                "traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        break;
+      case "malformed":
+        carrier = Collections.singletonMap("traceparent", "00-not-a-trace-parent-01");
+        break;
+      default:
+        carrier = Collections.singletonMap("content-type", "text/plain");
+    }
+  }
+
+  @Benchmark
+  public AgentSpan.Context extract() {
+    return propagation.extract(carrier, GETTER);
+  }
+}
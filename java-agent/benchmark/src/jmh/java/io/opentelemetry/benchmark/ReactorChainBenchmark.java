@@ -0,0 +1,60 @@
+package io.opentelemetry.benchmark;
+
+import io.opentelemetry.auto.api.Trace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Measures the throughput of reactor chains that can be fused, and of one hopping to another
+ * thread. Run with {@code jmh} and with {@code jmhAgent} to compare the throughput without and with
+ * the reactor-core instrumentation. The {@code traced} variants subscribe while a span is active.
+ */
+@State(Scope.Benchmark)
+public class ReactorChainBenchmark {
+
+  @Param({"1", "1000"})
+  public int elements;
+
+  private Flux<Integer> flux;
+  private Mono<Integer> mono;
+
+  @Setup
+  public void setup() {
+    flux = Flux.range(0, elements).map(i -> i + 1).filter(i -> (i & 1) == 0);
+    mono = Mono.just(elements).map(i -> i + 1).filter(i -> i > 0);
+  }
+
+  @Benchmark
+  public Integer fluxChain() {
+    return flux.reduce(0, Integer::sum).block();
+  }
+
+  @Benchmark
+  @Trace
+  public Integer tracedFluxChain() {
+    return flux.reduce(0, Integer::sum).block();
+  }
+
+  @Benchmark
+  public Integer monoChain() {
+    return mono.block();
+  }
+
+  @Benchmark
+  @Trace
+  public Integer tracedMonoChain() {
+    return mono.block();
+  }
+
+  @Benchmark
+  @Trace
+  public Integer tracedPublishOnChain() {
+    return flux.publishOn(Schedulers.single()).reduce(0, Integer::sum).block();
+  }
+}
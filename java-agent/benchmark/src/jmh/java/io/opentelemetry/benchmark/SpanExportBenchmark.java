@@ -0,0 +1,107 @@
+package io.opentelemetry.benchmark;
+
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.auto.tooling.export.BatchExportProcessor;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.Tracer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Measures the latency of {@code span.end()} while 32 threads end {@code spansPerSecond} spans in
+ * total, with and without the agent's batching export pipeline. Each thread starts its next span
+ * outside of the measurement once its share of the rate allows, so only {@code end()} is sampled.
+ * Compare the high percentiles, and {@code droppedSpans} printed at the end of the trial.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(32)
+public class SpanExportBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Pipeline {
+    @Param({"none", "batch"})
+    String pipeline;
+
+    @Param({"1000000"})
+    int spansPerSecond;
+
+    @Param({"8192"})
+    int queueSize;
+
+    final Tracer tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.benchmark");
+
+    long intervalNanos;
+    BatchExportProcessor processor;
+
+    @Setup(Level.Trial)
+    public void install(final BenchmarkParams params) {
+      intervalNanos = TimeUnit.SECONDS.toNanos(params.getThreads()) / spansPerSecond;
+      if ("batch".equals(pipeline)) {
+        processor = new BatchExportProcessor(new DiscardingExporter(), queueSize, 512, 1000);
+        OpenTelemetrySdk.getTracerFactory().addSpanProcessor(processor);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+      if (processor != null) {
+        processor.shutdown();
+        System.out.println(
+            "exportedSpans="
+                + processor.getExportedSpans()
+                + " droppedSpans="
+                + processor.getDroppedSpans());
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class StartedSpan {
+    Span span;
+    long nextStart;
+
+    @Setup(Level.Invocation)
+    public void start(final Pipeline pipeline) {
+      long now = System.nanoTime();
+      if (nextStart == 0) {
+        nextStart = now;
+      }
+      while (now - nextStart < 0) {
+        now = System.nanoTime();
+      }
+      nextStart += pipeline.intervalNanos;
+      span = pipeline.tracer.spanBuilder("benchmark").startSpan();
+    }
+  }
+
+  @Benchmark
+  public void end(final StartedSpan started) {
+    started.span.end();
+  }
+
+  static final class DiscardingExporter implements SpanExporter {
+    @Override
+    public ResultCode export(final List<SpanData> spans) {
+      return ResultCode.SUCCESS;
+    }
+
+    @Override
+    public void shutdown() {}
+  }
+}
@@ -0,0 +1,84 @@
+package io.opentelemetry.benchmark;
+
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.auto.tooling.export.FileSpanExporter;
+import io.opentelemetry.auto.tooling.export.JournalSpanExporter;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.Tracer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures how many spans per second the journal exporter writes, compared with the JSON lines
+ * written by the file exporter. Each invocation exports a batch of {@value #BATCH_SIZE} ended spans
+ * with a few attributes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SpanJournalBenchmark {
+  static final int BATCH_SIZE = 512;
+
+  @Param({"journal", "file"})
+  String exporter;
+
+  final List<SpanData> batch = new ArrayList<>(BATCH_SIZE);
+
+  File directory;
+  SpanExporter spanExporter;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    final Tracer tracer = OpenTelemetry.getTracerFactory().get("io.opentelemetry.benchmark");
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      final Span span =
+          tracer.spanBuilder("GET /users/{id}").setSpanKind(Span.Kind.SERVER).startSpan();
+      span.setAttribute("http.method", "GET");
+      span.setAttribute("http.url", "http://localhost:8080/users/" + i);
+      span.setAttribute("http.status_code", 200);
+      span.end();
+      batch.add(((ReadableSpan) span).toSpanData());
+    }
+    directory = Files.createTempDirectory("span-journal-benchmark").toFile();
+    spanExporter =
+        "journal".equals(exporter)
+            ? new JournalSpanExporter(directory, 64 * 1024 * 1024, 4)
+            : new FileSpanExporter(new File(directory, "spans.json"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    spanExporter.shutdown();
+    final File[] files = directory.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public SpanExporter.ResultCode export() {
+    return spanExporter.export(batch);
+  }
+}
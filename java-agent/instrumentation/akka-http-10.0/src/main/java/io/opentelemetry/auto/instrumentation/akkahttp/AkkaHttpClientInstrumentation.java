@@ -10,7 +10,7 @@ import akka.http.scaladsl.HttpExt;
 import akka.http.scaladsl.model.HttpRequest;
 import akka.http.scaladsl.model.HttpResponse;
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.SpanScopePair;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import io.opentelemetry.context.propagation.HttpTextFormat;
@@ -44,8 +44,12 @@ public final class AkkaHttpClientInstrumentation extends Instrumenter.Default {
       AkkaHttpClientInstrumentation.class.getName() + "$OnCompleteHandler",
       AkkaHttpClientInstrumentation.class.getName() + "$AkkaHttpHeaders",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.HttpClientDecorator",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache$Prefix",
       packageName + ".AkkaHttpClientDecorator",
     };
   }
@@ -75,7 +79,7 @@ public final class AkkaHttpClientInstrumentation extends Instrumenter.Default {
       In the future we may want to separate these, but since lots of code is reused we would need to come up
       with way of continuing to reusing it.
        */
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpExt.class);
+      final int callDepth = CallDepth.increment(CallDepth.AKKA_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -103,7 +107,7 @@ public final class AkkaHttpClientInstrumentation extends Instrumenter.Default {
       if (spanScopePair == null) {
         return;
       }
-      CallDepthThreadLocalMap.reset(HttpExt.class);
+      CallDepth.reset(CallDepth.AKKA_HTTP_CLIENT);
 
       final Span span = spanScopePair.getSpan();
 
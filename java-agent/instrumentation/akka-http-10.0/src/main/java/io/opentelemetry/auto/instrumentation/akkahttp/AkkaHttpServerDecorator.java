@@ -7,6 +7,7 @@ import io.opentelemetry.auto.decorator.HttpServerDecorator;
 import io.opentelemetry.trace.Tracer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import scala.Option;
 
 public class AkkaHttpServerDecorator
     extends HttpServerDecorator<HttpRequest, HttpRequest, HttpResponse> {
@@ -34,6 +35,32 @@ public class AkkaHttpServerDecorator
     return new URI(httpRequest.uri().toString());
   }
 
+  @Override
+  protected String urlPath(final HttpRequest httpRequest) {
+    return httpRequest.uri().path().toString();
+  }
+
+  @Override
+  protected String urlScheme(final HttpRequest httpRequest) {
+    return httpRequest.uri().scheme();
+  }
+
+  @Override
+  protected String urlHost(final HttpRequest httpRequest) {
+    return httpRequest.uri().authority().host().address();
+  }
+
+  @Override
+  protected int urlPort(final HttpRequest httpRequest) {
+    return httpRequest.uri().authority().port();
+  }
+
+  @Override
+  protected String urlQuery(final HttpRequest httpRequest) {
+    final Option<String> query = httpRequest.uri().rawQueryString();
+    return query.isDefined() ? query.get() : null;
+  }
+
   @Override
   protected String peerHostname(final HttpRequest httpRequest) {
     return null;
@@ -12,6 +12,7 @@ import akka.stream.Materializer;
 import com.google.auto.service.AutoService;
 import io.opentelemetry.auto.instrumentation.api.SpanScopePair;
 import io.opentelemetry.auto.instrumentation.api.Tags;
+import io.opentelemetry.auto.instrumentation.api.TraceContextExtractor;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.trace.Span;
@@ -51,8 +52,12 @@ public final class AkkaHttpServerInstrumentation extends Instrumenter.Default {
       AkkaHttpServerInstrumentation.class.getName() + "$AsyncWrapper$2",
       packageName + ".AkkaHttpServerHeaders",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ServerDecorator",
       "io.opentelemetry.auto.decorator.HttpServerDecorator",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache$Prefix",
       packageName + ".AkkaHttpServerDecorator",
     };
   }
@@ -94,16 +99,13 @@ public final class AkkaHttpServerInstrumentation extends Instrumenter.Default {
     }
   }
 
-  @Slf4j
   public static class WrapperHelper {
     public static SpanScopePair createSpan(final HttpRequest request) {
       final Span.Builder spanBuilder = TRACER.spanBuilder("akka-http.request");
-      try {
-        final SpanContext extractedContext = TRACER.getHttpTextFormat().extract(request, GETTER);
+      final SpanContext extractedContext =
+          TraceContextExtractor.extract(TRACER.getHttpTextFormat(), request, GETTER);
+      if (extractedContext != null) {
         spanBuilder.setParent(extractedContext);
-      } catch (final IllegalArgumentException e) {
-        // context extraction was not successful
-        log.debug(e.getMessage(), e);
       }
       final Span span = spanBuilder.startSpan();
 
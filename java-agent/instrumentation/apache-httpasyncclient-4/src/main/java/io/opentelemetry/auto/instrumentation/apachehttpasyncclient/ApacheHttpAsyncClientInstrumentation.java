@@ -48,8 +48,12 @@ public class ApacheHttpAsyncClientInstrumentation extends Instrumenter.Default {
       getClass().getName() + "$DelegatingRequestProducer",
       getClass().getName() + "$TraceContinuedFutureCallback",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.HttpClientDecorator",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache$Prefix",
       packageName + ".ApacheHttpAsyncClientDecorator"
     };
   }
@@ -13,7 +13,7 @@ import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
 import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
 
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.SpanScopePair;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import io.opentelemetry.context.Scope;
@@ -53,8 +53,12 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Default {
       packageName + ".HttpHeadersInjectAdapter",
       getClass().getName() + "$WrappingStatusSettingResponseHandler",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.HttpClientDecorator",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache$Prefix",
       packageName + ".ApacheHttpClientDecorator",
       packageName + ".HostAndRequestAsHttpUriRequest",
     };
@@ -180,7 +184,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Default {
         span.end();
       } finally {
         spanScopePair.getScope().close();
-        CallDepthThreadLocalMap.reset(HttpClient.class);
+        CallDepth.reset(CallDepth.APACHE_HTTP_CLIENT);
       }
     }
   }
@@ -188,7 +192,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Default {
   public static class UriRequestAdvice {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static SpanScopePair methodEnter(@Advice.Argument(0) final HttpUriRequest request) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepth.increment(CallDepth.APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -217,7 +221,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Default {
                 typing = Assigner.Typing.DYNAMIC,
                 readOnly = false)
             Object handler) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepth.increment(CallDepth.APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -247,7 +251,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Default {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static SpanScopePair methodEnter(
         @Advice.Argument(0) final HttpHost host, @Advice.Argument(1) final HttpRequest request) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepth.increment(CallDepth.APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -281,7 +285,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Default {
                 typing = Assigner.Typing.DYNAMIC,
                 readOnly = false)
             Object handler) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepth.increment(CallDepth.APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
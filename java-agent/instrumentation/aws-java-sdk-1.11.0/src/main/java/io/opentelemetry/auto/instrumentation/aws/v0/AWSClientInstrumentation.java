@@ -38,8 +38,12 @@ public final class AWSClientInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.HttpClientDecorator",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache$Prefix",
       packageName + ".AwsSdkClientDecorator",
       packageName + ".RequestMeta",
       packageName + ".TracingRequestHandler",
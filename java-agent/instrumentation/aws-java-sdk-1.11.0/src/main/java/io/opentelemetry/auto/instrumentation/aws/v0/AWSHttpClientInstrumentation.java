@@ -42,6 +42,8 @@ public class AWSHttpClientInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       packageName + ".OnErrorDecorator",
       packageName + ".RequestMeta",
     };
@@ -8,9 +8,8 @@ import static net.bytebuddy.matcher.ElementMatchers.named;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 import static net.bytebuddy.matcher.ElementMatchers.returns;
 
-import com.couchbase.client.java.CouchbaseCluster;
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import java.lang.reflect.Method;
 import java.util.Map;
@@ -40,6 +39,8 @@ public class CouchbaseBucketInstrumentation extends Instrumenter.Default {
     return new String[] {
       "rx.__OpenTelemetryTracingUtil",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.DatabaseClientDecorator",
       "io.opentelemetry.auto.instrumentation.rxjava.SpanFinishingSubscription",
@@ -61,7 +62,7 @@ public class CouchbaseBucketInstrumentation extends Instrumenter.Default {
 
     @Advice.OnMethodEnter
     public static int trackCallDepth() {
-      return CallDepthThreadLocalMap.incrementCallDepth(CouchbaseCluster.class);
+      return CallDepth.increment(CallDepth.COUCHBASE_CLUSTER);
     }
 
     @Advice.OnMethodExit
@@ -73,7 +74,7 @@ public class CouchbaseBucketInstrumentation extends Instrumenter.Default {
       if (callDepth > 0) {
         return;
       }
-      CallDepthThreadLocalMap.reset(CouchbaseCluster.class);
+      CallDepth.reset(CallDepth.COUCHBASE_CLUSTER);
 
       result = Observable.create(new CouchbaseOnSubscribe(result, method, bucket));
     }
@@ -16,7 +16,9 @@ import com.google.common.base.Function;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.context.Scope;
+import io.opentelemetry.trace.DefaultSpan;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.Tracer;
 import java.util.Map;
@@ -27,6 +29,7 @@ import java.util.concurrent.Executors;
 public class TracingSession implements Session {
   private static final Tracer TRACER =
       OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto");
+  private static final int INTEGRATION = DormantMode.integration("cassandra");
 
   private final ExecutorService executorService = Executors.newCachedThreadPool();
   private final Session session;
@@ -244,6 +247,9 @@ public class TracingSession implements Session {
   }
 
   private Span startSpan(final String query) {
+    if (DormantMode.isDormant(INTEGRATION)) {
+      return DefaultSpan.getInvalid();
+    }
     final Span span = TRACER.spanBuilder("cassandra.query").startSpan();
     DECORATE.afterStart(span);
     DECORATE.onConnection(span, session);
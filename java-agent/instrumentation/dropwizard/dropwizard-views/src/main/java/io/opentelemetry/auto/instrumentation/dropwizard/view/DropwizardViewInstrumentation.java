@@ -41,7 +41,10 @@ public final class DropwizardViewInstrumentation extends Instrumenter.Default {
   @Override
   public String[] helperClassNames() {
     return new String[] {
-      "io.opentelemetry.auto.decorator.BaseDecorator", getClass().getName() + "$RenderAdvice"
+      "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
+      getClass().getName() + "$RenderAdvice",
     };
   }
 
@@ -47,6 +47,8 @@ public class Elasticsearch53TransportClientInstrumentation extends Instrumenter.
       "com.google.common.base.Joiner$2",
       "com.google.common.base.Joiner$MapJoiner",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.DatabaseClientDecorator",
       "io.opentelemetry.auto.instrumentation.elasticsearch.ElasticsearchTransportClientDecorator",
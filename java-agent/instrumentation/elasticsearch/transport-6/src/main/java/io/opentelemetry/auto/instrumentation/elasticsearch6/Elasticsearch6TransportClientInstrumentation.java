@@ -50,6 +50,8 @@ public class Elasticsearch6TransportClientInstrumentation extends Instrumenter.D
       "com.google.common.base.Joiner$2",
       "com.google.common.base.Joiner$MapJoiner",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.DatabaseClientDecorator",
       "io.opentelemetry.auto.instrumentation.elasticsearch.ElasticsearchTransportClientDecorator",
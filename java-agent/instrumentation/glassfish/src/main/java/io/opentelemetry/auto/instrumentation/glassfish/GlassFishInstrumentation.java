@@ -37,6 +37,12 @@ public final class GlassFishInstrumentation extends Instrumenter.Default {
     return new String[] {Constants.class.getName()};
   }
 
+  // Makes agent classes visible to the classloader, which must happen even while dormant.
+  @Override
+  protected boolean suspendWhenDormant() {
+    return false;
+  }
+
   @Override
   public ElementMatcher<? super TypeDescription> typeMatcher() {
     return ElementMatchers.named(
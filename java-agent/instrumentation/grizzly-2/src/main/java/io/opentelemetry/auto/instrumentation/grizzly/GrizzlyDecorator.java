@@ -26,6 +26,31 @@ public class GrizzlyDecorator extends HttpServerDecorator<Request, Request, Resp
         null);
   }
 
+  @Override
+  protected String urlPath(final Request request) {
+    return request.getRequestURI();
+  }
+
+  @Override
+  protected String urlScheme(final Request request) {
+    return request.getScheme();
+  }
+
+  @Override
+  protected String urlHost(final Request request) {
+    return request.getServerName();
+  }
+
+  @Override
+  protected int urlPort(final Request request) {
+    return request.getServerPort();
+  }
+
+  @Override
+  protected String urlQuery(final Request request) {
+    return request.getQueryString();
+  }
+
   @Override
   protected String peerHostname(final Request request) {
     return request.getRemoteHost();
@@ -14,10 +14,13 @@ import io.grpc.Metadata;
 import io.grpc.MethodDescriptor;
 import io.grpc.Status;
 import io.opentelemetry.auto.api.MoreTags;
+import io.opentelemetry.auto.bootstrap.DormantMode;
+import io.opentelemetry.auto.instrumentation.grpc.common.GrpcMessageStats;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.trace.Span;
 
 public class TracingClientInterceptor implements ClientInterceptor {
+  private static final int INTEGRATION = DormantMode.integration("grpc-client");
 
   public static final TracingClientInterceptor INSTANCE = new TracingClientInterceptor();
 
@@ -26,7 +29,9 @@ public class TracingClientInterceptor implements ClientInterceptor {
       final MethodDescriptor<ReqT, RespT> method,
       final CallOptions callOptions,
       final Channel next) {
-
+    if (DormantMode.isDormant(INTEGRATION)) {
+      return next.newCall(method, callOptions);
+    }
     final Span span = TRACER.spanBuilder("grpc.client").startSpan();
     span.setAttribute(MoreTags.RESOURCE_NAME, method.getFullMethodName());
     try (final Scope scope = TRACER.withSpan(span)) {
@@ -84,14 +89,30 @@ public class TracingClientInterceptor implements ClientInterceptor {
   static final class TracingClientCallListener<RespT>
       extends ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT> {
     final Span span;
+    final GrpcMessageStats messageStats;
 
     TracingClientCallListener(final Span span, final ClientCall.Listener<RespT> delegate) {
       super(delegate);
       this.span = span;
+      messageStats = GrpcMessageStats.forCall();
     }
 
     @Override
     public void onMessage(final RespT message) {
+      if (messageStats == null) {
+        onMessageWithSpan(message);
+        return;
+      }
+      messageStats.onMessage(span, message);
+      try (final Scope scope = TRACER.withSpan(span)) {
+        delegate().onMessage(message);
+      } catch (final Throwable e) {
+        DECORATE.onError(span, e);
+        throw e;
+      }
+    }
+
+    private void onMessageWithSpan(final RespT message) {
       final Span messageSpan = TRACER.spanBuilder("grpc.message").setParent(span).startSpan();
       messageSpan.setAttribute("message.type", message.getClass().getName());
       DECORATE.afterStart(messageSpan);
@@ -116,8 +137,7 @@ public class TracingClientInterceptor implements ClientInterceptor {
         DECORATE.onError(span, e);
         throw e;
       } finally {
-        DECORATE.beforeFinish(span);
-        span.end();
+        finish();
       }
     }
 
@@ -127,10 +147,17 @@ public class TracingClientInterceptor implements ClientInterceptor {
         delegate().onReady();
       } catch (final Throwable e) {
         DECORATE.onError(span, e);
-        DECORATE.beforeFinish(span);
-        span.end();
+        finish();
         throw e;
       }
     }
+
+    private void finish() {
+      if (messageStats != null) {
+        messageStats.finish(span);
+      }
+      DECORATE.beforeFinish(span);
+      span.end();
+    }
   }
 }
@@ -0,0 +1,168 @@
+package io.opentelemetry.auto.instrumentation.grpc.common;
+
+import static io.opentelemetry.auto.bootstrap.WeakMap.Provider.newWeakMap;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.bootstrap.WeakMap;
+import io.opentelemetry.trace.AttributeValue;
+import io.opentelemetry.trace.Span;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the messages received by a call on the call span instead of starting a {@code
+ * grpc.message} span for each of them.
+ *
+ * <p>The mode is selected with {@link Config#GRPC_MESSAGE_MODE}:
+ *
+ * <ul>
+ *   <li>{@code aggregate} (default): message count, serialized bytes and inter-arrival times are
+ *       added to the call span when it finishes.
+ *   <li>{@code events}: as {@code aggregate}, and additionally the first message and then every
+ *       {@link Config#GRPC_MESSAGE_EVENT_INTERVAL}th message is added as a span event.
+ *   <li>{@code spans}: a span per message, as before.
+ * </ul>
+ *
+ * <p>gRPC delivers the messages of a call serially, so instances are not synchronized.
+ */
+public final class GrpcMessageStats {
+  public static final String MODE_AGGREGATE = "aggregate";
+  public static final String MODE_EVENTS = "events";
+  public static final String MODE_SPANS = "spans";
+
+  public static final String MESSAGE_EVENT = "grpc.message";
+  public static final String MESSAGE_TYPE = "message.type";
+  public static final String MESSAGE_SEQUENCE = "message.sequence";
+  public static final String MESSAGE_COUNT = "message.count";
+  public static final String MESSAGE_BYTES = "message.bytes";
+  public static final String MESSAGE_INTERVAL_MIN = "message.interval.min.nanos";
+  public static final String MESSAGE_INTERVAL_MAX = "message.interval.max.nanos";
+  public static final String MESSAGE_INTERVAL_AVG = "message.interval.avg.nanos";
+
+  // The methods are held strongly, since getMethod returns a copy that a weak reference would lose
+  // on the next collection. A method keeps only its declaring class alive, i.e. the key itself or
+  // a class it extends.
+  private static final WeakMap<Class<?>, Method> SERIALIZED_SIZE_METHODS = newWeakMap();
+  // Marks message types without the method, since the map cannot hold null.
+  private static final Method NO_METHOD = noMethod();
+
+  private final int eventInterval;
+  private long count;
+  private long bytes;
+  private boolean bytesKnown = true;
+  private long firstNanos;
+  private long lastNanos;
+  private long minInterval = Long.MAX_VALUE;
+  private long maxInterval;
+
+  private GrpcMessageStats(final int eventInterval) {
+    this.eventInterval = eventInterval;
+  }
+
+  /** @return the stats to record the call's messages in, or null when spans should be created */
+  public static GrpcMessageStats forCall() {
+    final Config config = Config.get();
+    final String mode = config.getGrpcMessageMode();
+    if (MODE_SPANS.equalsIgnoreCase(mode)) {
+      return null;
+    }
+    final int eventInterval =
+        MODE_EVENTS.equalsIgnoreCase(mode) ? Math.max(1, config.getGrpcMessageEventInterval()) : 0;
+    return new GrpcMessageStats(eventInterval);
+  }
+
+  public void onMessage(final Span span, final Object message) {
+    final long now = System.nanoTime();
+    if (count == 0) {
+      // Inter-arrival times are measured from the first message, not from the start of the call.
+      firstNanos = now;
+    } else {
+      final long interval = now - lastNanos;
+      minInterval = Math.min(minInterval, interval);
+      maxInterval = Math.max(maxInterval, interval);
+    }
+    lastNanos = now;
+
+    if (bytesKnown) {
+      final long size = serializedSize(message);
+      if (size < 0) {
+        bytesKnown = false;
+      } else {
+        bytes += size;
+      }
+    }
+
+    if (eventInterval > 0 && count % eventInterval == 0) {
+      final Map<String, AttributeValue> attributes = new HashMap<>(4);
+      attributes.put(
+          MESSAGE_TYPE, AttributeValue.stringAttributeValue(message.getClass().getName()));
+      attributes.put(MESSAGE_SEQUENCE, AttributeValue.longAttributeValue(count + 1));
+      span.addEvent(MESSAGE_EVENT, attributes);
+    }
+    count++;
+  }
+
+  /** Adds the recorded totals to the call span. Must be called before the span ends. */
+  public void finish(final Span span) {
+    if (count == 0) {
+      return;
+    }
+    span.setAttribute(MESSAGE_COUNT, count);
+    if (bytesKnown) {
+      span.setAttribute(MESSAGE_BYTES, bytes);
+    }
+    if (count > 1) {
+      span.setAttribute(MESSAGE_INTERVAL_MIN, minInterval);
+      span.setAttribute(MESSAGE_INTERVAL_MAX, maxInterval);
+      span.setAttribute(MESSAGE_INTERVAL_AVG, (lastNanos - firstNanos) / (count - 1));
+    }
+  }
+
+  /**
+   * Uses {@code getSerializedSize()} of protobuf messages, which is memoized by protobuf. The
+   * method is looked up reflectively since protobuf is not a dependency of grpc-core.
+   *
+   * @return the serialized size of the message, or -1 if it is unknown
+   */
+  private static long serializedSize(final Object message) {
+    final Class<?> type = message.getClass();
+    Method method = SERIALIZED_SIZE_METHODS.get(type);
+    if (method == null) {
+      method = serializedSizeMethod(type);
+      if (method == null) {
+        method = NO_METHOD;
+      }
+      SERIALIZED_SIZE_METHODS.put(type, method);
+    }
+    if (method == NO_METHOD) {
+      return -1;
+    }
+    try {
+      return (Integer) method.invoke(message);
+    } catch (final Exception e) {
+      return -1;
+    }
+  }
+
+  private static Method serializedSizeMethod(final Class<?> type) {
+    try {
+      final Method method = type.getMethod("getSerializedSize");
+      if (method.getReturnType() == int.class) {
+        method.setAccessible(true);
+        return method;
+      }
+    } catch (final Exception e) {
+      // Not a protobuf message.
+    }
+    return null;
+  }
+
+  private static Method noMethod() {
+    try {
+      return Object.class.getMethod("hashCode");
+    } catch (final NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -32,7 +32,10 @@ public class GrpcServerBuilderInstrumentation extends Instrumenter.Default {
       "io.opentelemetry.auto.instrumentation.grpc.server.TracingServerInterceptor",
       "io.opentelemetry.auto.instrumentation.grpc.server.TracingServerInterceptor$TracingServerCall",
       "io.opentelemetry.auto.instrumentation.grpc.server.TracingServerInterceptor$TracingServerCallListener",
+      "io.opentelemetry.auto.instrumentation.grpc.common.GrpcMessageStats",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ServerDecorator",
       packageName + ".GrpcServerDecorator",
       packageName + ".GrpcExtractAdapter"
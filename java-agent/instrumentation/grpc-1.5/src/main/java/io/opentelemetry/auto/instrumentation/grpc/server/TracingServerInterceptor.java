@@ -12,11 +12,15 @@ import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
 import io.grpc.Status;
 import io.opentelemetry.auto.api.MoreTags;
+import io.opentelemetry.auto.bootstrap.DormantMode;
+import io.opentelemetry.auto.instrumentation.api.TraceContextExtractor;
+import io.opentelemetry.auto.instrumentation.grpc.common.GrpcMessageStats;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.trace.Span;
 import io.opentelemetry.trace.SpanContext;
 
 public class TracingServerInterceptor implements ServerInterceptor {
+  private static final int INTEGRATION = DormantMode.integration("grpc-server");
 
   public static final TracingServerInterceptor INSTANCE = new TracingServerInterceptor();
 
@@ -27,9 +31,17 @@ public class TracingServerInterceptor implements ServerInterceptor {
       final ServerCall<ReqT, RespT> call,
       final Metadata headers,
       final ServerCallHandler<ReqT, RespT> next) {
+    if (DormantMode.isDormant(INTEGRATION)) {
+      return next.startCall(call, headers);
+    }
 
-    final SpanContext spanContext = TRACER.getHttpTextFormat().extract(headers, GETTER);
-    final Span span = TRACER.spanBuilder("grpc.server").setParent(spanContext).startSpan();
+    final SpanContext spanContext =
+        TraceContextExtractor.extract(TRACER.getHttpTextFormat(), headers, GETTER);
+    final Span.Builder spanBuilder = TRACER.spanBuilder("grpc.server");
+    if (spanContext != null) {
+      spanBuilder.setParent(spanContext);
+    }
+    final Span span = spanBuilder.startSpan();
     span.setAttribute(MoreTags.RESOURCE_NAME, call.getMethodDescriptor().getFullMethodName());
 
     DECORATE.afterStart(span);
@@ -81,14 +93,31 @@ public class TracingServerInterceptor implements ServerInterceptor {
   static final class TracingServerCallListener<ReqT>
       extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
     private final Span span;
+    private final GrpcMessageStats messageStats;
 
     TracingServerCallListener(final Span span, final ServerCall.Listener<ReqT> delegate) {
       super(delegate);
       this.span = span;
+      messageStats = GrpcMessageStats.forCall();
     }
 
     @Override
     public void onMessage(final ReqT message) {
+      if (messageStats == null) {
+        onMessageWithSpan(message);
+        return;
+      }
+      messageStats.onMessage(span, message);
+      try (final Scope scope = TRACER.withSpan(span)) {
+        delegate().onMessage(message);
+      } catch (final Throwable e) {
+        DECORATE.onError(span, e);
+        finish();
+        throw e;
+      }
+    }
+
+    private void onMessageWithSpan(final ReqT message) {
       final Span span =
           TRACER.spanBuilder("grpc.message").setParent(this.span.getContext()).startSpan();
       span.setAttribute("message.type", message.getClass().getName());
@@ -98,8 +127,7 @@ public class TracingServerInterceptor implements ServerInterceptor {
         delegate().onMessage(message);
       } catch (final Throwable e) {
         DECORATE.onError(span, e);
-        DECORATE.beforeFinish(this.span);
-        this.span.end();
+        finish();
         throw e;
       } finally {
         DECORATE.beforeFinish(span);
@@ -114,8 +142,7 @@ public class TracingServerInterceptor implements ServerInterceptor {
         delegate().onHalfClose();
       } catch (final Throwable e) {
         DECORATE.onError(span, e);
-        DECORATE.beforeFinish(span);
-        span.end();
+        finish();
         throw e;
       }
     }
@@ -130,8 +157,7 @@ public class TracingServerInterceptor implements ServerInterceptor {
         DECORATE.onError(span, e);
         throw e;
       } finally {
-        DECORATE.beforeFinish(span);
-        span.end();
+        finish();
       }
     }
 
@@ -144,8 +170,7 @@ public class TracingServerInterceptor implements ServerInterceptor {
         DECORATE.onError(span, e);
         throw e;
       } finally {
-        DECORATE.beforeFinish(span);
-        span.end();
+        finish();
       }
     }
 
@@ -155,10 +180,17 @@ public class TracingServerInterceptor implements ServerInterceptor {
         delegate().onReady();
       } catch (final Throwable e) {
         DECORATE.onError(span, e);
-        DECORATE.beforeFinish(span);
-        span.end();
+        finish();
         throw e;
       }
     }
+
+    private void finish() {
+      if (messageStats != null) {
+        messageStats.finish(span);
+      }
+      DECORATE.beforeFinish(span);
+      span.end();
+    }
   }
 }
@@ -6,6 +6,7 @@ import io.grpc.Server
 import io.grpc.inprocess.InProcessChannelBuilder
 import io.grpc.inprocess.InProcessServerBuilder
 import io.grpc.stub.StreamObserver
+import io.opentelemetry.auto.api.Config
 import io.opentelemetry.auto.api.MoreTags
 import io.opentelemetry.auto.api.SpanTypes
 import io.opentelemetry.auto.instrumentation.api.Tags
@@ -16,68 +17,134 @@ import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicReference
 
+import static io.opentelemetry.auto.test.utils.ConfigUtils.withConfigOverride
+
 class GrpcStreamingTest extends AgentTestRunner {
 
   def "test conversation #name"() {
     setup:
-    def msgCount = serverMessageCount
     def serverReceived = new CopyOnWriteArrayList<>()
     def clientReceived = new CopyOnWriteArrayList<>()
     def error = new AtomicReference()
+    def messageBytes = clientRange.sum { message(it).serializedSize }
+    Server server = startServer(serverMessageCount, serverReceived, error)
+    ManagedChannel channel = InProcessChannelBuilder.forName(getClass().name).build()
 
-    BindableService greeter = new GreeterGrpc.GreeterImplBase() {
-      @Override
-      StreamObserver<Helloworld.Response> conversation(StreamObserver<Helloworld.Response> observer) {
-        return new StreamObserver<Helloworld.Response>() {
-          @Override
-          void onNext(Helloworld.Response value) {
-            serverReceived << value.message
+    when:
+    converse(channel, clientMessageCount, clientReceived, error)
 
-            (1..msgCount).each {
-              observer.onNext(value)
-            }
-          }
+    then:
+    error.get() == null
 
-          @Override
-          void onError(Throwable t) {
-            error.set(t)
-            observer.onError(t)
+    assertTraces(1) {
+      trace(0, 2) {
+        span(0) {
+          operationName "grpc.client"
+          parent()
+          errored false
+          tags {
+            "$MoreTags.RESOURCE_NAME" "example.Greeter/Conversation"
+            "$MoreTags.SPAN_TYPE" SpanTypes.RPC
+            "$Tags.COMPONENT" "grpc-client"
+            "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
+            "status.code" "OK"
+            "message.count" clientMessageCount * serverMessageCount
+            "message.bytes" messageBytes * serverMessageCount
+            if (clientMessageCount * serverMessageCount > 1) {
+              "message.interval.min.nanos" Long
+              "message.interval.max.nanos" Long
+              "message.interval.avg.nanos" Long
+            }
           }
-
-          @Override
-          void onCompleted() {
-            observer.onCompleted()
+        }
+        span(1) {
+          operationName "grpc.server"
+          childOf span(0)
+          errored false
+          tags {
+            "$MoreTags.RESOURCE_NAME" "example.Greeter/Conversation"
+            "$MoreTags.SPAN_TYPE" SpanTypes.RPC
+            "$Tags.COMPONENT" "grpc-server"
+            "$Tags.SPAN_KIND" Tags.SPAN_KIND_SERVER
+            "status.code" "OK"
+            "message.count" clientMessageCount
+            "message.bytes" messageBytes
+            if (clientMessageCount > 1) {
+              "message.interval.min.nanos" Long
+              "message.interval.max.nanos" Long
+              "message.interval.avg.nanos" Long
+            }
           }
         }
       }
     }
-    Server server = InProcessServerBuilder.forName(getClass().name).addService(greeter).directExecutor().build().start()
+    TEST_WRITER.traces[0].every { it.timedEvents.isEmpty() }
 
+    serverReceived == clientRange.collect { "call $it" }
+    clientReceived == serverRange.collect { clientRange.collect { "call $it" } }.flatten().sort()
+
+    cleanup:
+    channel?.shutdownNow()?.awaitTermination(10, TimeUnit.SECONDS)
+    server?.shutdownNow()?.awaitTermination()
+
+    where:
+    name | clientMessageCount | serverMessageCount
+    "A"  | 1                  | 1
+    "B"  | 2                  | 1
+    "C"  | 1                  | 2
+    "D"  | 2                  | 2
+    "E"  | 3                  | 3
+
+    clientRange = 1..clientMessageCount
+    serverRange = 1..serverMessageCount
+  }
+
+  def "test conversation with message events"() {
+    setup:
+    def serverReceived = new CopyOnWriteArrayList<>()
+    def clientReceived = new CopyOnWriteArrayList<>()
+    def error = new AtomicReference()
+    Server server = startServer(1, serverReceived, error)
     ManagedChannel channel = InProcessChannelBuilder.forName(getClass().name).build()
-    GreeterGrpc.GreeterStub client = GreeterGrpc.newStub(channel).withWaitForReady()
 
     when:
-    def observer = client.conversation(new StreamObserver<Helloworld.Response>() {
-      @Override
-      void onNext(Helloworld.Response value) {
-        clientReceived << value.message
+    withConfigOverride(Config.GRPC_MESSAGE_MODE, "events") {
+      withConfigOverride(Config.GRPC_MESSAGE_EVENT_INTERVAL, "2") {
+        converse(channel, 5, clientReceived, error)
+        // the server listener may be created asynchronously and must see the overridden config
+        TEST_WRITER.waitForTraces(1)
       }
+    }
 
-      @Override
-      void onError(Throwable t) {
-        error.set(t)
-      }
+    then:
+    error.get() == null
+    def spans = TEST_WRITER.traces[0]
+    spans.size() == 2
+    spans.every { span ->
+      span.attributes["message.count"].longValue == 5 &&
+        span.timedEvents.collect { it.name } == ["grpc.message"] * 3 &&
+        span.timedEvents.collect { it.attributes["message.sequence"].longValue } == [1L, 3L, 5L]
+    }
 
-      @Override
-      void onCompleted() {
-      }
-    })
+    cleanup:
+    channel?.shutdownNow()?.awaitTermination(10, TimeUnit.SECONDS)
+    server?.shutdownNow()?.awaitTermination()
+  }
 
-    clientRange.each {
-      def message = Helloworld.Response.newBuilder().setMessage("call $it").build()
-      observer.onNext(message)
+  def "test conversation with message spans #name"() {
+    setup:
+    def serverReceived = new CopyOnWriteArrayList<>()
+    def clientReceived = new CopyOnWriteArrayList<>()
+    def error = new AtomicReference()
+    Server server = startServer(serverMessageCount, serverReceived, error)
+    ManagedChannel channel = InProcessChannelBuilder.forName(getClass().name).build()
+
+    when:
+    withConfigOverride(Config.GRPC_MESSAGE_MODE, "spans") {
+      converse(channel, clientMessageCount, clientReceived, error)
+      // the server listener may be created asynchronously and must see the overridden config
+      TEST_WRITER.waitForTraces(1)
     }
-    observer.onCompleted()
 
     then:
     error.get() == null
@@ -171,4 +238,62 @@ class GrpcStreamingTest extends AgentTestRunner {
     clientRange = 1..clientMessageCount
     serverRange = 1..serverMessageCount
   }
+
+  Server startServer(int serverMessageCount, List serverReceived, AtomicReference error) {
+    BindableService greeter = new GreeterGrpc.GreeterImplBase() {
+      @Override
+      StreamObserver<Helloworld.Response> conversation(StreamObserver<Helloworld.Response> observer) {
+        return new StreamObserver<Helloworld.Response>() {
+          @Override
+          void onNext(Helloworld.Response value) {
+            serverReceived << value.message
+
+            (1..serverMessageCount).each {
+              observer.onNext(value)
+            }
+          }
+
+          @Override
+          void onError(Throwable t) {
+            error.set(t)
+            observer.onError(t)
+          }
+
+          @Override
+          void onCompleted() {
+            observer.onCompleted()
+          }
+        }
+      }
+    }
+    return InProcessServerBuilder.forName(getClass().name).addService(greeter).directExecutor().build().start()
+  }
+
+  void converse(ManagedChannel channel, int clientMessageCount, List clientReceived, AtomicReference error) {
+    GreeterGrpc.GreeterStub client = GreeterGrpc.newStub(channel).withWaitForReady()
+    def observer = client.conversation(new StreamObserver<Helloworld.Response>() {
+      @Override
+      void onNext(Helloworld.Response value) {
+        clientReceived << value.message
+      }
+
+      @Override
+      void onError(Throwable t) {
+        error.set(t)
+      }
+
+      @Override
+      void onCompleted() {
+      }
+    })
+
+    (1..clientMessageCount).each {
+      observer.onNext(message(it))
+    }
+    observer.onCompleted()
+  }
+
+  static Helloworld.Response message(int i) {
+    return Helloworld.Response.newBuilder().setMessage("call $i").build()
+  }
 }
@@ -12,7 +12,6 @@ import io.opentelemetry.auto.api.MoreTags
 import io.opentelemetry.auto.api.SpanTypes
 import io.opentelemetry.auto.instrumentation.api.Tags
 import io.opentelemetry.auto.test.AgentTestRunner
-import io.opentelemetry.sdk.trace.SpanData
 
 import java.util.concurrent.TimeUnit
 
@@ -35,28 +34,14 @@ class GrpcTest extends AgentTestRunner {
     GreeterGrpc.GreeterBlockingStub client = GreeterGrpc.newBlockingStub(channel)
 
     when:
-    def response = client.sayHello(Helloworld.Request.newBuilder().setName(name).build())
+    def request = Helloworld.Request.newBuilder().setName(name).build()
+    def response = client.sayHello(request)
 
     then:
     response.message == "Hello $name"
 
     assertTraces(1) {
-      trace(0, 4) {
-        sortSpans {
-          // sort for consistent ordering
-          List<SpanData> serverMessages = new ArrayList<>()
-          for (SpanData span : spans) {
-            if (span.name == "grpc.message" && span.attributes[Tags.COMPONENT].stringValue == "grpc-server") {
-              serverMessages.add(span)
-            }
-            if (span.name == "grpc.server" && span.attributes[Tags.COMPONENT].stringValue == "grpc-server") {
-              serverMessages.add(0, span)
-            }
-          }
-          // move the server messages to the end
-          spans.removeAll(serverMessages)
-          spans.addAll(serverMessages)
-        }
+      trace(0, 2) {
         span(0) {
           operationName "grpc.client"
           parent()
@@ -67,20 +52,11 @@ class GrpcTest extends AgentTestRunner {
             "$Tags.COMPONENT" "grpc-client"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
             "status.code" "OK"
+            "message.count" 1
+            "message.bytes" response.serializedSize
           }
         }
         span(1) {
-          operationName "grpc.message"
-          childOf span(0)
-          errored false
-          tags {
-            "$MoreTags.SPAN_TYPE" SpanTypes.RPC
-            "$Tags.COMPONENT" "grpc-client"
-            "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
-            "message.type" "example.Helloworld\$Response"
-          }
-        }
-        span(2) {
           operationName "grpc.server"
           childOf span(0)
           errored false
@@ -90,17 +66,8 @@ class GrpcTest extends AgentTestRunner {
             "$Tags.COMPONENT" "grpc-server"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_SERVER
             "status.code" "OK"
-          }
-        }
-        span(3) {
-          operationName "grpc.message"
-          childOf span(2)
-          errored false
-          tags {
-            "$MoreTags.SPAN_TYPE" SpanTypes.RPC
-            "$Tags.COMPONENT" "grpc-server"
-            "$Tags.SPAN_KIND" Tags.SPAN_KIND_SERVER
-            "message.type" "example.Helloworld\$Request"
+            "message.count" 1
+            "message.bytes" request.serializedSize
           }
         }
       }
@@ -130,13 +97,14 @@ class GrpcTest extends AgentTestRunner {
     GreeterGrpc.GreeterBlockingStub client = GreeterGrpc.newBlockingStub(channel)
 
     when:
-    client.sayHello(Helloworld.Request.newBuilder().setName(name).build())
+    def request = Helloworld.Request.newBuilder().setName(name).build()
+    client.sayHello(request)
 
     then:
     thrown StatusRuntimeException
 
     assertTraces(1) {
-      trace(0, 3) {
+      trace(0, 2) {
         span(0) {
           operationName "grpc.client"
           parent()
@@ -161,22 +129,13 @@ class GrpcTest extends AgentTestRunner {
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_SERVER
             "status.code" "${status.code.name()}"
             "status.description" description
+            "message.count" 1
+            "message.bytes" request.serializedSize
             if (status.cause != null) {
               errorTags status.cause.class, status.cause.message
             }
           }
         }
-        span(2) {
-          operationName "grpc.message"
-          childOf span(1)
-          errored false
-          tags {
-            "$MoreTags.SPAN_TYPE" SpanTypes.RPC
-            "$Tags.COMPONENT" "grpc-server"
-            "$Tags.SPAN_KIND" Tags.SPAN_KIND_SERVER
-            "message.type" "example.Helloworld\$Request"
-          }
-        }
       }
     }
 
@@ -210,13 +169,14 @@ class GrpcTest extends AgentTestRunner {
     GreeterGrpc.GreeterBlockingStub client = GreeterGrpc.newBlockingStub(channel)
 
     when:
-    client.sayHello(Helloworld.Request.newBuilder().setName(name).build())
+    def request = Helloworld.Request.newBuilder().setName(name).build()
+    client.sayHello(request)
 
     then:
     thrown StatusRuntimeException
 
     assertTraces(1) {
-      trace(0, 3) {
+      trace(0, 2) {
         span(0) {
           operationName "grpc.client"
           parent()
@@ -238,20 +198,11 @@ class GrpcTest extends AgentTestRunner {
             "$MoreTags.SPAN_TYPE" SpanTypes.RPC
             "$Tags.COMPONENT" "grpc-server"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_SERVER
+            "message.count" 1
+            "message.bytes" request.serializedSize
             errorTags error.class, error.message
           }
         }
-        span(2) {
-          operationName "grpc.message"
-          childOf span(1)
-          errored false
-          tags {
-            "$MoreTags.SPAN_TYPE" SpanTypes.RPC
-            "$Tags.COMPONENT" "grpc-server"
-            "$Tags.SPAN_KIND" Tags.SPAN_KIND_SERVER
-            "message.type" "example.Helloworld\$Request"
-          }
-        }
       }
     }
 
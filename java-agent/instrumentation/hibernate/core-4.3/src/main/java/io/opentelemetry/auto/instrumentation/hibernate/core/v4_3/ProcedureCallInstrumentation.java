@@ -38,6 +38,8 @@ public class ProcedureCallInstrumentation extends Instrumenter.Default {
       "io.opentelemetry.auto.instrumentation.hibernate.SessionMethodUtils",
       "io.opentelemetry.auto.instrumentation.hibernate.SessionState",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.DatabaseClientDecorator",
       "io.opentelemetry.auto.decorator.OrmClientDecorator",
@@ -4,7 +4,7 @@ import static io.opentelemetry.auto.instrumentation.api.AgentTracer.activateSpan
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.startSpan;
 import static io.opentelemetry.auto.instrumentation.hibernate.HibernateDecorator.DECORATOR;
 
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.bootstrap.ContextStore;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
@@ -32,7 +32,7 @@ public class SessionMethodUtils {
       return null; // No state found. We aren't in a Session.
     }
 
-    final int depth = CallDepthThreadLocalMap.incrementCallDepth(SessionMethodUtils.class);
+    final int depth = CallDepth.increment(CallDepth.HIBERNATE_SESSION);
     if (depth > 0) {
       return null; // This method call is being traced already.
     }
@@ -62,7 +62,7 @@ public class SessionMethodUtils {
       return;
     }
 
-    CallDepthThreadLocalMap.reset(SessionMethodUtils.class);
+    CallDepth.reset(CallDepth.HIBERNATE_SESSION);
     final AgentScope scope = sessionState.getMethodScope();
     final AgentSpan span = scope.span();
     if (span != null && sessionState.hasChildSpan) {
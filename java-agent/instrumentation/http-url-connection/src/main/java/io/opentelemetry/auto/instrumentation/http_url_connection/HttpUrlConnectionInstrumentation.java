@@ -13,7 +13,7 @@ import static net.bytebuddy.matcher.ElementMatchers.named;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.bootstrap.ContextStore;
 import io.opentelemetry.auto.bootstrap.InstrumentationContext;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
@@ -44,8 +44,12 @@ public class HttpUrlConnectionInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.HttpClientDecorator",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache$Prefix",
       packageName + ".HttpUrlConnectionDecorator",
       packageName + ".HeadersInjectAdapter",
       HttpUrlConnectionInstrumentation.class.getName() + "$HttpUrlState",
@@ -79,7 +83,7 @@ public class HttpUrlConnectionInstrumentation extends Instrumenter.Default {
       final HttpUrlState state = contextStore.putIfAbsent(thiz, HttpUrlState.FACTORY);
 
       synchronized (state) {
-        final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpURLConnection.class);
+        final int callDepth = CallDepth.increment(CallDepth.HTTP_URL_CONNECTION);
         if (callDepth > 0) {
           return null;
         }
@@ -115,7 +119,7 @@ public class HttpUrlConnectionInstrumentation extends Instrumenter.Default {
         }
       }
 
-      CallDepthThreadLocalMap.reset(HttpURLConnection.class);
+      CallDepth.reset(CallDepth.HTTP_URL_CONNECTION);
     }
   }
 
@@ -39,6 +39,8 @@ public class HystrixInstrumentation extends Instrumenter.Default {
     return new String[] {
       "rx.__OpenTelemetryTracingUtil",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.instrumentation.rxjava.SpanFinishingSubscription",
       "io.opentelemetry.auto.instrumentation.rxjava.TracedSubscriber",
       "io.opentelemetry.auto.instrumentation.rxjava.TracedOnSubscribe",
@@ -32,14 +32,14 @@ class SlickTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" SlickUtils.Driver()
-            "$MoreTags.RESOURCE_NAME" SlickUtils.TestQuery()
+            "$MoreTags.RESOURCE_NAME" "SELECT ?"
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-prepared_statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
             "$Tags.DB_TYPE" SlickUtils.Driver()
             "$Tags.DB_INSTANCE" SlickUtils.Db()
             "$Tags.DB_USER" SlickUtils.Username()
-            "$Tags.DB_STATEMENT" SlickUtils.TestQuery()
+            "$Tags.DB_STATEMENT" "SELECT ?"
             "span.origin.type" "org.h2.jdbc.JdbcPreparedStatement"
           }
         }
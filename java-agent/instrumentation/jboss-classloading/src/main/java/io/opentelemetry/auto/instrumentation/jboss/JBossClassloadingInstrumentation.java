@@ -19,6 +19,12 @@ public final class JBossClassloadingInstrumentation extends Instrumenter.Default
     super("jboss-classloading");
   }
 
+  // Makes agent classes visible to the classloader, which must happen even while dormant.
+  @Override
+  protected boolean suspendWhenDormant() {
+    return false;
+  }
+
   @Override
   public ElementMatcher<TypeDescription> typeMatcher() {
     return named("org.jboss.modules.Module");
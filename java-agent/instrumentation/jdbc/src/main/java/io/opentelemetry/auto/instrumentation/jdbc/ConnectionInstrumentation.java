@@ -34,6 +34,8 @@ public final class ConnectionInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       packageName + ".JDBCMaps",
+      packageName + ".JDBCSqlNormalizer",
+      packageName + ".JDBCSqlNormalizer$Entry",
     };
   }
 
@@ -51,7 +53,7 @@ public final class ConnectionInstrumentation extends Instrumenter.Default {
     @Advice.OnMethodExit(suppress = Throwable.class)
     public static void addDBInfo(
         @Advice.Argument(0) final String sql, @Advice.Return final PreparedStatement statement) {
-      JDBCMaps.preparedStatements.put(statement, sql);
+      JDBCMaps.preparedStatements.put(statement, JDBCSqlNormalizer.normalize(sql));
     }
   }
 }
@@ -55,6 +55,9 @@ public class JDBCDecorator extends DatabaseClientDecorator<DBInfo> {
   }
 
   public AgentSpan onConnection(final AgentSpan span, final Connection connection) {
+    if (!span.isRecording()) {
+      return span;
+    }
     DBInfo dbInfo = JDBCMaps.connectionInfo.get(connection);
     /**
      * Logic to get the DBInfo from a JDBC Connection, if the connection was not created via
@@ -94,13 +97,21 @@ public class JDBCDecorator extends DatabaseClientDecorator<DBInfo> {
 
   @Override
   public AgentSpan onStatement(final AgentSpan span, final String statement) {
-    final String resourceName = statement == null ? DB_QUERY : statement;
+    if (!span.isRecording()) {
+      return span;
+    }
+    final String sql = JDBCSqlNormalizer.normalize(statement);
+    final String resourceName = sql == null ? DB_QUERY : sql;
     span.setAttribute(MoreTags.RESOURCE_NAME, resourceName);
     span.setAttribute(Tags.COMPONENT, "java-jdbc-statement");
-    return super.onStatement(span, statement);
+    return super.onStatement(span, sql);
   }
 
   public AgentSpan onPreparedStatement(final AgentSpan span, final PreparedStatement statement) {
+    if (!span.isRecording()) {
+      return span;
+    }
+    // Normalized when the statement was prepared.
     final String sql = JDBCMaps.preparedStatements.get(statement);
     final String resourceName = sql == null ? DB_QUERY : sql;
     span.setAttribute(MoreTags.RESOURCE_NAME, resourceName);
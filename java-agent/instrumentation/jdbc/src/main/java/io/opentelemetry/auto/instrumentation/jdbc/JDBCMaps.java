@@ -13,5 +13,6 @@ import java.sql.PreparedStatement;
  */
 public class JDBCMaps {
   public static final WeakMap<Connection, DBInfo> connectionInfo = newWeakMap();
+  /** Normalized SQL of each prepared statement, shared through {@link JDBCSqlNormalizer}. */
   public static final WeakMap<PreparedStatement, String> preparedStatements = newWeakMap();
 }
@@ -0,0 +1,225 @@
+package io.opentelemetry.auto.instrumentation.jdbc;
+
+import io.opentelemetry.auto.api.Config;
+
+/**
+ * Replaces the string and numeric literals of a SQL statement with {@code ?}, so that statements
+ * with inlined values share one normalized form and values do not leak into spans.
+ *
+ * <p>Statements are normalized in a single pass. Quoted identifiers, comments and existing bind
+ * markers are kept as they are, while PostgreSQL dollar-quoted strings ({@code $$...$$} or {@code
+ * $tag$...$tag$}) are replaced like other string literals.
+ *
+ * <p>Double quotes delimit identifiers in standard SQL, but strings in MySQL's default mode, where
+ * {@code "..."} values would otherwise end up in {@code db.statement}. Setting {@link
+ * Config#JDBC_DOUBLE_QUOTED_STRINGS} replaces them like other string literals.
+ *
+ * <p>Normalized forms are kept in a direct-mapped cache, so a statement that is executed
+ * repeatedly is normalized once and all prepared statements for the same SQL share one string. A
+ * second direct-mapped table keyed by the normalized text interns the results, so statements that
+ * only differ in their literals (e.g. {@code id = 1} and {@code id = 2}) share one string too. The
+ * entries are immutable, so threads racing on a slot at worst normalize a statement again.
+ */
+public final class JDBCSqlNormalizer {
+  // Must be a power of two.
+  private static final int CACHE_SIZE = 1024;
+  /** Longer statements are still normalized, but not cached. */
+  private static final int MAX_CACHED_LENGTH = 8 * 1024;
+
+  private static final Entry[] CACHE = new Entry[CACHE_SIZE];
+  private static final String[] INTERNED = new String[CACHE_SIZE];
+
+  /** @return the normalized statement, or null if {@code sql} is null */
+  public static String normalize(final String sql) {
+    if (sql == null) {
+      return null;
+    }
+    final boolean doubleQuotedStrings = Config.get().isJdbcDoubleQuotedStrings();
+    if (sql.length() > MAX_CACHED_LENGTH) {
+      return normalizeUncached(sql, doubleQuotedStrings);
+    }
+    final int slot = slot(sql);
+    final Entry cached = CACHE[slot];
+    if (cached != null
+        && cached.doubleQuotedStrings == doubleQuotedStrings
+        && sql.equals(cached.sql)) {
+      return cached.normalized;
+    }
+    final Entry entry =
+        new Entry(sql, intern(normalizeUncached(sql, doubleQuotedStrings)), doubleQuotedStrings);
+    CACHE[slot] = entry;
+    return entry.normalized;
+  }
+
+  private static String intern(final String normalized) {
+    final int slot = slot(normalized);
+    final String interned = INTERNED[slot];
+    if (normalized.equals(interned)) {
+      return interned;
+    }
+    INTERNED[slot] = normalized;
+    return normalized;
+  }
+
+  private static int slot(final String text) {
+    final int hash = text.hashCode();
+    return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+  }
+
+  static String normalizeUncached(final String sql, final boolean doubleQuotedStrings) {
+    final int length = sql.length();
+    StringBuilder normalized = null;
+    // Start of the input not yet copied to normalized.
+    int copied = 0;
+    int i = 0;
+    while (i < length) {
+      final char c = sql.charAt(i);
+      final int end;
+      if (c == '\'' || (c == '"' && doubleQuotedStrings)) {
+        end = skipQuoted(sql, i, c);
+      } else if (c == '"' || c == '`') {
+        i = skipQuoted(sql, i, c);
+        continue;
+      } else if (c == '$' && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+        final int tagEnd = dollarQuoteTagEnd(sql, i);
+        if (tagEnd < 0) {
+          // A bind marker such as $1 or an identifier.
+          i = skipIdentifier(sql, i);
+          continue;
+        }
+        end = skipUntil(sql, tagEnd, sql.substring(i, tagEnd));
+      } else if (c == '-' && sql.startsWith("--", i)) {
+        i = skipUntil(sql, i + 2, "\n");
+        continue;
+      } else if (c == '/' && sql.startsWith("/*", i)) {
+        i = skipUntil(sql, i + 2, "*/");
+        continue;
+      } else if (isIdentifierPart(c)) {
+        if (isNumberStart(sql, i)) {
+          end = skipNumber(sql, i);
+        } else {
+          i = skipIdentifier(sql, i);
+          continue;
+        }
+      } else if (c == '.' && i + 1 < length && isDigit(sql.charAt(i + 1))) {
+        end = skipNumber(sql, i);
+      } else {
+        i++;
+        continue;
+      }
+
+      // Replace the literal between i and end.
+      if (normalized == null) {
+        normalized = new StringBuilder(length);
+      }
+      normalized.append(sql, copied, i).append('?');
+      copied = end;
+      i = end;
+    }
+    if (normalized == null) {
+      return sql;
+    }
+    return normalized.append(sql, copied, length).toString();
+  }
+
+  /** @return the index after the closing quote, which is doubled to escape it */
+  private static int skipQuoted(final String sql, final int start, final char quote) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == quote) {
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return sql.length();
+  }
+
+  /**
+   * @return the index after the opening {@code $tag$} of a dollar-quoted string at {@code start},
+   *     or {@code -1} if there is none
+   */
+  private static int dollarQuoteTagEnd(final String sql, final int start) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      final char c = sql.charAt(i);
+      if (c == '$') {
+        return i + 1;
+      }
+      // Like identifiers, tags can not start with a digit.
+      if (!(Character.isLetter(c) || c == '_' || (i > start + 1 && isDigit(c)))) {
+        return -1;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  private static int skipUntil(final String sql, final int start, final String terminator) {
+    final int index = sql.indexOf(terminator, start);
+    return index < 0 ? sql.length() : index + terminator.length();
+  }
+
+  private static int skipIdentifier(final String sql, final int start) {
+    int i = start + 1;
+    while (i < sql.length() && isIdentifierPart(sql.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  /** Hex literals ({@code 0x1F}), integers and decimals with an optional exponent. */
+  private static int skipNumber(final String sql, final int start) {
+    final int length = sql.length();
+    int i = start;
+    if (sql.startsWith("0x", i) || sql.startsWith("0X", i)) {
+      return skipIdentifier(sql, i + 1);
+    }
+    while (i < length && (isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+      i++;
+    }
+    if (i < length && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+      int exponent = i + 1;
+      if (exponent < length && (sql.charAt(exponent) == '+' || sql.charAt(exponent) == '-')) {
+        exponent++;
+      }
+      if (exponent < length && isDigit(sql.charAt(exponent))) {
+        i = exponent;
+        while (i < length && isDigit(sql.charAt(i))) {
+          i++;
+        }
+      }
+    }
+    return i;
+  }
+
+  /** A digit starts a number unless it is part of an identifier such as {@code id1_0_}. */
+  private static boolean isNumberStart(final String sql, final int i) {
+    return isDigit(sql.charAt(i)) && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)));
+  }
+
+  private static boolean isIdentifierPart(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '@';
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private JDBCSqlNormalizer() {}
+
+  private static final class Entry {
+    private final String sql;
+    private final String normalized;
+    private final boolean doubleQuotedStrings;
+
+    Entry(final String sql, final String normalized, final boolean doubleQuotedStrings) {
+      this.sql = sql;
+      this.normalized = normalized;
+      this.doubleQuotedStrings = doubleQuotedStrings;
+    }
+  }
+}
@@ -14,7 +14,7 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
 import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
 
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.tooling.Instrumenter;
@@ -42,15 +42,19 @@ public final class PreparedStatementInstrumentation extends Instrumenter.Default
 
   @Override
   public String[] helperClassNames() {
-    final List<String> helpers = new ArrayList<>(JDBCConnectionUrlParser.values().length + 9);
+    final List<String> helpers = new ArrayList<>(JDBCConnectionUrlParser.values().length + 11);
 
     helpers.add(packageName + ".DBInfo");
     helpers.add(packageName + ".DBInfo$Builder");
     helpers.add(packageName + ".JDBCUtils");
     helpers.add(packageName + ".JDBCMaps");
+    helpers.add(packageName + ".JDBCSqlNormalizer");
+    helpers.add(packageName + ".JDBCSqlNormalizer$Entry");
     helpers.add(packageName + ".JDBCConnectionUrlParser");
 
     helpers.add("io.opentelemetry.auto.decorator.BaseDecorator");
+    helpers.add("io.opentelemetry.auto.decorator.StackTraceRenderer");
+    helpers.add("io.opentelemetry.auto.decorator.StackTraceRenderer$Frames");
     helpers.add("io.opentelemetry.auto.decorator.ClientDecorator");
     helpers.add("io.opentelemetry.auto.decorator.DatabaseClientDecorator");
     helpers.add(packageName + ".JDBCDecorator");
@@ -72,7 +76,7 @@ public final class PreparedStatementInstrumentation extends Instrumenter.Default
 
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static AgentScope onEnter(@Advice.This final PreparedStatement statement) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(PreparedStatement.class);
+      final int callDepth = CallDepth.increment(CallDepth.JDBC_PREPARED_STATEMENT);
       if (callDepth > 0) {
         return null;
       }
@@ -99,7 +103,7 @@ public final class PreparedStatementInstrumentation extends Instrumenter.Default
       DECORATE.onError(scope.span(), throwable);
       DECORATE.beforeFinish(scope.span());
       scope.close();
-      CallDepthThreadLocalMap.reset(PreparedStatement.class);
+      CallDepth.reset(CallDepth.JDBC_PREPARED_STATEMENT);
     }
   }
 }
@@ -182,7 +182,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" renameService ? dbName.toLowerCase() : driver
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
@@ -191,7 +191,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             if (username != null) {
               "$Tags.DB_USER" username
             }
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -242,7 +242,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" driver
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-prepared_statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
@@ -251,7 +251,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             if (username != null) {
               "$Tags.DB_USER" username
             }
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -294,7 +294,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" driver
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-prepared_statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
@@ -303,7 +303,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             if (username != null) {
               "$Tags.DB_USER" username
             }
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -346,7 +346,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" driver
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-prepared_statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
@@ -355,7 +355,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             if (username != null) {
               "$Tags.DB_USER" username
             }
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -398,7 +398,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" driver
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
@@ -407,7 +407,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             if (username != null) {
               "$Tags.DB_USER" username
             }
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -453,7 +453,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" driver
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-prepared_statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
@@ -462,7 +462,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             if (username != null) {
               "$Tags.DB_USER" username
             }
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -520,7 +520,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" driver
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             if (prepareStatement) {
               "$Tags.COMPONENT" "java-jdbc-prepared_statement"
@@ -533,7 +533,7 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             if (username != null) {
               "$Tags.DB_USER" username
             }
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -635,12 +635,12 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" database
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" "testing ?"
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
             "$Tags.DB_TYPE" database
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" "testing ?"
             "span.origin.type" TestStatement.name
           }
         }
@@ -699,14 +699,14 @@ class JDBCInstrumentationTest extends AgentTestRunner {
           errored false
           tags {
             "$MoreTags.SERVICE_NAME" dbType
-            "$MoreTags.RESOURCE_NAME" query
+            "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
             "$MoreTags.SPAN_TYPE" SpanTypes.SQL
             "$Tags.COMPONENT" "java-jdbc-prepared_statement"
             "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
             "$Tags.DB_TYPE" dbType
             "$Tags.DB_INSTANCE" dbName.toLowerCase()
             "$Tags.DB_USER" "SA"
-            "$Tags.DB_STATEMENT" query
+            "$Tags.DB_STATEMENT" query.replace("3", "?")
             "span.origin.type" String
           }
         }
@@ -718,14 +718,14 @@ class JDBCInstrumentationTest extends AgentTestRunner {
             errored false
             tags {
               "$MoreTags.SERVICE_NAME" dbType
-              "$MoreTags.RESOURCE_NAME" query
+              "$MoreTags.RESOURCE_NAME" query.replace("3", "?")
               "$MoreTags.SPAN_TYPE" SpanTypes.SQL
               "$Tags.COMPONENT" "java-jdbc-prepared_statement"
               "$Tags.SPAN_KIND" Tags.SPAN_KIND_CLIENT
               "$Tags.DB_TYPE" dbType
               "$Tags.DB_INSTANCE" dbName.toLowerCase()
               "$Tags.DB_USER" "SA"
-              "$Tags.DB_STATEMENT" query
+              "$Tags.DB_STATEMENT" query.replace("3", "?")
               "span.origin.type" String
             }
           }
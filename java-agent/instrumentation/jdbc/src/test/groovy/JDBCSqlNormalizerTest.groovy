@@ -0,0 +1,57 @@
+import io.opentelemetry.auto.api.Config
+import io.opentelemetry.auto.instrumentation.jdbc.JDBCSqlNormalizer
+import io.opentelemetry.auto.util.test.AgentSpecification
+import spock.lang.Unroll
+
+import static io.opentelemetry.auto.test.utils.ConfigUtils.withConfigOverride
+
+class JDBCSqlNormalizerTest extends AgentSpecification {
+
+  @Unroll
+  def "normalize #sql"() {
+    expect:
+    JDBCSqlNormalizer.normalize(sql) == normalized
+
+    where:
+    sql                                                            | normalized
+    null                                                           | null
+    "SELECT 3"                                                     | "SELECT ?"
+    "SELECT * FROM users WHERE id = 42 AND name = 'bob'"           | "SELECT * FROM users WHERE id = ? AND name = ?"
+    "SELECT * FROM users WHERE name = 'o''brien' AND id = ?"       | "SELECT * FROM users WHERE name = ? AND id = ?"
+    "SELECT a FROM t WHERE x IN (1, 2.5, -3, .5e-10, 0x1F)"        | "SELECT a FROM t WHERE x IN (?, ?, -?, ?, ?)"
+    "select t1.id as id1_0_ from table2 t1"                        | "select t1.id as id1_0_ from table2 t1"
+    "SELECT \"col 1\", `col 2` FROM t"                             | "SELECT \"col 1\", `col 2` FROM t"
+    "SELECT /* 1 'a' */ 1 -- 'b' 2\nFROM t"                        | "SELECT /* 1 'a' */ ? -- 'b' 2\nFROM t"
+    "INSERT INTO t VALUES ('unterminated"                          | "INSERT INTO t VALUES (?"
+    "call next value for hibernate_sequence"                       | "call next value for hibernate_sequence"
+    "SELECT \$\$it's 1\$\$, 2"                                     | "SELECT ?, ?"
+    "SELECT \$tag\$a \$\$ b\$tag\$ FROM t"                         | "SELECT ? FROM t"
+    "SELECT * FROM t WHERE id = \$1 AND a\$b = 2"                  | "SELECT * FROM t WHERE id = \$1 AND a\$b = ?"
+  }
+
+  def "identical statements share the normalized string"() {
+    setup:
+    def first = new String("SELECT * FROM users WHERE id = 42")
+    def second = new String("SELECT * FROM users WHERE id = 42")
+
+    expect:
+    JDBCSqlNormalizer.normalize(first).is(JDBCSqlNormalizer.normalize(second))
+  }
+
+  def "statements differing in their literals share the normalized string"() {
+    expect:
+    JDBCSqlNormalizer.normalize("SELECT * FROM users WHERE id = 1")
+      .is(JDBCSqlNormalizer.normalize("SELECT * FROM users WHERE id = 2"))
+  }
+
+  def "double quoted strings are replaced when configured"() {
+    setup:
+    def sql = "SELECT * FROM users WHERE name = \"bob\" AND `id` = 1"
+
+    expect:
+    JDBCSqlNormalizer.normalize(sql) == "SELECT * FROM users WHERE name = \"bob\" AND `id` = ?"
+    withConfigOverride(Config.JDBC_DOUBLE_QUOTED_STRINGS, "true") {
+      JDBCSqlNormalizer.normalize(sql)
+    } == "SELECT * FROM users WHERE name = ? AND `id` = ?"
+  }
+}
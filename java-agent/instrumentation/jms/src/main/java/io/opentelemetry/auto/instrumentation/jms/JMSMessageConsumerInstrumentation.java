@@ -44,6 +44,8 @@ public final class JMSMessageConsumerInstrumentation extends Instrumenter.Defaul
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       packageName + ".JMSDecorator",
       packageName + ".JMSDecorator$1",
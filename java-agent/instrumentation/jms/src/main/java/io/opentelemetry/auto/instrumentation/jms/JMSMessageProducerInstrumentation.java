@@ -13,7 +13,7 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
 import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
 
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.tooling.Instrumenter;
@@ -44,6 +44,8 @@ public final class JMSMessageProducerInstrumentation extends Instrumenter.Defaul
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       packageName + ".JMSDecorator",
       packageName + ".JMSDecorator$1",
@@ -73,7 +75,7 @@ public final class JMSMessageProducerInstrumentation extends Instrumenter.Defaul
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static AgentScope onEnter(
         @Advice.Argument(0) final Message message, @Advice.This final MessageProducer producer) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(MessageProducer.class);
+      final int callDepth = CallDepth.increment(CallDepth.JMS_MESSAGE_PRODUCER);
       if (callDepth > 0) {
         return null;
       }
@@ -104,7 +106,7 @@ public final class JMSMessageProducerInstrumentation extends Instrumenter.Defaul
       PRODUCER_DECORATE.onError(scope, throwable);
       PRODUCER_DECORATE.beforeFinish(scope);
       scope.close();
-      CallDepthThreadLocalMap.reset(MessageProducer.class);
+      CallDepth.reset(CallDepth.JMS_MESSAGE_PRODUCER);
     }
   }
 
@@ -115,7 +117,7 @@ public final class JMSMessageProducerInstrumentation extends Instrumenter.Defaul
         @Advice.Argument(0) final Destination destination,
         @Advice.Argument(1) final Message message,
         @Advice.This final MessageProducer producer) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(MessageProducer.class);
+      final int callDepth = CallDepth.increment(CallDepth.JMS_MESSAGE_PRODUCER);
       if (callDepth > 0) {
         return null;
       }
@@ -139,7 +141,7 @@ public final class JMSMessageProducerInstrumentation extends Instrumenter.Defaul
       PRODUCER_DECORATE.onError(scope, throwable);
       PRODUCER_DECORATE.beforeFinish(scope);
       scope.close();
-      CallDepthThreadLocalMap.reset(MessageProducer.class);
+      CallDepth.reset(CallDepth.JMS_MESSAGE_PRODUCER);
     }
   }
 }
@@ -34,7 +34,10 @@ public final class JasperJSPCompilationContextInstrumentation extends Instrument
   @Override
   public String[] helperClassNames() {
     return new String[] {
-      "io.opentelemetry.auto.decorator.BaseDecorator", packageName + ".JSPDecorator",
+      "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
+      packageName + ".JSPDecorator",
     };
   }
 
@@ -9,7 +9,9 @@ import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
 import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
 
 import com.google.auto.service.AutoService;
+import io.opentelemetry.auto.bootstrap.InstrumentationContext;
 import io.opentelemetry.auto.tooling.Instrumenter;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -19,6 +21,8 @@ import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 
 @AutoService(Instrumenter.class)
 public final class KafkaConsumerInstrumentation extends Instrumenter.Default {
@@ -36,17 +40,28 @@ public final class KafkaConsumerInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       packageName + ".KafkaDecorator",
       packageName + ".KafkaDecorator$1",
       packageName + ".KafkaDecorator$2",
+      packageName + ".KafkaDecorator$BatchStats",
       packageName + ".TextMapExtractAdapter",
+      packageName + ".TracingBatchIterator",
       packageName + ".TracingIterable",
       packageName + ".TracingIterator",
       packageName + ".TracingList",
     };
   }
 
+  @Override
+  public Map<String, String> contextStore() {
+    // Records polled by a consumer in batch mode are marked with its group.
+    return Collections.singletonMap(
+        "org.apache.kafka.clients.consumer.ConsumerRecords", String.class.getName());
+  }
+
   @Override
   public Map<? extends ElementMatcher<? super MethodDescription>, String> transformers() {
     final Map<ElementMatcher<? super MethodDescription>, String> transformers = new HashMap<>();
@@ -77,9 +92,13 @@ public final class KafkaConsumerInstrumentation extends Instrumenter.Default {
   public static class IterableAdvice {
 
     @Advice.OnMethodExit(suppress = Throwable.class)
-    public static void wrap(@Advice.Return(readOnly = false) Iterable<ConsumerRecord> iterable) {
+    public static void wrap(
+        @Advice.This final ConsumerRecords records,
+        @Advice.Return(readOnly = false) Iterable<ConsumerRecord> iterable) {
       if (iterable != null) {
-        iterable = new TracingIterable(iterable, "kafka.consume", CONSUMER_DECORATE);
+        final boolean batch =
+            InstrumentationContext.get(ConsumerRecords.class, String.class).get(records) != null;
+        iterable = new TracingIterable(iterable, "kafka.consume", CONSUMER_DECORATE, batch);
       }
     }
   }
@@ -87,9 +106,13 @@ public final class KafkaConsumerInstrumentation extends Instrumenter.Default {
   public static class ListAdvice {
 
     @Advice.OnMethodExit(suppress = Throwable.class)
-    public static void wrap(@Advice.Return(readOnly = false) List<ConsumerRecord> iterable) {
+    public static void wrap(
+        @Advice.This final ConsumerRecords records,
+        @Advice.Return(readOnly = false) List<ConsumerRecord> iterable) {
       if (iterable != null) {
-        iterable = new TracingList(iterable, "kafka.consume", CONSUMER_DECORATE);
+        final boolean batch =
+            InstrumentationContext.get(ConsumerRecords.class, String.class).get(records) != null;
+        iterable = new TracingList(iterable, "kafka.consume", CONSUMER_DECORATE, batch);
       }
     }
   }
@@ -97,8 +120,19 @@ public final class KafkaConsumerInstrumentation extends Instrumenter.Default {
   public static class IteratorAdvice {
 
     @Advice.OnMethodExit(suppress = Throwable.class)
-    public static void wrap(@Advice.Return(readOnly = false) Iterator<ConsumerRecord> iterator) {
-      if (iterator != null) {
+    public static void wrap(
+        @Advice.This final ConsumerRecords records,
+        @Advice.FieldValue("records") final Map<TopicPartition, List<ConsumerRecord>> partitions,
+        @Advice.Return(readOnly = false) Iterator<ConsumerRecord> iterator) {
+      if (iterator == null) {
+        return;
+      }
+      if (InstrumentationContext.get(ConsumerRecords.class, String.class).get(records) != null) {
+        // Scan the partitions directly, since iterator() of the records is traced.
+        iterator =
+            new TracingBatchIterator(
+                iterator, partitions.values(), "kafka.consume", CONSUMER_DECORATE);
+      } else {
         iterator = new TracingIterator(iterator, "kafka.consume", CONSUMER_DECORATE);
       }
     }
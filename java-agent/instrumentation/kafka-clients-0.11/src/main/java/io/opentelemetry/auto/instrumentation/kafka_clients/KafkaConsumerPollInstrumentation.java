@@ -0,0 +1,129 @@
+package io.opentelemetry.auto.instrumentation.kafka_clients;
+
+import static net.bytebuddy.matcher.ElementMatchers.isConstructor;
+import static net.bytebuddy.matcher.ElementMatchers.isMethod;
+import static net.bytebuddy.matcher.ElementMatchers.isPublic;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.returns;
+import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
+
+import com.google.auto.service.AutoService;
+import io.opentelemetry.auto.bootstrap.InstrumentationContext;
+import io.opentelemetry.auto.tooling.Instrumenter;
+import java.util.HashMap;
+import java.util.Map;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+
+/**
+ * Marks the records polled by consumers of the groups in {@link
+ * io.opentelemetry.auto.api.Config#KAFKA_CONSUMER_BATCH_GROUPS}, so that they are traced with one
+ * span per poll, and ends a batch span left open by early termination of the iteration when the
+ * consumer polls, commits or is closed.
+ */
+@AutoService(Instrumenter.class)
+public final class KafkaConsumerPollInstrumentation extends Instrumenter.Default {
+
+  public KafkaConsumerPollInstrumentation() {
+    super("kafka");
+  }
+
+  @Override
+  public ElementMatcher<TypeDescription> typeMatcher() {
+    return named("org.apache.kafka.clients.consumer.KafkaConsumer");
+  }
+
+  @Override
+  public String[] helperClassNames() {
+    return new String[] {
+      "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
+      "io.opentelemetry.auto.decorator.ClientDecorator",
+      packageName + ".KafkaDecorator",
+      packageName + ".KafkaDecorator$1",
+      packageName + ".KafkaDecorator$2",
+      packageName + ".KafkaDecorator$BatchStats",
+      packageName + ".TextMapExtractAdapter",
+      packageName + ".TracingBatchIterator",
+    };
+  }
+
+  @Override
+  public Map<String, String> contextStore() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("org.apache.kafka.clients.consumer.KafkaConsumer", String.class.getName());
+    map.put("org.apache.kafka.clients.consumer.ConsumerRecords", String.class.getName());
+    return map;
+  }
+
+  @Override
+  public Map<? extends ElementMatcher<? super MethodDescription>, String> transformers() {
+    final Map<ElementMatcher<? super MethodDescription>, String> transformers = new HashMap<>();
+    transformers.put(
+        isConstructor()
+            .and(takesArgument(0, named("org.apache.kafka.clients.consumer.ConsumerConfig"))),
+        KafkaConsumerPollInstrumentation.class.getName() + "$ConstructorAdvice");
+    transformers.put(
+        isMethod()
+            .and(isPublic())
+            .and(named("poll"))
+            .and(returns(named("org.apache.kafka.clients.consumer.ConsumerRecords"))),
+        KafkaConsumerPollInstrumentation.class.getName() + "$PollAdvice");
+    transformers.put(
+        isMethod()
+            .and(isPublic())
+            .and(named("commitSync").or(named("commitAsync")).or(named("close"))),
+        KafkaConsumerPollInstrumentation.class.getName() + "$FinishBatchAdvice");
+    return transformers;
+  }
+
+  public static class ConstructorAdvice {
+
+    @Advice.OnMethodExit(suppress = Throwable.class)
+    public static void captureGroup(
+        @Advice.This final KafkaConsumer consumer,
+        @Advice.Argument(0) final ConsumerConfig config) {
+      final String group = config.getString(ConsumerConfig.GROUP_ID_CONFIG);
+      if (group != null) {
+        InstrumentationContext.get(KafkaConsumer.class, String.class).put(consumer, group);
+      }
+    }
+  }
+
+  public static class PollAdvice {
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    public static void finishPreviousBatch() {
+      TracingBatchIterator.finishOpenBatch();
+    }
+
+    @Advice.OnMethodExit(suppress = Throwable.class)
+    public static void markBatch(
+        @Advice.This final KafkaConsumer consumer,
+        @Advice.Return final ConsumerRecords records) {
+      if (records == null || records.isEmpty()) {
+        return;
+      }
+      final String group =
+          InstrumentationContext.get(KafkaConsumer.class, String.class).get(consumer);
+      if (KafkaDecorator.isBatchGroup(group)) {
+        InstrumentationContext.get(ConsumerRecords.class, String.class)
+            .put(records, group == null ? "" : group);
+      }
+    }
+  }
+
+  public static class FinishBatchAdvice {
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    public static void finishBatch() {
+      TracingBatchIterator.finishOpenBatch();
+    }
+  }
+}
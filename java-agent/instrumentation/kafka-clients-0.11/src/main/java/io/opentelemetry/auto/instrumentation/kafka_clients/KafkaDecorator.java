@@ -1,14 +1,27 @@
 package io.opentelemetry.auto.instrumentation.kafka_clients;
 
+import io.opentelemetry.OpenTelemetry;
+import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.api.MoreTags;
 import io.opentelemetry.auto.api.SpanTypes;
 import io.opentelemetry.auto.decorator.ClientDecorator;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.Tags;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.Tracer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
 
 public abstract class KafkaDecorator extends ClientDecorator {
+  public static final Tracer TRACER = OpenTelemetry.getTracerFactory().get("io.opentelemetry.auto");
+
+  /** Matches every consumer group in {@link Config#KAFKA_CONSUMER_BATCH_GROUPS}. */
+  public static final String ALL_GROUPS = "*";
+
   public static final KafkaDecorator PRODUCER_DECORATE =
       new KafkaDecorator() {
         @Override
@@ -62,6 +75,39 @@ public abstract class KafkaDecorator extends ClientDecorator {
     }
   }
 
+  public void onConsumeBatch(final Span span, final BatchStats stats) {
+    stats.flushRun();
+    if (stats.topics.size() == 1) {
+      span.setAttribute(MoreTags.RESOURCE_NAME, "Consume Topic " + stats.topics.first());
+    } else {
+      final StringBuilder resourceName = new StringBuilder("Consume Topics ");
+      boolean first = true;
+      for (final String topic : stats.topics) {
+        if (!first) {
+          resourceName.append(", ");
+        }
+        first = false;
+        resourceName.append(topic);
+      }
+      span.setAttribute(MoreTags.RESOURCE_NAME, resourceName.toString());
+    }
+    span.setAttribute("kafka.record.count", stats.count);
+    span.setAttribute("kafka.record.bytes", stats.bytes);
+    if (stats.lagCount > 0) {
+      span.setAttribute("kafka.record.lag.max.ms", stats.maxLag);
+      span.setAttribute("kafka.record.lag.avg.ms", stats.totalLag / stats.lagCount);
+    }
+    for (final Map.Entry<String, Long> partition : stats.partitionCounts.entrySet()) {
+      span.setAttribute("kafka.partition." + partition.getKey() + ".count", partition.getValue());
+    }
+  }
+
+  /** @return whether the records polled by a consumer of the group get one span per poll */
+  public static boolean isBatchGroup(final String group) {
+    final List<String> groups = Config.get().getKafkaConsumerBatchGroups();
+    return groups.contains(ALL_GROUPS) || (group != null && groups.contains(group));
+  }
+
   public void onProduce(final AgentSpan span, final ProducerRecord record) {
     if (record != null) {
 
@@ -73,4 +119,53 @@ public abstract class KafkaDecorator extends ClientDecorator {
       span.setAttribute(MoreTags.RESOURCE_NAME, "Produce Topic " + topic);
     }
   }
+
+  /** Totals of the records returned by one poll. */
+  public static final class BatchStats {
+    private final long now = System.currentTimeMillis();
+    private final TreeSet<String> topics = new TreeSet<>();
+    /** Record counts keyed by {@code <topic>-<partition>}, in poll order. */
+    private final Map<String, Long> partitionCounts = new LinkedHashMap<>();
+
+    long count;
+    private long bytes;
+    private long maxLag;
+    private long totalLag;
+    private long lagCount;
+
+    // Records are grouped by partition, so counts are kept for the current run of records.
+    private String runTopic;
+    private int runPartition;
+    private long runCount;
+
+    public void add(final ConsumerRecord record) {
+      if (runCount == 0
+          || record.partition() != runPartition
+          || !record.topic().equals(runTopic)) {
+        flushRun();
+        runTopic = record.topic();
+        runPartition = record.partition();
+        topics.add(runTopic);
+      }
+      runCount++;
+      count++;
+
+      bytes += Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+      if (record.timestamp() >= 0) {
+        final long lag = Math.max(0, now - record.timestamp());
+        maxLag = Math.max(maxLag, lag);
+        totalLag += lag;
+        lagCount++;
+      }
+    }
+
+    private void flushRun() {
+      if (runCount > 0) {
+        final String key = runTopic + "-" + runPartition;
+        final Long previous = partitionCounts.get(key);
+        partitionCounts.put(key, previous == null ? runCount : previous + runCount);
+        runCount = 0;
+      }
+    }
+  }
 }
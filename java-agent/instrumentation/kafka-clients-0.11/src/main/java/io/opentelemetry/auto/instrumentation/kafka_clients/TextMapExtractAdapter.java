@@ -1,13 +1,15 @@
 package io.opentelemetry.auto.instrumentation.kafka_clients;
 
 import io.opentelemetry.auto.instrumentation.api.AgentPropagation;
+import io.opentelemetry.context.propagation.HttpTextFormat;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 
-public class TextMapExtractAdapter implements AgentPropagation.Getter<Headers> {
+public class TextMapExtractAdapter
+    implements AgentPropagation.Getter<Headers>, HttpTextFormat.Getter<Headers> {
 
   public static final TextMapExtractAdapter GETTER = new TextMapExtractAdapter();
 
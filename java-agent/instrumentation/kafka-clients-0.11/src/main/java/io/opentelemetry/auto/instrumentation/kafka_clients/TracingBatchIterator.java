@@ -0,0 +1,156 @@
+package io.opentelemetry.auto.instrumentation.kafka_clients;
+
+import static io.opentelemetry.auto.instrumentation.kafka_clients.KafkaDecorator.TRACER;
+import static io.opentelemetry.auto.instrumentation.kafka_clients.TextMapExtractAdapter.GETTER;
+
+import io.opentelemetry.auto.api.Config;
+import io.opentelemetry.auto.bootstrap.DormantMode;
+import io.opentelemetry.auto.instrumentation.api.TraceContextExtractor;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.trace.Span;
+import io.opentelemetry.trace.SpanContext;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Traces the records returned by one {@code poll()} with a single span instead of a span per
+ * record.
+ *
+ * <p>The span is started when the first record is taken and stays active while the records are
+ * processed. It ends when the iterator is exhausted. If iteration stops early, its scope would stay
+ * open on the thread, so it ends at the latest when the consumer polls again, commits or is closed
+ * on the same thread. Before it starts, the batch is scanned once for the totals recorded by {@link
+ * KafkaDecorator#onConsumeBatch}, and the producer contexts of a random sample of at most {@link
+ * Config#KAFKA_CONSUMER_BATCH_MAX_LINKS} records are added as links.
+ *
+ * <p>The span is sampled by the sampler the agent installs on the tracer, like all other spans.
+ */
+@Slf4j
+public class TracingBatchIterator implements Iterator<ConsumerRecord> {
+  private static final int INTEGRATION = DormantMode.integration("kafka");
+
+  private static final ThreadLocal<TracingBatchIterator> OPEN_BATCH =
+      new ThreadLocal<TracingBatchIterator>();
+
+  private final Iterator<ConsumerRecord> delegateIterator;
+  /** The records of the batch by partition, scanned without going through the delegate. */
+  private final Iterable<? extends Iterable<ConsumerRecord>> partitions;
+
+  private final String operationName;
+  private final KafkaDecorator decorator;
+
+  private boolean started;
+  private Span span;
+  private Scope scope;
+
+  public TracingBatchIterator(
+      final Iterator<ConsumerRecord> delegateIterator,
+      final Iterable<? extends Iterable<ConsumerRecord>> partitions,
+      final String operationName,
+      final KafkaDecorator decorator) {
+    this.delegateIterator = delegateIterator;
+    this.partitions = partitions;
+    this.operationName = operationName;
+    this.decorator = decorator;
+  }
+
+  /**
+   * Ends a batch span and closes its scope if they were left open on this thread, e.g. because
+   * iteration stopped early.
+   */
+  public static void finishOpenBatch() {
+    final TracingBatchIterator open = OPEN_BATCH.get();
+    if (open != null) {
+      open.finish();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    final boolean hasNext = delegateIterator.hasNext();
+    if (!hasNext) {
+      finish();
+    }
+    return hasNext;
+  }
+
+  @Override
+  public ConsumerRecord next() {
+    if (!started) {
+      started = true;
+      try {
+        start();
+      } catch (final Exception e) {
+        log.debug("Error during decoration", e);
+      }
+    }
+    return delegateIterator.next();
+  }
+
+  @Override
+  public void remove() {
+    delegateIterator.remove();
+  }
+
+  private void start() {
+    finishOpenBatch();
+    if (DormantMode.isDormant(INTEGRATION)) {
+      return;
+    }
+
+    final int maxLinks = Math.max(0, Config.get().getKafkaConsumerBatchMaxLinks());
+    final ConsumerRecord[] sample = new ConsumerRecord[maxLinks];
+    final KafkaDecorator.BatchStats stats = new KafkaDecorator.BatchStats();
+    for (final Iterable<ConsumerRecord> partition : partitions) {
+      for (final ConsumerRecord record : partition) {
+        // Reservoir sampling, so that every record is equally likely to be linked.
+        final long seen = stats.count;
+        if (seen < maxLinks) {
+          sample[(int) seen] = record;
+        } else if (maxLinks > 0) {
+          final long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+          if (slot < maxLinks) {
+            sample[(int) slot] = record;
+          }
+        }
+        stats.add(record);
+      }
+    }
+    if (stats.count == 0) {
+      return;
+    }
+
+    final Span.Builder spanBuilder = TRACER.spanBuilder(operationName);
+    for (final ConsumerRecord record : sample) {
+      if (record == null) {
+        break;
+      }
+      final SpanContext producerContext =
+          TraceContextExtractor.extract(TRACER.getHttpTextFormat(), record.headers(), GETTER);
+      if (producerContext != null) {
+        spanBuilder.addLink(producerContext);
+      }
+    }
+    span = spanBuilder.startSpan();
+    decorator.afterStart(span);
+    decorator.onConsumeBatch(span, stats);
+    scope = TRACER.withSpan(span);
+    OPEN_BATCH.set(this);
+  }
+
+  private void finish() {
+    if (span == null) {
+      return;
+    }
+    if (OPEN_BATCH.get() == this) {
+      OPEN_BATCH.remove();
+    }
+    scope.close();
+    decorator.beforeFinish(span);
+    span.end();
+    span = null;
+    scope = null;
+  }
+}
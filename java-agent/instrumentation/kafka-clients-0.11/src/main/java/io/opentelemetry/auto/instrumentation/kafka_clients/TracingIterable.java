@@ -1,5 +1,6 @@
 package io.opentelemetry.auto.instrumentation.kafka_clients;
 
+import java.util.Collections;
 import java.util.Iterator;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
@@ -7,15 +8,26 @@ public class TracingIterable implements Iterable<ConsumerRecord> {
   private final Iterable<ConsumerRecord> delegate;
   private final String operationName;
   private final KafkaDecorator decorator;
+  /** Whether the records are traced with one span for the whole batch. */
+  private final boolean batch;
   private boolean firstIterator = true;
 
   public TracingIterable(
       final Iterable<ConsumerRecord> delegate,
       final String operationName,
       final KafkaDecorator decorator) {
+    this(delegate, operationName, decorator, false);
+  }
+
+  public TracingIterable(
+      final Iterable<ConsumerRecord> delegate,
+      final String operationName,
+      final KafkaDecorator decorator,
+      final boolean batch) {
     this.delegate = delegate;
     this.operationName = operationName;
     this.decorator = decorator;
+    this.batch = batch;
   }
 
   @Override
@@ -24,7 +36,12 @@ public class TracingIterable implements Iterable<ConsumerRecord> {
     // We should only return one iterator with tracing.
     // However, this is not thread-safe, but usually the first (hopefully only) traversal of
     // ConsumerRecords is performed in the same thread that called poll()
-    if (firstIterator) {
+    if (firstIterator && batch) {
+      it =
+          new TracingBatchIterator(
+              delegate.iterator(), Collections.singletonList(delegate), operationName, decorator);
+      firstIterator = false;
+    } else if (firstIterator) {
       it = new TracingIterator(delegate.iterator(), operationName, decorator);
       firstIterator = false;
     } else {
@@ -5,6 +5,7 @@ import static io.opentelemetry.auto.instrumentation.api.AgentTracer.propagate;
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.startSpan;
 import static io.opentelemetry.auto.instrumentation.kafka_clients.TextMapExtractAdapter.GETTER;
 
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan.Context;
@@ -14,6 +15,8 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 @Slf4j
 public class TracingIterator implements Iterator<ConsumerRecord> {
+  private static final int INTEGRATION = DormantMode.integration("kafka");
+
   private final Iterator<ConsumerRecord> delegateIterator;
   private final String operationName;
   private final KafkaDecorator decorator;
@@ -53,7 +56,7 @@ public class TracingIterator implements Iterator<ConsumerRecord> {
     final ConsumerRecord next = delegateIterator.next();
 
     try {
-      if (next != null) {
+      if (next != null && !DormantMode.isDormant(INTEGRATION)) {
         final Context spanContext = propagate().extract(next.headers(), GETTER);
         final AgentSpan span = startSpan(operationName, spanContext);
         decorator.afterStart(span);
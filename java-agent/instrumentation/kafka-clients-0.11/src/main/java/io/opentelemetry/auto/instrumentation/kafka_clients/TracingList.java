@@ -12,7 +12,15 @@ public class TracingList extends TracingIterable implements List<ConsumerRecord>
       final List<ConsumerRecord> delegate,
       final String operationName,
       final KafkaDecorator decorator) {
-    super(delegate, operationName, decorator);
+    this(delegate, operationName, decorator, false);
+  }
+
+  public TracingList(
+      final List<ConsumerRecord> delegate,
+      final String operationName,
+      final KafkaDecorator decorator,
+      final boolean batch) {
+    super(delegate, operationName, decorator, batch);
     this.delegate = delegate;
   }
 
@@ -1,3 +1,4 @@
+import io.opentelemetry.auto.api.Config
 import io.opentelemetry.auto.api.MoreTags
 import io.opentelemetry.auto.instrumentation.api.Tags
 import io.opentelemetry.auto.test.AgentTestRunner
@@ -20,6 +21,8 @@ import org.springframework.kafka.test.utils.KafkaTestUtils
 import java.util.concurrent.LinkedBlockingQueue
 import java.util.concurrent.TimeUnit
 
+import static io.opentelemetry.auto.test.utils.ConfigUtils.withConfigOverride
+
 class KafkaClientTest extends AgentTestRunner {
   static final SHARED_TOPIC = "shared.topic"
 
@@ -187,4 +190,107 @@ class KafkaClientTest extends AgentTestRunner {
 
   }
 
+  def "test batch kafka consume"() {
+    setup:
+    def kafkaPartition = 0
+    def consumerProperties = KafkaTestUtils.consumerProps("batch", "false", embeddedKafka)
+    consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest")
+    def consumer = new KafkaConsumer<String, String>(consumerProperties)
+
+    def senderProps = KafkaTestUtils.senderProps(embeddedKafka.getBrokersAsString())
+    def producer = new KafkaProducer(senderProps)
+
+    consumer.assign(Arrays.asList(new TopicPartition(SHARED_TOPIC, kafkaPartition)))
+
+    when:
+    producer.send(new ProducerRecord<Integer, String>(SHARED_TOPIC, kafkaPartition, null, "first")).get()
+    producer.send(new ProducerRecord<Integer, String>(SHARED_TOPIC, kafkaPartition, null, "second")).get()
+    TEST_WRITER.waitForTraces(2)
+
+    def received = []
+    withConfigOverride(Config.KAFKA_CONSUMER_BATCH_GROUPS, "batch") {
+      for (record in KafkaTestUtils.getRecords(consumer)) {
+        received.add(record.value())
+      }
+    }
+    TEST_WRITER.waitForTraces(3)
+
+    then:
+    received == ["first", "second"]
+    def producerTraceIds = TEST_WRITER.traces[0..1].collect { it[0].traceId }
+    def consumerSpan = TEST_WRITER.traces[2][0]
+    consumerSpan.links.collect { it.context.traceId } as Set == producerTraceIds as Set
+
+    assertTraces(3) {
+      trace(0, 1) {
+        span(0) {
+          operationName "kafka.produce"
+        }
+      }
+      trace(1, 1) {
+        span(0) {
+          operationName "kafka.produce"
+        }
+      }
+      trace(2, 1) {
+        span(0) {
+          operationName "kafka.consume"
+          errored false
+          parent()
+          tags {
+            "$MoreTags.SERVICE_NAME" "kafka"
+            "$MoreTags.RESOURCE_NAME" "Consume Topic $SHARED_TOPIC"
+            "$MoreTags.SPAN_TYPE" "queue"
+            "$Tags.COMPONENT" "java-kafka"
+            "$Tags.SPAN_KIND" Tags.SPAN_KIND_CONSUMER
+            "kafka.record.count" 2
+            "kafka.record.bytes" "first".length() + "second".length()
+            "kafka.record.lag.max.ms" { it >= 0 }
+            "kafka.record.lag.avg.ms" { it >= 0 }
+            "kafka.partition.$SHARED_TOPIC-$kafkaPartition.count" 2
+          }
+        }
+      }
+    }
+
+    cleanup:
+    consumer.close()
+    producer.close()
+  }
+
+  def "test batch span ends on commit when iteration stops early"() {
+    setup:
+    def kafkaPartition = 0
+    def consumerProperties = KafkaTestUtils.consumerProps("batch-early", "false", embeddedKafka)
+    consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest")
+    def consumer = new KafkaConsumer<String, String>(consumerProperties)
+
+    def senderProps = KafkaTestUtils.senderProps(embeddedKafka.getBrokersAsString())
+    def producer = new KafkaProducer(senderProps)
+
+    consumer.assign(Arrays.asList(new TopicPartition(SHARED_TOPIC, kafkaPartition)))
+
+    when:
+    producer.send(new ProducerRecord<Integer, String>(SHARED_TOPIC, kafkaPartition, null, "first")).get()
+    TEST_WRITER.waitForTraces(1)
+
+    def activeDuringIteration
+    withConfigOverride(Config.KAFKA_CONSUMER_BATCH_GROUPS, "batch-early") {
+      for (record in KafkaTestUtils.getRecords(consumer)) {
+        activeDuringIteration = TEST_TRACER.currentSpan.context.valid
+        break
+      }
+    }
+    consumer.commitSync()
+    TEST_WRITER.waitForTraces(2)
+
+    then:
+    activeDuringIteration
+    !TEST_TRACER.currentSpan.context.valid
+    TEST_WRITER.traces.any { it[0].name == "kafka.consume" }
+
+    cleanup:
+    consumer.close()
+    producer.close()
+  }
 }
@@ -51,6 +51,8 @@ public class KafkaStreamsProcessorInstrumentation {
     public String[] helperClassNames() {
       return new String[] {
         "io.opentelemetry.auto.decorator.BaseDecorator",
+        "io.opentelemetry.auto.decorator.StackTraceRenderer",
+        "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
         "io.opentelemetry.auto.decorator.ClientDecorator",
         packageName + ".KafkaStreamsDecorator",
         packageName + ".TextMapExtractAdapter"
@@ -102,6 +104,8 @@ public class KafkaStreamsProcessorInstrumentation {
     public String[] helperClassNames() {
       return new String[] {
         "io.opentelemetry.auto.decorator.BaseDecorator",
+        "io.opentelemetry.auto.decorator.StackTraceRenderer",
+        "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
         "io.opentelemetry.auto.decorator.ClientDecorator",
         packageName + ".KafkaStreamsDecorator",
         packageName + ".TextMapExtractAdapter"
@@ -42,7 +42,11 @@ public class Log4j1MDCInstrumentation extends Instrumenter.Default {
 
   @Override
   public String[] helperClassNames() {
-    return new String[] {LogContextScopeListener.class.getName()};
+    return new String[] {
+      LogContextScopeListener.class.getName(),
+      LogContextScopeListener.class.getName() + "$1",
+      LogContextScopeListener.class.getName() + "$WrittenIds",
+    };
   }
 
   public static class MDCContextAdvice {
@@ -57,7 +61,7 @@ public class Log4j1MDCInstrumentation extends Instrumenter.Default {
         final Method putMethod = mdcClass.getMethod("put", String.class, Object.class);
         final Method removeMethod = mdcClass.getMethod("remove", String.class);
         GlobalTracer.get().addScopeListener(new LogContextScopeListener(putMethod, removeMethod));
-      } catch (final NoSuchMethodException e) {
+      } catch (final NoSuchMethodException | IllegalAccessException e) {
         org.slf4j.LoggerFactory.getLogger(instance.getClass())
             .debug("Failed to add log4j ThreadContext span listener", e);
       }
@@ -9,7 +9,6 @@ import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.api.GlobalTracer;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import io.opentelemetry.auto.tooling.log.LogContextScopeListener;
-import java.lang.reflect.Method;
 import java.util.Map;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.description.method.MethodDescription;
@@ -29,6 +28,12 @@ public class ThreadContextInstrumentation extends Instrumenter.Default {
     return Config.get().isLogsInjectionEnabled();
   }
 
+  // Runs once when ThreadContext is initialized, so it cannot be deferred until tracing resumes.
+  @Override
+  protected boolean suspendWhenDormant() {
+    return false;
+  }
+
   @Override
   public ElementMatcher<? super TypeDescription> typeMatcher() {
     return named("org.apache.logging.log4j.ThreadContext");
@@ -42,17 +47,19 @@ public class ThreadContextInstrumentation extends Instrumenter.Default {
 
   @Override
   public String[] helperClassNames() {
-    return new String[] {LogContextScopeListener.class.getName()};
+    return new String[] {
+      LogContextScopeListener.class.getName(),
+      LogContextScopeListener.class.getName() + "$1",
+      LogContextScopeListener.class.getName() + "$WrittenIds",
+    };
   }
 
   public static class ThreadContextAdvice {
     @Advice.OnMethodExit(suppress = Throwable.class)
     public static void mdcClassInitialized(@Advice.Origin final Class threadClass) {
       try {
-        final Method putMethod = threadClass.getMethod("put", String.class, String.class);
-        final Method removeMethod = threadClass.getMethod("remove", String.class);
-        GlobalTracer.get().addScopeListener(new LogContextScopeListener(putMethod, removeMethod));
-      } catch (final NoSuchMethodException e) {
+        GlobalTracer.get().addScopeListener(new LogContextScopeListener(threadClass));
+      } catch (final NoSuchMethodException | IllegalAccessException e) {
         org.slf4j.LoggerFactory.getLogger(threadClass)
             .debug("Failed to add log4j ThreadContext span listener", e);
       }
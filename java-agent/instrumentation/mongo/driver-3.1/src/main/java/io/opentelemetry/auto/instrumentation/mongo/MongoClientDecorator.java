@@ -9,13 +9,7 @@ import io.opentelemetry.auto.api.MoreTags;
 import io.opentelemetry.auto.api.SpanTypes;
 import io.opentelemetry.auto.decorator.DatabaseClientDecorator;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import org.bson.BsonArray;
 import org.bson.BsonDocument;
-import org.bson.BsonString;
-import org.bson.BsonValue;
 
 public class MongoClientDecorator extends DatabaseClientDecorator<CommandStartedEvent> {
   public static final MongoClientDecorator DECORATE = new MongoClientDecorator();
@@ -74,55 +68,14 @@ public class MongoClientDecorator extends DatabaseClientDecorator<CommandStarted
   }
 
   public AgentSpan onStatement(final AgentSpan span, final BsonDocument statement) {
+    if (!span.isRecording()) {
+      return span;
+    }
 
     // scrub the Mongo command so that parameters are removed from the string
-    final BsonDocument scrubbed = scrub(statement);
-    final String mongoCmd = scrubbed.toString();
+    final String mongoCmd = MongoCommandScrubber.scrub(statement);
 
     span.setAttribute(MoreTags.RESOURCE_NAME, mongoCmd);
     return onStatement(span, mongoCmd);
   }
-
-  /**
-   * The values of these mongo fields will not be scrubbed out. This allows the non-sensitive
-   * collection names to be captured.
-   */
-  private static final List<String> UNSCRUBBED_FIELDS =
-      Arrays.asList("ordered", "insert", "count", "find", "create");
-
-  private static final BsonValue HIDDEN_CHAR = new BsonString("?");
-
-  private static BsonDocument scrub(final BsonDocument origin) {
-    final BsonDocument scrub = new BsonDocument();
-    for (final Map.Entry<String, BsonValue> entry : origin.entrySet()) {
-      if (UNSCRUBBED_FIELDS.contains(entry.getKey()) && entry.getValue().isString()) {
-        scrub.put(entry.getKey(), entry.getValue());
-      } else {
-        final BsonValue child = scrub(entry.getValue());
-        scrub.put(entry.getKey(), child);
-      }
-    }
-    return scrub;
-  }
-
-  private static BsonValue scrub(final BsonArray origin) {
-    final BsonArray scrub = new BsonArray();
-    for (final BsonValue value : origin) {
-      final BsonValue child = scrub(value);
-      scrub.add(child);
-    }
-    return scrub;
-  }
-
-  private static BsonValue scrub(final BsonValue origin) {
-    final BsonValue scrubbed;
-    if (origin.isDocument()) {
-      scrubbed = scrub(origin.asDocument());
-    } else if (origin.isArray()) {
-      scrubbed = scrub(origin.asArray());
-    } else {
-      scrubbed = HIDDEN_CHAR;
-    }
-    return scrubbed;
-  }
 }
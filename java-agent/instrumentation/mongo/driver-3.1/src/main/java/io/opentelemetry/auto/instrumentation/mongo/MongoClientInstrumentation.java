@@ -45,9 +45,13 @@ public final class MongoClientInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.DatabaseClientDecorator",
       packageName + ".MongoClientDecorator",
+      packageName + ".MongoCommandScrubber",
+      packageName + ".MongoCommandScrubber$1",
       packageName + ".TracingCommandListener"
     };
   }
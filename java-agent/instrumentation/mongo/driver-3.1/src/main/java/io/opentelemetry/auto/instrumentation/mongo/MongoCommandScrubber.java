@@ -0,0 +1,200 @@
+package io.opentelemetry.auto.instrumentation.mongo;
+
+import io.opentelemetry.auto.api.Config;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+
+/**
+ * Renders the shape of a Mongo command as JSON with all values, except for a few non-sensitive
+ * fields, replaced by {@code "?"}.
+ *
+ * <p>The command is walked with a {@link BsonReader} and written straight into a per-thread
+ * buffer, so no scrubbed copy of the command is built. Consecutive array elements with the same
+ * shape are written once, which keeps bulk writes down to the shape of a single document. Output
+ * stops at {@link Config#MONGO_STATEMENT_MAX_LENGTH} characters, and documents nested deeper than
+ * {@link Config#MONGO_STATEMENT_MAX_DEPTH} are replaced by {@code "?"}. Recently seen shapes are
+ * cached so that repeated commands share one string.
+ */
+public final class MongoCommandScrubber {
+  /**
+   * The values of these mongo fields will not be scrubbed out. This allows the non-sensitive
+   * collection names to be captured.
+   */
+  private static final Set<String> UNSCRUBBED_FIELDS =
+      new HashSet<>(Arrays.asList("ordered", "insert", "count", "find", "create"));
+
+  private static final String HIDDEN_VALUE = "\"?\"";
+  private static final String TRUNCATED = "...";
+
+  private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+  private static final ThreadLocal<MongoCommandScrubber> SCRUBBERS =
+      new ThreadLocal<MongoCommandScrubber>() {
+        @Override
+        protected MongoCommandScrubber initialValue() {
+          return new MongoCommandScrubber();
+        }
+      };
+
+  private static final int SHAPE_CACHE_SIZE = 256;
+  private static final String[] SHAPES = new String[SHAPE_CACHE_SIZE];
+
+  private StringBuilder buffer = new StringBuilder(256);
+  private int maxLength;
+  private int maxDepth;
+  private boolean truncated;
+
+  private MongoCommandScrubber() {}
+
+  public static String scrub(final BsonDocument command) {
+    final Config config = Config.get();
+    return SCRUBBERS
+        .get()
+        .scrub(command, config.getMongoStatementMaxLength(), config.getMongoStatementMaxDepth());
+  }
+
+  String scrub(final BsonDocument command, final int maxLength, final int maxDepth) {
+    this.maxLength = maxLength > 0 ? maxLength : Integer.MAX_VALUE;
+    this.maxDepth = maxDepth;
+    truncated = false;
+    buffer.setLength(0);
+    try {
+      writeDocument(new BsonDocumentReader(command), 0);
+      if (truncated) {
+        buffer.append(TRUNCATED);
+      }
+      return intern(buffer);
+    } finally {
+      if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+        buffer = new StringBuilder(256);
+      }
+    }
+  }
+
+  private void writeDocument(final BsonReader reader, final int depth) {
+    reader.readStartDocument();
+    buffer.append('{');
+    boolean first = true;
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      if (isFull()) {
+        return;
+      }
+      if (!first) {
+        buffer.append(", ");
+      }
+      first = false;
+      final String name = reader.readName();
+      writeString(name);
+      buffer.append(": ");
+      if (UNSCRUBBED_FIELDS.contains(name) && reader.getCurrentBsonType() == BsonType.STRING) {
+        writeString(reader.readString());
+      } else {
+        writeValue(reader, depth);
+      }
+      if (truncated) {
+        return;
+      }
+    }
+    reader.readEndDocument();
+    buffer.append('}');
+  }
+
+  private void writeArray(final BsonReader reader, final int depth) {
+    reader.readStartArray();
+    buffer.append('[');
+    int previousStart = -1;
+    int previousEnd = -1;
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      if (isFull()) {
+        return;
+      }
+      final int separatorStart = buffer.length();
+      if (previousStart >= 0) {
+        buffer.append(", ");
+      }
+      final int start = buffer.length();
+      writeValue(reader, depth);
+      if (truncated) {
+        return;
+      }
+      if (previousStart >= 0 && regionEquals(previousStart, previousEnd, start)) {
+        // Same shape as the previous element.
+        buffer.setLength(separatorStart);
+      } else {
+        previousStart = start;
+        previousEnd = buffer.length();
+      }
+    }
+    reader.readEndArray();
+    buffer.append(']');
+  }
+
+  private void writeValue(final BsonReader reader, final int depth) {
+    final BsonType type = reader.getCurrentBsonType();
+    if (type == BsonType.DOCUMENT && depth < maxDepth) {
+      writeDocument(reader, depth + 1);
+    } else if (type == BsonType.ARRAY && depth < maxDepth) {
+      writeArray(reader, depth + 1);
+    } else {
+      reader.skipValue();
+      buffer.append(HIDDEN_VALUE);
+    }
+  }
+
+  private void writeString(final String value) {
+    buffer.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        buffer.append('\\').append(c);
+      } else if (c < ' ') {
+        buffer.append(String.format("\\u%04x", (int) c));
+      } else {
+        buffer.append(c);
+      }
+    }
+    buffer.append('"');
+  }
+
+  /** Once the buffer is full, the rest of the command is not read at all. */
+  private boolean isFull() {
+    if (buffer.length() >= maxLength) {
+      truncated = true;
+    }
+    return truncated;
+  }
+
+  private boolean regionEquals(final int previousStart, final int previousEnd, final int start) {
+    final int length = previousEnd - previousStart;
+    if (buffer.length() - start != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buffer.charAt(previousStart + i) != buffer.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the cached string for the shape in the buffer, creating it on a miss. */
+  private static String intern(final StringBuilder shape) {
+    int hash = 0;
+    for (int i = 0; i < shape.length(); i++) {
+      hash = 31 * hash + shape.charAt(i);
+    }
+    final int index = (hash ^ (hash >>> 16)) & (SHAPE_CACHE_SIZE - 1);
+    final String cached = SHAPES[index];
+    if (cached != null && cached.contentEquals(shape)) {
+      return cached;
+    }
+    final String value = shape.toString();
+    SHAPES[index] = value;
+    return value;
+  }
+}
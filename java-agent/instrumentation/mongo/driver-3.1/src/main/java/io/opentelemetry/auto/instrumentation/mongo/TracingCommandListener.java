@@ -8,6 +8,7 @@ import com.mongodb.event.CommandFailedEvent;
 import com.mongodb.event.CommandListener;
 import com.mongodb.event.CommandStartedEvent;
 import com.mongodb.event.CommandSucceededEvent;
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import java.util.Map;
@@ -16,11 +17,15 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class TracingCommandListener implements CommandListener {
+  private static final int INTEGRATION = DormantMode.integration("mongo");
 
   private final Map<Integer, AgentSpan> spanMap = new ConcurrentHashMap<>();
 
   @Override
   public void commandStarted(final CommandStartedEvent event) {
+    if (DormantMode.isDormant(INTEGRATION)) {
+      return;
+    }
     final AgentSpan span = startSpan("mongo.query");
     try (final AgentScope scope = activateSpan(span, false)) {
       DECORATE.afterStart(span);
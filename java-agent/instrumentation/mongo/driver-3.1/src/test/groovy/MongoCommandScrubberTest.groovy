@@ -0,0 +1,73 @@
+import io.opentelemetry.auto.api.Config
+import io.opentelemetry.auto.instrumentation.mongo.MongoCommandScrubber
+import io.opentelemetry.auto.util.test.AgentSpecification
+import org.bson.BsonArray
+import org.bson.BsonDocument
+import org.bson.BsonInt32
+import org.bson.BsonString
+
+import static io.opentelemetry.auto.test.utils.ConfigUtils.withConfigOverride
+
+class MongoCommandScrubberTest extends AgentSpecification {
+
+  def "scrubs values except collection names"() {
+    setup:
+    def command = new BsonDocument("insert", new BsonString("users"))
+      .append("ordered", new BsonString("true"))
+      .append("documents", new BsonArray([
+        new BsonDocument("name", new BsonString("alice")).append("tags", new BsonArray([new BsonString("a")]))
+      ]))
+
+    expect:
+    MongoCommandScrubber.scrub(command) == '{"insert": "users", "ordered": "true", "documents": [{"name": "?", "tags": ["?"]}]}'
+  }
+
+  def "collapses consecutive array elements of the same shape"() {
+    setup:
+    def documents = (1..1000).collect {
+      new BsonDocument("_id", new BsonInt32(it)).append("password", new BsonString("secret $it"))
+    }
+    documents.add(new BsonDocument("other", new BsonInt32(0)))
+    def command = new BsonDocument("insert", new BsonString("users")).append("documents", new BsonArray(documents))
+
+    expect:
+    MongoCommandScrubber.scrub(command) == '{"insert": "users", "documents": [{"_id": "?", "password": "?"}, {"other": "?"}]}'
+  }
+
+  def "repeated shapes share a string"() {
+    setup:
+    def first = new BsonDocument("find", new BsonString("users")).append("filter", new BsonDocument("name", new BsonString("alice")))
+    def second = new BsonDocument("find", new BsonString("users")).append("filter", new BsonDocument("name", new BsonString("bob")))
+
+    expect:
+    MongoCommandScrubber.scrub(first).is(MongoCommandScrubber.scrub(second))
+  }
+
+  def "stops at the maximum length"() {
+    setup:
+    def command = new BsonDocument("find", new BsonString("users"))
+      .append("filter", new BsonDocument("name", new BsonString("alice")).append("age", new BsonInt32(30)))
+
+    when:
+    def scrubbed = withConfigOverride(Config.MONGO_STATEMENT_MAX_LENGTH, "30") {
+      MongoCommandScrubber.scrub(command)
+    }
+
+    then:
+    scrubbed == '{"find": "users", "filter": {"name": "?"...'
+  }
+
+  def "hides documents nested deeper than the maximum depth"() {
+    setup:
+    def command = new BsonDocument("find", new BsonString("users"))
+      .append("filter", new BsonDocument("address", new BsonDocument("city", new BsonString("Paris"))))
+
+    when:
+    def scrubbed = withConfigOverride(Config.MONGO_STATEMENT_MAX_DEPTH, "1") {
+      MongoCommandScrubber.scrub(command)
+    }
+
+    then:
+    scrubbed == '{"find": "users", "filter": {"address": "?"}}'
+  }
+}
@@ -9,12 +9,14 @@ import static io.opentelemetry.auto.instrumentation.netty40.server.NettyRequestE
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.codec.http.HttpRequest;
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan.Context;
 import io.opentelemetry.auto.instrumentation.netty40.AttributeKeys;
 
 public class HttpServerRequestTracingHandler extends ChannelInboundHandlerAdapter {
+  private static final int INTEGRATION = DormantMode.integration("netty-4.0");
 
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
@@ -31,6 +33,13 @@ public class HttpServerRequestTracingHandler extends ChannelInboundHandlerAdapte
       return;
     }
 
+    if (DormantMode.isDormant(INTEGRATION)) {
+      // The response must not finish the span of an earlier request.
+      ctx.channel().attr(AttributeKeys.SERVER_ATTRIBUTE_KEY).set(null);
+      ctx.fireChannelRead(msg);
+      return;
+    }
+
     final HttpRequest request = (HttpRequest) msg;
 
     final Context context = propagate().extract(request.headers(), GETTER);
@@ -42,6 +42,34 @@ public class NettyHttpServerDecorator
     }
   }
 
+  @Override
+  protected String urlPath(final HttpRequest request) {
+    final String uri = request.getUri();
+    // Absolute urls, e.g. of requests to proxies, are parsed by url(HttpRequest).
+    if (!uri.startsWith("/")) {
+      return null;
+    }
+    final int query = uri.indexOf('?');
+    return query < 0 ? uri : uri.substring(0, query);
+  }
+
+  @Override
+  protected String urlScheme(final HttpRequest request) {
+    return "http";
+  }
+
+  @Override
+  protected String urlHost(final HttpRequest request) {
+    return request.headers().get(HOST);
+  }
+
+  @Override
+  protected String urlQuery(final HttpRequest request) {
+    final String uri = request.getUri();
+    final int query = uri.indexOf('?');
+    return query < 0 ? null : uri.substring(query + 1);
+  }
+
   @Override
   protected String peerHostname(final Channel channel) {
     final SocketAddress socketAddress = channel.remoteAddress();
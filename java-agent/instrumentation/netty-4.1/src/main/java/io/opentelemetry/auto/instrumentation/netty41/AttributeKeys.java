@@ -5,6 +5,7 @@ import io.opentelemetry.auto.bootstrap.WeakMap;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.netty41.client.HttpClientTracingHandler;
 import io.opentelemetry.auto.instrumentation.netty41.server.HttpServerTracingHandler;
+import io.opentelemetry.auto.instrumentation.netty41.server.ServerSpans;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -32,6 +33,9 @@ public class AttributeKeys {
   public static final AttributeKey<AgentSpan> SERVER_ATTRIBUTE_KEY =
       attributeKey(HttpServerTracingHandler.class.getName() + ".span");
 
+  public static final AttributeKey<ServerSpans> SERVER_SPANS_ATTRIBUTE_KEY =
+      attributeKey(ServerSpans.class.getName());
+
   public static final AttributeKey<AgentSpan> CLIENT_ATTRIBUTE_KEY =
       attributeKey(HttpClientTracingHandler.class.getName() + ".span");
 
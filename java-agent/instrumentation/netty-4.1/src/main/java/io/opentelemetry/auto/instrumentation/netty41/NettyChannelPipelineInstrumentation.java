@@ -11,6 +11,7 @@ import static net.bytebuddy.matcher.ElementMatchers.returns;
 import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
 
 import com.google.auto.service.AutoService;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http.HttpClientCodec;
@@ -28,6 +29,7 @@ import io.opentelemetry.auto.instrumentation.netty41.client.HttpClientTracingHan
 import io.opentelemetry.auto.instrumentation.netty41.server.HttpServerRequestTracingHandler;
 import io.opentelemetry.auto.instrumentation.netty41.server.HttpServerResponseTracingHandler;
 import io.opentelemetry.auto.instrumentation.netty41.server.HttpServerTracingHandler;
+import io.opentelemetry.auto.instrumentation.netty41.server.ServerSpans;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import java.util.HashMap;
 import java.util.Map;
@@ -57,9 +59,13 @@ public class NettyChannelPipelineInstrumentation extends Instrumenter.Default {
       packageName + ".AttributeKeys",
       packageName + ".AttributeKeys$1",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       // client helpers
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.HttpClientDecorator",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache",
+      "io.opentelemetry.auto.decorator.UrlPrefixCache$Prefix",
       packageName + ".client.NettyHttpClientDecorator",
       packageName + ".client.NettyResponseInjectAdapter",
       packageName + ".client.HttpClientRequestTracingHandler",
@@ -72,7 +78,8 @@ public class NettyChannelPipelineInstrumentation extends Instrumenter.Default {
       packageName + ".server.NettyRequestExtractAdapter",
       packageName + ".server.HttpServerRequestTracingHandler",
       packageName + ".server.HttpServerResponseTracingHandler",
-      packageName + ".server.HttpServerTracingHandler"
+      packageName + ".server.HttpServerTracingHandler",
+      packageName + ".server.ServerSpans"
     };
   }
 
@@ -94,8 +101,19 @@ public class NettyChannelPipelineInstrumentation extends Instrumenter.Default {
    * When certain handlers are added to the pipeline, we want to add our corresponding tracing
    * handlers. If those handlers are later removed, we may want to remove our handlers. That is not
    * currently implemented.
+   *
+   * <p>HTTP/2 codecs are matched by name, so that this instrumentation does not depend on
+   * codec-http2. Streams of a multiplexed connection get a channel of their own, which translates
+   * the stream's frames to HTTP/1.x messages with {@code Http2StreamFrameToHttpObjectCodec}.
+   * Connections translated as a whole by {@code HttpToHttp2ConnectionHandler} tell the streams
+   * apart by a header, see {@link ServerSpans}.
    */
   public static class ChannelPipelineAddAdvice {
+    public static final String HTTP2_STREAM_CODEC =
+        "io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec";
+    public static final String HTTP2_CONNECTION_HANDLER =
+        "io.netty.handler.codec.http2.HttpToHttp2ConnectionHandler";
+
     @Advice.OnMethodEnter
     public static int checkDepth(@Advice.Argument(2) final ChannelHandler handler) {
       // Previously we used one unique call depth tracker for all handlers, using
@@ -145,6 +163,22 @@ public class NettyChannelPipelineInstrumentation extends Instrumenter.Default {
           pipeline.addLast(
               HttpClientResponseTracingHandler.class.getName(),
               new HttpClientResponseTracingHandler());
+        } else
+        // HTTP/2 handlers
+        if (handler.getClass().getName().equals(HTTP2_STREAM_CODEC)) {
+          // Accepted connections are children of the server channel.
+          final Channel connection = pipeline.channel().parent();
+          if (connection != null && connection.parent() != null) {
+            pipeline.addLast(
+                HttpServerTracingHandler.class.getName(), new HttpServerTracingHandler());
+          } else {
+            pipeline.addLast(
+                HttpClientTracingHandler.class.getName(), new HttpClientTracingHandler());
+          }
+        } else if (handler.getClass().getName().equals(HTTP2_CONNECTION_HANDLER)
+            && pipeline.channel().parent() != null) {
+          pipeline.addLast(
+              HttpServerTracingHandler.class.getName(), new HttpServerTracingHandler());
         }
       } catch (final IllegalArgumentException e) {
         // Prevented adding duplicate handlers.
@@ -11,6 +11,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.HttpRequest;
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.netty41.AttributeKeys;
@@ -19,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class HttpClientRequestTracingHandler extends ChannelOutboundHandlerAdapter {
+  private static final int INTEGRATION = DormantMode.integration("netty-4.1");
 
   @Override
   public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise prm) {
@@ -26,6 +28,12 @@ public class HttpClientRequestTracingHandler extends ChannelOutboundHandlerAdapt
       ctx.write(msg, prm);
       return;
     }
+    if (DormantMode.isDormant(INTEGRATION)) {
+      // The response must not finish the span of an earlier request.
+      ctx.channel().attr(AttributeKeys.CLIENT_ATTRIBUTE_KEY).set(null);
+      ctx.write(msg, prm);
+      return;
+    }
 
     AgentScope parentScope = null;
     final AgentSpan parentSpan =
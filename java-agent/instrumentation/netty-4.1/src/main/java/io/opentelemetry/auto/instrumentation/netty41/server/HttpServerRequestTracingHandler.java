@@ -1,6 +1,7 @@
 package io.opentelemetry.auto.instrumentation.netty41.server;
 
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.activateSpan;
+import static io.opentelemetry.auto.instrumentation.api.AgentTracer.noopSpan;
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.propagate;
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.startSpan;
 import static io.opentelemetry.auto.instrumentation.netty41.server.NettyHttpServerDecorator.DECORATE;
@@ -9,18 +10,31 @@ import static io.opentelemetry.auto.instrumentation.netty41.server.NettyRequestE
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.codec.http.HttpRequest;
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan.Context;
 import io.opentelemetry.auto.instrumentation.netty41.AttributeKeys;
 
 public class HttpServerRequestTracingHandler extends ChannelInboundHandlerAdapter {
+  private static final int INTEGRATION = DormantMode.integration("netty-4.1");
+
+  private ServerSpans spans;
+
+  public HttpServerRequestTracingHandler() {}
+
+  HttpServerRequestTracingHandler(final ServerSpans spans) {
+    this.spans = spans;
+  }
 
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+    if (spans == null) {
+      spans = ServerSpans.of(ctx.channel());
+    }
 
     if (!(msg instanceof HttpRequest)) {
-      final AgentSpan span = ctx.channel().attr(AttributeKeys.SERVER_ATTRIBUTE_KEY).get();
+      final AgentSpan span = spans.reading();
       if (span == null) {
         ctx.fireChannelRead(msg); // superclass does not throw
       } else {
@@ -33,6 +47,13 @@ public class HttpServerRequestTracingHandler extends ChannelInboundHandlerAdapte
 
     final HttpRequest request = (HttpRequest) msg;
 
+    if (DormantMode.isDormant(INTEGRATION)) {
+      // Keeps the responses to pipelined requests matched to their spans.
+      spans.onRequest(request, noopSpan());
+      ctx.fireChannelRead(msg);
+      return;
+    }
+
     final Context extractedContext = propagate().extract(request.headers(), GETTER);
 
     final AgentSpan span = startSpan("netty.request", extractedContext);
@@ -41,11 +62,13 @@ public class HttpServerRequestTracingHandler extends ChannelInboundHandlerAdapte
       DECORATE.onConnection(span, ctx.channel());
       DECORATE.onRequest(span, request);
 
+      spans.onRequest(request, span);
       ctx.channel().attr(AttributeKeys.SERVER_ATTRIBUTE_KEY).set(span);
 
       try {
         ctx.fireChannelRead(msg);
       } catch (final Throwable throwable) {
+        spans.remove(span);
         DECORATE.onError(span, throwable);
         DECORATE.beforeFinish(span);
         span.finish(); // Finish the span manually since finishSpanOnClose was false
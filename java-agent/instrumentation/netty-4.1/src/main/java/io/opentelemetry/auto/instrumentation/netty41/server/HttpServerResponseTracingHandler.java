@@ -8,19 +8,34 @@ import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.HttpResponse;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.Tags;
-import io.opentelemetry.auto.instrumentation.netty41.AttributeKeys;
 
 public class HttpServerResponseTracingHandler extends ChannelOutboundHandlerAdapter {
 
+  private ServerSpans spans;
+
+  public HttpServerResponseTracingHandler() {}
+
+  HttpServerResponseTracingHandler(final ServerSpans spans) {
+    this.spans = spans;
+  }
+
   @Override
   public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise prm) {
-    final AgentSpan span = ctx.channel().attr(AttributeKeys.SERVER_ATTRIBUTE_KEY).get();
-    if (span == null || !(msg instanceof HttpResponse)) {
+    // Interim responses, e.g. 100 Continue, are followed by the final response to the request.
+    if (!(msg instanceof HttpResponse) || ((HttpResponse) msg).status().code() < 200) {
       ctx.write(msg, prm);
       return;
     }
+    if (spans == null) {
+      spans = ServerSpans.of(ctx.channel());
+    }
 
     final HttpResponse response = (HttpResponse) msg;
+    final AgentSpan span = spans.onResponse(response);
+    if (span == null) {
+      ctx.write(msg, prm);
+      return;
+    }
 
     try {
       ctx.write(msg, prm);
@@ -7,6 +7,10 @@ public class HttpServerTracingHandler
         HttpServerRequestTracingHandler, HttpServerResponseTracingHandler> {
 
   public HttpServerTracingHandler() {
-    super(new HttpServerRequestTracingHandler(), new HttpServerResponseTracingHandler());
+    this(new ServerSpans());
+  }
+
+  private HttpServerTracingHandler(final ServerSpans spans) {
+    super(new HttpServerRequestTracingHandler(spans), new HttpServerResponseTracingHandler(spans));
   }
 }
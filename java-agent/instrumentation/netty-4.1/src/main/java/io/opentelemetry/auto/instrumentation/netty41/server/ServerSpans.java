@@ -0,0 +1,87 @@
+package io.opentelemetry.auto.instrumentation.netty41.server;
+
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpMessage;
+import io.opentelemetry.auto.instrumentation.api.AgentSpan;
+import io.opentelemetry.auto.instrumentation.netty41.AttributeKeys;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The spans of the requests in flight on a channel.
+ *
+ * <p>Pipelined HTTP/1.1 requests are answered in the order they arrived, so their spans are kept in
+ * a queue. HTTP/2 streams translated to HTTP/1.x messages on the connection's channel carry their
+ * stream id in the {@code x-http2-stream-id} header and may be answered in any order, so their
+ * spans are kept by stream id. Streams of a multiplexed HTTP/2 connection have channels of their
+ * own, and thus their own instance.
+ *
+ * <p>Handlers of a channel run on its event loop, so no synchronization is needed.
+ */
+public final class ServerSpans {
+  // HttpConversionUtil.ExtensionHeaderNames.STREAM_ID of codec-http2
+  private static final String STREAM_ID = "x-http2-stream-id";
+
+  private final ArrayDeque<AgentSpan> pipelined = new ArrayDeque<>(2);
+  private Map<String, AgentSpan> streams;
+  private AgentSpan reading;
+
+  /**
+   * @return the instance shared by the request and response handlers of a channel, which were
+   *     added separately rather than as one {@link HttpServerTracingHandler}
+   */
+  static ServerSpans of(final Channel channel) {
+    final ServerSpans created = new ServerSpans();
+    final ServerSpans existing =
+        channel.attr(AttributeKeys.SERVER_SPANS_ATTRIBUTE_KEY).setIfAbsent(created);
+    return existing == null ? created : existing;
+  }
+
+  /** Tracks the span of a request whose headers were just read. */
+  void onRequest(final HttpMessage request, final AgentSpan span) {
+    reading = span;
+    final String stream = request.headers().get(STREAM_ID);
+    if (stream == null) {
+      pipelined.addLast(span);
+    } else {
+      if (streams == null) {
+        streams = new HashMap<>();
+      }
+      streams.put(stream, span);
+    }
+  }
+
+  /** @return the span of the request whose content is being read, or {@code null} */
+  AgentSpan reading() {
+    return reading;
+  }
+
+  /** @return the span of the request answered by {@code response}, or {@code null} */
+  AgentSpan onResponse(final HttpMessage response) {
+    final String stream = streams == null ? null : response.headers().get(STREAM_ID);
+    if (stream != null) {
+      return streams.remove(stream);
+    }
+    AgentSpan span = pipelined.pollFirst();
+    if (span == null && streams != null && streams.size() == 1) {
+      // Http2StreamFrameToHttpObjectCodec adds the stream id to the request of its stream channel,
+      // but the response need not carry it.
+      final Iterator<AgentSpan> only = streams.values().iterator();
+      span = only.next();
+      only.remove();
+    }
+    return span;
+  }
+
+  /** Stops tracking a span that was finished before its response was written. */
+  void remove(final AgentSpan span) {
+    if (reading == span) {
+      reading = null;
+    }
+    if (!pipelined.removeLastOccurrence(span) && streams != null) {
+      streams.values().remove(span);
+    }
+  }
+}
@@ -0,0 +1,270 @@
+import io.netty.bootstrap.Bootstrap
+import io.netty.bootstrap.ServerBootstrap
+import io.netty.buffer.Unpooled
+import io.netty.channel.Channel
+import io.netty.channel.ChannelHandler
+import io.netty.channel.ChannelHandlerContext
+import io.netty.channel.ChannelInitializer
+import io.netty.channel.SimpleChannelInboundHandler
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.channel.nio.NioEventLoopGroup
+import io.netty.channel.socket.nio.NioServerSocketChannel
+import io.netty.channel.socket.nio.NioSocketChannel
+import io.netty.handler.codec.http.DefaultFullHttpRequest
+import io.netty.handler.codec.http.DefaultFullHttpResponse
+import io.netty.handler.codec.http.FullHttpRequest
+import io.netty.handler.codec.http.FullHttpResponse
+import io.netty.handler.codec.http.HttpHeaderNames
+import io.netty.handler.codec.http.HttpMethod
+import io.netty.handler.codec.http.HttpResponseStatus
+import io.netty.handler.codec.http.HttpServerCodec
+import io.netty.handler.codec.http2.DefaultHttp2Connection
+import io.netty.handler.codec.http2.HttpConversionUtil
+import io.netty.handler.codec.http2.HttpToHttp2ConnectionHandlerBuilder
+import io.netty.handler.codec.http2.InboundHttp2ToHttpAdapterBuilder
+import io.netty.util.CharsetUtil
+import io.opentelemetry.auto.instrumentation.api.Tags
+import io.opentelemetry.auto.test.AgentTestRunner
+import spock.lang.Requires
+
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1
+
+class Netty41PipeliningTest extends AgentTestRunner {
+
+  def "pipelined requests are matched to responses in order"() {
+    setup:
+    def channel = new EmbeddedChannel(new HttpServerCodec())
+
+    when:
+    channel.writeInbound(Unpooled.copiedBuffer(
+      "GET /first HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+        "GET /second HTTP/1.1\r\nHost: localhost\r\n\r\n", CharsetUtil.US_ASCII))
+    channel.writeOutbound(response(HttpResponseStatus.OK))
+    channel.writeOutbound(response(HttpResponseStatus.NOT_FOUND))
+    TEST_WRITER.waitForTraces(2)
+
+    then:
+    statusByUrl() == ["http://localhost/first": 200L, "http://localhost/second": 404L]
+
+    cleanup:
+    channel.finish()
+  }
+
+  def "requests translated from HTTP/2 streams are matched by stream id"() {
+    setup:
+    def channel = new EmbeddedChannel(new HttpServerCodec())
+
+    when:
+    channel.writeInbound(Unpooled.copiedBuffer(
+      "GET /first HTTP/1.1\r\nHost: localhost\r\nx-http2-stream-id: 3\r\n\r\n" +
+        "GET /second HTTP/1.1\r\nHost: localhost\r\nx-http2-stream-id: 5\r\n\r\n", CharsetUtil.US_ASCII))
+    channel.writeOutbound(response(HttpResponseStatus.NOT_FOUND, "5"))
+    channel.writeOutbound(response(HttpResponseStatus.OK, "3"))
+    TEST_WRITER.waitForTraces(2)
+
+    then:
+    statusByUrl() == ["http://localhost/first": 200L, "http://localhost/second": 404L]
+
+    cleanup:
+    channel.finish()
+  }
+
+  def "interim responses do not finish the request span"() {
+    setup:
+    def channel = new EmbeddedChannel(new HttpServerCodec())
+
+    when:
+    channel.writeInbound(Unpooled.copiedBuffer(
+      "GET /first HTTP/1.1\r\nHost: localhost\r\n\r\n", CharsetUtil.US_ASCII))
+    channel.writeOutbound(response(HttpResponseStatus.CONTINUE))
+    channel.writeOutbound(response(HttpResponseStatus.OK))
+    TEST_WRITER.waitForTraces(1)
+
+    then:
+    statusByUrl() == ["http://localhost/first": 200L]
+
+    cleanup:
+    channel.finish()
+  }
+
+  def "h2c requests translated per connection are traced on the server"() {
+    setup:
+    def group = new NioEventLoopGroup()
+    def server = new ServerBootstrap()
+      .group(group)
+      .channel(NioServerSocketChannel)
+      .childHandler(new ChannelInitializer<Channel>() {
+        @Override
+        protected void initChannel(Channel ch) {
+          ch.pipeline().addLast(connectionHandler(true))
+          ch.pipeline().addLast(echoStatus(HttpConversionUtil.ExtensionHeaderNames.STREAM_ID.text()))
+        }
+      })
+      .bind(0).sync().channel()
+    def responses = new LinkedBlockingQueue<Integer>()
+    def client = new Bootstrap()
+      .group(group)
+      .channel(NioSocketChannel)
+      .handler(new ChannelInitializer<Channel>() {
+        @Override
+        protected void initChannel(Channel ch) {
+          ch.pipeline().addLast(connectionHandler(false))
+          ch.pipeline().addLast(collectStatus(responses))
+        }
+      })
+      .connect(server.localAddress()).sync().channel()
+
+    when:
+    client.writeAndFlush(request("/h2c"))
+
+    then:
+    responses.poll(10, TimeUnit.SECONDS) == 200
+    TEST_WRITER.waitForTraces(1)
+    TEST_WRITER.size() == 1
+    // The client's HttpToHttp2ConnectionHandler has no parent channel, so only the server traces.
+    TEST_WRITER[0]*.name == ["netty.request"]
+    TEST_WRITER[0][0].attributes[Tags.HTTP_STATUS].longValue == 200
+
+    cleanup:
+    client?.close()
+    server?.close()
+    group.shutdownGracefully()
+  }
+
+  @Requires({ Netty41PipeliningTest.http2Class("Http2MultiplexHandler") != null })
+  def "h2c streams with their own channels are traced on the client and the server"() {
+    setup:
+    def group = new NioEventLoopGroup()
+    def server = new ServerBootstrap()
+      .group(group)
+      .channel(NioServerSocketChannel)
+      .childHandler(new ChannelInitializer<Channel>() {
+        @Override
+        protected void initChannel(Channel ch) {
+          ch.pipeline().addLast(http2Class("Http2FrameCodecBuilder").forServer().build())
+          ch.pipeline().addLast(http2Class("Http2MultiplexHandler").newInstance(
+            new ChannelInitializer<Channel>() {
+              @Override
+              protected void initChannel(Channel stream) {
+                stream.pipeline().addLast(streamCodec(true))
+                stream.pipeline().addLast(echoStatus(null))
+              }
+            }) as ChannelHandler)
+        }
+      })
+      .bind(0).sync().channel()
+    def client = new Bootstrap()
+      .group(group)
+      .channel(NioSocketChannel)
+      .handler(new ChannelInitializer<Channel>() {
+        @Override
+        protected void initChannel(Channel ch) {
+          ch.pipeline().addLast(http2Class("Http2FrameCodecBuilder").forClient().build())
+          ch.pipeline().addLast(http2Class("Http2MultiplexHandler").newInstance(
+            new ChannelInitializer<Channel>() {
+              @Override
+              protected void initChannel(Channel stream) {
+              }
+            }) as ChannelHandler)
+        }
+      })
+      .connect(server.localAddress()).sync().channel()
+    def responses = new LinkedBlockingQueue<Integer>()
+    Channel stream = http2Class("Http2StreamChannelBootstrap").newInstance(client)
+      .handler(new ChannelInitializer<Channel>() {
+        @Override
+        protected void initChannel(Channel ch) {
+          ch.pipeline().addLast(streamCodec(false))
+          ch.pipeline().addLast(collectStatus(responses))
+        }
+      })
+      .open().sync().getNow()
+
+    when:
+    stream.writeAndFlush(request("/h2c"))
+
+    then:
+    responses.poll(10, TimeUnit.SECONDS) == 200
+    TEST_WRITER.waitForTraces(1)
+    TEST_WRITER.size() == 1
+    TEST_WRITER[0]*.name.sort() == ["netty.client.request", "netty.request"]
+    TEST_WRITER[0].every { it.attributes[Tags.HTTP_STATUS].longValue == 200 }
+
+    cleanup:
+    stream?.close()
+    client?.close()
+    server?.close()
+    group.shutdownGracefully()
+  }
+
+  def response(HttpResponseStatus status, String streamId = null) {
+    def response = new DefaultFullHttpResponse(HTTP_1_1, status)
+    response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0)
+    if (streamId != null) {
+      response.headers().set("x-http2-stream-id", streamId)
+    }
+    return response
+  }
+
+  def statusByUrl() {
+    return TEST_WRITER.collectEntries {
+      def span = it[0]
+      [(span.attributes[Tags.HTTP_URL].stringValue): span.attributes[Tags.HTTP_STATUS].longValue]
+    }
+  }
+
+  static Class<?> http2Class(String simpleName) {
+    try {
+      return Class.forName("io.netty.handler.codec.http2." + simpleName)
+    } catch (ClassNotFoundException e) {
+      return null
+    }
+  }
+
+  static ChannelHandler connectionHandler(boolean server) {
+    def connection = new DefaultHttp2Connection(server)
+    return new HttpToHttp2ConnectionHandlerBuilder()
+      .frameListener(new InboundHttp2ToHttpAdapterBuilder(connection).maxContentLength(1024).build())
+      .connection(connection)
+      .build()
+  }
+
+  static ChannelHandler streamCodec(boolean server) {
+    return http2Class("Http2StreamFrameToHttpObjectCodec").newInstance(server) as ChannelHandler
+  }
+
+  static FullHttpRequest request(String path) {
+    def request = new DefaultFullHttpRequest(HTTP_1_1, HttpMethod.GET, path)
+    request.headers().set(HttpHeaderNames.HOST, "localhost")
+    request.headers().set(HttpConversionUtil.ExtensionHeaderNames.SCHEME.text(), "http")
+    return request
+  }
+
+  /** Answers each request with 200, copying {@code header} if given. */
+  static ChannelHandler echoStatus(String header) {
+    return new SimpleChannelInboundHandler<FullHttpRequest>(FullHttpRequest) {
+      @Override
+      protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+        def response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK)
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0)
+        if (header != null) {
+          response.headers().set(header, request.headers().get(header))
+        }
+        ctx.writeAndFlush(response)
+      }
+    }
+  }
+
+  static ChannelHandler collectStatus(BlockingQueue<Integer> responses) {
+    return new SimpleChannelInboundHandler<FullHttpResponse>(FullHttpResponse) {
+      @Override
+      protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+        responses.add(response.status().code())
+      }
+    }
+  }
+}
@@ -6,6 +6,7 @@ import static io.opentelemetry.auto.instrumentation.api.AgentTracer.startSpan;
 import static io.opentelemetry.auto.instrumentation.okhttp3.OkHttpClientDecorator.DECORATE;
 import static io.opentelemetry.auto.instrumentation.okhttp3.RequestBuilderInjectAdapter.SETTER;
 
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import java.io.IOException;
@@ -16,8 +17,13 @@ import okhttp3.Response;
 
 @Slf4j
 public class TracingInterceptor implements Interceptor {
+  private static final int INTEGRATION = DormantMode.integration("okhttp");
+
   @Override
   public Response intercept(final Chain chain) throws IOException {
+    if (DormantMode.isDormant(INTEGRATION)) {
+      return chain.proceed(chain.request());
+    }
     final AgentSpan span = startSpan("okhttp.request");
 
     try (final AgentScope scope = activateSpan(span, true)) {
@@ -24,6 +24,12 @@ public final class OSGIClassloadingInstrumentation extends Instrumenter.Default
     super("osgi-classloading");
   }
 
+  // Makes agent classes visible to the classloader, which must happen even while dormant.
+  @Override
+  protected boolean suspendWhenDormant() {
+    return false;
+  }
+
   @Override
   public ElementMatcher<TypeDescription> typeMatcher() {
     // OSGi Bundle class loads the system property which defines bootstrap classes
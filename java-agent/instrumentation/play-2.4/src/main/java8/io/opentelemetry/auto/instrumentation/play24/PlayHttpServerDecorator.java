@@ -37,6 +37,27 @@ public class PlayHttpServerDecorator extends HttpServerDecorator<Request, Reques
     return new URI((request.secure() ? "https://" : "http://") + request.host() + request.uri());
   }
 
+  @Override
+  protected String urlPath(final Request request) {
+    return request.path();
+  }
+
+  @Override
+  protected String urlScheme(final Request request) {
+    return request.secure() ? "https" : "http";
+  }
+
+  @Override
+  protected String urlHost(final Request request) {
+    return request.host();
+  }
+
+  @Override
+  protected String urlQuery(final Request request) {
+    final String query = request.rawQueryString();
+    return query.isEmpty() ? null : query;
+  }
+
   @Override
   protected String peerHostname(final Request request) {
     return null;
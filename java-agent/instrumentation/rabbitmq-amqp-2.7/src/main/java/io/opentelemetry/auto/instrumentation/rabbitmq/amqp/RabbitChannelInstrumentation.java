@@ -31,7 +31,7 @@ import com.rabbitmq.client.Consumer;
 import com.rabbitmq.client.GetResponse;
 import com.rabbitmq.client.MessageProperties;
 import io.opentelemetry.auto.api.MoreTags;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan.Context;
@@ -63,6 +63,8 @@ public class RabbitChannelInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       packageName + ".RabbitDecorator",
       packageName + ".RabbitDecorator$1",
@@ -113,7 +115,7 @@ public class RabbitChannelInstrumentation extends Instrumenter.Default {
     @Advice.OnMethodEnter
     public static AgentScope onEnter(
         @Advice.This final Channel channel, @Advice.Origin("Channel.#m") final String method) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(Channel.class);
+      final int callDepth = CallDepth.increment(CallDepth.RABBITMQ_CHANNEL);
       if (callDepth > 0) {
         return null;
       }
@@ -138,7 +140,7 @@ public class RabbitChannelInstrumentation extends Instrumenter.Default {
       DECORATE.onError(scope, throwable);
       DECORATE.beforeFinish(scope);
       scope.close();
-      CallDepthThreadLocalMap.reset(Channel.class);
+      CallDepth.reset(CallDepth.RABBITMQ_CHANNEL);
     }
   }
 
@@ -197,7 +199,7 @@ public class RabbitChannelInstrumentation extends Instrumenter.Default {
         @Advice.Local("placeholderScope") AgentScope placeholderScope,
         @Advice.Local("callDepth") int callDepth) {
 
-      callDepth = CallDepthThreadLocalMap.incrementCallDepth(Channel.class);
+      callDepth = CallDepth.increment(CallDepth.RABBITMQ_CHANNEL);
       // Don't want RabbitCommandInstrumentation to mess up our actual parent span.
       placeholderScope = activateSpan(noopSpan(), false);
       return System.currentTimeMillis();
@@ -255,7 +257,7 @@ public class RabbitChannelInstrumentation extends Instrumenter.Default {
         CONSUMER_DECORATE.beforeFinish(span);
       } finally {
         span.finish();
-        CallDepthThreadLocalMap.reset(Channel.class);
+        CallDepth.reset(CallDepth.RABBITMQ_CHANNEL);
       }
     }
   }
@@ -1,6 +1,7 @@
 package io.opentelemetry.auto.instrumentation.reactor.core;
 
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.activateSpan;
+import static io.opentelemetry.auto.instrumentation.api.AgentTracer.activeSpan;
 
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
@@ -14,6 +15,9 @@ import reactor.core.CoreSubscriber;
  * <p>This instrumentation is similar to java-concurrent instrumentation in a sense that it doesn't
  * create any new spans. Instead it makes sure that existing span is propagated through Flux/Mono
  * execution.
+ *
+ * <p>Operators subscribe to their source while their own subscription runs, so the span is only
+ * activated by the outermost subscription of a chain and stays current for the ones it triggers.
  */
 public class FluxAndMonoSubscribeAdvice {
 
@@ -24,19 +28,23 @@ public class FluxAndMonoSubscribeAdvice {
         subscriber
             .currentContext()
             .getOrDefault(ReactorCoreAdviceUtils.PUBLISHER_CONTEXT_KEY, null);
-    if (span != null) {
-      return activateSpan(span, false);
+    if (span == null) {
+      return null;
+    }
+    final AgentSpan active = activeSpan();
+    if (active != null && active.getSpan() == span.getSpan()) {
+      return null;
     }
-    return null;
+    return activateSpan(span, false);
   }
 
   @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
   public static void methodExit(
       @Advice.Enter final AgentScope scope, @Advice.Thrown final Throwable throwable) {
-    if (throwable != null) {
-      ReactorCoreAdviceUtils.finishSpanIfPresent(scope.span(), throwable);
-    }
     if (scope != null) {
+      if (throwable != null) {
+        ReactorCoreAdviceUtils.finishSpanIfPresent(scope.span(), throwable);
+      }
       scope.close();
     }
   }
@@ -6,6 +6,7 @@ import io.opentelemetry.auto.instrumentation.reactor.core.ReactorCoreAdviceUtils
 import io.opentelemetry.auto.test.AgentTestRunner
 import org.reactivestreams.Subscriber
 import org.reactivestreams.Subscription
+import reactor.core.Fuseable
 import reactor.core.publisher.Flux
 import reactor.core.publisher.Mono
 import spock.lang.Shared
@@ -187,6 +188,22 @@ class ReactorCoreTest extends AgentTestRunner {
     "basic flux" | Flux.fromIterable([5, 6])
   }
 
+  def "Publisher '#name' with span stays fuseable"() {
+    setup:
+    def span = startSpan("publisher-parent")
+
+    expect:
+    ReactorCoreAdviceUtils.setPublisherSpan(publisher, span) instanceof Fuseable
+
+    cleanup:
+    span.finish()
+
+    where:
+    name         | publisher
+    "basic mono" | Mono.just(1).map(addOne)
+    "basic flux" | Flux.fromIterable([5, 6]).map(addOne)
+  }
+
   @Trace(operationName = "trace-parent", resourceName = "trace-parent")
   def runUnderTrace(def publisher) {
     // This is important sequence of events:
@@ -37,6 +37,8 @@ public final class RmiServerInstrumentation extends Instrumenter.Default {
     return new String[] {
       "io.opentelemetry.auto.decorator.ServerDecorator",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       packageName + ".RmiServerDecorator"
     };
   }
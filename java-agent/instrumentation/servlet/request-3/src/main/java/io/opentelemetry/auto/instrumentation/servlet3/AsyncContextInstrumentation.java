@@ -12,7 +12,7 @@ import static net.bytebuddy.matcher.ElementMatchers.named;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import java.util.Map;
@@ -58,7 +58,7 @@ public final class AsyncContextInstrumentation extends Instrumenter.Default {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static boolean enter(
         @Advice.This final AsyncContext context, @Advice.AllArguments final Object[] args) {
-      final int depth = CallDepthThreadLocalMap.incrementCallDepth(AsyncContext.class);
+      final int depth = CallDepth.increment(CallDepth.SERVLET_ASYNC_CONTEXT);
       if (depth > 0) {
         return false;
       }
@@ -89,7 +89,7 @@ public final class AsyncContextInstrumentation extends Instrumenter.Default {
     @Advice.OnMethodExit(suppress = Throwable.class, onThrowable = Throwable.class)
     public static void exit(@Advice.Enter final boolean topLevel) {
       if (topLevel) {
-        CallDepthThreadLocalMap.reset(AsyncContext.class);
+        CallDepth.reset(CallDepth.SERVLET_ASYNC_CONTEXT);
       }
     }
   }
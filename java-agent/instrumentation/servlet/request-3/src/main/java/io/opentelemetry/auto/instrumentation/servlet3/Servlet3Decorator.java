@@ -39,6 +39,31 @@ public class Servlet3Decorator
         null);
   }
 
+  @Override
+  protected String urlPath(final HttpServletRequest httpServletRequest) {
+    return httpServletRequest.getRequestURI();
+  }
+
+  @Override
+  protected String urlScheme(final HttpServletRequest httpServletRequest) {
+    return httpServletRequest.getScheme();
+  }
+
+  @Override
+  protected String urlHost(final HttpServletRequest httpServletRequest) {
+    return httpServletRequest.getServerName();
+  }
+
+  @Override
+  protected int urlPort(final HttpServletRequest httpServletRequest) {
+    return httpServletRequest.getServerPort();
+  }
+
+  @Override
+  protected String urlQuery(final HttpServletRequest httpServletRequest) {
+    return httpServletRequest.getQueryString();
+  }
+
   @Override
   protected String peerHostname(final HttpServletRequest httpServletRequest) {
     return httpServletRequest.getRemoteHost();
@@ -40,6 +40,8 @@ public final class RequestDispatcherInstrumentation extends Instrumenter.Default
     return new String[] {
       "io.opentelemetry.auto.instrumentation.servlet.ServletRequestSetter",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       packageName + ".RequestDispatcherDecorator",
     };
   }
@@ -36,6 +36,8 @@ public final class HttpServletResponseInstrumentation extends Instrumenter.Defau
     return new String[] {
       "io.opentelemetry.auto.instrumentation.servlet.ServletRequestSetter",
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       packageName + ".HttpServletResponseDecorator",
     };
   }
@@ -9,7 +9,6 @@ import io.opentelemetry.auto.api.Config;
 import io.opentelemetry.auto.api.GlobalTracer;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import io.opentelemetry.auto.tooling.log.LogContextScopeListener;
-import java.lang.reflect.Method;
 import java.security.ProtectionDomain;
 import java.util.Map;
 import net.bytebuddy.asm.Advice;
@@ -35,6 +34,12 @@ public class MDCInjectionInstrumentation extends Instrumenter.Default {
     return Config.get().isLogsInjectionEnabled();
   }
 
+  // Runs once when MDC is initialized, so it cannot be deferred until tracing resumes.
+  @Override
+  protected boolean suspendWhenDormant() {
+    return false;
+  }
+
   @Override
   public ElementMatcher<? super TypeDescription> typeMatcher() {
     return named(mdcClassName);
@@ -60,17 +65,19 @@ public class MDCInjectionInstrumentation extends Instrumenter.Default {
 
   @Override
   public String[] helperClassNames() {
-    return new String[] {LogContextScopeListener.class.getName()};
+    return new String[] {
+      LogContextScopeListener.class.getName(),
+      LogContextScopeListener.class.getName() + "$1",
+      LogContextScopeListener.class.getName() + "$WrittenIds",
+    };
   }
 
   public static class MDCAdvice {
     @Advice.OnMethodExit(suppress = Throwable.class)
     public static void mdcClassInitialized(@Advice.Origin final Class mdcClass) {
       try {
-        final Method putMethod = mdcClass.getMethod("put", String.class, String.class);
-        final Method removeMethod = mdcClass.getMethod("remove", String.class);
-        GlobalTracer.get().addScopeListener(new LogContextScopeListener(putMethod, removeMethod));
-      } catch (final NoSuchMethodException e) {
+        GlobalTracer.get().addScopeListener(new LogContextScopeListener(mdcClass));
+      } catch (final NoSuchMethodException | IllegalAccessException e) {
         org.slf4j.LoggerFactory.getLogger(mdcClass).debug("Failed to add MDC span listener", e);
       }
     }
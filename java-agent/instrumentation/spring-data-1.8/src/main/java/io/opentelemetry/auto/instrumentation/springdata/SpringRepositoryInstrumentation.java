@@ -46,6 +46,8 @@ public final class SpringRepositoryInstrumentation extends Instrumenter.Default
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       packageName + ".SpringDataDecorator",
       getClass().getName() + "$RepositoryInterceptor",
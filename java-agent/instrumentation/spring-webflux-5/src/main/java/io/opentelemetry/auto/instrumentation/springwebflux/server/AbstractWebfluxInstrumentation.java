@@ -12,11 +12,12 @@ public abstract class AbstractWebfluxInstrumentation extends Instrumenter.Defaul
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ServerDecorator",
       packageName + ".SpringWebfluxHttpServerDecorator",
       // Some code comes from reactor's instrumentation's helper
       "io.opentelemetry.auto.instrumentation.reactor.core.ReactorCoreAdviceUtils",
-      "io.opentelemetry.auto.instrumentation.reactor.core.ReactorCoreAdviceUtils$TracingSubscriber",
       packageName + ".AdviceUtils",
       packageName + ".RouteOnSuccessOrError"
     };
@@ -8,9 +8,7 @@ import static io.opentelemetry.auto.instrumentation.springwebflux.server.SpringW
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import io.opentelemetry.auto.instrumentation.reactor.core.ReactorCoreAdviceUtils;
-import java.util.function.Function;
 import net.bytebuddy.asm.Advice;
-import org.reactivestreams.Publisher;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
@@ -44,8 +42,6 @@ public class DispatcherHandlerAdvice {
       @Advice.Argument(0) final ServerWebExchange exchange,
       @Advice.Return(readOnly = false) Mono<Object> mono) {
     if (throwable == null && mono != null) {
-      final Function<? super Mono<Object>, ? extends Publisher<Object>> function =
-          ReactorCoreAdviceUtils.finishSpanNextOrError();
       mono = ReactorCoreAdviceUtils.setPublisherSpan(mono, scope.span());
     } else if (throwable != null) {
       AdviceUtils.finishSpanIfPresent(exchange, throwable);
@@ -3,7 +3,9 @@ package io.opentelemetry.auto.instrumentation.spymemcached;
 import static io.opentelemetry.auto.instrumentation.spymemcached.MemcacheClientDecorator.DECORATE;
 import static io.opentelemetry.auto.instrumentation.spymemcached.MemcacheClientDecorator.TRACER;
 
+import io.opentelemetry.auto.bootstrap.DormantMode;
 import io.opentelemetry.context.Scope;
+import io.opentelemetry.trace.DefaultSpan;
 import io.opentelemetry.trace.Span;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
@@ -24,11 +26,17 @@ public abstract class CompletionListener<T> {
   static final String HIT = "hit";
   static final String MISS = "miss";
 
+  private static final int INTEGRATION = DormantMode.integration("spymemcached");
+
   private final MemcachedConnection connection;
   private final Span span;
 
   public CompletionListener(final MemcachedConnection connection, final String methodName) {
     this.connection = connection;
+    if (DormantMode.isDormant(INTEGRATION)) {
+      span = DefaultSpan.getInvalid();
+      return;
+    }
     span = TRACER.spanBuilder(OPERATION_NAME).startSpan();
     try (final Scope scope = TRACER.withSpan(span)) {
       DECORATE.afterStart(span);
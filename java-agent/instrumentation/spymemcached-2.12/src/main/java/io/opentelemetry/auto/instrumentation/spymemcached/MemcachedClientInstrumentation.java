@@ -7,7 +7,7 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
 import static net.bytebuddy.matcher.ElementMatchers.returns;
 
 import com.google.auto.service.AutoService;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import java.util.HashMap;
 import java.util.Map;
@@ -38,6 +38,8 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       "io.opentelemetry.auto.decorator.DatabaseClientDecorator",
       packageName + ".MemcacheClientDecorator",
@@ -78,7 +80,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
 
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static boolean methodEnter() {
-      return CallDepthThreadLocalMap.incrementCallDepth(MemcachedClient.class) <= 0;
+      return CallDepth.increment(CallDepth.MEMCACHED_CLIENT) <= 0;
     }
 
     @Advice.OnMethodExit(suppress = Throwable.class)
@@ -88,7 +90,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
         @Advice.Origin("#m") final String methodName,
         @Advice.Return final OperationFuture future) {
       if (shouldInjectListener && future != null) {
-        CallDepthThreadLocalMap.reset(MemcachedClient.class);
+        CallDepth.reset(CallDepth.MEMCACHED_CLIENT);
         final OperationCompletionListener listener =
             new OperationCompletionListener(client.getConnection(), methodName);
         future.addListener(listener);
@@ -100,7 +102,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
 
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static boolean methodEnter() {
-      return CallDepthThreadLocalMap.incrementCallDepth(MemcachedClient.class) <= 0;
+      return CallDepth.increment(CallDepth.MEMCACHED_CLIENT) <= 0;
     }
 
     @Advice.OnMethodExit(suppress = Throwable.class)
@@ -110,7 +112,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
         @Advice.Origin("#m") final String methodName,
         @Advice.Return final GetFuture future) {
       if (shouldInjectListener && future != null) {
-        CallDepthThreadLocalMap.reset(MemcachedClient.class);
+        CallDepth.reset(CallDepth.MEMCACHED_CLIENT);
         final GetCompletionListener listener =
             new GetCompletionListener(client.getConnection(), methodName);
         future.addListener(listener);
@@ -122,7 +124,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
 
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static boolean methodEnter() {
-      return CallDepthThreadLocalMap.incrementCallDepth(MemcachedClient.class) <= 0;
+      return CallDepth.increment(CallDepth.MEMCACHED_CLIENT) <= 0;
     }
 
     @Advice.OnMethodExit(suppress = Throwable.class)
@@ -132,7 +134,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
         @Advice.Origin("#m") final String methodName,
         @Advice.Return final BulkFuture future) {
       if (shouldInjectListener && future != null) {
-        CallDepthThreadLocalMap.reset(MemcachedClient.class);
+        CallDepth.reset(CallDepth.MEMCACHED_CLIENT);
         final BulkGetCompletionListener listener =
             new BulkGetCompletionListener(client.getConnection(), methodName);
         future.addListener(listener);
@@ -145,7 +147,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static SyncCompletionListener methodEnter(
         @Advice.This final MemcachedClient client, @Advice.Origin("#m") final String methodName) {
-      if (CallDepthThreadLocalMap.incrementCallDepth(MemcachedClient.class) <= 0) {
+      if (CallDepth.increment(CallDepth.MEMCACHED_CLIENT) <= 0) {
         return new SyncCompletionListener(client.getConnection(), methodName);
       } else {
         return null;
@@ -159,7 +161,7 @@ public final class MemcachedClientInstrumentation extends Instrumenter.Default {
       if (listener == null) {
         return;
       }
-      CallDepthThreadLocalMap.reset(MemcachedClient.class);
+      CallDepth.reset(CallDepth.MEMCACHED_CLIENT);
       listener.done(thrown);
     }
   }
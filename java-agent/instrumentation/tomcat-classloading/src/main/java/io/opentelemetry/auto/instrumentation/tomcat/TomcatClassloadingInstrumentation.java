@@ -29,6 +29,12 @@ public final class TomcatClassloadingInstrumentation extends Instrumenter.Defaul
     super("tomcat-classloading");
   }
 
+  // Makes agent classes visible to the classloader, which must happen even while dormant.
+  @Override
+  protected boolean suspendWhenDormant() {
+    return false;
+  }
+
   @Override
   public ElementMatcher<TypeDescription> typeMatcher() {
     return safeHasSuperType(named("org.apache.catalina.loader.WebappClassLoaderBase"));
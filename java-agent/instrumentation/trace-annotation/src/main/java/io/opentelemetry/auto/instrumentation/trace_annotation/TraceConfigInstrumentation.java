@@ -123,7 +123,10 @@ public class TraceConfigInstrumentation implements Instrumenter {
     @Override
     public String[] helperClassNames() {
       return new String[] {
-        "io.opentelemetry.auto.decorator.BaseDecorator", packageName + ".TraceDecorator",
+        "io.opentelemetry.auto.decorator.BaseDecorator",
+        "io.opentelemetry.auto.decorator.StackTraceRenderer",
+        "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
+        packageName + ".TraceDecorator",
       };
     }
 
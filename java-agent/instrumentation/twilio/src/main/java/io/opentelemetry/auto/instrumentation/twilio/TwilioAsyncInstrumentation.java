@@ -16,7 +16,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.twilio.Twilio;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.SpanScopePair;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import java.util.Map;
@@ -50,6 +50,8 @@ public class TwilioAsyncInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       packageName + ".TwilioClientDecorator",
       packageName + ".TwilioAsyncInstrumentation$SpanFinishingCallback",
@@ -93,7 +95,7 @@ public class TwilioAsyncInstrumentation extends Instrumenter.Default {
       // case of async operations where we want visibility into how long the task was delayed from
       // starting. Our call depth checker does not span threads, so the async case is handled
       // automatically for us.
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(Twilio.class);
+      final int callDepth = CallDepth.increment(CallDepth.TWILIO);
       if (callDepth > 0) {
         return null;
       }
@@ -134,7 +136,7 @@ public class TwilioAsyncInstrumentation extends Instrumenter.Default {
         }
       } finally {
         spanScopePair.getScope().close(); // won't finish the span.
-        CallDepthThreadLocalMap.reset(Twilio.class); // reset call depth count
+        CallDepth.reset(CallDepth.TWILIO); // reset call depth count
       }
     }
   }
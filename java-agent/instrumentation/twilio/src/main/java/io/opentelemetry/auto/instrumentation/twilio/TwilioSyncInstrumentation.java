@@ -12,7 +12,7 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
 
 import com.google.auto.service.AutoService;
 import com.twilio.Twilio;
-import io.opentelemetry.auto.bootstrap.CallDepthThreadLocalMap;
+import io.opentelemetry.auto.bootstrap.CallDepth;
 import io.opentelemetry.auto.instrumentation.api.SpanScopePair;
 import io.opentelemetry.auto.tooling.Instrumenter;
 import java.util.Map;
@@ -48,6 +48,8 @@ public class TwilioSyncInstrumentation extends Instrumenter.Default {
   public String[] helperClassNames() {
     return new String[] {
       "io.opentelemetry.auto.decorator.BaseDecorator",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer",
+      "io.opentelemetry.auto.decorator.StackTraceRenderer$Frames",
       "io.opentelemetry.auto.decorator.ClientDecorator",
       packageName + ".TwilioClientDecorator",
     };
@@ -89,7 +91,7 @@ public class TwilioSyncInstrumentation extends Instrumenter.Default {
       // case of async operations where we want visibility into how long the task was delayed from
       // starting. Our call depth checker does not span threads, so the async case is handled
       // automatically for us.
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(Twilio.class);
+      final int callDepth = CallDepth.increment(CallDepth.TWILIO);
       if (callDepth > 0) {
         return null;
       }
@@ -121,7 +123,7 @@ public class TwilioSyncInstrumentation extends Instrumenter.Default {
         span.end();
       } finally {
         spanScopePair.getScope().close();
-        CallDepthThreadLocalMap.reset(Twilio.class); // reset call depth count
+        CallDepth.reset(CallDepth.TWILIO); // reset call depth count
       }
     }
   }
@@ -0,0 +1,138 @@
+package io.opentelemetry.journaltool;
+
+import io.opentelemetry.auto.tooling.export.FileSpanExporter;
+import io.opentelemetry.auto.tooling.export.SpanJournalReader;
+import io.opentelemetry.sdk.trace.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(
+    mixinStandardHelpOptions = true,
+    description =
+        "Prints the spans of a journal written by the agent's journal exporter as JSON lines, "
+            + "or replays them into another exporter")
+public class JournalTool implements Callable<Integer> {
+  private static final String FILE_EXPORTER = "file";
+
+  @Parameters(index = "0", description = "Directory of the journal segments")
+  private File directory;
+
+  @Option(names = "--trace-id", description = "Only spans of this trace, in lower case hex")
+  private String traceId;
+
+  @Option(names = "--name", description = "Only spans whose name contains this regular expression")
+  private Pattern name;
+
+  @Option(names = "--errors", description = "Only spans whose status is not OK")
+  private boolean errors;
+
+  @Option(
+      names = "--min-duration-millis",
+      defaultValue = "0",
+      description = "Only spans taking at least this long (default: ${DEFAULT-VALUE})")
+  private long minDurationMillis;
+
+  @Option(
+      names = "--replay-to",
+      description =
+          "Exporter to replay the spans into, either 'file' or the name of a SpanExporter class")
+  private String replayTo;
+
+  @Option(names = "--file", description = "File written by the 'file' exporter")
+  private File file;
+
+  @Option(
+      names = "--batch-size",
+      defaultValue = "512",
+      description = "Number of spans replayed at once (default: ${DEFAULT-VALUE})")
+  private int batchSize;
+
+  @Override
+  public Integer call() throws Exception {
+    if (!directory.isDirectory()) {
+      System.err.println("Not a directory: " + directory);
+      return 1;
+    }
+    final SpanExporter exporter = replayTo == null ? null : createExporter();
+    if (replayTo != null && exporter == null) {
+      return 1;
+    }
+    final long minDurationNanos = TimeUnit.MILLISECONDS.toNanos(minDurationMillis);
+    final SpanJournalReader reader = new SpanJournalReader(directory);
+    final List<SpanData> batch = new ArrayList<>(batchSize);
+    final StringBuilder json = new StringBuilder(512);
+    long matched = 0;
+    long failed = 0;
+    SpanData span;
+    while ((span = reader.read()) != null) {
+      if (!matches(span, minDurationNanos)) {
+        continue;
+      }
+      matched++;
+      if (exporter == null) {
+        json.setLength(0);
+        FileSpanExporter.render(span, json);
+        System.out.println(json);
+        continue;
+      }
+      batch.add(span);
+      if (batch.size() >= batchSize) {
+        failed += export(exporter, batch);
+      }
+    }
+    if (exporter != null) {
+      failed += export(exporter, batch);
+      exporter.shutdown();
+      System.err.println("Replayed " + (matched - failed) + " of " + matched + " spans");
+    }
+    return failed == 0 ? 0 : 1;
+  }
+
+  private boolean matches(final SpanData span, final long minDurationNanos) {
+    return (traceId == null || traceId.equals(span.getTraceId().toLowerBase16()))
+        && (name == null || name.matcher(span.getName()).find())
+        && (!errors || !span.getStatus().isOk())
+        && span.getEndEpochNanos() - span.getStartEpochNanos() >= minDurationNanos;
+  }
+
+  private SpanExporter createExporter() {
+    try {
+      if (FILE_EXPORTER.equals(replayTo)) {
+        if (file == null) {
+          System.err.println("--file is required to replay into the file exporter");
+          return null;
+        }
+        return new FileSpanExporter(file);
+      }
+      return (SpanExporter) Class.forName(replayTo).newInstance();
+    } catch (final Exception e) {
+      System.err.println("Failed to create exporter '" + replayTo + "': " + e);
+      return null;
+    }
+  }
+
+  /** @return the number of spans that failed to export */
+  private static int export(final SpanExporter exporter, final List<SpanData> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    final int size = batch.size();
+    final SpanExporter.ResultCode result = exporter.export(new ArrayList<>(batch));
+    batch.clear();
+    return result == SpanExporter.ResultCode.SUCCESS ? 0 : size;
+  }
+
+  public static void main(final String[] args) {
+    final int exitCode = new CommandLine(new JournalTool()).execute(args);
+    System.exit(exitCode);
+  }
+}
@@ -2,11 +2,13 @@ package io.opentelemetry.loadgenerator;
 
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.activateSpan;
 import static io.opentelemetry.auto.instrumentation.api.AgentTracer.startSpan;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import com.google.common.util.concurrent.RateLimiter;
 import io.opentelemetry.auto.instrumentation.api.AgentScope;
 import io.opentelemetry.auto.instrumentation.api.AgentSpan;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import picocli.CommandLine;
@@ -44,6 +46,24 @@ public class LoadGenerator implements Callable<Integer> {
       description = "Time, in seconds, to ramp up to target rate (default: ${DEFAULT-VALUE})")
   private int warmupPeriod;
 
+  @Option(
+      names = "--error-rate",
+      defaultValue = "0",
+      description = "Fraction of traces with a failed span (default: ${DEFAULT-VALUE})")
+  private double errorRate;
+
+  @Option(
+      names = "--slow-rate",
+      defaultValue = "0",
+      description = "Fraction of traces with a slow root span (default: ${DEFAULT-VALUE})")
+  private double slowRate;
+
+  @Option(
+      names = "--slow-millis",
+      defaultValue = "2000",
+      description = "Duration, in milliseconds, of slow root spans (default: ${DEFAULT-VALUE})")
+  private int slowMillis;
+
   @Option(
       names = "--print-interval",
       defaultValue = "20",
@@ -94,12 +114,24 @@ public class LoadGenerator implements Callable<Integer> {
 
       while (true) {
         rateLimiter.acquire();
-        final AgentSpan parent = startSpan("parentSpan");
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Slow and failed traces exercise tail sampling, see the Readme.
+        final boolean slow = random.nextDouble() < slowRate;
+        final boolean failed = random.nextDouble() < errorRate;
+        final AgentSpan parent =
+            slow
+                ? startSpan(
+                    "parentSpan",
+                    MILLISECONDS.toMicros(System.currentTimeMillis() - slowMillis))
+                : startSpan("parentSpan");
 
         try (final AgentScope scope = activateSpan(parent, true)) {
           for (int i = 0; i < width; i++) {
             final AgentSpan widthSpan = startSpan("span-" + i);
             try (final AgentScope widthScope = activateSpan(widthSpan, true)) {
+              if (failed && i == 0) {
+                widthSpan.setError(true);
+              }
               for (int j = 0; j < depth - 2; j++) {
                 final AgentSpan depthSpan = startSpan("span-" + i + "-" + j);
                 try (final AgentScope depthScope = activateSpan(depthSpan, true)) {
@@ -21,12 +21,13 @@ class ConfigUtils {
     def existingConfig = Config.get()
     Properties properties = new Properties()
     properties.put(name, value)
-    CONFIG_INSTANCE_FIELD.set(null, new Config(properties, existingConfig))
+    // Publish rather than only setting the instance, so that config listeners see the override
+    Config.publish(new Config(properties, existingConfig))
     assert Config.get() != existingConfig
     try {
       return r.call()
     } finally {
-      CONFIG_INSTANCE_FIELD.set(null, existingConfig)
+      Config.publish(existingConfig)
     }
   }
 
@@ -52,6 +53,6 @@ class ConfigUtils {
     assert !Modifier.isFinal(CONFIG_INSTANCE_FIELD.getModifiers())
 
     def newConfig = new Config()
-    CONFIG_INSTANCE_FIELD.set(null, newConfig)
+    Config.publish(newConfig)
   }
 }
@@ -142,6 +142,32 @@ class ReferenceMatcherTest extends AgentTestRunner {
     "staticB"        | Type.getType(MethodBodyAdvice.B).getDescriptor() | [STATIC, PROTECTED_OR_HIGHER] | MethodBodyAdvice.A  | []                 | "match static field"
   }
 
+  def "matchers sharing a classloader report their own sources"() {
+    setup:
+    Reference first = new Reference.Builder(MethodBodyAdvice.B.getName())
+      .withSource("FirstAdvice", 1)
+      .withMethod(new Source[0], [] as Reference.Flag[], "missingMethod", Type.VOID_TYPE)
+      .build()
+    Reference second = new Reference.Builder(MethodBodyAdvice.B.getName())
+      .withSource("SecondAdvice", 2)
+      .withFlag(INTERFACE)
+      .build()
+    ClassLoader cl = new URLClassLoader([ClasspathUtils.createJarWithClasses(MethodBodyAdvice.A,
+      MethodBodyAdvice.B,
+      MethodBodyAdvice.SomeInterface,
+      MethodBodyAdvice.SomeImplementation)] as URL[],
+      (ClassLoader) null)
+
+    when:
+    def firstMismatches = new ReferenceMatcher(first).getMismatchedReferenceSources(cl)
+    def secondMismatches = new ReferenceMatcher(second).getMismatchedReferenceSources(cl)
+
+    then:
+    getMismatchClassSet(firstMismatches) == new HashSet<>([MissingMethod])
+    getMismatchClassSet(secondMismatches) == new HashSet<>([MissingFlag])
+    secondMismatches[0].toString().startsWith("SecondAdvice:2")
+  }
+
   private static Set<Class> getMismatchClassSet(List<Reference.Mismatch> mismatches) {
     final Set<Class> mismatchClasses = new HashSet<>(mismatches.size())
     for (Reference.Mismatch mismatch : mismatches) {
@@ -4,10 +4,14 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +31,10 @@ import lombok.extern.slf4j.Slf4j;
  *
  * <p>System properties are {@link Config#PREFIX}'ed. Environment variables are the same as the
  * system property, but uppercased with '.' -> '_'.
+ *
+ * <p>Instances are immutable snapshots. {@link #reload()} replaces the snapshot returned by {@link
+ * #get()}, e.g. when {@link ConfigFileWatcher} sees the configuration file change, and notifies the
+ * {@link Listener}s registered with {@link #subscribe(Listener)}.
  */
 @Slf4j
 @ToString(includeFieldNames = true)
@@ -37,7 +45,9 @@ public class Config {
   private static final Pattern ENV_REPLACEMENT = Pattern.compile("[^a-zA-Z0-9_]");
 
   public static final String CONFIGURATION_FILE = "trace.config";
+  public static final String CONFIGURATION_FILE_WATCH = "trace.config.watch";
   public static final String TRACE_ENABLED = "trace.enabled";
+  public static final String TRACE_DORMANT = "trace.dormant";
   public static final String INTEGRATIONS_ENABLED = "integrations.enabled";
   public static final String TRACE_ANNOTATIONS = "trace.annotations";
   public static final String TRACE_EXECUTORS_ALL = "trace.executors.all";
@@ -50,12 +60,50 @@ public class Config {
   public static final String HTTP_CLIENT_TAG_QUERY_STRING = "http.client.tag.query-string";
   public static final String HTTP_CLIENT_HOST_SPLIT_BY_DOMAIN = "trace.http.client.split-by-domain";
   public static final String DB_CLIENT_HOST_SPLIT_BY_INSTANCE = "trace.db.client.split-by-instance";
+  public static final String JDBC_DOUBLE_QUOTED_STRINGS = "trace.jdbc.double-quoted-strings";
+  public static final String MONGO_STATEMENT_MAX_LENGTH = "trace.mongo.statement.max-length";
+  public static final String MONGO_STATEMENT_MAX_DEPTH = "trace.mongo.statement.max-depth";
   public static final String RUNTIME_CONTEXT_FIELD_INJECTION =
       "trace.runtime.context.field.injection";
+  public static final String ERROR_STACK_MAX_FRAMES = "trace.error.stack.max-frames";
+  public static final String ERROR_STACK_MAX_BYTES = "trace.error.stack.max-bytes";
+  public static final String ERROR_STACK_CACHE_SIZE = "trace.error.stack.cache-size";
+  public static final String TYPE_MATCH_CACHE_FILE = "trace.type-match-cache.file";
+  public static final String SHARED_TYPE_CACHE_SIZE = "trace.type-pool.shared-cache.size";
+  public static final String GRPC_MESSAGE_MODE = "trace.grpc.message.mode";
+  public static final String GRPC_MESSAGE_EVENT_INTERVAL = "trace.grpc.message.event-interval";
+  public static final String KAFKA_CONSUMER_BATCH_GROUPS = "trace.kafka.consumer.batch-groups";
+  public static final String KAFKA_CONSUMER_BATCH_MAX_LINKS =
+      "trace.kafka.consumer.batch-max-links";
+  public static final String TRACE_SAMPLER_PARENT_BASED = "trace.sampler.parent-based";
+  public static final String TRACE_SAMPLER_PROBABILITY = "trace.sampler.probability";
+  public static final String TRACE_SAMPLER_RATE_LIMIT = "trace.sampler.rate-limit";
+  public static final String TAIL_SAMPLING_ENABLED = "trace.tail-sampling.enabled";
+  public static final String TAIL_SAMPLING_LATENCY_THRESHOLD_MILLIS =
+      "trace.tail-sampling.latency-threshold-millis";
+  public static final String TAIL_SAMPLING_DECISION_TIMEOUT_MILLIS =
+      "trace.tail-sampling.decision-timeout-millis";
+  public static final String TAIL_SAMPLING_MAX_SPANS = "trace.tail-sampling.max-spans";
+  public static final String TAIL_SAMPLING_MAX_BYTES = "trace.tail-sampling.max-bytes";
+  public static final String TAIL_SAMPLING_KEEP_ATTRIBUTES = "trace.tail-sampling.keep-attributes";
+  public static final String EXPORTER = "trace.exporter";
+  public static final String EXPORTER_FILE = "trace.exporter.file";
+  public static final String EXPORTER_QUEUE_SIZE = "trace.exporter.queue-size";
+  public static final String EXPORTER_BATCH_SIZE = "trace.exporter.batch-size";
+  public static final String EXPORTER_BATCH_DELAY_MILLIS = "trace.exporter.batch-delay-millis";
+  public static final String EXPORTER_JOURNAL_DIRECTORY = "trace.exporter.journal.directory";
+  public static final String EXPORTER_JOURNAL_SEGMENT_SIZE = "trace.exporter.journal.segment-size";
+  public static final String EXPORTER_JOURNAL_MAX_SEGMENTS = "trace.exporter.journal.max-segments";
+  public static final String METRICS_ENABLED = "trace.metrics.enabled";
+  public static final String METRICS_FILE = "trace.metrics.file";
+  public static final String METRICS_INTERVAL_MILLIS = "trace.metrics.interval-millis";
+  public static final String METRICS_MAX_SPANS_IN_FLIGHT = "trace.metrics.max-spans-in-flight";
 
   public static final String LOGS_INJECTION_ENABLED = "logs.injection";
 
+  private static final boolean DEFAULT_CONFIGURATION_FILE_WATCH = false;
   private static final boolean DEFAULT_TRACE_ENABLED = true;
+  private static final boolean DEFAULT_TRACE_DORMANT = false;
   public static final boolean DEFAULT_INTEGRATIONS_ENABLED = true;
 
   private static final boolean DEFAULT_RUNTIME_CONTEXT_FIELD_INJECTION = true;
@@ -68,6 +116,12 @@ public class Config {
   private static final boolean DEFAULT_HTTP_CLIENT_TAG_QUERY_STRING = false;
   private static final boolean DEFAULT_HTTP_CLIENT_SPLIT_BY_DOMAIN = false;
   private static final boolean DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE = false;
+  private static final boolean DEFAULT_JDBC_DOUBLE_QUOTED_STRINGS = false;
+  private static final int DEFAULT_MONGO_STATEMENT_MAX_LENGTH = 4096;
+  private static final int DEFAULT_MONGO_STATEMENT_MAX_DEPTH = 32;
+  private static final int DEFAULT_ERROR_STACK_MAX_FRAMES = 256;
+  private static final int DEFAULT_ERROR_STACK_MAX_BYTES = 32 * 1024;
+  private static final int DEFAULT_ERROR_STACK_CACHE_SIZE = 1000;
 
   public static final boolean DEFAULT_LOGS_INJECTION_ENABLED = false;
 
@@ -77,17 +131,82 @@ public class Config {
   private static final boolean DEFAULT_TRACE_EXECUTORS_ALL = false;
   private static final String DEFAULT_TRACE_EXECUTORS = "";
   private static final String DEFAULT_TRACE_METHODS = null;
-
+  private static final String DEFAULT_TYPE_MATCH_CACHE_FILE = null;
+  private static final int DEFAULT_SHARED_TYPE_CACHE_SIZE = 10000;
+  private static final String DEFAULT_GRPC_MESSAGE_MODE = "aggregate";
+  private static final int DEFAULT_GRPC_MESSAGE_EVENT_INTERVAL = 100;
+  private static final String DEFAULT_KAFKA_CONSUMER_BATCH_GROUPS = "";
+  private static final int DEFAULT_KAFKA_CONSUMER_BATCH_MAX_LINKS = 16;
+  private static final boolean DEFAULT_TRACE_SAMPLER_PARENT_BASED = true;
+  private static final float DEFAULT_TRACE_SAMPLER_PROBABILITY = 1.0f;
+  private static final int DEFAULT_TRACE_SAMPLER_RATE_LIMIT = 0;
+  private static final boolean DEFAULT_TAIL_SAMPLING_ENABLED = false;
+  private static final int DEFAULT_TAIL_SAMPLING_LATENCY_THRESHOLD_MILLIS = 1000;
+  private static final int DEFAULT_TAIL_SAMPLING_DECISION_TIMEOUT_MILLIS = 10000;
+  private static final int DEFAULT_TAIL_SAMPLING_MAX_SPANS = 100000;
+  private static final int DEFAULT_TAIL_SAMPLING_MAX_BYTES = 64 * 1024 * 1024;
+  private static final String DEFAULT_TAIL_SAMPLING_KEEP_ATTRIBUTES = "";
+  private static final String DEFAULT_EXPORTER = null;
+  private static final String DEFAULT_EXPORTER_FILE = "opentelemetry-spans.json";
+  private static final int DEFAULT_EXPORTER_QUEUE_SIZE = 8192;
+  private static final int DEFAULT_EXPORTER_BATCH_SIZE = 512;
+  private static final int DEFAULT_EXPORTER_BATCH_DELAY_MILLIS = 1000;
+  private static final String DEFAULT_EXPORTER_JOURNAL_DIRECTORY = "opentelemetry-journal";
+  private static final int DEFAULT_EXPORTER_JOURNAL_SEGMENT_SIZE = 64 * 1024 * 1024;
+  private static final int DEFAULT_EXPORTER_JOURNAL_MAX_SEGMENTS = 16;
+  private static final boolean DEFAULT_METRICS_ENABLED = false;
+  private static final String DEFAULT_METRICS_FILE = "opentelemetry-metrics.json";
+  private static final int DEFAULT_METRICS_INTERVAL_MILLIS = 60000;
+  private static final int DEFAULT_METRICS_MAX_SPANS_IN_FLIGHT = 16384;
+
+  @Getter private final boolean configurationFileWatch;
   @Getter private final boolean traceEnabled;
+  @Getter private final boolean traceDormant;
   @Getter private final boolean integrationsEnabled;
   @Getter private final List<String> excludedClasses;
   @Getter private final Set<Integer> httpServerErrorStatuses;
   @Getter private final Set<Integer> httpClientErrorStatuses;
+  // The error statuses as bit sets, so that decorators look them up without boxing.
+  @ToString.Exclude private final BitSet httpServerErrorStatusBits;
+  @ToString.Exclude private final BitSet httpClientErrorStatusBits;
   @Getter private final boolean httpServerTagQueryString;
   @Getter private final boolean httpClientTagQueryString;
   @Getter private final boolean httpClientSplitByDomain;
   @Getter private final boolean dbClientSplitByInstance;
+  @Getter private final boolean jdbcDoubleQuotedStrings;
+  @Getter private final int mongoStatementMaxLength;
+  @Getter private final int mongoStatementMaxDepth;
   @Getter private final boolean runtimeContextFieldInjection;
+  @Getter private final int errorStackMaxFrames;
+  @Getter private final int errorStackMaxBytes;
+  @Getter private final int errorStackCacheSize;
+  @Getter private final String typeMatchCacheFile;
+  @Getter private final int sharedTypeCacheSize;
+  @Getter private final String grpcMessageMode;
+  @Getter private final int grpcMessageEventInterval;
+  @Getter private final List<String> kafkaConsumerBatchGroups;
+  @Getter private final int kafkaConsumerBatchMaxLinks;
+  @Getter private final boolean traceSamplerParentBased;
+  @Getter private final float traceSamplerProbability;
+  @Getter private final int traceSamplerRateLimit;
+  @Getter private final boolean tailSamplingEnabled;
+  @Getter private final int tailSamplingLatencyThresholdMillis;
+  @Getter private final int tailSamplingDecisionTimeoutMillis;
+  @Getter private final int tailSamplingMaxSpans;
+  @Getter private final int tailSamplingMaxBytes;
+  @Getter private final Map<String, String> tailSamplingKeepAttributes;
+  @Getter private final String exporter;
+  @Getter private final String exporterFile;
+  @Getter private final int exporterQueueSize;
+  @Getter private final int exporterBatchSize;
+  @Getter private final int exporterBatchDelayMillis;
+  @Getter private final String exporterJournalDirectory;
+  @Getter private final int exporterJournalSegmentSize;
+  @Getter private final int exporterJournalMaxSegments;
+  @Getter private final boolean metricsEnabled;
+  @Getter private final String metricsFile;
+  @Getter private final int metricsIntervalMillis;
+  @Getter private final int metricsMaxSpansInFlight;
 
   @Getter private final boolean logsInjectionEnabled;
 
@@ -99,14 +218,18 @@ public class Config {
   @Getter private final List<String> traceExecutors;
 
   // Values from an optionally provided properties file
-  private static Properties propertiesFromConfigFile;
+  private static volatile Properties propertiesFromConfigFile;
 
   // Read order: System Properties -> Env Variables, [-> properties file], [-> default value]
   // Visible for testing
   Config() {
     propertiesFromConfigFile = loadConfigurationFile();
 
+    configurationFileWatch =
+        getBooleanSettingFromEnvironment(
+            CONFIGURATION_FILE_WATCH, DEFAULT_CONFIGURATION_FILE_WATCH);
     traceEnabled = getBooleanSettingFromEnvironment(TRACE_ENABLED, DEFAULT_TRACE_ENABLED);
+    traceDormant = getBooleanSettingFromEnvironment(TRACE_DORMANT, DEFAULT_TRACE_DORMANT);
     integrationsEnabled =
         getBooleanSettingFromEnvironment(INTEGRATIONS_ENABLED, DEFAULT_INTEGRATIONS_ENABLED);
 
@@ -136,10 +259,99 @@ public class Config {
         getBooleanSettingFromEnvironment(
             DB_CLIENT_HOST_SPLIT_BY_INSTANCE, DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE);
 
+    jdbcDoubleQuotedStrings =
+        getBooleanSettingFromEnvironment(
+            JDBC_DOUBLE_QUOTED_STRINGS, DEFAULT_JDBC_DOUBLE_QUOTED_STRINGS);
+
+    mongoStatementMaxLength =
+        getIntegerSettingFromEnvironment(
+            MONGO_STATEMENT_MAX_LENGTH, DEFAULT_MONGO_STATEMENT_MAX_LENGTH);
+    mongoStatementMaxDepth =
+        getIntegerSettingFromEnvironment(
+            MONGO_STATEMENT_MAX_DEPTH, DEFAULT_MONGO_STATEMENT_MAX_DEPTH);
+
     runtimeContextFieldInjection =
         getBooleanSettingFromEnvironment(
             RUNTIME_CONTEXT_FIELD_INJECTION, DEFAULT_RUNTIME_CONTEXT_FIELD_INJECTION);
 
+    errorStackMaxFrames =
+        getIntegerSettingFromEnvironment(ERROR_STACK_MAX_FRAMES, DEFAULT_ERROR_STACK_MAX_FRAMES);
+    errorStackMaxBytes =
+        getIntegerSettingFromEnvironment(ERROR_STACK_MAX_BYTES, DEFAULT_ERROR_STACK_MAX_BYTES);
+    errorStackCacheSize =
+        getIntegerSettingFromEnvironment(ERROR_STACK_CACHE_SIZE, DEFAULT_ERROR_STACK_CACHE_SIZE);
+
+    typeMatchCacheFile =
+        getSettingFromEnvironment(TYPE_MATCH_CACHE_FILE, DEFAULT_TYPE_MATCH_CACHE_FILE);
+
+    sharedTypeCacheSize =
+        getIntegerSettingFromEnvironment(SHARED_TYPE_CACHE_SIZE, DEFAULT_SHARED_TYPE_CACHE_SIZE);
+
+    grpcMessageMode = getSettingFromEnvironment(GRPC_MESSAGE_MODE, DEFAULT_GRPC_MESSAGE_MODE);
+    grpcMessageEventInterval =
+        getIntegerSettingFromEnvironment(
+            GRPC_MESSAGE_EVENT_INTERVAL, DEFAULT_GRPC_MESSAGE_EVENT_INTERVAL);
+
+    kafkaConsumerBatchGroups =
+        getListSettingFromEnvironment(
+            KAFKA_CONSUMER_BATCH_GROUPS, DEFAULT_KAFKA_CONSUMER_BATCH_GROUPS);
+    kafkaConsumerBatchMaxLinks =
+        getIntegerSettingFromEnvironment(
+            KAFKA_CONSUMER_BATCH_MAX_LINKS, DEFAULT_KAFKA_CONSUMER_BATCH_MAX_LINKS);
+
+    traceSamplerParentBased =
+        getBooleanSettingFromEnvironment(
+            TRACE_SAMPLER_PARENT_BASED, DEFAULT_TRACE_SAMPLER_PARENT_BASED);
+    traceSamplerProbability =
+        getFloatSettingFromEnvironment(
+            TRACE_SAMPLER_PROBABILITY, DEFAULT_TRACE_SAMPLER_PROBABILITY);
+    traceSamplerRateLimit =
+        getIntegerSettingFromEnvironment(
+            TRACE_SAMPLER_RATE_LIMIT, DEFAULT_TRACE_SAMPLER_RATE_LIMIT);
+
+    tailSamplingEnabled =
+        getBooleanSettingFromEnvironment(TAIL_SAMPLING_ENABLED, DEFAULT_TAIL_SAMPLING_ENABLED);
+    tailSamplingLatencyThresholdMillis =
+        getIntegerSettingFromEnvironment(
+            TAIL_SAMPLING_LATENCY_THRESHOLD_MILLIS,
+            DEFAULT_TAIL_SAMPLING_LATENCY_THRESHOLD_MILLIS);
+    tailSamplingDecisionTimeoutMillis =
+        getIntegerSettingFromEnvironment(
+            TAIL_SAMPLING_DECISION_TIMEOUT_MILLIS, DEFAULT_TAIL_SAMPLING_DECISION_TIMEOUT_MILLIS);
+    tailSamplingMaxSpans =
+        getIntegerSettingFromEnvironment(TAIL_SAMPLING_MAX_SPANS, DEFAULT_TAIL_SAMPLING_MAX_SPANS);
+    tailSamplingMaxBytes =
+        getIntegerSettingFromEnvironment(TAIL_SAMPLING_MAX_BYTES, DEFAULT_TAIL_SAMPLING_MAX_BYTES);
+    tailSamplingKeepAttributes =
+        getMapSettingFromEnvironment(
+            TAIL_SAMPLING_KEEP_ATTRIBUTES, DEFAULT_TAIL_SAMPLING_KEEP_ATTRIBUTES);
+
+    exporter = getSettingFromEnvironment(EXPORTER, DEFAULT_EXPORTER);
+    exporterFile = getSettingFromEnvironment(EXPORTER_FILE, DEFAULT_EXPORTER_FILE);
+    exporterQueueSize =
+        getIntegerSettingFromEnvironment(EXPORTER_QUEUE_SIZE, DEFAULT_EXPORTER_QUEUE_SIZE);
+    exporterBatchSize =
+        getIntegerSettingFromEnvironment(EXPORTER_BATCH_SIZE, DEFAULT_EXPORTER_BATCH_SIZE);
+    exporterBatchDelayMillis =
+        getIntegerSettingFromEnvironment(
+            EXPORTER_BATCH_DELAY_MILLIS, DEFAULT_EXPORTER_BATCH_DELAY_MILLIS);
+    exporterJournalDirectory =
+        getSettingFromEnvironment(EXPORTER_JOURNAL_DIRECTORY, DEFAULT_EXPORTER_JOURNAL_DIRECTORY);
+    exporterJournalSegmentSize =
+        getIntegerSettingFromEnvironment(
+            EXPORTER_JOURNAL_SEGMENT_SIZE, DEFAULT_EXPORTER_JOURNAL_SEGMENT_SIZE);
+    exporterJournalMaxSegments =
+        getIntegerSettingFromEnvironment(
+            EXPORTER_JOURNAL_MAX_SEGMENTS, DEFAULT_EXPORTER_JOURNAL_MAX_SEGMENTS);
+
+    metricsEnabled = getBooleanSettingFromEnvironment(METRICS_ENABLED, DEFAULT_METRICS_ENABLED);
+    metricsFile = getSettingFromEnvironment(METRICS_FILE, DEFAULT_METRICS_FILE);
+    metricsIntervalMillis =
+        getIntegerSettingFromEnvironment(METRICS_INTERVAL_MILLIS, DEFAULT_METRICS_INTERVAL_MILLIS);
+    metricsMaxSpansInFlight =
+        getIntegerSettingFromEnvironment(
+            METRICS_MAX_SPANS_IN_FLIGHT, DEFAULT_METRICS_MAX_SPANS_IN_FLIGHT);
+
     logsInjectionEnabled =
         getBooleanSettingFromEnvironment(LOGS_INJECTION_ENABLED, DEFAULT_LOGS_INJECTION_ENABLED);
 
@@ -152,13 +364,20 @@ public class Config {
 
     traceExecutors = getListSettingFromEnvironment(TRACE_EXECUTORS, DEFAULT_TRACE_EXECUTORS);
 
+    httpServerErrorStatusBits = toBitSet(httpServerErrorStatuses);
+    httpClientErrorStatusBits = toBitSet(httpClientErrorStatuses);
+
     log.debug("New instance: {}", this);
   }
 
   // Read order: Properties -> Parent
   private Config(final Properties properties, final Config parent) {
 
+    configurationFileWatch =
+        getPropertyBooleanValue(
+            properties, CONFIGURATION_FILE_WATCH, parent.configurationFileWatch);
     traceEnabled = getPropertyBooleanValue(properties, TRACE_ENABLED, parent.traceEnabled);
+    traceDormant = getPropertyBooleanValue(properties, TRACE_DORMANT, parent.traceDormant);
     integrationsEnabled =
         getPropertyBooleanValue(properties, INTEGRATIONS_ENABLED, parent.integrationsEnabled);
 
@@ -189,10 +408,100 @@ public class Config {
         getPropertyBooleanValue(
             properties, DB_CLIENT_HOST_SPLIT_BY_INSTANCE, parent.dbClientSplitByInstance);
 
+    jdbcDoubleQuotedStrings =
+        getPropertyBooleanValue(
+            properties, JDBC_DOUBLE_QUOTED_STRINGS, parent.jdbcDoubleQuotedStrings);
+
+    mongoStatementMaxLength =
+        getPropertyIntegerValue(
+            properties, MONGO_STATEMENT_MAX_LENGTH, parent.mongoStatementMaxLength);
+    mongoStatementMaxDepth =
+        getPropertyIntegerValue(
+            properties, MONGO_STATEMENT_MAX_DEPTH, parent.mongoStatementMaxDepth);
+
     runtimeContextFieldInjection =
         getPropertyBooleanValue(
             properties, RUNTIME_CONTEXT_FIELD_INJECTION, parent.runtimeContextFieldInjection);
 
+    errorStackMaxFrames =
+        getPropertyIntegerValue(properties, ERROR_STACK_MAX_FRAMES, parent.errorStackMaxFrames);
+    errorStackMaxBytes =
+        getPropertyIntegerValue(properties, ERROR_STACK_MAX_BYTES, parent.errorStackMaxBytes);
+    errorStackCacheSize =
+        getPropertyIntegerValue(properties, ERROR_STACK_CACHE_SIZE, parent.errorStackCacheSize);
+
+    typeMatchCacheFile = properties.getProperty(TYPE_MATCH_CACHE_FILE, parent.typeMatchCacheFile);
+
+    sharedTypeCacheSize =
+        getPropertyIntegerValue(properties, SHARED_TYPE_CACHE_SIZE, parent.sharedTypeCacheSize);
+
+    grpcMessageMode = properties.getProperty(GRPC_MESSAGE_MODE, parent.grpcMessageMode);
+    grpcMessageEventInterval =
+        getPropertyIntegerValue(
+            properties, GRPC_MESSAGE_EVENT_INTERVAL, parent.grpcMessageEventInterval);
+
+    kafkaConsumerBatchGroups =
+        getPropertyListValue(
+            properties, KAFKA_CONSUMER_BATCH_GROUPS, parent.kafkaConsumerBatchGroups);
+    kafkaConsumerBatchMaxLinks =
+        getPropertyIntegerValue(
+            properties, KAFKA_CONSUMER_BATCH_MAX_LINKS, parent.kafkaConsumerBatchMaxLinks);
+
+    traceSamplerParentBased =
+        getPropertyBooleanValue(
+            properties, TRACE_SAMPLER_PARENT_BASED, parent.traceSamplerParentBased);
+    traceSamplerProbability =
+        getPropertyFloatValue(
+            properties, TRACE_SAMPLER_PROBABILITY, parent.traceSamplerProbability);
+    traceSamplerRateLimit =
+        getPropertyIntegerValue(properties, TRACE_SAMPLER_RATE_LIMIT, parent.traceSamplerRateLimit);
+
+    tailSamplingEnabled =
+        getPropertyBooleanValue(properties, TAIL_SAMPLING_ENABLED, parent.tailSamplingEnabled);
+    tailSamplingLatencyThresholdMillis =
+        getPropertyIntegerValue(
+            properties,
+            TAIL_SAMPLING_LATENCY_THRESHOLD_MILLIS,
+            parent.tailSamplingLatencyThresholdMillis);
+    tailSamplingDecisionTimeoutMillis =
+        getPropertyIntegerValue(
+            properties,
+            TAIL_SAMPLING_DECISION_TIMEOUT_MILLIS,
+            parent.tailSamplingDecisionTimeoutMillis);
+    tailSamplingMaxSpans =
+        getPropertyIntegerValue(properties, TAIL_SAMPLING_MAX_SPANS, parent.tailSamplingMaxSpans);
+    tailSamplingMaxBytes =
+        getPropertyIntegerValue(properties, TAIL_SAMPLING_MAX_BYTES, parent.tailSamplingMaxBytes);
+    tailSamplingKeepAttributes =
+        getPropertyMapValue(
+            properties, TAIL_SAMPLING_KEEP_ATTRIBUTES, parent.tailSamplingKeepAttributes);
+
+    exporter = properties.getProperty(EXPORTER, parent.exporter);
+    exporterFile = properties.getProperty(EXPORTER_FILE, parent.exporterFile);
+    exporterQueueSize =
+        getPropertyIntegerValue(properties, EXPORTER_QUEUE_SIZE, parent.exporterQueueSize);
+    exporterBatchSize =
+        getPropertyIntegerValue(properties, EXPORTER_BATCH_SIZE, parent.exporterBatchSize);
+    exporterBatchDelayMillis =
+        getPropertyIntegerValue(
+            properties, EXPORTER_BATCH_DELAY_MILLIS, parent.exporterBatchDelayMillis);
+    exporterJournalDirectory =
+        properties.getProperty(EXPORTER_JOURNAL_DIRECTORY, parent.exporterJournalDirectory);
+    exporterJournalSegmentSize =
+        getPropertyIntegerValue(
+            properties, EXPORTER_JOURNAL_SEGMENT_SIZE, parent.exporterJournalSegmentSize);
+    exporterJournalMaxSegments =
+        getPropertyIntegerValue(
+            properties, EXPORTER_JOURNAL_MAX_SEGMENTS, parent.exporterJournalMaxSegments);
+
+    metricsEnabled = getPropertyBooleanValue(properties, METRICS_ENABLED, parent.metricsEnabled);
+    metricsFile = properties.getProperty(METRICS_FILE, parent.metricsFile);
+    metricsIntervalMillis =
+        getPropertyIntegerValue(properties, METRICS_INTERVAL_MILLIS, parent.metricsIntervalMillis);
+    metricsMaxSpansInFlight =
+        getPropertyIntegerValue(
+            properties, METRICS_MAX_SPANS_IN_FLIGHT, parent.metricsMaxSpansInFlight);
+
     logsInjectionEnabled =
         getBooleanSettingFromEnvironment(LOGS_INJECTION_ENABLED, DEFAULT_LOGS_INJECTION_ENABLED);
 
@@ -204,9 +513,30 @@ public class Config {
         getPropertyBooleanValue(properties, TRACE_EXECUTORS_ALL, parent.traceExecutorsAll);
     traceExecutors = getPropertyListValue(properties, TRACE_EXECUTORS, parent.traceExecutors);
 
+    httpServerErrorStatusBits = toBitSet(httpServerErrorStatuses);
+    httpClientErrorStatusBits = toBitSet(httpClientErrorStatuses);
+
     log.debug("New instance: {}", this);
   }
 
+  public boolean isHttpServerErrorStatus(final int status) {
+    return status >= 0 && httpServerErrorStatusBits.get(status);
+  }
+
+  public boolean isHttpClientErrorStatus(final int status) {
+    return status >= 0 && httpClientErrorStatusBits.get(status);
+  }
+
+  private static BitSet toBitSet(final Set<Integer> statuses) {
+    final BitSet bits = new BitSet();
+    for (final Integer status : statuses) {
+      if (status != null && status >= 0) {
+        bits.set(status);
+      }
+    }
+    return bits;
+  }
+
   public boolean isIntegrationEnabled(
       final SortedSet<String> integrationNames, final boolean defaultEnabled) {
     return integrationEnabled(integrationNames, defaultEnabled);
@@ -283,6 +613,15 @@ public class Config {
     return parseList(getSettingFromEnvironment(name, defaultValue));
   }
 
+  /**
+   * Calls {@link #getSettingFromEnvironment(String, String)} and converts the result to a map of
+   * {@code key1:value1,key2:value2}.
+   */
+  private static Map<String, String> getMapSettingFromEnvironment(
+      final String name, final String defaultValue) {
+    return parseMap(getSettingFromEnvironment(name, defaultValue), name);
+  }
+
   /**
    * Calls {@link #getSettingFromEnvironment(String, String)} and converts the result to a Boolean.
    *
@@ -407,6 +746,12 @@ public class Config {
     return value == null || value.trim().isEmpty() ? defaultValue : Integer.valueOf(value);
   }
 
+  private static Float getPropertyFloatValue(
+      final Properties properties, final String name, final Float defaultValue) {
+    final String value = properties.getProperty(name);
+    return value == null || value.trim().isEmpty() ? defaultValue : Float.valueOf(value);
+  }
+
   private static <T extends Enum<T>> Set<T> getPropertySetValue(
       final Properties properties, final String name, final Class<T> clazz) {
     final String value = properties.getProperty(name);
@@ -548,23 +893,13 @@ public class Config {
   private static Properties loadConfigurationFile() {
     final Properties properties = new Properties();
 
-    // Reading from system property first and from env after
-    String configurationFilePath =
-        System.getProperty(propertyNameToSystemPropertyName(CONFIGURATION_FILE));
-    if (null == configurationFilePath) {
-      configurationFilePath =
-          System.getenv(propertyNameToEnvironmentVariableName(CONFIGURATION_FILE));
-    }
-    if (null == configurationFilePath) {
+    final File configurationFile = getConfigurationFile();
+    if (null == configurationFile) {
       return properties;
     }
-
-    // Normalizing tilde (~) paths for unix systems
-    configurationFilePath =
-        configurationFilePath.replaceFirst("^~", System.getProperty("user.home"));
+    final String configurationFilePath = configurationFile.getPath();
 
     // Configuration properties file is optional
-    final File configurationFile = new File(configurationFilePath);
     if (!configurationFile.exists()) {
       log.error("Configuration file '{}' not found.", configurationFilePath);
       return properties;
@@ -583,13 +918,90 @@ public class Config {
     return properties;
   }
 
+  /** @return the configuration file set by {@link #CONFIGURATION_FILE}, or null if there is none */
+  static File getConfigurationFile() {
+    // Reading from system property first and from env after
+    String configurationFilePath =
+        System.getProperty(propertyNameToSystemPropertyName(CONFIGURATION_FILE));
+    if (null == configurationFilePath) {
+      configurationFilePath =
+          System.getenv(propertyNameToEnvironmentVariableName(CONFIGURATION_FILE));
+    }
+    if (null == configurationFilePath) {
+      return null;
+    }
+
+    // Normalizing tilde (~) paths for unix systems
+    return new File(configurationFilePath.replaceFirst("^~", System.getProperty("user.home")));
+  }
+
+  /** Notified with the new snapshot whenever the configuration is reloaded. */
+  public interface Listener {
+    void onChange(Config config);
+  }
+
+  // Guarded by itself, which also orders the snapshots each listener sees.
+  private static final List<WeakReference<Listener>> LISTENERS = new ArrayList<>();
+
   // This has to be placed after all other static fields to give them a chance to initialize
-  private static final Config INSTANCE = new Config();
+  private static volatile Config INSTANCE = new Config();
 
   public static Config get() {
     return INSTANCE;
   }
 
+  /**
+   * Calls the listener with the current configuration, and again with every reloaded one.
+   *
+   * <p>Listeners are held weakly so that they do not pin the class loaders of instrumented
+   * applications. Callers have to keep a reference, e.g. in a static field. Subscribe once per
+   * component rather than per instance; per-request objects should read {@link #get()} instead.
+   */
+  public static void subscribe(final Listener listener) {
+    synchronized (LISTENERS) {
+      removeCleared();
+      LISTENERS.add(new WeakReference<>(listener));
+      listener.onChange(INSTANCE);
+    }
+  }
+
+  /** Re-reads all settings, including the configuration file, and notifies the listeners. */
+  public static Config reload() {
+    synchronized (LISTENERS) {
+      final Config config = new Config();
+      publish(config);
+      return config;
+    }
+  }
+
+  // Visible for testing
+  static void publish(final Config config) {
+    synchronized (LISTENERS) {
+      INSTANCE = config;
+      removeCleared();
+      for (final WeakReference<Listener> reference : new ArrayList<>(LISTENERS)) {
+        final Listener listener = reference.get();
+        if (listener == null) {
+          continue;
+        }
+        try {
+          listener.onChange(config);
+        } catch (final Throwable t) {
+          log.warn("Configuration listener {} failed", listener, t);
+        }
+      }
+    }
+  }
+
+  private static void removeCleared() {
+    final Iterator<WeakReference<Listener>> iterator = LISTENERS.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().get() == null) {
+        iterator.remove();
+      }
+    }
+  }
+
   public static Config get(final Properties properties) {
     if (properties == null || properties.isEmpty()) {
       return INSTANCE;
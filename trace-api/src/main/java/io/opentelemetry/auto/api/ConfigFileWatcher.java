@@ -0,0 +1,105 @@
+package io.opentelemetry.auto.api;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reloads {@link Config} whenever the file set by {@link Config#CONFIGURATION_FILE} changes.
+ *
+ * <p>The file's directory is watched with a {@link WatchService}, so no polling happens on
+ * platforms with native file change notification. Changes arriving within {@link #SETTLE_MILLIS}
+ * of each other, e.g. from an editor writing the file in several steps, cause a single reload.
+ * System properties and environment variables still take precedence over the file.
+ */
+@Slf4j
+public final class ConfigFileWatcher implements Runnable {
+  static final long SETTLE_MILLIS = 200;
+
+  private static volatile ConfigFileWatcher started;
+
+  private final WatchService watchService;
+  private final Path file;
+
+  ConfigFileWatcher(final WatchService watchService, final Path file) {
+    this.watchService = watchService;
+    this.file = file;
+  }
+
+  /**
+   * Starts watching the configuration file if {@link Config#CONFIGURATION_FILE_WATCH} is set.
+   * Does nothing if it is already watched.
+   */
+  public static synchronized void startIfEnabled() {
+    if (started != null || !Config.get().isConfigurationFileWatch()) {
+      return;
+    }
+    final File configurationFile = Config.getConfigurationFile();
+    if (configurationFile == null) {
+      log.warn("{} is set, but there is no configuration file.", Config.CONFIGURATION_FILE_WATCH);
+      return;
+    }
+    final Path file = configurationFile.getAbsoluteFile().toPath();
+    try {
+      final WatchService watchService = FileSystems.getDefault().newWatchService();
+      file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+      started = new ConfigFileWatcher(watchService, file);
+    } catch (final IOException e) {
+      log.warn("Cannot watch configuration file '{}'", file, e);
+      return;
+    }
+    final Thread thread = new Thread(started, "agent-config-watcher");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    thread.start();
+    log.debug("Watching configuration file '{}'", file);
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (true) {
+        if (awaitChange()) {
+          log.debug("Configuration file '{}' changed, reloading", file);
+          Config.reload();
+        }
+      }
+    } catch (final InterruptedException | ClosedWatchServiceException e) {
+      // Stop watching.
+    }
+  }
+
+  /** @return whether the configuration file changed */
+  boolean awaitChange() throws InterruptedException {
+    WatchKey key = watchService.take();
+    boolean changed = false;
+    while (key != null) {
+      changed |= isConfigurationFileEvent(key);
+      key.reset();
+      key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    return changed;
+  }
+
+  private boolean isConfigurationFileEvent(final WatchKey key) {
+    boolean found = false;
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      // Events may have been lost on overflow, so the file may have changed.
+      if (event.kind() == OVERFLOW || file.getFileName().equals(event.context())) {
+        found = true;
+      }
+    }
+    return found;
+  }
+}
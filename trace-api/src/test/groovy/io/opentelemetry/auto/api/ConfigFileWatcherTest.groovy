@@ -0,0 +1,32 @@
+package io.opentelemetry.auto.api
+
+import io.opentelemetry.auto.util.test.AgentSpecification
+
+import java.nio.file.FileSystems
+import java.nio.file.Files
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY
+
+class ConfigFileWatcherTest extends AgentSpecification {
+
+  def "changes to the configuration file are detected"() {
+    setup:
+    def directory = Files.createTempDirectory("config-watch")
+    def file = directory.resolve("agent.properties")
+    Files.write(file, "opentelemetry.auto.trace.enabled=true".bytes)
+    def watchService = FileSystems.default.newWatchService()
+    directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY)
+    def watcher = new ConfigFileWatcher(watchService, file)
+
+    when:
+    Files.write(file, "opentelemetry.auto.trace.enabled=false".bytes)
+
+    then:
+    watcher.awaitChange()
+
+    cleanup:
+    watchService?.close()
+    directory.toFile().deleteDir()
+  }
+}
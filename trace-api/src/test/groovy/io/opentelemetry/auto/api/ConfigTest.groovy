@@ -279,6 +279,11 @@ class ConfigTest extends AgentSpecification {
       assert propConfig.httpServerErrorStatuses == Config.DEFAULT_HTTP_SERVER_ERROR_STATUSES
       assert propConfig.httpClientErrorStatuses == Config.DEFAULT_HTTP_CLIENT_ERROR_STATUSES
     }
+    (0..1000).every {
+      config.isHttpServerErrorStatus(it) == config.httpServerErrorStatuses.contains(it) &&
+        propConfig.isHttpClientErrorStatus(it) == propConfig.httpClientErrorStatuses.contains(it)
+    }
+    !config.isHttpServerErrorStatus(-1)
 
     where:
     value               | expected // null means default value
@@ -354,4 +359,34 @@ class ConfigTest extends AgentSpecification {
     cleanup:
     System.clearProperty(PREFIX + CONFIGURATION_FILE)
   }
+
+  def "reload re-reads the properties file and notifies listeners"() {
+    setup:
+    def file = File.createTempFile("config-reload", ".properties")
+    file.text = "opentelemetry.auto.trace.methods=mypackage.MyClass[myMethod]"
+    System.setProperty(PREFIX + CONFIGURATION_FILE, file.path)
+    def previous = Config.get()
+    def notified = []
+    def listener = new Config.Listener() {
+      @Override
+      void onChange(Config config) {
+        notified.add(config.traceMethods)
+      }
+    }
+
+    when:
+    Config.reload()
+    Config.subscribe(listener)
+    file.text = "opentelemetry.auto.trace.methods=mypackage2.MyClass2[myMethod2]"
+    def reloaded = Config.reload()
+
+    then:
+    Config.get().is(reloaded)
+    notified == ["mypackage.MyClass[myMethod]", "mypackage2.MyClass2[myMethod2]"]
+
+    cleanup:
+    System.clearProperty(PREFIX + CONFIGURATION_FILE)
+    Config.publish(previous)
+    file.delete()
+  }
 }